@@ -0,0 +1,48 @@
+package com.codi.prismkit.benchmark;
+
+import com.codi.prismkit.math.curve.CurveClampMode;
+import com.codi.prismkit.math.curve.CurvePivotPoint;
+import com.codi.prismkit.math.curve.PrismCurve;
+import org.joml.Vector2d;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 基准测试用的合成曲线
+ * 使用固定种子生成，保证每次运行的输入完全一致
+ */
+final class BenchmarkCurves {
+
+    private BenchmarkCurves() {
+    }
+
+    /**
+     * 生成指定段数的曲线：枢纽点在 [0, 1] 上等距分布，y 值和切线随机
+     */
+    static PrismCurve create(String name, int segmentCount, CurveClampMode clampMode, long seed) {
+        Random random = new Random(seed);
+        List<CurvePivotPoint> pivotPoints = new ArrayList<>(segmentCount + 1);
+        double handleLength = 1.0 / (segmentCount * 3.0);
+        for (int i = 0; i <= segmentCount; i++) {
+            float x = i / (float) segmentCount;
+            float y = random.nextFloat();
+            Vector2d tangent = new Vector2d(handleLength, (random.nextDouble() - 0.5) * handleLength);
+            pivotPoints.add(CurvePivotPoint.createSmoothPivotPoint(x, y, tangent));
+        }
+        return new PrismCurve(name, pivotPoints, clampMode);
+    }
+
+    /**
+     * 生成一组输入 x 值，覆盖 [-0.5, 1.5] 以同时测试边界处理
+     */
+    static float[] inputs(int count, long seed) {
+        Random random = new Random(seed);
+        float[] xs = new float[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = random.nextFloat() * 2.0f - 0.5f;
+        }
+        return xs;
+    }
+}
@@ -0,0 +1,35 @@
+package com.codi.prismkit.benchmark;
+
+import com.codi.prismkit.math.curve.CurveClampMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CurveClampMode.apply 的开销（每次曲线求值都会经过这里）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ClampModeBenchmark {
+
+    @Param({"CLAMP", "REPEAT", "MIRROR"})
+    public CurveClampMode clampMode;
+
+    private float[] inputs;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        inputs = BenchmarkCurves.inputs(1024, 7L);
+    }
+
+    @Benchmark
+    public float apply() {
+        index = (index + 1) & 1023;
+        return clampMode.apply(inputs[index]);
+    }
+}
@@ -0,0 +1,49 @@
+package com.codi.prismkit.benchmark;
+
+import com.codi.prismkit.math.curve.CurveClampMode;
+import com.codi.prismkit.math.curve.PrismCurve;
+import com.codi.prismkit.math.curve.PrismCurveCodec;
+import com.codi.prismkit.math.curve.PrismCurveLibrary;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 完整加载曲线目录（即 config/prismkit/curves）的开销
+ * 合成曲线库：1000 个 JSON 文件，每条曲线 8 段
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigDirectoryLoadBenchmark {
+
+    private static final int LIBRARY_SIZE = 1000;
+
+    private PrismCurveLibrary library;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Path curvesDir = Files.createTempDirectory("prismkit-load-bench");
+        library = new PrismCurveLibrary();
+        library.setCurvesDirectory(curvesDir);
+
+        Gson gson = PrismCurveCodec.createGson();
+        for (int i = 0; i < LIBRARY_SIZE; i++) {
+            PrismCurve curve = BenchmarkCurves.create("curve_" + i, 8, CurveClampMode.CLAMP, i);
+            Files.writeString(curvesDir.resolve(curve.getName() + ".json"), gson.toJson(curve, PrismCurve.class));
+        }
+    }
+
+    @Benchmark
+    public int loadCurvesFromDirectory() {
+        library.clear();
+        return library.loadCurvesFromDirectory();
+    }
+}
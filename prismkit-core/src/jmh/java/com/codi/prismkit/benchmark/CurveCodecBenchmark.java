@@ -0,0 +1,45 @@
+package com.codi.prismkit.benchmark;
+
+import com.codi.prismkit.math.curve.CurveClampMode;
+import com.codi.prismkit.math.curve.PrismCurve;
+import com.codi.prismkit.math.curve.PrismCurveCodec;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PrismCurveCodec 的解析与序列化开销
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CurveCodecBenchmark {
+
+    @Param({"4", "64"})
+    public int segments;
+
+    private Gson gson;
+    private PrismCurve curve;
+    private String json;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        gson = PrismCurveCodec.createGson();
+        curve = BenchmarkCurves.create("codec_bench", segments, CurveClampMode.CLAMP, 42L);
+        json = gson.toJson(curve, PrismCurve.class);
+    }
+
+    @Benchmark
+    public PrismCurve parse() {
+        return gson.fromJson(json, PrismCurve.class);
+    }
+
+    @Benchmark
+    public String serialize() {
+        return gson.toJson(curve, PrismCurve.class);
+    }
+}
@@ -0,0 +1,43 @@
+package com.codi.prismkit.benchmark;
+
+import com.codi.prismkit.math.curve.CurveClampMode;
+import com.codi.prismkit.math.curve.PrismCurve;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PrismCurve.getValue 的求值开销
+ * 覆盖 1 / 4 / 16 / 64 段 × 每种 CurveClampMode
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CurveEvaluationBenchmark {
+
+    @Param({"1", "4", "16", "64"})
+    public int segments;
+
+    @Param({"CLAMP", "REPEAT", "MIRROR"})
+    public CurveClampMode clampMode;
+
+    private PrismCurve curve;
+    private float[] inputs;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // 曲线不注册到 PrismCurveLibrary，不会被自动烘焙，测到的是精确路径
+        curve = BenchmarkCurves.create("bench", segments, clampMode, 42L);
+        inputs = BenchmarkCurves.inputs(1024, 7L);
+    }
+
+    @Benchmark
+    public float getValue() {
+        index = (index + 1) & 1023;
+        return curve.getValue(inputs[index]);
+    }
+}
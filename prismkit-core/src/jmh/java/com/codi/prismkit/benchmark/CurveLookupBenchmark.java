@@ -0,0 +1,48 @@
+package com.codi.prismkit.benchmark;
+
+import com.codi.prismkit.math.curve.CurveClampMode;
+import com.codi.prismkit.math.curve.CurveTieringPolicy;
+import com.codi.prismkit.math.curve.PrismCurve;
+import com.codi.prismkit.math.curve.PrismCurveLibrary;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PrismCurveLibrary.getCurveValue 的按名称查找 + 求值开销
+ * 曲线库中放入 1000 条曲线，模拟大型整合包
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CurveLookupBenchmark {
+
+    private static final int LIBRARY_SIZE = 1000;
+
+    private PrismCurveLibrary library;
+    private String[] names;
+    private float[] inputs;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        library = new PrismCurveLibrary(CurveTieringPolicy.DISABLED);
+
+        names = new String[LIBRARY_SIZE];
+        for (int i = 0; i < LIBRARY_SIZE; i++) {
+            PrismCurve curve = BenchmarkCurves.create("curve_" + i, 8, CurveClampMode.CLAMP, i);
+            library.putCurve(curve);
+            names[i] = curve.getName();
+        }
+        inputs = BenchmarkCurves.inputs(1024, 7L);
+    }
+
+    @Benchmark
+    public float getCurveValue() {
+        index = (index + 1) & 1023;
+        return library.getCurveValue(names[index % LIBRARY_SIZE], inputs[index]);
+    }
+}
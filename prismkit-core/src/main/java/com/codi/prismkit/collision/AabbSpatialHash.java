@@ -0,0 +1,294 @@
+package com.codi.prismkit.collision;
+
+import java.util.Arrays;
+
+/**
+ * 轴对齐包围盒的均匀网格空间哈希
+ * 每个 tick 重建一次，供所有光束共享：光束沿射线只访问经过的单元，而不是各自扫描一个大包围盒
+ *
+ * 设计意图：
+ * - N 根光束各做一次 getEntities 包围盒扫描是 O(N × 实体数)；共享哈希后每根光束只看射线经过的几个单元
+ * - 全部数据是基本类型数组，重建时不分配对象（容量足够时）
+ * - 不依赖 Minecraft：包围盒用编号表示，调用方自行维护编号到实体的映射
+ *
+ * 技术细节：
+ * - 单元坐标打包为 long 作为键，开放寻址表的每个槽位指向该单元的条目链表头
+ * - 槽位带“代数”标记：clear 只把代数加一，旧槽位自动视为空，不需要清零整个表
+ * - 插入时包围盒按 margin 外扩后登记到覆盖的所有单元；查询半径不超过 margin 时，
+ *   只沿射线做 DDA 遍历单元就不会漏掉任何候选
+ * - 同一个包围盒可能出现在多个单元中，查询时用每个包围盒的查询标记去重
+ */
+public final class AabbSpatialHash {
+
+    private static final int INITIAL_BOXES = 64;
+    private static final int INITIAL_SLOTS = 256;
+
+    private final double cellSize;
+    private final double inverseCellSize;
+    private final double margin;
+
+    // ========== 包围盒 ==========
+    private double[] bounds = new double[INITIAL_BOXES * 6];
+    private int[] queryMarks = new int[INITIAL_BOXES];
+    private int boxCount;
+    private int queryMark;
+
+    // ========== 单元表（开放寻址） ==========
+    private long[] slotKeys = new long[INITIAL_SLOTS];
+    private int[] slotHeads = new int[INITIAL_SLOTS];
+    private int[] slotGenerations = new int[INITIAL_SLOTS];
+    private int usedSlots;
+    private int generation = 1;
+
+    // ========== 条目链表（单元 -> 包围盒） ==========
+    private int[] entryBoxes = new int[INITIAL_BOXES * 2];
+    private int[] entryNext = new int[INITIAL_BOXES * 2];
+    private int entryCount;
+
+    // 查询用的可复用访问器
+    private final RayQuery rayQuery = new RayQuery();
+
+    /**
+     * @param cellSize 单元边长
+     * @param margin 插入时包围盒的外扩量（即支持的最大查询半径）
+     * @throws IllegalArgumentException cellSize 不是正数或 margin 为负数
+     */
+    public AabbSpatialHash(double cellSize, double margin) {
+        if (!(cellSize > 0.0) || !(margin >= 0.0)) {
+            throw new IllegalArgumentException(
+                String.format("空间哈希参数无效：cellSize=%s, margin=%s", cellSize, margin)
+            );
+        }
+        this.cellSize = cellSize;
+        this.inverseCellSize = 1.0 / cellSize;
+        this.margin = margin;
+    }
+
+    /**
+     * 移除所有包围盒（每个 tick 重建前调用）
+     */
+    public void clear() {
+        boxCount = 0;
+        entryCount = 0;
+        usedSlots = 0;
+        generation++;
+    }
+
+    /**
+     * 添加一个包围盒
+     *
+     * @return 包围盒编号（从 0 开始按添加顺序递增）
+     */
+    public int add(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        if (boxCount == queryMarks.length) {
+            bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            queryMarks = Arrays.copyOf(queryMarks, queryMarks.length * 2);
+        }
+        int box = boxCount++;
+        int b = box * 6;
+        bounds[b] = minX;
+        bounds[b + 1] = minY;
+        bounds[b + 2] = minZ;
+        bounds[b + 3] = maxX;
+        bounds[b + 4] = maxY;
+        bounds[b + 5] = maxZ;
+        queryMarks[box] = 0;
+
+        int cellMinX = cell(minX - margin);
+        int cellMinY = cell(minY - margin);
+        int cellMinZ = cell(minZ - margin);
+        int cellMaxX = cell(maxX + margin);
+        int cellMaxY = cell(maxY + margin);
+        int cellMaxZ = cell(maxZ + margin);
+        for (int cx = cellMinX; cx <= cellMaxX; cx++) {
+            for (int cy = cellMinY; cy <= cellMaxY; cy++) {
+                for (int cz = cellMinZ; cz <= cellMaxZ; cz++) {
+                    insertEntry(cx, cy, cz, box);
+                }
+            }
+        }
+        return box;
+    }
+
+    public int size() {
+        return boxCount;
+    }
+
+    public double getMargin() {
+        return margin;
+    }
+
+    /**
+     * 查询与射线（外扩 radius 的胶囊近似为外扩的包围盒）相交的所有包围盒
+     *
+     * @param originX 起点 x
+     * @param originY 起点 y
+     * @param originZ 起点 z
+     * @param dirX 方向 x（单位向量）
+     * @param dirY 方向 y
+     * @param dirZ 方向 z
+     * @param length 射线长度
+     * @param radius 查询半径（包围盒在测试时按此外扩）
+     * @param out 输出的包围盒编号（不保证顺序，超出容量的部分被截断）
+     * @return 写入 out 的数量
+     * @throws IllegalArgumentException radius 超过插入时的 margin
+     */
+    public int queryRay(double originX, double originY, double originZ,
+                        double dirX, double dirY, double dirZ,
+                        double length, double radius, int[] out) {
+        if (radius > margin) {
+            throw new IllegalArgumentException(
+                String.format("查询半径 %s 超过空间哈希的外扩量 %s", radius, margin)
+            );
+        }
+        if (boxCount == 0) {
+            return 0;
+        }
+
+        RayQuery query = rayQuery;
+        query.begin(originX, originY, originZ, dirX, dirY, dirZ, length, radius, out);
+        // 在单元坐标中遍历：起点缩放到单元坐标，t 也随之缩放
+        VoxelRaycast.traverse(originX * inverseCellSize, originY * inverseCellSize, originZ * inverseCellSize,
+                dirX, dirY, dirZ, length * inverseCellSize, query);
+        return query.count;
+    }
+
+    // ========== 内部实现 ==========
+
+    private int cell(double coordinate) {
+        return (int) Math.floor(coordinate * inverseCellSize);
+    }
+
+    private static long packCell(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFFL) << 38 | ((long) y & 0xFFFL) << 26 | ((long) z & 0x3FFFFFFL);
+    }
+
+    private static int mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    /**
+     * 查找单元对应的槽位；不存在时返回 -1
+     */
+    private int findSlot(long key) {
+        int mask = slotKeys.length - 1;
+        int slot = mix(key) & mask;
+        while (slotGenerations[slot] == generation) {
+            if (slotKeys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void insertEntry(int cx, int cy, int cz, int box) {
+        if ((usedSlots + 1) * 2 > slotKeys.length) {
+            rehash(slotKeys.length * 2);
+        }
+
+        long key = packCell(cx, cy, cz);
+        int mask = slotKeys.length - 1;
+        int slot = mix(key) & mask;
+        while (slotGenerations[slot] == generation && slotKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (slotGenerations[slot] != generation) {
+            slotGenerations[slot] = generation;
+            slotKeys[slot] = key;
+            slotHeads[slot] = -1;
+            usedSlots++;
+        }
+
+        if (entryCount == entryBoxes.length) {
+            entryBoxes = Arrays.copyOf(entryBoxes, entryBoxes.length * 2);
+            entryNext = Arrays.copyOf(entryNext, entryNext.length * 2);
+        }
+        int entry = entryCount++;
+        entryBoxes[entry] = box;
+        entryNext[entry] = slotHeads[slot];
+        slotHeads[slot] = entry;
+    }
+
+    private void rehash(int newLength) {
+        long[] oldKeys = slotKeys;
+        int[] oldHeads = slotHeads;
+        int[] oldGenerations = slotGenerations;
+
+        slotKeys = new long[newLength];
+        slotHeads = new int[newLength];
+        slotGenerations = new int[newLength];
+        int mask = newLength - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldGenerations[i] != generation) {
+                continue;
+            }
+            int slot = mix(oldKeys[i]) & mask;
+            while (slotGenerations[slot] == generation) {
+                slot = (slot + 1) & mask;
+            }
+            slotGenerations[slot] = generation;
+            slotKeys[slot] = oldKeys[i];
+            slotHeads[slot] = oldHeads[i];
+        }
+    }
+
+    /**
+     * 射线查询的单元访问器（复用，单线程）
+     */
+    private final class RayQuery implements VoxelRaycast.VoxelVisitor {
+        private double originX;
+        private double originY;
+        private double originZ;
+        private double dirX;
+        private double dirY;
+        private double dirZ;
+        private double length;
+        private double radius;
+        private int[] out;
+        private int count;
+
+        void begin(double originX, double originY, double originZ, double dirX, double dirY, double dirZ,
+                   double length, double radius, int[] out) {
+            this.originX = originX;
+            this.originY = originY;
+            this.originZ = originZ;
+            this.dirX = dirX;
+            this.dirY = dirY;
+            this.dirZ = dirZ;
+            this.length = length;
+            this.radius = radius;
+            this.out = out;
+            this.count = 0;
+            queryMark++;
+        }
+
+        @Override
+        public boolean visit(int x, int y, int z, double tEnter) {
+            int slot = findSlot(packCell(x, y, z));
+            if (slot < 0) {
+                return false;
+            }
+            for (int entry = slotHeads[slot]; entry >= 0; entry = entryNext[entry]) {
+                int box = entryBoxes[entry];
+                if (queryMarks[box] == queryMark) {
+                    continue;
+                }
+                queryMarks[box] = queryMark;
+
+                int b = box * 6;
+                double t = VoxelRaycast.intersectAabb(originX, originY, originZ, dirX, dirY, dirZ, length,
+                        bounds[b] - radius, bounds[b + 1] - radius, bounds[b + 2] - radius,
+                        bounds[b + 3] + radius, bounds[b + 4] + radius, bounds[b + 5] + radius);
+                if (t >= 0.0 && count < out.length) {
+                    out[count++] = box;
+                }
+            }
+            // 输出已满时提前结束
+            return count == out.length;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.codi.prismkit.collision;
+
+/**
+ * 整数体素坐标的轴对齐包围盒（可变，复用）
+ * 记录一次 VoxelRaycast 遍历实际访问过的体素范围，作为遍历结果的失效区域
+ *
+ * 设计意图：
+ * - 失效区域如果由起点和终点的浮点坐标取整得到，射线沿负方向在格线上停止时（终点恰好落在命中体素的边界上），
+ *   取整会落到相邻的空体素，命中的体素反而不在范围内；直接累计访问过的体素就不存在这个问题
+ * - DDA 访问的体素正是结果所依赖的全部体素，包括停止处的命中体素，范围不会偏大也不会遗漏
+ *
+ * 技术细节：
+ * - 空盒的 min 大于 max，contains 对任何坐标都返回 false
+ */
+public final class VoxelBounds {
+
+    private int minX;
+    private int minY;
+    private int minZ;
+    private int maxX;
+    private int maxY;
+    private int maxZ;
+
+    public VoxelBounds() {
+        clear();
+    }
+
+    /**
+     * 清空为不包含任何体素
+     */
+    public void clear() {
+        minX = minY = minZ = Integer.MAX_VALUE;
+        maxX = maxY = maxZ = Integer.MIN_VALUE;
+    }
+
+    /**
+     * 扩展到包含体素 (x, y, z)
+     */
+    public void include(int x, int y, int z) {
+        if (x < minX) {
+            minX = x;
+        }
+        if (y < minY) {
+            minY = y;
+        }
+        if (z < minZ) {
+            minZ = z;
+        }
+        if (x > maxX) {
+            maxX = x;
+        }
+        if (y > maxY) {
+            maxY = y;
+        }
+        if (z > maxZ) {
+            maxZ = z;
+        }
+    }
+
+    /**
+     * 是否包含体素 (x, y, z)
+     */
+    public boolean contains(int x, int y, int z) {
+        return x >= minX && x <= maxX
+                && y >= minY && y <= maxY
+                && z >= minZ && z <= maxZ;
+    }
+
+    public boolean isEmpty() {
+        return minX > maxX;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMinZ() {
+        return minZ;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    public int getMaxZ() {
+        return maxZ;
+    }
+}
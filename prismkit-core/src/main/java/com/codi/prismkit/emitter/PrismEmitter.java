@@ -0,0 +1,174 @@
+package com.codi.prismkit.emitter;
+
+import com.codi.prismkit.math.PrismHash;
+import com.codi.prismkit.particle.PrismParticlePool;
+import com.codi.prismkit.particle.PrismParticleSimulation;
+
+/**
+ * 发射器实例：在世界中的一个位置按 PrismEmitterType 生成和更新粒子
+ *
+ * 设计意图：
+ * - 每个实例拥有一个粒子池，类型数据（曲线引用、速率积分）在同类型的所有实例之间共享
+ * - 粒子种子由实例种子和生成序号哈希得到，同一个种子的发射器每次播放的粒子完全相同
+ *
+ * 技术细节：
+ * - 每 tick 的顺序：更新已有粒子 → 生成本 tick 的新粒子 → 对所有粒子应用生命周期模块，
+ *   新粒子在第一次渲染前就已经有了年龄 0 时的模块值
+ * - 模块求值用的临时数组按池容量一次性分配，稳定运行时不分配内存
+ * - 实现 PrismParticleSimulation：移动和生命周期模块可以由 PrismParticleScheduler 分块并行，
+ *   生成在两者之间单线程执行；更新期间不能从其他线程访问发射器
+ */
+public final class PrismEmitter implements PrismParticleSimulation {
+
+    private final PrismEmitterType type;
+    private final PrismParticlePool pool;
+    private final int seed;
+
+    private double x;
+    private double y;
+    private double z;
+
+    // 发射器年龄（tick）
+    private long age;
+
+    // 已生成的粒子序号（派生粒子种子）
+    private int spawnIndex;
+
+    // 停止后不再生成新粒子，已有粒子继续到寿命结束
+    private boolean stopped;
+
+    // 上一 tick 生成的粒子数量
+    private int lastSpawned;
+
+    // ========== 临时数组 ==========
+    private final float[] shapeScratch = new float[6];
+    private final float[] ageScratch;
+    private final float[] valueScratch;
+
+    /**
+     * @param type 发射器类型
+     * @param x 位置 x
+     * @param y 位置 y
+     * @param z 位置 z
+     * @param seed 实例种子
+     */
+    public PrismEmitter(PrismEmitterType type, double x, double y, double z, int seed) {
+        PrismEmitterDefinition definition = type.getDefinition();
+        this.type = type;
+        this.pool = new PrismParticlePool(definition.getCapacity())
+            .setGravity(definition.getGravity())
+            .setDrag(definition.getDrag());
+        this.seed = seed;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.ageScratch = new float[definition.getCapacity()];
+        this.valueScratch = new float[definition.getCapacity()];
+    }
+
+    /**
+     * 更新一个 tick
+     *
+     * @return 本 tick 生成的粒子数量（池满时被丢弃的不计入）
+     */
+    public int tick() {
+        PrismParticleSimulation.tickSequential(this);
+        return lastSpawned;
+    }
+
+    // ========== 分阶段更新（PrismParticleSimulation） ==========
+
+    @Override
+    public int beginTick() {
+        return pool.beginTick();
+    }
+
+    @Override
+    public void advance(int from, int to) {
+        pool.advance(from, to);
+    }
+
+    /**
+     * 移除到期粒子，生成本 tick 的新粒子
+     *
+     * @return 需要应用生命周期模块的粒子数量
+     */
+    @Override
+    public int finishAdvance() {
+        pool.finishAdvance();
+
+        int spawned = 0;
+        if (!stopped) {
+            int count = type.getSpawnCount(age);
+            for (int i = 0; i < count; i++) {
+                int particleSeed = PrismHash.hash(seed, spawnIndex++);
+                if (type.spawnParticle(pool, particleSeed, x, y, z, shapeScratch) >= 0) {
+                    spawned++;
+                }
+            }
+        }
+        lastSpawned = spawned;
+        age++;
+        return type.hasModules() ? pool.size() : 0;
+    }
+
+    @Override
+    public void postProcess(int from, int to) {
+        type.applyModules(pool, from, to, ageScratch, valueScratch);
+    }
+
+    /**
+     * 停止生成新粒子（循环发射器需要显式停止）
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * 已经停止生成且所有粒子都已消亡，可以移除
+     */
+    public boolean isFinished() {
+        return (stopped || type.isEmissionFinished(age)) && pool.size() == 0;
+    }
+
+    /**
+     * 移动发射器（已生成的粒子不随之移动）
+     */
+    public void setPosition(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    public PrismEmitterType getType() {
+        return type;
+    }
+
+    public PrismParticlePool getPool() {
+        return pool;
+    }
+
+    public long getAge() {
+        return age;
+    }
+
+    public int getSeed() {
+        return seed;
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getZ() {
+        return z;
+    }
+}
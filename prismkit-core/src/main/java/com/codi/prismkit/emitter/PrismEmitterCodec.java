@@ -0,0 +1,272 @@
+package com.codi.prismkit.emitter;
+
+import com.google.gson.*;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+
+/**
+ * PrismEmitterDefinition 的 JSON 反序列化适配器
+ *
+ * 设计意图：
+ * - 发射器完全由 JSON 描述，美术不需要写代码；除 emitter_name 外的字段都有默认值
+ * - 曲线只写名称，解析在加载完成后统一进行（见 PrismEmitterType.resolve）
+ * - 取值范围既可以写成单个数字，也可以写成 [min, max]
+ *
+ * JSON 格式示例：
+ * {
+ *   "emitter_name": "ember_fountain",
+ *   "capacity": 512,
+ *   "duration": 40,
+ *   "looping": true,
+ *   "rate": 2.5,
+ *   "rate_curve": "emitter_pulse",
+ *   "bursts": [{"time": 0, "count": 20}],
+ *   "lifetime": [20, 40],
+ *   "shape": {"type": "SPHERE", "radius": 0.3},
+ *   "speed": [0.05, 0.1],
+ *   "direction": [0.0, 1.0, 0.0],
+ *   "spread": 0.3,
+ *   "size": [0.05, 0.1],
+ *   "color": [1.0, 0.6, 0.2, 1.0],
+ *   "gravity": 0.002,
+ *   "drag": 0.96,
+ *   "modules": {
+ *     "alpha": "emitter_fade",
+ *     "size": "emitter_fade",
+ *     "speed": "emitter_fade",
+ *     "color": {"curve": "emitter_fade", "end_color": [1.0, 0.1, 0.0]}
+ *   }
+ * }
+ *
+ * 形状类型：POINT、SPHERE（radius）、BOX（size: [x, y, z] 半边长）、RING（radius）
+ */
+public class PrismEmitterCodec implements JsonDeserializer<PrismEmitterDefinition> {
+
+    /**
+     * 反序列化：从 JSON 构建 PrismEmitterDefinition
+     */
+    @Override
+    public PrismEmitterDefinition deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
+            throws JsonParseException {
+        if (!json.isJsonObject()) {
+            throw new JsonParseException("PrismEmitter JSON 必须是一个对象");
+        }
+        JsonObject object = json.getAsJsonObject();
+        if (!object.has("emitter_name")) {
+            throw new JsonParseException("PrismEmitter JSON 必须包含 'emitter_name' 字段");
+        }
+
+        PrismEmitterDefinition definition = new PrismEmitterDefinition(object.get("emitter_name").getAsString());
+        try {
+            readEmission(object, definition);
+            readParticle(object, definition);
+            if (object.has("modules")) {
+                readModules(object.getAsJsonObject("modules"), definition);
+            }
+        } catch (IllegalStateException | UnsupportedOperationException | ClassCastException | NumberFormatException e) {
+            // Gson 在字段类型不符时抛出这些异常，统一包装为解析错误
+            throw new JsonParseException("发射器 '" + definition.name + "' 的字段类型错误: " + e.getMessage(), e);
+        }
+        return definition;
+    }
+
+    // ========== 发射 ==========
+
+    private void readEmission(JsonObject object, PrismEmitterDefinition definition) {
+        if (object.has("capacity")) {
+            definition.capacity = object.get("capacity").getAsInt();
+            if (definition.capacity <= 0) {
+                throw new JsonParseException("capacity 必须为正数: " + definition.capacity);
+            }
+        }
+        if (object.has("duration")) {
+            definition.duration = object.get("duration").getAsInt();
+            if (definition.duration <= 0) {
+                throw new JsonParseException("duration 必须为正数: " + definition.duration);
+            }
+        }
+        if (object.has("looping")) {
+            definition.looping = object.get("looping").getAsBoolean();
+        }
+        if (object.has("rate")) {
+            definition.rate = object.get("rate").getAsDouble();
+            if (!(definition.rate >= 0.0)) {
+                throw new JsonParseException("rate 不能为负数: " + definition.rate);
+            }
+        }
+        definition.rateCurve = readCurveName(object, "rate_curve");
+
+        if (object.has("bursts")) {
+            JsonArray bursts = object.getAsJsonArray("bursts");
+            int[] times = new int[bursts.size()];
+            int[] counts = new int[bursts.size()];
+            for (int i = 0; i < bursts.size(); i++) {
+                JsonObject burst = bursts.get(i).getAsJsonObject();
+                times[i] = burst.has("time") ? burst.get("time").getAsInt() : 0;
+                counts[i] = burst.get("count").getAsInt();
+                if (times[i] < 0 || times[i] >= definition.duration) {
+                    throw new JsonParseException(String.format(
+                        "burst 的 time 必须在 [0, duration) 内: %d（duration = %d）", times[i], definition.duration));
+                }
+                if (counts[i] < 0) {
+                    throw new JsonParseException("burst 的 count 不能为负数: " + counts[i]);
+                }
+            }
+            definition.burstTimes = times;
+            definition.burstCounts = counts;
+        }
+    }
+
+    // ========== 粒子初始值 ==========
+
+    private void readParticle(JsonObject object, PrismEmitterDefinition definition) {
+        if (object.has("lifetime")) {
+            float[] lifetime = readRange(object.get("lifetime"), "lifetime");
+            definition.lifetimeMin = Math.round(lifetime[0]);
+            definition.lifetimeMax = Math.round(lifetime[1]);
+            if (definition.lifetimeMin <= 0) {
+                throw new JsonParseException("lifetime 必须为正数: " + definition.lifetimeMin);
+            }
+        }
+        if (object.has("shape")) {
+            definition.shape = readShape(object.getAsJsonObject("shape"));
+        }
+        if (object.has("speed")) {
+            float[] speed = readRange(object.get("speed"), "speed");
+            definition.speedMin = speed[0];
+            definition.speedMax = speed[1];
+        }
+        if (object.has("direction")) {
+            float[] direction = readFloats(object.get("direction"), 3, "direction");
+            float length = (float) Math.sqrt(
+                direction[0] * direction[0] + direction[1] * direction[1] + direction[2] * direction[2]);
+            if (!(length > 0.0f)) {
+                throw new JsonParseException("direction 不能是零向量");
+            }
+            definition.direction = new float[]{direction[0] / length, direction[1] / length, direction[2] / length};
+        }
+        if (object.has("spread")) {
+            definition.spread = object.get("spread").getAsFloat();
+            if (!(definition.spread >= 0.0f && definition.spread <= 1.0f)) {
+                throw new JsonParseException("spread 必须在 [0, 1] 内: " + definition.spread);
+            }
+        }
+        if (object.has("size")) {
+            float[] size = readRange(object.get("size"), "size");
+            definition.sizeMin = size[0];
+            definition.sizeMax = size[1];
+        }
+        if (object.has("color")) {
+            definition.color = readFloats(object.get("color"), 4, "color");
+        }
+        if (object.has("gravity")) {
+            definition.gravity = object.get("gravity").getAsFloat();
+        }
+        if (object.has("drag")) {
+            definition.drag = object.get("drag").getAsFloat();
+        }
+    }
+
+    private PrismEmitterShape readShape(JsonObject shape) {
+        String typeName = shape.has("type") ? shape.get("type").getAsString() : "POINT";
+        PrismEmitterShape.Type type;
+        try {
+            type = PrismEmitterShape.Type.valueOf(typeName.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException("未知的发射形状: " + typeName);
+        }
+
+        try {
+            return switch (type) {
+                case POINT -> PrismEmitterShape.POINT;
+                case SPHERE -> PrismEmitterShape.sphere(requireFloat(shape, "radius"));
+                case RING -> PrismEmitterShape.ring(requireFloat(shape, "radius"));
+                case BOX -> {
+                    if (!shape.has("size")) {
+                        throw new JsonParseException("BOX 形状必须包含 'size' 字段");
+                    }
+                    float[] size = readFloats(shape.get("size"), 3, "size");
+                    yield PrismEmitterShape.box(size[0], size[1], size[2]);
+                }
+            };
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(e.getMessage(), e);
+        }
+    }
+
+    // ========== 生命周期模块 ==========
+
+    private void readModules(JsonObject modules, PrismEmitterDefinition definition) {
+        definition.alphaCurve = readCurveName(modules, "alpha");
+        definition.sizeCurve = readCurveName(modules, "size");
+        definition.speedCurve = readCurveName(modules, "speed");
+
+        if (modules.has("color")) {
+            JsonObject color = modules.getAsJsonObject("color");
+            definition.colorCurve = readCurveName(color, "curve");
+            if (definition.colorCurve == null) {
+                throw new JsonParseException("color 模块必须包含 'curve' 字段");
+            }
+            if (!color.has("end_color")) {
+                throw new JsonParseException("color 模块必须包含 'end_color' 字段");
+            }
+            definition.endColor = readFloats(color.get("end_color"), 3, "end_color");
+        }
+    }
+
+    // ========== 辅助方法 ==========
+
+    private static String readCurveName(JsonObject object, String key) {
+        if (!object.has(key) || object.get(key).isJsonNull()) {
+            return null;
+        }
+        String name = object.get(key).getAsString();
+        return name.isEmpty() ? null : name;
+    }
+
+    private static float requireFloat(JsonObject object, String key) {
+        if (!object.has(key)) {
+            throw new JsonParseException("发射形状缺少 '" + key + "' 字段");
+        }
+        return object.get(key).getAsFloat();
+    }
+
+    /**
+     * 读取取值范围：单个数字表示固定值，[min, max] 表示范围
+     */
+    private static float[] readRange(JsonElement element, String key) {
+        if (element.isJsonPrimitive()) {
+            float value = element.getAsFloat();
+            return new float[]{value, value};
+        }
+        float[] range = readFloats(element, 2, key);
+        if (range[1] < range[0]) {
+            throw new JsonParseException(String.format("%s 的最大值小于最小值: %s", key, Arrays.toString(range)));
+        }
+        return range;
+    }
+
+    private static float[] readFloats(JsonElement element, int count, String key) {
+        JsonArray array = element.getAsJsonArray();
+        if (array.size() != count) {
+            throw new JsonParseException(String.format("%s 必须包含 %d 个数，实际为 %d 个", key, count, array.size()));
+        }
+        float[] values = new float[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = array.get(i).getAsFloat();
+        }
+        return values;
+    }
+
+    /**
+     * 工厂方法：创建配置好的 Gson 实例
+     *
+     * @return 配置了 PrismEmitterDefinition 反序列化器的 Gson 实例
+     */
+    public static Gson createGson() {
+        return new GsonBuilder()
+            .registerTypeAdapter(PrismEmitterDefinition.class, new PrismEmitterCodec())
+            .create();
+    }
+}
@@ -0,0 +1,145 @@
+package com.codi.prismkit.emitter;
+
+/**
+ * 发射器定义：JSON 文件解析后的原始数据，曲线仍以名称保存
+ *
+ * 设计意图：
+ * - 定义只描述“发射器是什么”，不引用任何曲线对象；曲线可能比发射器晚加载或被热重载，
+ *   由 PrismEmitterType.resolve 在加载完成后把名称一次性解析为曲线引用
+ * - 字段由 PrismEmitterCodec 在同一个包内填写，对外只读
+ *
+ * 技术细节：
+ * - 所有时间单位都是 tick，速度单位是每 tick 的方块数（与 PrismParticlePool 一致）
+ * - rate 是每 tick 生成的粒子数，可以是小数；rate_curve 是它在一个周期内的倍率（横轴为周期进度 0..1）
+ * - 曲线名为 null 表示未使用该模块
+ */
+public final class PrismEmitterDefinition {
+
+    final String name;
+
+    // ========== 发射 ==========
+    int capacity = 256;
+    int duration = 20;
+    boolean looping;
+    double rate;
+    String rateCurve;
+    int[] burstTimes = new int[0];
+    int[] burstCounts = new int[0];
+
+    // ========== 粒子初始值 ==========
+    int lifetimeMin = 20;
+    int lifetimeMax = 20;
+    PrismEmitterShape shape = PrismEmitterShape.POINT;
+    float speedMin;
+    float speedMax;
+    float[] direction;          // 为 null 时沿形状的自然方向发射
+    float spread;               // 0 为严格沿 direction，1 为完全随机
+    float sizeMin = 0.1f;
+    float sizeMax = 0.1f;
+    float[] color = {1.0f, 1.0f, 1.0f, 1.0f};
+    float gravity;
+    float drag = 1.0f;
+
+    // ========== 生命周期模块（曲线名，横轴为粒子归一化年龄） ==========
+    String alphaCurve;
+    String sizeCurve;
+    String speedCurve;
+    String colorCurve;
+    float[] endColor;           // 颜色模块的终点颜色（rgb），曲线值 0 为初始颜色，1 为终点颜色
+
+    PrismEmitterDefinition(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getDuration() {
+        return duration;
+    }
+
+    public boolean isLooping() {
+        return looping;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public String getRateCurve() {
+        return rateCurve;
+    }
+
+    public int getBurstCount() {
+        return burstTimes.length;
+    }
+
+    public int getBurstTime(int index) {
+        return burstTimes[index];
+    }
+
+    public int getBurstSize(int index) {
+        return burstCounts[index];
+    }
+
+    public int getLifetimeMin() {
+        return lifetimeMin;
+    }
+
+    public int getLifetimeMax() {
+        return lifetimeMax;
+    }
+
+    public PrismEmitterShape getShape() {
+        return shape;
+    }
+
+    public float getSpeedMin() {
+        return speedMin;
+    }
+
+    public float getSpeedMax() {
+        return speedMax;
+    }
+
+    public float getSpread() {
+        return spread;
+    }
+
+    public float getSizeMin() {
+        return sizeMin;
+    }
+
+    public float getSizeMax() {
+        return sizeMax;
+    }
+
+    public float getGravity() {
+        return gravity;
+    }
+
+    public float getDrag() {
+        return drag;
+    }
+
+    public String getAlphaCurve() {
+        return alphaCurve;
+    }
+
+    public String getSizeCurve() {
+        return sizeCurve;
+    }
+
+    public String getSpeedCurve() {
+        return speedCurve;
+    }
+
+    public String getColorCurve() {
+        return colorCurve;
+    }
+}
@@ -0,0 +1,216 @@
+package com.codi.prismkit.emitter;
+
+import com.codi.prismkit.math.curve.PrismCurveLibrary;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 发射器库（PrismEmitterLibrary）
+ * 与 Minecraft 无关的发射器存储：读取 JSON 定义、按名称查询已解析的发射器类型
+ *
+ * 设计意图：
+ * - 与 PrismCurveLibrary 对应：模组中的 PrismEmitterManager 只负责确定目录和读取数据包
+ * - 定义（曲线名）和解析结果（曲线引用）分开保存：曲线库变化后只需重新解析，不需要重新读取文件
+ *
+ * 技术细节：
+ * - 解析是惰性的：getType 发现曲线库的版本号变化时清空全部解析结果，之后按需重新解析，
+ *   因此发射器和曲线的加载顺序无关紧要
+ * - 正在播放的 PrismEmitter 持有旧的类型对象，直到播放结束；新播放的发射器使用新曲线
+ * - 定义缓存和解析缓存都使用 ConcurrentHashMap
+ */
+public class PrismEmitterLibrary {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrismEmitterLibrary.class);
+
+    // 发射器定义：name -> PrismEmitterDefinition
+    private final Map<String, PrismEmitterDefinition> definitions = new ConcurrentHashMap<>();
+
+    // 已解析的类型：name -> PrismEmitterType
+    private final Map<String, PrismEmitterType> types = new ConcurrentHashMap<>();
+
+    // 曲线来源
+    private final PrismCurveLibrary curves;
+
+    // JSON 解析器
+    private final Gson gson = PrismEmitterCodec.createGson();
+
+    // 发射器文件目录，为 null 时只能在内存中使用
+    private volatile Path emittersDirectory;
+
+    // 解析结果对应的曲线库版本号
+    private volatile int resolvedCurveRevision;
+
+    // 已经警告过的缺失发射器名
+    private final Set<String> missingEmitterWarnings = ConcurrentHashMap.newKeySet();
+
+    // 版本号：发射器被加载、覆盖或清空时递增
+    private volatile int revision;
+
+    /**
+     * @param curves 发射器引用的曲线所在的曲线库
+     */
+    public PrismEmitterLibrary(PrismCurveLibrary curves) {
+        this.curves = curves;
+        this.resolvedCurveRevision = curves.getRevision();
+    }
+
+    // ========== 加载 ==========
+
+    /**
+     * 设置发射器文件目录（不存在时自动创建）
+     *
+     * @param directory 发射器目录，例如 config/prismkit/emitters
+     * @throws IOException 目录创建失败
+     */
+    public void setEmittersDirectory(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.emittersDirectory = directory;
+    }
+
+    public Path getEmittersDirectory() {
+        return emittersDirectory;
+    }
+
+    /**
+     * 加载发射器目录中的所有 *.json 文件，同名发射器会被覆盖
+     * 单个文件解析失败只记录错误，不影响其他文件
+     *
+     * @return 成功加载的发射器数量
+     */
+    public int loadEmittersFromDirectory() {
+        Path directory = emittersDirectory;
+        if (directory == null || !Files.exists(directory)) {
+            LOGGER.info("配置目录不存在，跳过加载用户发射器: {}", directory);
+            return 0;
+        }
+
+        int loadedCount = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.json")) {
+            for (Path file : stream) {
+                try {
+                    loadEmitterFromFile(file);
+                    loadedCount++;
+                } catch (Exception e) {
+                    LOGGER.error("加载发射器文件失败: {}", file, e);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.error("扫描配置目录失败: {}", directory, e);
+        }
+        return loadedCount;
+    }
+
+    /**
+     * 从文件加载单个发射器
+     *
+     * @param filePath 发射器的 JSON 文件路径
+     * @return 加载的发射器定义
+     * @throws IOException 文件读取失败
+     * @throws JsonParseException JSON 解析失败
+     */
+    public PrismEmitterDefinition loadEmitterFromFile(Path filePath) throws IOException, JsonParseException {
+        PrismEmitterDefinition definition = loadEmitter(Files.readString(filePath));
+        LOGGER.debug("加载发射器: {} <- {}", definition.getName(), filePath.getFileName());
+        return definition;
+    }
+
+    /**
+     * 解析 JSON 并存入缓存（数据包等非文件来源使用）
+     *
+     * @param json 发射器的 JSON 文本
+     * @return 加载的发射器定义
+     * @throws JsonParseException JSON 解析失败
+     */
+    public PrismEmitterDefinition loadEmitter(String json) throws JsonParseException {
+        PrismEmitterDefinition definition = gson.fromJson(json, PrismEmitterDefinition.class);
+        if (definition == null) {
+            throw new JsonParseException("发射器 JSON 为空");
+        }
+        definitions.put(definition.getName(), definition);
+        types.remove(definition.getName());
+        revision++;
+        return definition;
+    }
+
+    /**
+     * 清空所有发射器
+     */
+    public void clear() {
+        definitions.clear();
+        types.clear();
+        missingEmitterWarnings.clear();
+        revision++;
+    }
+
+    // ========== 查询 ==========
+
+    /**
+     * 获取已解析的发射器类型，缺失时每个名称只警告一次
+     * 曲线库变化后第一次调用会丢弃旧的解析结果
+     *
+     * @return 发射器类型，不存在时返回 null
+     */
+    public PrismEmitterType getType(String emitterName) {
+        int curveRevision = curves.getRevision();
+        if (curveRevision != resolvedCurveRevision) {
+            types.clear();
+            resolvedCurveRevision = curveRevision;
+        }
+
+        PrismEmitterType type = types.get(emitterName);
+        if (type != null) {
+            return type;
+        }
+        PrismEmitterDefinition definition = definitions.get(emitterName);
+        if (definition == null) {
+            if (missingEmitterWarnings.add(emitterName)) {
+                LOGGER.warn("未找到发射器 '{}'", emitterName);
+            }
+            return null;
+        }
+        type = PrismEmitterType.resolve(definition, curves);
+        types.put(emitterName, type);
+        return type;
+    }
+
+    public PrismEmitterDefinition getDefinition(String emitterName) {
+        return definitions.get(emitterName);
+    }
+
+    public boolean hasEmitter(String emitterName) {
+        return definitions.containsKey(emitterName);
+    }
+
+    /**
+     * 获取所有已加载发射器定义的只读视图
+     */
+    public Collection<PrismEmitterDefinition> getDefinitions() {
+        return Collections.unmodifiableCollection(definitions.values());
+    }
+
+    public int getEmitterCount() {
+        return definitions.size();
+    }
+
+    /**
+     * 获取缓存版本号：每次发射器被加载、覆盖或清空后都会变化
+     */
+    public int getRevision() {
+        return revision;
+    }
+
+    public PrismCurveLibrary getCurves() {
+        return curves;
+    }
+}
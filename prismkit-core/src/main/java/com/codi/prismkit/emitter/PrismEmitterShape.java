@@ -0,0 +1,153 @@
+package com.codi.prismkit.emitter;
+
+import com.codi.prismkit.math.PrismHash;
+
+/**
+ * 发射器的生成形状：决定粒子相对发射器的初始位置和“自然”发射方向
+ *
+ * 技术细节：
+ * - 采样完全由种子决定（PrismHash），同一个粒子种子总是得到同一个位置，不持有 Random 状态
+ * - 自然方向是从形状中心指向采样点的单位向量（POINT 为随机方向，BOX 为随机方向），
+ *   定义中没有给出 direction 时粒子沿自然方向发射
+ */
+public final class PrismEmitterShape {
+
+    /**
+     * 形状类型
+     */
+    public enum Type {
+        POINT,      // 发射器所在的点
+        SPHERE,     // 半径为 radius 的球体内部
+        BOX,        // 半边长为 size 的长方体内部
+        RING        // 水平面上半径为 radius 的圆环
+    }
+
+    public static final PrismEmitterShape POINT = new PrismEmitterShape(Type.POINT, 0.0f, 0.0f, 0.0f, 0.0f);
+
+    // 采样使用的 salt（与 PrismEmitterType 中的 salt 互不重叠）
+    private static final int SALT_AZIMUTH = 101;
+    private static final int SALT_POLAR = 102;
+    private static final int SALT_RADIUS = 103;
+    private static final int SALT_BOX_X = 104;
+    private static final int SALT_BOX_Y = 105;
+    private static final int SALT_BOX_Z = 106;
+
+    private final Type type;
+    private final float radius;
+    private final float halfX;
+    private final float halfY;
+    private final float halfZ;
+
+    private PrismEmitterShape(Type type, float radius, float halfX, float halfY, float halfZ) {
+        this.type = type;
+        this.radius = radius;
+        this.halfX = halfX;
+        this.halfY = halfY;
+        this.halfZ = halfZ;
+    }
+
+    /**
+     * 球体
+     *
+     * @throws IllegalArgumentException radius 为负数
+     */
+    public static PrismEmitterShape sphere(float radius) {
+        requireNonNegative(radius, "radius");
+        return new PrismEmitterShape(Type.SPHERE, radius, 0.0f, 0.0f, 0.0f);
+    }
+
+    /**
+     * 长方体
+     *
+     * @throws IllegalArgumentException 半边长为负数
+     */
+    public static PrismEmitterShape box(float halfX, float halfY, float halfZ) {
+        requireNonNegative(halfX, "size x");
+        requireNonNegative(halfY, "size y");
+        requireNonNegative(halfZ, "size z");
+        return new PrismEmitterShape(Type.BOX, 0.0f, halfX, halfY, halfZ);
+    }
+
+    /**
+     * 水平圆环
+     *
+     * @throws IllegalArgumentException radius 为负数
+     */
+    public static PrismEmitterShape ring(float radius) {
+        requireNonNegative(radius, "radius");
+        return new PrismEmitterShape(Type.RING, radius, 0.0f, 0.0f, 0.0f);
+    }
+
+    /**
+     * 采样一个粒子的相对位置和自然方向
+     *
+     * @param seed 粒子种子
+     * @param out 输出：[0..2] 相对发射器的偏移，[3..5] 自然方向（单位向量）
+     */
+    public void sample(int seed, float[] out) {
+        // 随机方向（球面均匀分布）：cosθ 在 [-1, 1] 均匀，方位角在 [0, 2π) 均匀
+        float azimuth = PrismHash.unitFloat(seed, SALT_AZIMUTH) * (float) (Math.PI * 2.0);
+        float cosPolar = PrismHash.range(seed, SALT_POLAR, -1.0f, 1.0f);
+        float sinPolar = (float) Math.sqrt(Math.max(0.0f, 1.0f - cosPolar * cosPolar));
+        float dirX = sinPolar * (float) Math.cos(azimuth);
+        float dirY = cosPolar;
+        float dirZ = sinPolar * (float) Math.sin(azimuth);
+
+        switch (type) {
+            case POINT -> {
+                out[0] = 0.0f;
+                out[1] = 0.0f;
+                out[2] = 0.0f;
+            }
+            case SPHERE -> {
+                // 半径取立方根，使点在球体内均匀分布
+                float r = radius * (float) Math.cbrt(PrismHash.unitFloat(seed, SALT_RADIUS));
+                out[0] = dirX * r;
+                out[1] = dirY * r;
+                out[2] = dirZ * r;
+            }
+            case BOX -> {
+                out[0] = PrismHash.range(seed, SALT_BOX_X, -halfX, halfX);
+                out[1] = PrismHash.range(seed, SALT_BOX_Y, -halfY, halfY);
+                out[2] = PrismHash.range(seed, SALT_BOX_Z, -halfZ, halfZ);
+            }
+            case RING -> {
+                dirX = (float) Math.cos(azimuth);
+                dirY = 0.0f;
+                dirZ = (float) Math.sin(azimuth);
+                out[0] = dirX * radius;
+                out[1] = 0.0f;
+                out[2] = dirZ * radius;
+            }
+        }
+        out[3] = dirX;
+        out[4] = dirY;
+        out[5] = dirZ;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public float getRadius() {
+        return radius;
+    }
+
+    public float getHalfX() {
+        return halfX;
+    }
+
+    public float getHalfY() {
+        return halfY;
+    }
+
+    public float getHalfZ() {
+        return halfZ;
+    }
+
+    private static void requireNonNegative(float value, String name) {
+        if (!(value >= 0.0f)) {
+            throw new IllegalArgumentException("发射形状的 " + name + " 不能为负数：" + value);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.codi.prismkit.emitter;
+
+import com.codi.prismkit.math.PrismHash;
+import com.codi.prismkit.math.curve.CurveIntegral;
+import com.codi.prismkit.math.curve.PrismCurve;
+import com.codi.prismkit.math.curve.PrismCurveLibrary;
+import com.codi.prismkit.particle.PrismParticlePool;
+
+/**
+ * 已解析的发射器类型：定义中的曲线名已替换为曲线引用，速率曲线已预先积分
+ * 同一类型的所有发射器实例共享这一份只读数据
+ *
+ * 设计意图：
+ * - 按名称查曲线是一次哈希查找，每 tick 每个模块都查一次在大量环境特效下并不便宜；
+ *   这里在加载时解析一次，运行时只剩直接的字段访问
+ * - 生成数量由速率曲线的累计积分决定：设 N(a) 为前 a 个 tick 应生成的总数，
+ *   第 a 个 tick 生成 floor(N(a + 1)) - floor(N(a)) 个。每 tick 只需两次积分查询（O(1)），
+ *   小数部分不会丢失也不会累积误差，一个周期生成的总数恰好是 floor(rate × duration × 曲线平均值)
+ *
+ * 技术细节：
+ * - 缺失的曲线只警告一次（PrismCurveLibrary.findCurve）：生命周期模块被禁用，速率曲线按常数 1 处理
+ * - 粒子的随机初始值（寿命、速度、大小、方向）全部由粒子种子经 PrismHash 派生，
+ *   生命周期模块每 tick 从种子重新得到初始值，粒子池不需要额外的数组保存它们
+ * - 速度模块是乘在每 tick 位移上的倍数，而不是覆盖速度：阻力和重力照常累积在粒子的速度上，
+ *   曲线只缩放本 tick 实际移动的距离
+ * - 曲线被重载后已解析的类型不会更新，由 PrismEmitterLibrary 按曲线库版本号重新解析
+ */
+public final class PrismEmitterType {
+
+    // 粒子初始值的 salt
+    private static final int SALT_LIFETIME = 1;
+    private static final int SALT_SPEED = 2;
+    private static final int SALT_SIZE = 3;
+    private static final int SALT_SPREAD_AZIMUTH = 4;
+    private static final int SALT_SPREAD_POLAR = 5;
+
+    // 取整前的相对容差：rate × duration × 曲线平均值在十进制下是整数（如 0.3 × 70 = 21）时，
+    // 二进制浮点和曲线 float 控制点的舍入误差可能让累计值略小于整数，导致少生成一个粒子
+    private static final double FLOOR_TOLERANCE = 1.0e-6;
+
+    private final PrismEmitterDefinition definition;
+
+    // 速率曲线的积分（未使用速率曲线时为 null，按常数 1 计算）
+    private final CurveIntegral rateIntegral;
+
+    // 一个周期内由速率生成的粒子总数（未取整）
+    private final double spawnsPerCycle;
+
+    // ========== 生命周期模块（null 表示未使用） ==========
+    private final PrismCurve alphaCurve;
+    private final PrismCurve sizeCurve;
+    private final PrismCurve speedCurve;
+    private final PrismCurve colorCurve;
+
+    private PrismEmitterType(PrismEmitterDefinition definition, PrismCurve rateCurve,
+                             PrismCurve alphaCurve, PrismCurve sizeCurve, PrismCurve speedCurve, PrismCurve colorCurve) {
+        this.definition = definition;
+        this.rateIntegral = rateCurve != null ? CurveIntegral.of(rateCurve) : null;
+        double average = rateIntegral != null ? rateIntegral.getTotal() : 1.0;
+        this.spawnsPerCycle = definition.rate * definition.duration * average;
+        this.alphaCurve = alphaCurve;
+        this.sizeCurve = sizeCurve;
+        this.speedCurve = speedCurve;
+        this.colorCurve = definition.endColor != null ? colorCurve : null;
+    }
+
+    /**
+     * 把定义中的曲线名解析为曲线引用
+     *
+     * @param definition 发射器定义
+     * @param curves 曲线库
+     * @return 解析后的类型
+     */
+    public static PrismEmitterType resolve(PrismEmitterDefinition definition, PrismCurveLibrary curves) {
+        return new PrismEmitterType(definition,
+            find(curves, definition.rateCurve),
+            find(curves, definition.alphaCurve),
+            find(curves, definition.sizeCurve),
+            find(curves, definition.speedCurve),
+            find(curves, definition.colorCurve));
+    }
+
+    // ========== 生成数量 ==========
+
+    /**
+     * 发射器年龄为 age 的这个 tick 应生成的粒子数量（速率部分加上到点的 burst）
+     *
+     * @param age 发射器年龄（tick，从 0 开始）
+     */
+    public int getSpawnCount(long age) {
+        long rateCount = cumulativeRateSpawns(age + 1) - cumulativeRateSpawns(age);
+        return (int) Math.max(0L, rateCount) + getBurstCount(age);
+    }
+
+    /**
+     * 前 age 个 tick 由速率应生成的粒子总数（已取整）
+     * 循环发射器按周期累加，非循环发射器在 duration 之后不再增加
+     */
+    long cumulativeRateSpawns(long age) {
+        int duration = definition.duration;
+        if (!definition.looping) {
+            return floor(cycleSpawns(Math.min(age, duration)));
+        }
+        long cycles = age / duration;
+        return floor(cycles * spawnsPerCycle + cycleSpawns(age % duration));
+    }
+
+    private static long floor(double spawns) {
+        return (long) Math.floor(spawns + Math.max(1.0, spawns) * FLOOR_TOLERANCE);
+    }
+
+    /**
+     * 一个周期内前 tick 个 tick 由速率生成的数量（未取整）
+     */
+    private double cycleSpawns(long tick) {
+        if (tick <= 0) {
+            return 0.0;
+        }
+        double progress = (double) tick / definition.duration;
+        double integral = rateIntegral != null ? rateIntegral.integrate(progress) : progress;
+        return definition.rate * definition.duration * integral;
+    }
+
+    private int getBurstCount(long age) {
+        int duration = definition.duration;
+        if (!definition.looping && age >= duration) {
+            return 0;
+        }
+        long local = age % duration;
+        int count = 0;
+        int[] times = definition.burstTimes;
+        for (int i = 0; i < times.length; i++) {
+            if (times[i] == local) {
+                count += definition.burstCounts[i];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 非循环发射器在 duration 个 tick 之后不再生成粒子
+     */
+    public boolean isEmissionFinished(long age) {
+        return !definition.looping && age >= definition.duration;
+    }
+
+    // ========== 粒子初始值 ==========
+
+    /**
+     * 在粒子池中生成一个粒子
+     *
+     * @param pool 粒子池
+     * @param seed 粒子种子
+     * @param x 发射器位置 x
+     * @param y 发射器位置 y
+     * @param z 发射器位置 z
+     * @param scratch 长度至少为 6 的临时数组（形状采样结果）
+     * @return 粒子下标；池已满时返回 -1
+     */
+    public int spawnParticle(PrismParticlePool pool, int seed, double x, double y, double z, float[] scratch) {
+        PrismEmitterDefinition d = definition;
+        d.shape.sample(seed, scratch);
+
+        float dirX = scratch[3], dirY = scratch[4], dirZ = scratch[5];
+        if (d.direction != null) {
+            dirX = d.direction[0];
+            dirY = d.direction[1];
+            dirZ = d.direction[2];
+            if (d.spread > 0.0f) {
+                // 向一个随机方向偏移后重新归一化，spread 为 1 时方向完全随机
+                float azimuth = PrismHash.unitFloat(seed, SALT_SPREAD_AZIMUTH) * (float) (Math.PI * 2.0);
+                float cosPolar = PrismHash.range(seed, SALT_SPREAD_POLAR, -1.0f, 1.0f);
+                float sinPolar = (float) Math.sqrt(Math.max(0.0f, 1.0f - cosPolar * cosPolar));
+                float keep = 1.0f - d.spread;
+                dirX = dirX * keep + sinPolar * (float) Math.cos(azimuth) * d.spread;
+                dirY = dirY * keep + cosPolar * d.spread;
+                dirZ = dirZ * keep + sinPolar * (float) Math.sin(azimuth) * d.spread;
+                float length = (float) Math.sqrt(dirX * dirX + dirY * dirY + dirZ * dirZ);
+                if (length > 1.0e-6f) {
+                    dirX /= length;
+                    dirY /= length;
+                    dirZ /= length;
+                }
+            }
+        }
+
+        float speed = getStartSpeed(seed);
+        float[] color = d.color;
+        int index = pool.spawn(x + scratch[0], y + scratch[1], z + scratch[2],
+            dirX * speed, dirY * speed, dirZ * speed,
+            getLifetime(seed), getStartSize(seed), color[0], color[1], color[2], color[3]);
+        if (index >= 0) {
+            pool.setSeed(index, seed);
+        }
+        return index;
+    }
+
+    int getLifetime(int seed) {
+        int span = definition.lifetimeMax - definition.lifetimeMin + 1;
+        return definition.lifetimeMin + Math.floorMod(PrismHash.hash(seed, SALT_LIFETIME), span);
+    }
+
+    float getStartSpeed(int seed) {
+        return PrismHash.range(seed, SALT_SPEED, definition.speedMin, definition.speedMax);
+    }
+
+    float getStartSize(int seed) {
+        return PrismHash.range(seed, SALT_SIZE, definition.sizeMin, definition.sizeMax);
+    }
+
+    // ========== 生命周期模块 ==========
+
+    /**
+     * 对池中下标 [from, to) 的粒子应用生命周期模块（每 tick 在移动和生成之后调用）
+     * 不同线程可以同时处理不相交的区间
+     *
+     * @param pool 粒子池
+     * @param from 起始下标
+     * @param to 结束下标（不含）
+     * @param ages 临时数组，长度至少为 to（归一化年龄，只使用 [from, to)）
+     * @param values 临时数组，长度至少为 to（曲线值，只使用 [from, to)）
+     */
+    public void applyModules(PrismParticlePool pool, int from, int to, float[] ages, float[] values) {
+        int count = to - from;
+        if (count <= 0 || !hasModules()) {
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            ages[i] = pool.getNormalizedAge(i);
+        }
+
+        if (alphaCurve != null) {
+            float baseAlpha = definition.color[3];
+            alphaCurve.getValues(ages, values, from, count);
+            for (int i = from; i < to; i++) {
+                pool.setColor(i, 3, baseAlpha * values[i]);
+            }
+        }
+
+        if (sizeCurve != null) {
+            sizeCurve.getValues(ages, values, from, count);
+            for (int i = from; i < to; i++) {
+                pool.setSize(i, getStartSize(pool.getSeed(i)) * values[i]);
+            }
+        }
+
+        if (colorCurve != null) {
+            float[] start = definition.color;
+            float[] end = definition.endColor;
+            colorCurve.getValues(ages, values, from, count);
+            for (int i = from; i < to; i++) {
+                float t = values[i];
+                pool.setColor(i, 0, start[0] + (end[0] - start[0]) * t);
+                pool.setColor(i, 1, start[1] + (end[1] - start[1]) * t);
+                pool.setColor(i, 2, start[2] + (end[2] - start[2]) * t);
+            }
+        }
+
+        if (speedCurve != null) {
+            // 曲线值是本 tick 位移的倍数：速度仍由阻力和重力演化，曲线为 0 时粒子停住，之后曲线回升还能继续运动
+            speedCurve.getValues(ages, values, from, count);
+            for (int i = from; i < to; i++) {
+                pool.scaleStep(i, values[i]);
+            }
+        }
+    }
+
+    /**
+     * 是否使用了任何生命周期模块
+     */
+    public boolean hasModules() {
+        return alphaCurve != null || sizeCurve != null || speedCurve != null || colorCurve != null;
+    }
+
+    // ========== 访问 ==========
+
+    public PrismEmitterDefinition getDefinition() {
+        return definition;
+    }
+
+    public String getName() {
+        return definition.name;
+    }
+
+    /**
+     * 一个周期内由速率生成的粒子总数（未取整）
+     */
+    public double getSpawnsPerCycle() {
+        return spawnsPerCycle;
+    }
+
+    public PrismCurve getAlphaCurve() {
+        return alphaCurve;
+    }
+
+    public PrismCurve getSizeCurve() {
+        return sizeCurve;
+    }
+
+    public PrismCurve getSpeedCurve() {
+        return speedCurve;
+    }
+
+    public PrismCurve getColorCurve() {
+        return colorCurve;
+    }
+
+    private static PrismCurve find(PrismCurveLibrary curves, String name) {
+        return name != null ? curves.findCurve(name) : null;
+    }
+}
@@ -0,0 +1,63 @@
+package com.codi.prismkit.math;
+
+/**
+ * 无状态整数哈希工具
+ * 由粒子/实体的种子直接推导出伪随机数，不需要为每个实例保存 Random 对象或额外字段
+ *
+ * 设计意图：
+ * - 相同的种子永远得到相同的结果，客户端和服务端可以各自独立计算
+ * - 不分配任何对象，可以在每帧、每个粒子的热路径上调用
+ * - 通过 salt 区分同一实例的不同属性，避免各属性的随机值相互关联
+ *
+ * 技术细节：
+ * - 使用 lowbias32 整数混合函数（两轮乘法 + 异或移位），雪崩效果良好
+ * - 浮点结果取哈希的高 24 位，均匀分布在 [0, 1) 内
+ */
+public final class PrismHash {
+
+    // 黄金比例常数，用于把 salt 打散到整个 int 空间
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+    private PrismHash() {
+    }
+
+    /**
+     * 对整数做一次混合哈希
+     */
+    public static int hash(int x) {
+        x ^= x >>> 16;
+        x *= 0x7FEB352D;
+        x ^= x >>> 15;
+        x *= 0x846CA68B;
+        x ^= x >>> 16;
+        return x;
+    }
+
+    /**
+     * 对种子和 salt 组合哈希（同一个种子的不同属性使用不同的 salt）
+     */
+    public static int hash(int seed, int salt) {
+        return hash(seed + salt * GOLDEN_RATIO);
+    }
+
+    /**
+     * 由种子得到 [0, 1) 内的伪随机浮点数
+     */
+    public static float unitFloat(int seed) {
+        return (hash(seed) >>> 8) * 0x1.0p-24f;
+    }
+
+    /**
+     * 由种子和 salt 得到 [0, 1) 内的伪随机浮点数
+     */
+    public static float unitFloat(int seed, int salt) {
+        return (hash(seed, salt) >>> 8) * 0x1.0p-24f;
+    }
+
+    /**
+     * 由种子得到 [min, max) 内的伪随机浮点数
+     */
+    public static float range(int seed, int salt, float min, float max) {
+        return min + (max - min) * unitFloat(seed, salt);
+    }
+}
@@ -0,0 +1,37 @@
+package com.codi.prismkit.math.curve;
+
+/**
+ * 烘焙后的曲线求值器
+ * 将 PrismCurve 预先转换为更快或更紧凑的表示，安装到曲线上后由 PrismCurve.getValue 透明地使用
+ *
+ * 设计意图：
+ * - 调用方始终只使用 PrismCurve 的求值 API，烘焙与否对调用方不可见
+ * - 实现类必须是不可变的，可以在多个线程之间共享
+ * - 需要报告自身占用的内存，供缓存和分层策略统计预算
+ */
+public interface BakedCurve {
+
+    /**
+     * 求值（输入已经过 CurveClampMode 处理）
+     *
+     * @param x 归一化后的 x 值
+     * @return 近似的 y 值
+     */
+    float evaluate(float x);
+
+    /**
+     * 估算该烘焙数据占用的堆内存（字节）
+     */
+    long getMemoryBytes();
+
+    /**
+     * 曲线被编辑后，只重新计算受影响的 x 范围，返回新的烘焙数据（原对象保持不变）
+     * 曲线的定义域（首尾枢纽点的 x）发生变化时，实现类应退回到整体重新烘焙
+     *
+     * @param curve 已编辑的曲线
+     * @param xFrom 受影响范围的起点
+     * @param xTo 受影响范围的终点
+     * @return 与编辑后的曲线一致的烘焙数据
+     */
+    BakedCurve rebake(PrismCurve curve, float xFrom, float xTo);
+}
@@ -0,0 +1,253 @@
+package com.codi.prismkit.math.curve;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 曲线派生数据的内存上限缓存（LRU）
+ * 统一存放烘焙表、编译后的求值器和细分折线等由曲线派生出来的数据
+ *
+ * 设计意图：
+ * - 大型整合包可能注册成千上万条曲线，内存紧张的客户端无法为每条曲线都保存派生数据
+ * - 按字节统计内存，超出上限时淘汰最久未使用的条目，热点数据始终留在缓存中
+ * - 淘汰对调用方透明：烘焙数据被淘汰后曲线自动回退到精确的 CurveSegment 计算，
+ *   折线等数据被淘汰后由调用方在下次需要时重新生成
+ *
+ * 技术细节：
+ * - 键由曲线名称、曲线版本号、数据种类和变体参数组成，曲线被编辑后旧版本的数据自然失效
+ * - 使用访问顺序的 LinkedHashMap 实现 LRU，所有公开方法都是同步的
+ * - 安装在曲线上的烘焙数据由求值路径直接读取，不经过 get，由安装方（PrismCurveTiering）通过 touch 刷新使用顺序
+ */
+public class BakedCurveCache {
+
+    /**
+     * 派生数据的种类
+     */
+    public enum Kind {
+        /**
+         * 安装在曲线上的烘焙求值器（BakedCurve），淘汰时会从曲线上卸载
+         */
+        BAKED,
+
+        /**
+         * 细分后的折线（float[]，x/y 交错存放）
+         */
+        POLYLINE
+    }
+
+    // 缓存条目
+    private static final class Entry {
+        final PrismCurve curve;
+        final Object data;
+        final long bytes;
+
+        Entry(PrismCurve curve, Object data, long bytes) {
+            this.curve = curve;
+            this.data = data;
+            this.bytes = bytes;
+        }
+    }
+
+    // 缓存键：曲线名称 + 版本号 + 数据种类 + 变体参数（如细分容差）
+    private record Key(String curveName, int version, Kind kind, int variant) {
+    }
+
+    // 访问顺序的哈希表：迭代顺序即从最久未使用到最近使用
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    // 内存上限（字节）
+    private long capacityBytes;
+
+    // 已使用的内存（字节）
+    private long usedBytes;
+
+    public BakedCurveCache(long capacityBytes) {
+        this.capacityBytes = capacityBytes;
+    }
+
+    /**
+     * 查询派生数据（命中时刷新为最近使用）
+     *
+     * @param curve 曲线
+     * @param kind 数据种类
+     * @param variant 变体参数（同一种类的不同参数，如不同细分容差），没有时传 0
+     * @return 缓存的数据，不存在时返回 null
+     */
+    public synchronized Object get(PrismCurve curve, Kind kind, int variant) {
+        Entry entry = entries.get(new Key(curve.getName(), curve.getVersion(), kind, variant));
+        return entry == null ? null : entry.data;
+    }
+
+    /**
+     * 把条目刷新为最近使用（不读取数据）
+     *
+     * @return 条目是否存在
+     */
+    public synchronized boolean touch(PrismCurve curve, Kind kind, int variant) {
+        return entries.get(new Key(curve.getName(), curve.getVersion(), kind, variant)) != null;
+    }
+
+    /**
+     * 存入派生数据，超出上限时按 LRU 淘汰
+     * 单个条目大于整个上限时不会被缓存
+     *
+     * @param bytes 该数据占用的内存（字节）
+     * @return 是否成功存入
+     */
+    public synchronized boolean put(PrismCurve curve, Kind kind, int variant, Object data, long bytes) {
+        if (bytes > capacityBytes) {
+            return false;
+        }
+        Key key = new Key(curve.getName(), curve.getVersion(), kind, variant);
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            release(previous);
+        }
+
+        entries.put(key, new Entry(curve, data, bytes));
+        usedBytes += bytes;
+        trimToCapacity();
+        return entries.containsKey(key);
+    }
+
+    /**
+     * 烘焙数据专用：存入缓存并安装到曲线上
+     *
+     * @return 是否成功安装（内存上限过小时返回 false，曲线保持精确计算）
+     */
+    public synchronized boolean install(PrismCurve curve, BakedCurve baked) {
+        if (!put(curve, Kind.BAKED, 0, baked, baked.getMemoryBytes())) {
+            return false;
+        }
+        curve.setBakedCurve(baked);
+        return true;
+    }
+
+    /**
+     * 获取曲线的细分折线，未缓存时立即细分并存入缓存
+     *
+     * @param tolerance 平直度容差（见 PrismCurve.tessellate）
+     * @return x/y 交错存放的折线顶点，长度为顶点数 × 2（调用方不应修改）
+     */
+    public float[] getOrTessellate(PrismCurve curve, float tolerance) {
+        int variant = Float.floatToIntBits(tolerance);
+        Object cached = get(curve, Kind.POLYLINE, variant);
+        if (cached instanceof float[] polyline) {
+            return polyline;
+        }
+
+        // 先计数再按精确大小分配，细分本身不会分配内存
+        int count = curve.tessellate(tolerance, new float[0]);
+        float[] polyline = new float[count * 2];
+        curve.tessellate(tolerance, polyline);
+        put(curve, Kind.POLYLINE, variant, polyline, 16L + 4L * polyline.length);
+        return polyline;
+    }
+
+    /**
+     * 移除曲线当前版本的某种派生数据
+     */
+    public synchronized void remove(PrismCurve curve, Kind kind, int variant) {
+        Entry entry = entries.remove(new Key(curve.getName(), curve.getVersion(), kind, variant));
+        if (entry != null) {
+            release(entry);
+        }
+    }
+
+    /**
+     * 移除某个名称下所有版本的派生数据（曲线被重新加载或覆盖时调用）
+     */
+    public synchronized void invalidate(String curveName) {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Entry> mapEntry = iterator.next();
+            if (mapEntry.getKey().curveName().equals(curveName)) {
+                iterator.remove();
+                release(mapEntry.getValue());
+            }
+        }
+    }
+
+    /**
+     * 曲线被编辑后更新缓存：旧版本的条目全部移除；
+     * 旧版本的烘焙数据由缓存管理时，曲线上局部重新烘焙后的新数据以新版本号重新登记
+     * （旧烘焙对象已被替换，释放时不会把新数据从曲线上卸载）
+     *
+     * @param previousVersion 编辑前的版本号
+     */
+    public synchronized void rekey(PrismCurve curve, int previousVersion) {
+        boolean managedBake = false;
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Entry> mapEntry = iterator.next();
+            Key key = mapEntry.getKey();
+            if (key.version() == previousVersion && key.curveName().equals(curve.getName())) {
+                managedBake |= key.kind() == Kind.BAKED;
+                iterator.remove();
+                release(mapEntry.getValue());
+            }
+        }
+
+        BakedCurve current = curve.getBakedCurve();
+        if (managedBake && current != null && !install(curve, current)) {
+            // 新数据超出上限时与淘汰一样回退到精确计算
+            curve.setBakedCurve(null);
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public synchronized void clear() {
+        for (Entry entry : entries.values()) {
+            release(entry);
+        }
+        entries.clear();
+    }
+
+    /**
+     * 设置内存上限，立即按新上限淘汰
+     */
+    public synchronized void setCapacityBytes(long capacityBytes) {
+        this.capacityBytes = Math.max(0L, capacityBytes);
+        trimToCapacity();
+    }
+
+    public synchronized long getCapacityBytes() {
+        return capacityBytes;
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void trimToCapacity() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (usedBytes > capacityBytes && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            release(eldest);
+        }
+    }
+
+    /**
+     * 释放条目：扣除内存统计，烘焙数据从曲线上卸载（回退到精确计算）
+     */
+    private void release(Entry entry) {
+        usedBytes -= entry.bytes;
+        if (entry.data instanceof BakedCurve && entry.curve.getBakedCurve() == entry.data) {
+            entry.curve.setBakedCurve(null);
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("BakedCurveCache[entries=%d, used=%d B, capacity=%d B]",
+            entries.size(), usedBytes, capacityBytes);
+    }
+}
@@ -0,0 +1,365 @@
+package com.codi.prismkit.math.curve;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 切比雪夫多项式烘焙曲线
+ * 用自适应区间上的低阶多项式逼近 PrismCurve，在给定最大误差内用尽量少的区间覆盖整条曲线
+ *
+ * 设计意图：
+ * - 曲线库有成千上万条曲线时，每条一个 1024 项的 float 查找表（4 KB）会占用大量内存
+ * - 分段多项式通常只需要几十个 float，能常驻 L1/L2 缓存，多个特效同时播放时依然很快
+ * - 求值只需一次区间二分查找 + 一次 Horner 多项式计算
+ *
+ * 技术细节：
+ * - 在每个区间的切比雪夫节点上采样原曲线，得到近似最优（接近 minimax）的插值多项式
+ * - 误差超过阈值时切分区间，优先在区间内离中点最近的枢纽点处切分（枢纽点处可能存在尖角）
+ * - 多项式转换为以区间中点为中心的幂基系数存储，求值时使用 Horner 法
+ */
+public class ChebyshevBakedCurve implements BakedCurve {
+
+    // 默认多项式阶数：每段贝塞尔曲线本身就是三次多项式，三阶时最终一定能收敛
+    public static final int DEFAULT_DEGREE = 3;
+
+    // 允许的最大阶数（更高阶的幂基系数在 float 精度下不稳定）
+    private static final int MAX_DEGREE = 6;
+
+    // 区间宽度下限，低于该宽度时不再切分
+    private static final float MIN_INTERVAL_WIDTH = 1e-5f;
+
+    // 区间边界：第 i 个区间为 [breaks[i], breaks[i + 1]]
+    private final float[] breaks;
+
+    // 每个区间中点和半宽的倒数
+    private final float[] centers;
+    private final float[] inverseHalfWidths;
+
+    // 幂基系数：coefficients[i * stride + k] 为第 i 个区间 u^k 的系数，u ∈ [-1, 1]
+    private final float[] coefficients;
+
+    // 每个区间的系数个数（阶数 + 1）
+    private final int stride;
+
+    // 烘焙时使用的最大误差（局部重新烘焙时沿用）
+    private final float maxError;
+
+    private ChebyshevBakedCurve(float[] breaks, float[] coefficients, int stride, float maxError) {
+        this.breaks = breaks;
+        this.coefficients = coefficients;
+        this.stride = stride;
+        this.maxError = maxError;
+
+        int intervals = breaks.length - 1;
+        this.centers = new float[intervals];
+        this.inverseHalfWidths = new float[intervals];
+        for (int i = 0; i < intervals; i++) {
+            centers[i] = (breaks[i] + breaks[i + 1]) * 0.5f;
+            inverseHalfWidths[i] = 2.0f / (breaks[i + 1] - breaks[i]);
+        }
+    }
+
+    /**
+     * 使用默认阶数烘焙曲线
+     *
+     * @see #bake(PrismCurve, float, int)
+     */
+    public static ChebyshevBakedCurve bake(PrismCurve curve, float maxError) {
+        return bake(curve, maxError, DEFAULT_DEGREE);
+    }
+
+    /**
+     * 将曲线烘焙为分段切比雪夫多项式
+     *
+     * @param curve 原曲线
+     * @param maxError 允许的最大 y 误差（必须大于 0）
+     * @param degree 多项式阶数（1 到 6）
+     * @return 烘焙结果（不会自动安装到曲线上）
+     */
+    public static ChebyshevBakedCurve bake(PrismCurve curve, float maxError, int degree) {
+        if (!(maxError > 0.0f)) {
+            throw new IllegalArgumentException("切比雪夫烘焙的最大误差必须大于 0");
+        }
+        if (degree < 1 || degree > MAX_DEGREE) {
+            throw new IllegalArgumentException(
+                String.format("多项式阶数 %d 无效（允许范围 1 到 %d）", degree, MAX_DEGREE)
+            );
+        }
+
+        float[] pivots = pivotXs(curve);
+        Fitter fitter = new Fitter(curve, pivots, maxError, degree);
+        fitter.fit(pivots[0], pivots[pivots.length - 1]);
+        return fitter.build();
+    }
+
+    /**
+     * 曲线被编辑后只重新拟合与 [xFrom, xTo] 重叠的区间，两侧的区间原样保留
+     * 定义域变化时整体重新烘焙
+     */
+    @Override
+    public ChebyshevBakedCurve rebake(PrismCurve curve, float xFrom, float xTo) {
+        float[] pivots = pivotXs(curve);
+        int intervals = breaks.length - 1;
+        if (pivots[0] != breaks[0] || pivots[pivots.length - 1] != breaks[intervals]) {
+            return bake(curve, maxError, stride - 1);
+        }
+
+        // 第一个和最后一个与受影响范围重叠的区间
+        int first = 0;
+        while (first < intervals - 1 && breaks[first + 1] <= xFrom) {
+            first++;
+        }
+        int last = intervals - 1;
+        while (last > first && breaks[last] >= xTo) {
+            last--;
+        }
+
+        Fitter fitter = new Fitter(curve, pivots, maxError, stride - 1);
+        for (int i = 0; i < first; i++) {
+            fitter.append(coefficients, i * stride, breaks[i + 1]);
+        }
+        fitter.fit(breaks[first], breaks[last + 1]);
+        for (int i = last + 1; i < intervals; i++) {
+            fitter.append(coefficients, i * stride, breaks[i + 1]);
+        }
+        return fitter.build();
+    }
+
+    /**
+     * 曲线所有枢纽点的 x 坐标（切分位置的候选）
+     */
+    private static float[] pivotXs(PrismCurve curve) {
+        List<CurveSegment> segments = curve.getSegments();
+        float[] pivots = new float[segments.size() + 1];
+        pivots[0] = segments.get(0).getXStart();
+        for (int i = 0; i < segments.size(); i++) {
+            pivots[i + 1] = segments.get(i).getXEnd();
+        }
+        return pivots;
+    }
+
+    /**
+     * 自适应拟合器：按从左到右的顺序输出区间，可以混合拟合新区间和复制已有区间
+     */
+    private static final class Fitter {
+        private final PrismCurve curve;
+        private final float[] pivots;
+        private final float maxError;
+        private final int degree;
+        private final int stride;
+
+        private float[] breaks = new float[8];
+        private float[] coefficients;
+        private int intervalCount;
+
+        Fitter(PrismCurve curve, float[] pivots, float maxError, int degree) {
+            this.curve = curve;
+            this.pivots = pivots;
+            this.maxError = maxError;
+            this.degree = degree;
+            this.stride = degree + 1;
+            this.coefficients = new float[8 * stride];
+        }
+
+        /**
+         * 拟合 [a, b]：误差超过阈值时切分，直到每个区间都满足精度要求
+         */
+        void fit(float a0, float b0) {
+            // 显式栈：成对存放待处理区间 [a, b]，先压右半边，保证按从左到右的顺序输出
+            float[] stack = new float[32];
+            int top = 0;
+            stack[top++] = a0;
+            stack[top++] = b0;
+
+            double[] local = new double[stride];
+            float[] converted = new float[stride];
+            while (top > 0) {
+                float b = stack[--top];
+                float a = stack[--top];
+
+                fitInterval(curve, a, b, degree, local);
+                boolean accept = b - a <= MIN_INTERVAL_WIDTH
+                        || measureError(curve, a, b, local) <= maxError;
+
+                if (accept) {
+                    for (int k = 0; k < stride; k++) {
+                        converted[k] = (float) local[k];
+                    }
+                    append(converted, 0, b);
+                    continue;
+                }
+
+                float split = chooseSplit(pivots, a, b);
+                if (top + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = split;
+                stack[top++] = b;
+                stack[top++] = a;
+                stack[top++] = split;
+            }
+        }
+
+        /**
+         * 追加一个已知系数的区间，区间起点为上一个区间的终点（第一个区间从定义域起点开始）
+         */
+        void append(float[] source, int offset, float end) {
+            if (intervalCount == 0) {
+                breaks[0] = pivots[0];
+            }
+            if (intervalCount + 2 > breaks.length) {
+                breaks = Arrays.copyOf(breaks, breaks.length * 2);
+                coefficients = Arrays.copyOf(coefficients, breaks.length * stride);
+            }
+            System.arraycopy(source, offset, coefficients, intervalCount * stride, stride);
+            breaks[++intervalCount] = end;
+        }
+
+        ChebyshevBakedCurve build() {
+            return new ChebyshevBakedCurve(
+                Arrays.copyOf(breaks, intervalCount + 1),
+                Arrays.copyOf(coefficients, intervalCount * stride),
+                stride,
+                maxError
+            );
+        }
+    }
+
+    /**
+     * 在切比雪夫节点上插值，输出以区间中点为中心的幂基系数
+     */
+    private static void fitInterval(PrismCurve curve, float a, float b, int degree, double[] out) {
+        int n = degree + 1;
+        double center = (a + b) * 0.5;
+        double halfWidth = (b - a) * 0.5;
+
+        // 切比雪夫系数：f(u) ≈ Σ c_j·T_j(u)
+        double[] cheb = new double[n];
+        for (int k = 0; k < n; k++) {
+            double theta = Math.PI * (k + 0.5) / n;
+            double u = Math.cos(theta);
+            double f = curve.evaluateExact((float) (center + halfWidth * u));
+            for (int j = 0; j < n; j++) {
+                cheb[j] += f * Math.cos(j * theta);
+            }
+        }
+        for (int j = 0; j < n; j++) {
+            cheb[j] *= (j == 0 ? 1.0 : 2.0) / n;
+        }
+
+        // 切比雪夫基转换为幂基：T_0 = 1, T_1 = u, T_{j+1} = 2u·T_j - T_{j-1}
+        double[][] basis = new double[n][n];
+        basis[0][0] = 1.0;
+        if (n > 1) {
+            basis[1][1] = 1.0;
+        }
+        for (int j = 2; j < n; j++) {
+            for (int k = 0; k < n - 1; k++) {
+                basis[j][k + 1] += 2.0 * basis[j - 1][k];
+            }
+            for (int k = 0; k < n; k++) {
+                basis[j][k] -= basis[j - 2][k];
+            }
+        }
+
+        Arrays.fill(out, 0.0);
+        for (int j = 0; j < n; j++) {
+            for (int k = 0; k < n; k++) {
+                out[k] += cheb[j] * basis[j][k];
+            }
+        }
+    }
+
+    /**
+     * 在区间内均匀检查若干点，返回多项式与原曲线之间的最大误差
+     */
+    private static float measureError(PrismCurve curve, float a, float b, double[] local) {
+        int checks = local.length * 4 + 8;
+        double center = (a + b) * 0.5;
+        double halfWidth = (b - a) * 0.5;
+
+        float maxError = 0.0f;
+        for (int i = 0; i <= checks; i++) {
+            double u = -1.0 + 2.0 * i / checks;
+            double approx = 0.0;
+            for (int k = local.length - 1; k >= 0; k--) {
+                approx = approx * u + local[k];
+            }
+            float exact = curve.evaluateExact((float) (center + halfWidth * u));
+            maxError = Math.max(maxError, (float) Math.abs(approx - exact));
+        }
+        return maxError;
+    }
+
+    /**
+     * 选择切分位置：区间内部离中点最近的枢纽点，没有则取中点
+     */
+    private static float chooseSplit(float[] pivots, float a, float b) {
+        float mid = (a + b) * 0.5f;
+        float best = mid;
+        float bestDistance = Float.MAX_VALUE;
+        float margin = (b - a) * 0.01f;
+        for (float pivot : pivots) {
+            if (pivot > a + margin && pivot < b - margin) {
+                float distance = Math.abs(pivot - mid);
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = pivot;
+                }
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public float evaluate(float x) {
+        // 超出定义域时钳位到端点，与精确求值的回退行为一致
+        x = Math.max(breaks[0], Math.min(breaks[breaks.length - 1], x));
+
+        int low = 0;
+        int high = breaks.length - 2;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (breaks[mid] <= x) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        float u = (x - centers[low]) * inverseHalfWidths[low];
+        int base = low * stride;
+        float result = coefficients[base + stride - 1];
+        for (int k = stride - 2; k >= 0; k--) {
+            result = result * u + coefficients[base + k];
+        }
+        return result;
+    }
+
+    @Override
+    public long getMemoryBytes() {
+        // 对象头 + 4 个数组（每个数组头约 16 字节）
+        return 32L + 4 * 16L
+                + 4L * (breaks.length + centers.length + inverseHalfWidths.length + coefficients.length);
+    }
+
+    /**
+     * 获取区间数量
+     */
+    public int getIntervalCount() {
+        return breaks.length - 1;
+    }
+
+    /**
+     * 获取多项式阶数
+     */
+    public int getDegree() {
+        return stride - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ChebyshevBakedCurve[intervals=%d, degree=%d, bytes=%d]",
+            getIntervalCount(), getDegree(), getMemoryBytes());
+    }
+}
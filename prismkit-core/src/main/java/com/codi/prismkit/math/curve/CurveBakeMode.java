@@ -0,0 +1,28 @@
+package com.codi.prismkit.math.curve;
+
+/**
+ * 曲线的烘焙模式
+ *
+ * 设计意图：
+ * - EXACT 直接使用 CurveSegment 计算，精度完全精确，不占用额外内存
+ * - TABLE 使用均匀查找表，求值最快，内存固定
+ * - CHEBYSHEV 用分段低阶多项式逼近，误差可控，内存只有均匀查找表的一小部分
+ */
+public enum CurveBakeMode {
+    /**
+     * 精确模式：不烘焙，每次求值都查找段并计算贝塞尔公式
+     */
+    EXACT,
+
+    /**
+     * 查找表模式：等间距采样 + 线性插值
+     * 适合每帧被大量调用的热点曲线（自动烘焙时使用此模式）
+     */
+    TABLE,
+
+    /**
+     * 切比雪夫模式：自适应区间 + 低阶切比雪夫多项式逼近
+     * 适合曲线数量很多、需要控制内存的场景
+     */
+    CHEBYSHEV
+}
@@ -0,0 +1,76 @@
+package com.codi.prismkit.math.curve;
+
+/**
+ * 曲线游标（CurveCursor）
+ * 为按时间顺序推进的求值（动画播放、粒子寿命）缓存上一次命中的段
+ *
+ * 设计意图：
+ * - 动画的 x 通常单调、小步地前进，下一次求值几乎总落在同一段或相邻段
+ * - 从上一次的段出发向前或向后移动，均摊 O(1)，不需要每次二分查找
+ * - 每个播放实例持有自己的游标，游标本身很小，可以随实例一起创建
+ *
+ * 技术细节：
+ * - 游标不是线程安全的，请勿在多个线程间共享同一个游标
+ * - 曲线已烘焙时直接使用烘焙数据，与 PrismCurve.getValue 的结果保持一致
+ * - 求值次数同样计入曲线的统计，因此游标求值的热点曲线也会被自动烘焙
+ */
+public class CurveCursor {
+
+    private final PrismCurve curve;
+
+    // 上一次命中的段下标
+    private int segmentIndex;
+
+    public CurveCursor(PrismCurve curve) {
+        if (curve == null) {
+            throw new IllegalArgumentException("CurveCursor 的曲线不能为空");
+        }
+        this.curve = curve;
+    }
+
+    /**
+     * 核心方法：在给定 x 处求值，并把游标移动到 x 所在的段
+     *
+     * @param x 输入值（会先经过曲线的边界处理模式）
+     * @return 对应的曲线输出值
+     */
+    public float advance(float x) {
+        float normalized = curve.getClampMode().apply(x);
+        curve.countEvaluation(normalized);
+
+        BakedCurve baked = curve.getBakedCurve();
+        if (baked != null) {
+            return baked.evaluate(normalized);
+        }
+
+        CurveSegment[] segments = curve.segmentArray();
+        int index = Math.min(segmentIndex, segments.length - 1);
+        while (index < segments.length - 1 && normalized > segments[index].getXEnd()) {
+            index++;
+        }
+        while (index > 0 && normalized < segments[index].getXStart()) {
+            index--;
+        }
+        segmentIndex = index;
+
+        return PrismCurve.evaluateSegment(segments, index, normalized);
+    }
+
+    /**
+     * 将游标移回第一段（重新播放时调用）
+     */
+    public void reset() {
+        segmentIndex = 0;
+    }
+
+    public PrismCurve getCurve() {
+        return curve;
+    }
+
+    /**
+     * 获取游标当前所在的段下标
+     */
+    public int getSegmentIndex() {
+        return segmentIndex;
+    }
+}
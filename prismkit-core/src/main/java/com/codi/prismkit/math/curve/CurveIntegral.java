@@ -0,0 +1,119 @@
+package com.codi.prismkit.math.curve;
+
+/**
+ * 曲线的解析积分：F(x) = ∫₀ˣ curve(u) du，x ∈ [0, 1]
+ * 用于把“速率曲线”变成“累计数量”，例如发射器按速率曲线生成粒子
+ *
+ * 设计意图：
+ * - 按速率逐 tick 累加小数会累积舍入误差，且每 tick 需要对曲线求值；
+ *   有了累计量 F 后，任意时间段内的数量就是 F 的差值，总数精确且与 tick 长短无关
+ * - 每段三次贝塞尔的 y 是段内参数 t 的三次多项式，而 t 与 x 成线性关系（见 CurveSegment.evaluate），
+ *   因此积分是 t 的四次多项式，可以精确求出，不需要数值积分
+ *
+ * 技术细节：
+ * - 构造时把每段的伯恩斯坦系数换成幂基系数，并计算各段起点之前的累计积分（前缀和）
+ * - 查询时二分查找所在段，再对四次多项式求值，与曲线本身的求值代价相同
+ * - 第一段之前和最后一段之后按首尾枢纽点的值为常数（与 PrismCurve.evaluateExact 一致）
+ * - 积分只依赖曲线形状，不经过边界模式（输入先钳位到 [0, 1]），也不参与自动烘焙的频率统计
+ */
+public final class CurveIntegral {
+
+    private final float[] segmentStarts;
+    private final double[] segmentWidths;
+
+    // 每段 4 个幂基系数：y(t) = c0 + c1·t + c2·t² + c3·t³
+    private final double[] coefficients;
+
+    // 第 i 段起点之前的累计积分
+    private final double[] prefix;
+
+    // 第一段之前、最后一段之后的常数值和范围
+    private final double firstStart;
+    private final double firstValue;
+    private final double lastEnd;
+    private final double lastValue;
+
+    private final double total;
+
+    private CurveIntegral(PrismCurve curve) {
+        CurveSegment[] segments = curve.segmentArray();
+        int count = segments.length;
+        this.segmentStarts = new float[count];
+        this.segmentWidths = new double[count];
+        this.coefficients = new double[count * 4];
+        this.prefix = new double[count];
+
+        this.firstStart = Math.max(0.0, segments[0].getXStart());
+        this.firstValue = segments[0].getAnchorStart().getY();
+        this.lastEnd = Math.min(1.0, segments[count - 1].getXEnd());
+        this.lastValue = segments[count - 1].getAnchorEnd().getY();
+
+        double accumulated = firstStart * firstValue;
+        for (int i = 0; i < count; i++) {
+            CurveSegment segment = segments[i];
+            segmentStarts[i] = segment.getXStart();
+            segmentWidths[i] = segment.getXEnd() - segment.getXStart();
+
+            double p0 = segment.getAnchorStart().getY();
+            double p1 = segment.getHandleStartOut().getY();
+            double p2 = segment.getHandleEndIn().getY();
+            double p3 = segment.getAnchorEnd().getY();
+            int c = i * 4;
+            coefficients[c] = p0;
+            coefficients[c + 1] = 3.0 * (p1 - p0);
+            coefficients[c + 2] = 3.0 * (p0 - 2.0 * p1 + p2);
+            coefficients[c + 3] = p3 - p0 + 3.0 * (p1 - p2);
+
+            prefix[i] = accumulated;
+            accumulated += segmentIntegral(i, 1.0);
+        }
+        this.total = accumulated + Math.max(0.0, 1.0 - lastEnd) * lastValue;
+    }
+
+    /**
+     * 计算曲线的积分表
+     *
+     * @param curve 曲线
+     * @return 积分（曲线之后被编辑不会影响已经计算好的积分）
+     */
+    public static CurveIntegral of(PrismCurve curve) {
+        return new CurveIntegral(curve);
+    }
+
+    /**
+     * 从 0 到 x 的积分
+     *
+     * @param x 积分上限（钳位到 [0, 1]）
+     */
+    public double integrate(double x) {
+        x = Math.max(0.0, Math.min(1.0, x));
+        if (x <= firstStart) {
+            return x * firstValue;
+        }
+        if (x >= lastEnd) {
+            return prefix[prefix.length - 1] + segmentIntegral(prefix.length - 1, 1.0) + (x - lastEnd) * lastValue;
+        }
+        int index = PrismCurve.findSegmentIndex(segmentStarts, (float) x);
+        double local = (x - segmentStarts[index]) / segmentWidths[index];
+        return prefix[index] + segmentIntegral(index, Math.max(0.0, Math.min(1.0, local)));
+    }
+
+    /**
+     * 从 0 到 1 的积分（曲线在 [0, 1] 上的平均值）
+     */
+    public double getTotal() {
+        return total;
+    }
+
+    /**
+     * 第 index 段从段起点到局部参数 t 的积分（乘以段宽把 dt 换成 dx）
+     */
+    private double segmentIntegral(int index, double t) {
+        int c = index * 4;
+        double polynomial = t * (coefficients[c]
+                + t * (coefficients[c + 1] / 2.0
+                + t * (coefficients[c + 2] / 3.0
+                + t * (coefficients[c + 3] / 4.0))));
+        return polynomial * segmentWidths[index];
+    }
+}
@@ -4,6 +4,12 @@ import org.joml.Vector2d;
 
 public class CurvePivotPoint extends CurveControlPoint{
 
+    // makeValidTangent 使用的最大斜率（校验要求单位切线的 |y| < 0.99，对应斜率约 7.0）
+    private static final double MAX_TANGENT_SLOPE = 6.5;
+
+    // makeValidTangent 使用的最小 x 分量，避免生成长度为 0 的切线
+    private static final double MIN_TANGENT_DX = 1e-5;
+
     /**
      * 以下为在枢纽点处的切线向量示例，中间为枢纽点，左侧控制点由tangentIn控制，右侧控制点由tangentOut控制
      * o-------(tangentIn)-------O-------(tangentOut)-------o
@@ -53,6 +59,21 @@ public class CurvePivotPoint extends CurveControlPoint{
         return unitY < 0.99;
     }
 
+    /**
+     * 生成一定能通过校验的切线向量（包内工具方法）
+     * 曲线求值只使用手柄的 y 值，因此斜率过陡时放大 x 分量，不会改变曲线形状
+     *
+     * @param dx 期望的 x 分量（正数为输出切线，负数为输入切线）
+     * @param dy 期望的 y 分量
+     */
+    static Vector2d makeValidTangent(double dx, double dy) {
+        double minDx = Math.max(Math.abs(dy) / MAX_TANGENT_SLOPE, MIN_TANGENT_DX);
+        if (Math.abs(dx) < minDx) {
+            dx = Math.copySign(minDx, dx);
+        }
+        return new Vector2d(dx, dy);
+    }
+
     /**
      * 创建一个“平滑 (Smooth)”模式的枢纽点。
      * 在此模式下，左右控制点（切线）是对齐且镜像的。
@@ -138,16 +159,59 @@ public class CurvePivotPoint extends CurveControlPoint{
         return pointMode;
     }
 
+    /**
+     * 复制该枢纽点并移动到新位置（切线和模式不变），供曲线编辑使用
+     */
+    public CurvePivotPoint withPosition(float x, float y) {
+        return new CurvePivotPoint(x, y, new Vector2d(tangentIn), new Vector2d(tangentOut), pointMode);
+    }
+
+    /**
+     * 复制该枢纽点并替换切线
+     * SMOOTH 模式只使用 tangentOut，tangentIn 自动取其镜像；LINEAR 模式的切线不参与求值，仅保存
+     *
+     * @throws IllegalArgumentException 切线方向不合法
+     */
+    public CurvePivotPoint withTangents(Vector2d tangentIn, Vector2d tangentOut) {
+        if (pointMode == CurvePivotPointMode.SMOOTH) {
+            return new CurvePivotPoint(getX(), getY(), new Vector2d(tangentOut).negate(), new Vector2d(tangentOut), pointMode);
+        }
+        return new CurvePivotPoint(getX(), getY(), new Vector2d(tangentIn), new Vector2d(tangentOut), pointMode);
+    }
+
+    /**
+     * 复制该枢纽点并切换模式
+     * 切换到 SMOOTH 时以 tangentOut 为准生成镜像切线，其余模式保留原有切线（以便切换回来）
+     */
+    public CurvePivotPoint withMode(CurvePivotPointMode mode) {
+        Vector2d in = mode == CurvePivotPointMode.SMOOTH ? new Vector2d(tangentOut).negate() : new Vector2d(tangentIn);
+        return new CurvePivotPoint(getX(), getY(), in, new Vector2d(tangentOut), mode);
+    }
+
     //将该枢纽点与另一个枢纽点连接，返回曲线段
+    //LINEAR 模式的枢纽点没有切线，手柄取在指向相邻枢纽点的 1/3 处（两端都是 LINEAR 时该段为直线）
     public CurveSegment linkToOther(CurvePivotPoint other) {
+        CurveControlPoint handleOut = this.pointMode == CurvePivotPointMode.LINEAR
+                ? thirdToward(this, other)
+                : this.getTangentOutPoint();
+        CurveControlPoint handleIn = other.pointMode == CurvePivotPointMode.LINEAR
+                ? thirdToward(other, this)
+                : other.getTangentInPoint();
         return new CurveSegment(
                 this,
-                this.getTangentOutPoint(),
-                other.getTangentInPoint(),
+                handleOut,
+                handleIn,
                 other
         );
     }
 
+    private static CurveControlPoint thirdToward(CurveControlPoint from, CurveControlPoint to) {
+        return new CurveControlPoint(
+                from.getX() + (to.getX() - from.getX()) / 3.0f,
+                from.getY() + (to.getY() - from.getY()) / 3.0f
+        );
+    }
+
 
 
 
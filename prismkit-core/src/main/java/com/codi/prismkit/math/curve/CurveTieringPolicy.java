@@ -0,0 +1,97 @@
+package com.codi.prismkit.math.curve;
+
+/**
+ * 曲线自动烘焙的分层策略参数
+ *
+ * 设计意图：
+ * - 曲线默认走精确的段计算路径，不占用额外内存
+ * - 求值频率超过 promoteRate 的热点曲线被提升为查找表
+ * - 频率降到 demoteRate 以下的曲线被降级并释放查找表（两个阈值之间留出滞回区间，避免来回抖动）
+ * - 所有查找表的总内存不超过 memoryBudgetBytes
+ */
+public class CurveTieringPolicy {
+
+    /**
+     * 默认策略：每秒 2000 次以上提升，200 次以下降级，查找表 1024 项，总预算 4 MB，每秒评估一次
+     */
+    public static final CurveTieringPolicy DEFAULT =
+            new CurveTieringPolicy(2000.0f, 200.0f, TableBakedCurve.DEFAULT_SIZE, 4L * 1024 * 1024, 1000);
+
+    /**
+     * 禁用自动烘焙的策略
+     */
+    public static final CurveTieringPolicy DISABLED =
+            new CurveTieringPolicy(Float.MAX_VALUE, 0.0f, TableBakedCurve.DEFAULT_SIZE, 0L, 1000);
+
+    // 提升阈值（次/秒）
+    private final float promoteRate;
+
+    // 降级阈值（次/秒）
+    private final float demoteRate;
+
+    // 查找表大小
+    private final int tableSize;
+
+    // 全局内存预算（字节）
+    private final long memoryBudgetBytes;
+
+    // 评估间隔（毫秒）
+    private final long intervalMillis;
+
+    /**
+     * 构造函数
+     *
+     * @param promoteRate 提升阈值（次/秒）
+     * @param demoteRate 降级阈值（次/秒），必须不大于提升阈值
+     * @param tableSize 查找表大小
+     * @param memoryBudgetBytes 所有自动烘焙数据的总内存预算（字节）
+     * @param intervalMillis 评估间隔（毫秒）
+     */
+    public CurveTieringPolicy(float promoteRate, float demoteRate, int tableSize,
+                              long memoryBudgetBytes, long intervalMillis) {
+        if (demoteRate > promoteRate) {
+            throw new IllegalArgumentException("降级阈值不能大于提升阈值");
+        }
+        if (tableSize < 2 || memoryBudgetBytes < 0 || intervalMillis <= 0) {
+            throw new IllegalArgumentException("无效的分层策略参数");
+        }
+        this.promoteRate = promoteRate;
+        this.demoteRate = demoteRate;
+        this.tableSize = tableSize;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * 返回修改了内存预算的新策略
+     */
+    public CurveTieringPolicy withMemoryBudget(long bytes) {
+        return new CurveTieringPolicy(promoteRate, demoteRate, tableSize, bytes, intervalMillis);
+    }
+
+    public float getPromoteRate() {
+        return promoteRate;
+    }
+
+    public float getDemoteRate() {
+        return demoteRate;
+    }
+
+    public int getTableSize() {
+        return tableSize;
+    }
+
+    public long getMemoryBudgetBytes() {
+        return memoryBudgetBytes;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CurveTieringPolicy[promote=%.0f/s, demote=%.0f/s, table=%d, budget=%d B]",
+            promoteRate, demoteRate, tableSize, memoryBudgetBytes);
+    }
+}
@@ -0,0 +1,600 @@
+package com.codi.prismkit.math.curve;
+
+import org.joml.Vector2d;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PrismKit 的核心曲线类
+ * 基于三次贝塞尔曲线实现，支持单段和多段曲线
+ * 
+ * 设计意图：
+ * - 支持任意数量的枢纽点（Anchor Points），创建复杂的曲线形状
+ * - 每两个相邻枢纽点之间使用一段三次贝塞尔曲线连接
+ * - 支持多种边界处理模式，适应不同的动画需求
+ * - 加载后通常不再修改，可在多线程环境下共享；编辑器通过 setPivotPoint 做局部修改
+ * 
+ * 技术细节：
+ * - 采用三次贝塞尔曲线（4 个控制点）作为工业标准
+ * - 多段曲线通过 CurveSegment 列表存储，自动找到对应的段
+ * - 向后兼容：支持4个控制点的单段曲线构造函数
+ */
+public class PrismCurve {
+    // 全局版本号生成器：每条新曲线、每次编辑都会得到一个不重复的版本号
+    private static final AtomicInteger VERSION_COUNTER = new AtomicInteger();
+
+    // 曲线的唯一标识符
+    private final String name;
+
+    // 版本号（用于派生数据缓存的失效判断，同名曲线重新加载或被编辑后版本号也不同）
+    // 不是 volatile：编辑时先写版本号再写 volatile 的 baked，读到新烘焙数据的线程也能看到新版本号
+    private int version = VERSION_COUNTER.incrementAndGet();
+    
+    // 曲线段列表（多段贝塞尔曲线）
+    private List<CurveSegment> segments;
+
+    // 求值用的段数组与各段起点 x（与 segments 一一对应，二分查找时不经过 List 和迭代器）
+    private CurveSegment[] segmentArray;
+    private float[] segmentStarts;
+
+    private final List<CurvePivotPoint> pivotPoints;
+    
+    // 边界处理模式
+    private final CurveClampMode clampMode;
+
+    // 烘焙后的求值器（为 null 时使用精确的段计算）
+    private volatile BakedCurve baked;
+
+    // 求值次数（供自动烘焙的分层策略统计频率；不做同步，允许并发时少量计数丢失）
+    private int evaluationCount;
+
+    // 自适应细分的最大递归深度（每段最多 2^16 个子段）
+    private static final int MAX_TESSELLATION_DEPTH = 16;
+    
+    // ========== 构造函数：多段曲线 ==========
+    
+    /**
+     * 主构造函数：创建多段贝塞尔曲线
+     * 
+     * @param name 曲线名称（用于标识和加载）
+     * @param pivotPoints 曲线枢纽点列表
+     * @param clampMode 边界处理模式
+     */
+    public PrismCurve(String name, List<CurvePivotPoint> pivotPoints, CurveClampMode clampMode) {
+        if (pivotPoints == null || pivotPoints.size() < 2) {
+            throw new IllegalArgumentException("多段曲线至少需要 2 个枢纽点");
+        }
+        this.pivotPoints = new ArrayList<>(pivotPoints);
+        this.name = name;
+        
+        List<CurveSegment> segmentsList = new ArrayList<>();
+        // 遍历枢纽点列表，将每两个相邻的枢纽点连接成一个曲线段
+        for (int i = 0; i < pivotPoints.size() - 1; i++) {
+            CurvePivotPoint current = pivotPoints.get(i);
+            CurvePivotPoint next = pivotPoints.get(i + 1);
+            segmentsList.add(current.linkToOther(next));
+        }
+        
+        this.segments = segmentsList;
+        this.clampMode = clampMode;
+        
+        // 验证曲线段的连续性
+        validateSegments();
+        rebuildLookup();
+    }
+    
+    /**
+     * 简化构造函数：使用默认的 CLAMP 模式
+     */
+    public PrismCurve(String name, List<CurvePivotPoint> pivotPoints) {
+        this(name, pivotPoints, CurveClampMode.CLAMP);
+    }
+    
+    // ========== 工厂方法：常用曲线 ==========
+
+    /**
+     * 创建常量曲线：在 [0, 1] 上恒等于 value
+     * 适合作为 PrismTrack 中不需要动画的通道
+     */
+    public static PrismCurve constant(String name, float value) {
+        return linear(name, value, value);
+    }
+
+    /**
+     * 创建直线曲线：从 (0, from) 线性过渡到 (1, to)
+     * 手柄 y 值位于两端的 1/3 处，因此曲线在整段上严格线性
+     */
+    public static PrismCurve linear(String name, float from, float to) {
+        Vector2d tangent = CurvePivotPoint.makeValidTangent(1.0 / 3.0, (to - from) / 3.0);
+        List<CurvePivotPoint> pivotPoints = new ArrayList<>(2);
+        pivotPoints.add(CurvePivotPoint.createSmoothPivotPoint(0.0f, from, new Vector2d(tangent)));
+        pivotPoints.add(CurvePivotPoint.createSmoothPivotPoint(1.0f, to, new Vector2d(tangent)));
+        return new PrismCurve(name, pivotPoints, CurveClampMode.CLAMP);
+    }
+
+    // ========== 构造函数：向后兼容（单段曲线）==========
+
+    /**
+     * 向后兼容构造函数：创建单段贝塞尔曲线（4个控制点）
+     * 这个构造函数保留了旧 API 兼容，内部转换为单段曲线
+     * 
+     * @param name 曲线名称
+     * @param p0 起点（通常是 0, 0）
+     * @param p1 第一个控制点（决定起始段的曲率）
+     * @param p2 第二个控制点（决定结束段的曲率）
+     * @param p3 终点（通常是 1, 1）
+     * @param clampMode 边界处理模式
+     */
+
+    /*
+    public PrismCurve(String name, CurveControlPoint p0, CurveControlPoint p1,
+                      CurveControlPoint p2, CurveControlPoint p3, CurveClampMode clampMode) {
+        this.name = name;
+        this.clampMode = clampMode;
+        
+        // 将 4 个控制点转换为单段曲线
+        CurveSegment singleSegment = new CurveSegment(p0, p1, p2, p3);
+        this.segments = Collections.singletonList(singleSegment);
+    }
+
+    public PrismCurve(String name, CurveControlPoint p0, CurveControlPoint p1,
+                      CurveControlPoint p2, CurveControlPoint p3) {
+        this(name, p0, p1, p2, p3, CurveClampMode.CLAMP);
+    }
+    */
+
+
+
+    /**
+     * 验证曲线段的连续性和有效性
+     * 确保相邻段的终点和起点相连接
+     */
+    private void validateSegments() {
+        for (int i = 0; i < segments.size() - 1; i++) {
+            CurveSegment current = segments.get(i);
+            CurveSegment next = segments.get(i + 1);
+            
+            // 检查相邻段是否连接（允许微小误差）
+            float currentEnd = current.getXEnd();
+            float nextStart = next.getXStart();
+            if (Math.abs(currentEnd - nextStart) > 0.0001f) {
+                throw new IllegalArgumentException(
+                    String.format("曲线段 %d 和 %d 不连续：段%d终点x=%.3f，段%d起点x=%.3f",
+                        i, i+1, i, currentEnd, i+1, nextStart)
+                );
+            }
+        }
+    }
+
+    /**
+     * 根据 segments 重建求值用的查找数组
+     */
+    private void rebuildLookup() {
+        CurveSegment[] array = segments.toArray(new CurveSegment[0]);
+        float[] starts = new float[array.length];
+        for (int i = 0; i < array.length; i++) {
+            starts[i] = array[i].getXStart();
+        }
+        this.segmentStarts = starts;
+        this.segmentArray = array;
+    }
+
+    /**
+     * 核心方法：根据输入的 x 值获取对应的 y 值
+     * 这是对外暴露的主要 API
+     * 
+     * @param x 输入值（通常代表时间进度，0 到 1）
+     * @return 对应的曲线输出值
+     * 
+     * 实现逻辑：
+     * 1. 根据 clampMode 处理超出 [0, 1] 的输入
+     * 2. 如果曲线已烘焙，使用烘焙数据求值
+     * 3. 否则找到包含该 x 值的曲线段，调用该段的 evaluate() 方法计算 y 值
+     */
+    public float getValue(float x) {
+        // 第一步：应用边界处理模式
+        float normalized = clampMode.apply(x);
+        int count = ++evaluationCount;
+        PrismCurvePlayheads.sample(count, version, normalized);
+        
+        // 第二步：已烘焙时直接使用烘焙数据
+        BakedCurve current = baked;
+        if (current != null) {
+            return current.evaluate(normalized);
+        }
+        
+        // 第三步：精确计算
+        return evaluateExact(normalized);
+    }
+
+    /**
+     * 精确求值：忽略烘焙数据，直接查找曲线段并计算贝塞尔公式
+     * 烘焙器以此作为参考值
+     * 
+     * @param normalized 已经过边界模式处理的 x 值
+     * @return 对应的曲线输出值
+     */
+    public float evaluateExact(float normalized) {
+        CurveSegment[] array = segmentArray;
+        return evaluateSegment(array, findSegmentIndex(segmentStarts, normalized), normalized);
+    }
+
+    /**
+     * 批量求值：对 xs 的前 count 个值求值并写入 out
+     * 适合每帧需要对大量实例求值的调用方（粒子、光束），不会分配任何对象
+     * 
+     * @param xs 输入值数组
+     * @param out 输出数组（可以与 xs 是同一个数组）
+     * @param count 求值数量
+     */
+    public void getValues(float[] xs, float[] out, int count) {
+        getValues(xs, out, 0, count);
+    }
+
+    /**
+     * 批量求值：对 xs 下标 [offset, offset + count) 的值求值并写入 out 的相同下标
+     * 多个线程可以对同一个数组的不相交区间同时求值（粒子的分块并行更新）
+     *
+     * @param xs 输入值数组
+     * @param out 输出数组（可以与 xs 是同一个数组）
+     * @param offset 起始下标
+     * @param count 求值数量
+     */
+    public void getValues(float[] xs, float[] out, int offset, int count) {
+        int end = offset + count;
+        if (offset < 0 || count < 0 || end > xs.length || end > out.length) {
+            throw new IllegalArgumentException(
+                String.format("批量求值区间 [%d, %d) 超出数组长度（输入 %d，输出 %d）", offset, end, xs.length, out.length)
+            );
+        }
+        if (count > 0) {
+            // 多线程同时求值时计数可能丢失，只影响自动烘焙的频率统计
+            evaluationCount += count;
+            PrismCurvePlayheads.sample(evaluationCount, version, clampMode.apply(xs[offset]));
+        }
+
+        BakedCurve current = baked;
+        if (current != null) {
+            for (int i = offset; i < end; i++) {
+                out[i] = current.evaluate(clampMode.apply(xs[i]));
+            }
+            return;
+        }
+
+        CurveSegment[] array = segmentArray;
+        float[] starts = segmentStarts;
+        for (int i = offset; i < end; i++) {
+            float normalized = clampMode.apply(xs[i]);
+            out[i] = evaluateSegment(array, findSegmentIndex(starts, normalized), normalized);
+        }
+    }
+
+    /**
+     * 二分查找起点不大于 x 的最后一段；x 位于首段之前时返回 0
+     */
+    static int findSegmentIndex(float[] starts, float x) {
+        int low = 0;
+        int high = starts.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (starts[mid] <= x) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 在指定段上求值；x 超出曲线范围时返回首尾枢纽点的值
+     */
+    static float evaluateSegment(CurveSegment[] array, int index, float x) {
+        CurveSegment segment = array[index];
+        if (x < segment.getXStart()) {
+            return segment.getAnchorStart().getY();
+        }
+        if (x > segment.getXEnd()) {
+            return segment.getAnchorEnd().getY();
+        }
+        return segment.evaluate(x);
+    }
+
+    /**
+     * 供 CurveCursor 使用的段数组（内部数据，不可修改）
+     */
+    CurveSegment[] segmentArray() {
+        return segmentArray;
+    }
+
+    /**
+     * 供 CurveCursor 计入求值次数，使游标求值同样参与自动烘焙的频率统计和播放头记录
+     */
+    void countEvaluation(float normalized) {
+        PrismCurvePlayheads.sample(++evaluationCount, version, normalized);
+    }
+
+    // ========== 编辑（实时曲线编辑器使用）==========
+
+    /**
+     * 替换一个枢纽点：只重建相邻的两段，并只重新烘焙受影响的 x 范围
+     * 
+     * @param index 枢纽点下标
+     * @param pivot 新的枢纽点（x 必须严格位于相邻枢纽点之间）
+     * @throws IllegalArgumentException 下标越界或 x 顺序不合法，此时曲线保持不变
+     * 
+     * 实现逻辑：
+     * 1. 先构造新的相邻段（构造失败时不修改任何状态）
+     * 2. 原地替换段列表、查找数组中对应的槽位，段数不变，不重新连接其他段
+     * 3. 分配新的版本号，派生数据缓存中旧版本的条目随之失效
+     * 4. 已烘焙时只重新计算相邻两段覆盖的 x 范围，再安装新的烘焙数据
+     * 
+     * 技术细节：
+     * - 编辑期间其他线程可能看到新旧段混合的状态，evaluateSegment 对段外的 x 钳位到端点，不会抛出异常
+     * - 与 getValue 一样不做同步，编辑应只在一个线程（客户端渲染线程）中进行
+     */
+    void setPivotPoint(int index, CurvePivotPoint pivot) {
+        int last = pivotPoints.size() - 1;
+        if (index < 0 || index > last) {
+            throw new IllegalArgumentException(
+                String.format("枢纽点下标 %d 越界（共 %d 个枢纽点）", index, pivotPoints.size())
+            );
+        }
+
+        // 第一步：构造相邻段（CurveSegment 会校验 x 顺序）
+        CurveSegment before = index > 0 ? pivotPoints.get(index - 1).linkToOther(pivot) : null;
+        CurveSegment after = index < last ? pivot.linkToOther(pivotPoints.get(index + 1)) : null;
+
+        // 第二步：原地替换
+        pivotPoints.set(index, pivot);
+        if (before != null) {
+            segments.set(index - 1, before);
+            segmentArray[index - 1] = before;
+        }
+        if (after != null) {
+            segments.set(index, after);
+            segmentStarts[index] = after.getXStart();
+            segmentArray[index] = after;
+        }
+
+        // 第三步：新版本号
+        version = VERSION_COUNTER.incrementAndGet();
+
+        // 第四步：局部重新烘焙
+        BakedCurve current = baked;
+        if (current != null) {
+            float xFrom = pivotPoints.get(Math.max(index - 1, 0)).getX();
+            float xTo = pivotPoints.get(Math.min(index + 1, last)).getX();
+            baked = current.rebake(this, xFrom, xTo);
+        }
+    }
+
+    // ========== 烘焙 ==========
+
+    /**
+     * 按指定模式烘焙曲线，之后 getValue 会透明地使用烘焙结果
+     * 
+     * @param mode 烘焙模式，EXACT 表示移除已有的烘焙数据
+     * @param maxError 允许的最大 y 误差（仅 CHEBYSHEV 模式使用）
+     */
+    public void bake(CurveBakeMode mode, float maxError) {
+        switch (mode) {
+            case TABLE:
+                setBakedCurve(TableBakedCurve.bake(this, TableBakedCurve.DEFAULT_SIZE));
+                break;
+            case CHEBYSHEV:
+                setBakedCurve(ChebyshevBakedCurve.bake(this, maxError));
+                break;
+            case EXACT:
+            default:
+                setBakedCurve(null);
+                break;
+        }
+    }
+
+    /**
+     * 安装烘焙数据（传入 null 则恢复精确计算）
+     */
+    public void setBakedCurve(BakedCurve bakedCurve) {
+        this.baked = bakedCurve;
+    }
+
+    /**
+     * 获取当前安装的烘焙数据，未烘焙时返回 null
+     */
+    public BakedCurve getBakedCurve() {
+        return baked;
+    }
+
+    /**
+     * 获取累计求值次数（会溢出回绕，请只使用两次读取之间的差值）
+     */
+    public int getEvaluationCount() {
+        return evaluationCount;
+    }
+
+    // ========== 自适应细分（折线输出）==========
+
+    /**
+     * 将曲线自适应细分为折线，写入 float 数组
+     * 
+     * @param tolerance 平直度容差：折线与曲线之间允许的最大 y 偏差（必须大于 0）
+     * @param out 输出数组，按 x0, y0, x1, y1, ... 交错存放
+     * @return 折线的顶点数量；如果大于 out.length / 2，说明数组容量不足，
+     *         只写入了能容纳的前半部分，调用方可按返回值扩容后重试
+     * 
+     * 实现逻辑：
+     * 1. 每段贝塞尔曲线检查两个手柄相对弦线的偏差，足够平直则只输出端点
+     * 2. 否则在 t = 0.5 处用 de Casteljau 算法二分，对两半递归处理
+     * 3. 直线区域只产生 2 个顶点，急弯（如 SPLIT 枢纽点附近）会产生更多顶点
+     */
+    public int tessellate(float tolerance, float[] out) {
+        return tessellateInto(tolerance, out, null);
+    }
+
+    /**
+     * 将曲线自适应细分为折线，从 buffer 的当前位置开始写入
+     * 
+     * @param tolerance 平直度容差（必须大于 0）
+     * @param out 输出缓冲区，按 x, y 交错写入，写入后 position 前移
+     * @return 折线的顶点数量；如果大于写入前 out.remaining() / 2，说明缓冲区容量不足
+     * @see #tessellate(float, float[])
+     */
+    public int tessellate(float tolerance, FloatBuffer out) {
+        return tessellateInto(tolerance, null, out);
+    }
+
+    private int tessellateInto(float tolerance, float[] array, FloatBuffer buffer) {
+        if (!(tolerance > 0.0f)) {
+            throw new IllegalArgumentException("细分容差必须大于 0");
+        }
+
+        CurveSegment first = segments.get(0);
+        int count = emitPoint(array, buffer, 0, first.getXStart(), first.getAnchorStart().getY());
+
+        for (CurveSegment segment : segments) {
+            count = subdivide(array, buffer, count, tolerance,
+                    segment.getXStart(), segment.getXEnd(),
+                    segment.getAnchorStart().getY(), segment.getHandleStartOut().getY(),
+                    segment.getHandleEndIn().getY(), segment.getAnchorEnd().getY(),
+                    0);
+        }
+        return count;
+    }
+
+    /**
+     * 递归细分一段贝塞尔曲线，只输出终点（起点已由上一段输出）
+     * 
+     * 平直度判断：曲线到弦线的最大偏差不超过手柄偏差的 3/4
+     */
+    private static int subdivide(float[] array, FloatBuffer buffer, int count, float tolerance,
+                                 float x0, float x3, float y0, float y1, float y2, float y3, int depth) {
+        float d1 = Math.abs(y1 - (2.0f * y0 + y3) / 3.0f);
+        float d2 = Math.abs(y2 - (y0 + 2.0f * y3) / 3.0f);
+        if (0.75f * Math.max(d1, d2) <= tolerance || depth >= MAX_TESSELLATION_DEPTH) {
+            return emitPoint(array, buffer, count, x3, y3);
+        }
+
+        // de Casteljau 二分（x 与 t 线性相关，中点 x 直接取平均）
+        float y01 = (y0 + y1) * 0.5f;
+        float y12 = (y1 + y2) * 0.5f;
+        float y23 = (y2 + y3) * 0.5f;
+        float y012 = (y01 + y12) * 0.5f;
+        float y123 = (y12 + y23) * 0.5f;
+        float yMid = (y012 + y123) * 0.5f;
+        float xMid = (x0 + x3) * 0.5f;
+
+        count = subdivide(array, buffer, count, tolerance, x0, xMid, y0, y01, y012, yMid, depth + 1);
+        return subdivide(array, buffer, count, tolerance, xMid, x3, yMid, y123, y23, y3, depth + 1);
+    }
+
+    /**
+     * 写入一个顶点（容量不足时只计数不写入）
+     */
+    private static int emitPoint(float[] array, FloatBuffer buffer, int count, float x, float y) {
+        if (array != null) {
+            int index = count * 2;
+            if (index + 1 < array.length) {
+                array[index] = x;
+                array[index + 1] = y;
+            }
+        } else if (buffer.remaining() >= 2) {
+            buffer.put(x).put(y);
+        }
+        return count + 1;
+    }
+
+    // ========== Getter 方法 ==========
+    
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取曲线版本号（全局唯一，派生数据缓存以名称 + 版本号作为键）
+     */
+    public int getVersion() {
+        return version;
+    }
+    
+    public List<CurveSegment> getSegments() {
+        return Collections.unmodifiableList(segments);
+    }
+    
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public CurveClampMode getClampMode() {
+        return clampMode;
+    }
+    
+    // ========== 向后兼容的 Getter（仅对单段曲线有效）==========
+    
+    /**
+     * 获取第一个控制点（向后兼容）
+     * 仅对单段曲线有效
+     */
+    public CurveControlPoint getP0() {
+        if (segments.size() != 1) {
+            throw new UnsupportedOperationException("此方法仅适用于单段曲线");
+        }
+        return segments.get(0).getAnchorStart();
+    }
+
+    /**
+     * 获取第二个控制点（向后兼容）
+     * 仅对单段曲线有效
+     */
+    public CurveControlPoint getP1() {
+        if (segments.size() != 1) {
+            throw new UnsupportedOperationException("此方法仅适用于单段曲线");
+        }
+        return segments.get(0).getHandleStartOut();
+    }
+
+    /**
+     * 获取第三个控制点（向后兼容）
+     * 仅对单段曲线有效
+     */
+    public CurveControlPoint getP2() {
+        if (segments.size() != 1) {
+            throw new UnsupportedOperationException("此方法仅适用于单段曲线");
+        }
+        return segments.get(0).getHandleEndIn();
+    }
+
+    /**
+     * 获取第四个控制点（向后兼容）
+     * 仅对单段曲线有效
+     */
+    public CurveControlPoint getP3() {
+        if (segments.size() != 1) {
+            throw new UnsupportedOperationException("此方法仅适用于单段曲线");
+        }
+        return segments.get(0).getAnchorEnd();
+    }
+
+    @Override
+    public String toString() {
+        if (segments.size() == 1) {
+            // 单段曲线：显示详细信息
+            CurveSegment seg = segments.get(0);
+            return String.format("PrismCurve[name=%s, clampMode=%s, points=[%s, %s, %s, %s]]",
+                name, clampMode, seg.getAnchorStart(), seg.getHandleStartOut(), 
+                seg.getHandleEndIn(), seg.getAnchorEnd());
+        } else {
+            // 多段曲线：显示段数
+            return String.format("PrismCurve[name=%s, clampMode=%s, segments=%d]",
+                name, clampMode, segments.size());
+        }
+    }
+
+    public List<CurvePivotPoint> getPivotPoints() {
+        return pivotPoints;
+    }
+}
@@ -0,0 +1,97 @@
+package com.codi.prismkit.math.curve;
+
+import com.codi.prismkit.math.PrismHash;
+
+/**
+ * 曲线带（Curve Band）：在两条曲线之间随机取值
+ * 求值公式：lerp(min(x), max(x), hash(seed))
+ *
+ * 设计意图：
+ * - 让每个粒子/实体拥有各自的变化（大小、速度、透明度……），同时保持整体走势由曲线控制
+ * - 随机因子由实例种子经无状态哈希得到，不需要为每个实例保存 Random 或额外的随机值字段
+ * - 同一个种子在任意时刻求值都得到同一条“中间曲线”，动画连续不跳变
+ *
+ * 使用示例：
+ * float size = sizeBand.getValue(normalizedAge, particleSeed);
+ * float speed = speedBand.getValue(normalizedAge, particleSeed, SALT_SPEED);
+ */
+public class PrismCurveBand {
+    // 曲线带的名称
+    private final String name;
+
+    // 下边界曲线（随机因子为 0 时的取值）
+    private final PrismCurve minCurve;
+
+    // 上边界曲线（随机因子接近 1 时的取值）
+    private final PrismCurve maxCurve;
+
+    /**
+     * 构造函数
+     *
+     * @param name 曲线带名称
+     * @param minCurve 下边界曲线
+     * @param maxCurve 上边界曲线
+     */
+    public PrismCurveBand(String name, PrismCurve minCurve, PrismCurve maxCurve) {
+        if (minCurve == null || maxCurve == null) {
+            throw new IllegalArgumentException("曲线带的上下边界曲线不能为空");
+        }
+        this.name = name;
+        this.minCurve = minCurve;
+        this.maxCurve = maxCurve;
+    }
+
+    /**
+     * 根据实例种子求值
+     *
+     * @param x 输入值（通常是 0 到 1 的进度）
+     * @param seed 实例种子（如粒子或实体的 id）
+     */
+    public float getValue(float x, int seed) {
+        return getValueWithFactor(x, PrismHash.unitFloat(seed));
+    }
+
+    /**
+     * 根据实例种子和 salt 求值
+     * 同一个实例的多个属性使用不同的 salt，使它们的随机因子互不相关
+     *
+     * @param x 输入值
+     * @param seed 实例种子
+     * @param salt 属性区分值
+     */
+    public float getValue(float x, int seed, int salt) {
+        return getValueWithFactor(x, PrismHash.unitFloat(seed, salt));
+    }
+
+    /**
+     * 使用给定的随机因子求值
+     *
+     * @param x 输入值
+     * @param factor 随机因子，0 对应下边界，1 对应上边界
+     */
+    public float getValueWithFactor(float x, float factor) {
+        float min = minCurve.getValue(x);
+        float max = maxCurve.getValue(x);
+        return min + (max - min) * factor;
+    }
+
+    // ========== Getter 方法 ==========
+
+    public String getName() {
+        return name;
+    }
+
+    public PrismCurve getMinCurve() {
+        return minCurve;
+    }
+
+    public PrismCurve getMaxCurve() {
+        return maxCurve;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PrismCurveBand[name=%s, min=%s, max=%s]",
+            name, minCurve.getName(), maxCurve.getName());
+    }
+}
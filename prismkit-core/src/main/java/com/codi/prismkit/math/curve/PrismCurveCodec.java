@@ -1,7 +1,6 @@
 package com.codi.prismkit.math.curve;
 
 import com.codi.prismkit.JsonKit;
-import com.codi.prismkit.PrismKit;
 import com.google.gson.*;
 import org.joml.Vector2d;
 
@@ -133,9 +132,8 @@ public class PrismCurveCodec implements JsonSerializer<PrismCurve>, JsonDeserial
 
             switch (mode) {
                 case "SMOOTH":
-                    if (json.has("tangent_out") || json.has("tangent_in")) {
-                        PrismKit.LOGGER.warn("SMOOTH模式的枢纽点仅需设置一侧切线，默认读取tangent_out,tangent_in将被忽略");
-                    } else if (json.has("tangent_out")) {
+                    // SMOOTH 模式的枢纽点仅需一侧切线：两侧都存在时（序列化输出即如此）以 tangent_out 为准，tangent_in 被忽略
+                    if (json.has("tangent_out")) {
                         Vector2d tangentOut = JsonKit.deserializeVector2d(json.getAsJsonObject("tangent_out"));
                         return CurvePivotPoint.createSmoothPivotPoint(x, y, tangentOut);
                     } else if (json.has("tangent_in")) { // SMOOTH模式恢复时应使用 tangent_out，此处检测用户若使用了tangent_in,则进行反转自动适配
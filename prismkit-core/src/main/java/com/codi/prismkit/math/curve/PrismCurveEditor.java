@@ -0,0 +1,151 @@
+package com.codi.prismkit.math.curve;
+
+import org.joml.Vector2d;
+
+import java.io.IOException;
+
+/**
+ * 曲线编辑器（PrismCurveEditor）
+ * 原地修改曲线库中的一条曲线，修改立即作用于所有正在使用该曲线的特效
+ *
+ * 设计意图：
+ * - README 的核心目标是实时可视化编辑：拖动枢纽点时，正在播放的特效在下一帧就能看到结果
+ * - 每次修改只重建被改动枢纽点两侧的段，已烘焙的曲线只重新计算受影响的 x 范围，
+ *   50 个枢纽点的曲线拖动时也能保持帧率
+ * - 与 Minecraft 无关，游戏内的编辑界面和测试共用同一套编辑逻辑
+ *
+ * 技术细节：
+ * - 每次修改后通知曲线库：派生数据缓存换用新的版本号，曲线库版本号递增，
+ *   句柄和 PrismTrack 等派生数据据此在下一帧重新生成
+ * - 拖动时的非法输入（越过相邻枢纽点、切线过陡或方向错误）会被修正到最近的合法值，而不是抛出异常
+ * - 编辑器不是线程安全的，只应在客户端渲染线程中使用
+ */
+public class PrismCurveEditor {
+
+    // 相邻枢纽点之间保留的最小 x 间距
+    private static final float MIN_PIVOT_GAP = 1e-3f;
+
+    private final PrismCurveLibrary library;
+    private final PrismCurve curve;
+
+    // 自上次保存以来是否有修改
+    private boolean dirty;
+
+    /**
+     * @param library 曲线所在的曲线库
+     * @param curve 要编辑的曲线
+     */
+    public PrismCurveEditor(PrismCurveLibrary library, PrismCurve curve) {
+        if (library == null || curve == null) {
+            throw new IllegalArgumentException("PrismCurveEditor 的曲线库和曲线不能为空");
+        }
+        this.library = library;
+        this.curve = curve;
+    }
+
+    // ========== 编辑操作 ==========
+
+    /**
+     * 移动枢纽点，x 被限制在相邻枢纽点之间
+     *
+     * @param index 枢纽点下标
+     * @param x 新的 x 坐标
+     * @param y 新的 y 坐标
+     */
+    public void movePivot(int index, float x, float y) {
+        CurvePivotPoint pivot = getPivot(index);
+        int last = curve.getPivotPoints().size() - 1;
+        if (index > 0) {
+            x = Math.max(x, curve.getPivotPoints().get(index - 1).getX() + MIN_PIVOT_GAP);
+        }
+        if (index < last) {
+            x = Math.min(x, curve.getPivotPoints().get(index + 1).getX() - MIN_PIVOT_GAP);
+        }
+        apply(index, pivot.withPosition(x, y));
+    }
+
+    /**
+     * 设置输出切线（右侧手柄相对枢纽点的偏移），SMOOTH 模式下输入切线随之镜像
+     *
+     * @param index 枢纽点下标
+     * @param dx 手柄的 x 偏移（会被修正为正数）
+     * @param dy 手柄的 y 偏移
+     */
+    public void setTangentOut(int index, double dx, double dy) {
+        CurvePivotPoint pivot = getPivot(index);
+        Vector2d out = CurvePivotPoint.makeValidTangent(Math.abs(dx), dy);
+        apply(index, pivot.withTangents(new Vector2d(pivot.getTangentIn()), out));
+    }
+
+    /**
+     * 设置输入切线（左侧手柄相对枢纽点的偏移），SMOOTH 模式下输出切线随之镜像
+     *
+     * @param index 枢纽点下标
+     * @param dx 手柄的 x 偏移（会被修正为负数）
+     * @param dy 手柄的 y 偏移
+     */
+    public void setTangentIn(int index, double dx, double dy) {
+        CurvePivotPoint pivot = getPivot(index);
+        Vector2d in = CurvePivotPoint.makeValidTangent(-Math.abs(dx), dy);
+        Vector2d out = pivot.getPointMode() == CurvePivotPointMode.SMOOTH
+                ? new Vector2d(in).negate()
+                : new Vector2d(pivot.getTangentOut());
+        apply(index, pivot.withTangents(in, out));
+    }
+
+    /**
+     * 切换枢纽点模式
+     */
+    public void setMode(int index, CurvePivotPointMode mode) {
+        CurvePivotPoint pivot = getPivot(index);
+        if (pivot.getPointMode() != mode) {
+            apply(index, pivot.withMode(mode));
+        }
+    }
+
+    /**
+     * 保存到曲线库的曲线目录
+     *
+     * @throws IOException 文件写入失败
+     */
+    public void save() throws IOException {
+        library.saveCurve(curve);
+        dirty = false;
+    }
+
+    private void apply(int index, CurvePivotPoint pivot) {
+        int previousVersion = curve.getVersion();
+        curve.setPivotPoint(index, pivot);
+        library.onCurveEdited(curve, previousVersion);
+        dirty = true;
+    }
+
+    // ========== 查询 ==========
+
+    public PrismCurve getCurve() {
+        return curve;
+    }
+
+    public int getPivotCount() {
+        return curve.getPivotPoints().size();
+    }
+
+    /**
+     * @throws IllegalArgumentException 下标越界
+     */
+    public CurvePivotPoint getPivot(int index) {
+        if (index < 0 || index >= curve.getPivotPoints().size()) {
+            throw new IllegalArgumentException(
+                String.format("枢纽点下标 %d 越界（共 %d 个枢纽点）", index, curve.getPivotPoints().size())
+            );
+        }
+        return curve.getPivotPoints().get(index);
+    }
+
+    /**
+     * 自上次保存以来是否有未保存的修改
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+}
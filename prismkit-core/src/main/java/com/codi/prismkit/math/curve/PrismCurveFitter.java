@@ -0,0 +1,304 @@
+package com.codi.prismkit.math.curve;
+
+import org.joml.Vector2d;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * PrismCurve 拟合工具
+ * 将密集的采样数据拟合为枢纽点尽可能少的多段贝塞尔曲线（Schneider 风格的递归拟合）
+ *
+ * 设计意图：
+ * - 游戏内录制或外部工具导出的动画曲线往往带有数百个几乎共线的枢纽点
+ * - 段数越少，查找越快、文件越小，同步和烘焙的数据量也越少
+ * - 同一套算法也可以用来简化已有的冗余曲线（见 simplify）
+ *
+ * 技术细节：
+ * - CurveSegment 求值时 x 与段内参数 t 呈线性关系，因此每段只需要拟合 y 方向的 4 个控制值
+ * - 段的两个端点固定在采样点上，两个手柄的 y 值通过最小二乘（2x2 正规方程）求解
+ * - 若段内最大误差超出容差，则在误差最大的采样点处切分并继续拟合
+ * - 拟合完成后再做一轮合并：相邻两段合并后仍满足容差则删除中间的枢纽点
+ * - 生成的枢纽点统一使用 SPLIT 模式，手柄 x 取段长的 1/3，与段的线性 x 参数化保持一致
+ */
+public final class PrismCurveFitter {
+
+    // 简化已有曲线时，每段默认的采样数量
+    private static final int DEFAULT_SAMPLES_PER_SEGMENT = 32;
+
+    // 正规方程行列式的退化阈值，低于该值时改用直线手柄
+    private static final double SINGULAR_EPSILON = 1e-12;
+
+    private PrismCurveFitter() {
+    }
+
+    /**
+     * 使用默认的 CLAMP 模式拟合采样数据
+     *
+     * @see #fit(String, float[], float[], int, float, CurveClampMode)
+     */
+    public static PrismCurve fit(String name, float[] xs, float[] ys, float tolerance) {
+        return fit(name, xs, ys, xs == null ? 0 : xs.length, tolerance, CurveClampMode.CLAMP);
+    }
+
+    /**
+     * 将采样数据拟合为多段贝塞尔曲线
+     *
+     * @param name 生成曲线的名称
+     * @param xs 采样点的 x 坐标（必须严格递增）
+     * @param ys 采样点的 y 坐标
+     * @param count 使用的采样点数量（从下标 0 开始）
+     * @param tolerance 允许的最大 y 误差（在所有采样点上检查）
+     * @param clampMode 生成曲线的边界处理模式
+     * @return 满足误差要求且枢纽点尽可能少的曲线
+     */
+    public static PrismCurve fit(String name, float[] xs, float[] ys, int count, float tolerance, CurveClampMode clampMode) {
+        validateSamples(xs, ys, count, tolerance);
+
+        int[] breaks = splitUntilFit(xs, ys, count, tolerance);
+        breaks = mergeAdjacent(xs, ys, breaks, tolerance);
+
+        return buildCurve(name, xs, ys, breaks, clampMode);
+    }
+
+    /**
+     * 使用默认采样密度简化已有曲线
+     *
+     * @see #simplify(PrismCurve, float, int)
+     */
+    public static PrismCurve simplify(PrismCurve curve, float tolerance) {
+        return simplify(curve, tolerance, DEFAULT_SAMPLES_PER_SEGMENT);
+    }
+
+    /**
+     * 简化已有曲线：对原曲线逐段采样后重新拟合
+     * 名称和边界模式保持不变
+     *
+     * @param curve 原曲线
+     * @param tolerance 允许的最大 y 误差
+     * @param samplesPerSegment 原曲线每段的采样数量（至少 2）
+     * @return 简化后的新曲线（原曲线不会被修改）
+     */
+    public static PrismCurve simplify(PrismCurve curve, float tolerance, int samplesPerSegment) {
+        if (samplesPerSegment < 2) {
+            throw new IllegalArgumentException("每段采样数量至少为 2");
+        }
+
+        List<CurveSegment> segments = curve.getSegments();
+        int count = segments.size() * (samplesPerSegment - 1) + 1;
+        float[] xs = new float[count];
+        float[] ys = new float[count];
+
+        int index = 0;
+        for (CurveSegment segment : segments) {
+            // 相邻段共享端点，因此每段只采样到倒数第二个点
+            for (int i = 0; i < samplesPerSegment - 1; i++) {
+                float x = segment.getXStart() + segment.getLength() * i / (samplesPerSegment - 1);
+                xs[index] = x;
+                ys[index] = segment.evaluate(x);
+                index++;
+            }
+        }
+        CurveSegment last = segments.get(segments.size() - 1);
+        xs[index] = last.getXEnd();
+        ys[index] = last.getAnchorEnd().getY();
+
+        return fit(curve.getName(), xs, ys, count, tolerance, curve.getClampMode());
+    }
+
+    // ========== 拟合核心 ==========
+
+    /**
+     * 递归切分阶段：不断在误差最大处切分，直到每段都满足容差
+     * 使用显式栈代替递归，避免数万个采样点时栈溢出
+     *
+     * @return 升序的切分点下标（包含首尾）
+     */
+    private static int[] splitUntilFit(float[] xs, float[] ys, int count, float tolerance) {
+        int[] breaks = new int[16];
+        int breakCount = 0;
+        breaks[breakCount++] = 0;
+
+        // 栈中成对存放待拟合区间 [first, last]，先压右半边再压左半边，保证按从左到右的顺序输出
+        int[] stack = new int[32];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = count - 1;
+
+        double[] handles = new double[2];
+        while (top > 0) {
+            int last = stack[--top];
+            int first = stack[--top];
+
+            int splitIndex = fitRange(xs, ys, first, last, tolerance, handles);
+            if (splitIndex < 0) {
+                if (breakCount == breaks.length) {
+                    breaks = Arrays.copyOf(breaks, breakCount * 2);
+                }
+                breaks[breakCount++] = last;
+                continue;
+            }
+
+            if (top + 4 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[top++] = splitIndex;
+            stack[top++] = last;
+            stack[top++] = first;
+            stack[top++] = splitIndex;
+        }
+        return Arrays.copyOf(breaks, breakCount);
+    }
+
+    /**
+     * 合并阶段：逐个尝试删除中间的切分点，合并后仍满足容差则保留删除结果
+     */
+    private static int[] mergeAdjacent(float[] xs, float[] ys, int[] breaks, float tolerance) {
+        int[] result = Arrays.copyOf(breaks, breaks.length);
+        int size = result.length;
+        double[] handles = new double[2];
+
+        int i = 1;
+        while (i < size - 1) {
+            if (fitRange(xs, ys, result[i - 1], result[i + 1], tolerance, handles) < 0) {
+                System.arraycopy(result, i + 1, result, i, size - i - 1);
+                size--;
+            } else {
+                i++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * 用一段三次贝塞尔曲线拟合区间 [first, last] 内的采样点
+     *
+     * @param handles 输出：两个手柄的 y 值（handleStartOut.y, handleEndIn.y）
+     * @return 满足容差时返回 -1，否则返回误差最大的采样点下标（作为切分点）
+     */
+    private static int fitRange(float[] xs, float[] ys, int first, int last, float tolerance, double[] handles) {
+        double x0 = xs[first];
+        double span = xs[last] - x0;
+        double y0 = ys[first];
+        double y3 = ys[last];
+
+        // 默认使用直线手柄（少于 4 个采样点时无法约束两个手柄）
+        handles[0] = y0 + (y3 - y0) / 3.0;
+        handles[1] = y0 + (y3 - y0) * 2.0 / 3.0;
+
+        if (last - first >= 3) {
+            // 正规方程：[a11 a12; a12 a22] * [h1; h2] = [r1; r2]
+            double a11 = 0, a12 = 0, a22 = 0, r1 = 0, r2 = 0;
+            for (int i = first + 1; i < last; i++) {
+                double t = (xs[i] - x0) / span;
+                double u = 1.0 - t;
+                double b0 = u * u * u;
+                double b1 = 3 * u * u * t;
+                double b2 = 3 * u * t * t;
+                double b3 = t * t * t;
+                double residual = ys[i] - (b0 * y0 + b3 * y3);
+
+                a11 += b1 * b1;
+                a12 += b1 * b2;
+                a22 += b2 * b2;
+                r1 += b1 * residual;
+                r2 += b2 * residual;
+            }
+
+            double det = a11 * a22 - a12 * a12;
+            if (Math.abs(det) > SINGULAR_EPSILON) {
+                handles[0] = (r1 * a22 - r2 * a12) / det;
+                handles[1] = (a11 * r2 - a12 * r1) / det;
+            }
+        }
+
+        // 找出误差最大的中间采样点
+        double maxError = 0;
+        int maxIndex = -1;
+        for (int i = first + 1; i < last; i++) {
+            double t = (xs[i] - x0) / span;
+            double u = 1.0 - t;
+            double y = u * u * u * y0
+                    + 3 * u * u * t * handles[0]
+                    + 3 * u * t * t * handles[1]
+                    + t * t * t * y3;
+            double error = Math.abs(y - ys[i]);
+            if (error > maxError) {
+                maxError = error;
+                maxIndex = i;
+            }
+        }
+
+        return maxError > tolerance ? maxIndex : -1;
+    }
+
+    // ========== 构建曲线 ==========
+
+    /**
+     * 根据切分点重新拟合每一段，并生成 SPLIT 模式的枢纽点
+     */
+    private static PrismCurve buildCurve(String name, float[] xs, float[] ys, int[] breaks, CurveClampMode clampMode) {
+        int segmentCount = breaks.length - 1;
+        double[] handleOut = new double[segmentCount];
+        double[] handleIn = new double[segmentCount];
+
+        double[] handles = new double[2];
+        for (int s = 0; s < segmentCount; s++) {
+            fitRange(xs, ys, breaks[s], breaks[s + 1], Float.MAX_VALUE, handles);
+            handleOut[s] = handles[0];
+            handleIn[s] = handles[1];
+        }
+
+        List<CurvePivotPoint> pivotPoints = new ArrayList<>(breaks.length);
+        for (int p = 0; p < breaks.length; p++) {
+            float x = xs[breaks[p]];
+            float y = ys[breaks[p]];
+
+            Vector2d tangentIn = null;
+            Vector2d tangentOut = null;
+            if (p > 0) {
+                double length = x - xs[breaks[p - 1]];
+                tangentIn = CurvePivotPoint.makeValidTangent(-length / 3.0, handleIn[p - 1] - y);
+            }
+            if (p < segmentCount) {
+                double length = xs[breaks[p + 1]] - x;
+                tangentOut = CurvePivotPoint.makeValidTangent(length / 3.0, handleOut[p] - y);
+            }
+
+            // 首尾枢纽点只有一侧参与求值，另一侧取镜像以满足切线合法性校验
+            if (tangentIn == null) {
+                tangentIn = new Vector2d(tangentOut).negate();
+            }
+            if (tangentOut == null) {
+                tangentOut = new Vector2d(tangentIn).negate();
+            }
+
+            pivotPoints.add(CurvePivotPoint.createSplitPivotPoint(x, y, tangentIn, tangentOut));
+        }
+
+        return new PrismCurve(name, pivotPoints, clampMode);
+    }
+
+
+    private static void validateSamples(float[] xs, float[] ys, int count, float tolerance) {
+        if (xs == null || ys == null) {
+            throw new IllegalArgumentException("采样数据不能为空");
+        }
+        if (count < 2 || count > xs.length || count > ys.length) {
+            throw new IllegalArgumentException(
+                String.format("采样数量 %d 无效（至少 2 个，且不能超过数组长度）", count)
+            );
+        }
+        if (!(tolerance >= 0.0f)) {
+            throw new IllegalArgumentException("容差必须是非负数");
+        }
+        for (int i = 1; i < count; i++) {
+            if (!(xs[i] > xs[i - 1])) {
+                throw new IllegalArgumentException(
+                    String.format("采样点的 x 坐标必须严格递增：下标 %d 处 x=%.4f，前一个 x=%.4f", i, xs[i], xs[i - 1])
+                );
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.codi.prismkit.math.curve;
+
+/**
+ * 曲线句柄（PrismCurveHandle）
+ * 在初始化时按名称解析一次曲线，之后每帧求值不再做哈希查找
+ *
+ * 设计意图：
+ * - getCurveValue(name, x) 每次都要对名称做哈希查找，对每帧调用的特效来说是不必要的开销
+ * - 句柄缓存解析结果，并在 PrismCurveLibrary 的版本号变化（重载、保存、清空）时自动重新解析
+ * - 曲线不存在时与 getCurveValue 相同，回退为 y = x
+ *
+ * 技术细节：
+ * - 每次求值只比较一次 int 版本号，命中时不分配任何对象
+ * - 句柄不是线程安全的：每个使用方（渲染器、实体）持有自己的句柄
+ *
+ * 使用示例：
+ * private final PrismCurveHandle fade = PrismCurveManager.getInstance().getHandle("fade_in");
+ * float alpha = fade.getValue(progress);
+ */
+public class PrismCurveHandle {
+
+    private final PrismCurveLibrary library;
+    private final String curveName;
+
+    // 最近一次解析的结果（可能为 null）与解析时的曲线库版本号
+    private PrismCurve curve;
+    private int resolvedRevision;
+    private boolean resolved;
+
+    PrismCurveHandle(PrismCurveLibrary library, String curveName) {
+        this.library = library;
+        this.curveName = curveName;
+    }
+
+    /**
+     * 核心方法：求值，曲线不存在时返回 x 本身
+     */
+    public float getValue(float x) {
+        PrismCurve current = resolve();
+        return current != null ? current.getValue(x) : x;
+    }
+
+    /**
+     * 获取当前解析到的曲线，曲线库版本号变化时重新解析
+     *
+     * @return 曲线对象，不存在时返回 null
+     */
+    public PrismCurve resolve() {
+        int revision = library.getRevision();
+        if (!resolved || revision != resolvedRevision) {
+            curve = library.findCurve(curveName);
+            resolvedRevision = revision;
+            resolved = true;
+        }
+        return curve;
+    }
+
+    /**
+     * 检查曲线当前是否存在
+     */
+    public boolean isPresent() {
+        return resolve() != null;
+    }
+
+    public String getCurveName() {
+        return curveName;
+    }
+}
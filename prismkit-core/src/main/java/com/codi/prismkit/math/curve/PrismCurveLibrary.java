@@ -0,0 +1,319 @@
+package com.codi.prismkit.math.curve;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 曲线库（PrismCurveLibrary）
+ * 与 Minecraft 无关的曲线存储：缓存、按名称查询、文件读写和自动烘焙
+ *
+ * 设计意图：
+ * - 曲线引擎的全部状态都在这里，可以直接在普通 JVM 上使用（单元测试、基准测试、服务端工具）
+ * - 模组中的 PrismCurveManager 只是适配层：负责确定目录、从数据包读取曲线、接入游戏 tick
+ * - 每个实例相互独立，测试可以各自创建，不需要共享全局单例
+ *
+ * 技术细节：
+ * - 曲线缓存使用 ConcurrentHashMap，渲染线程、服务端线程和分层评估可以同时访问
+ * - 每次曲线被加载、覆盖、编辑或清空时递增版本号（revision），句柄和派生数据据此判断是否过期
+ */
+public class PrismCurveLibrary {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrismCurveLibrary.class);
+
+    // 曲线缓存：name -> PrismCurve
+    private final Map<String, PrismCurve> curveCache = new ConcurrentHashMap<>();
+
+    // JSON 解析器
+    private final Gson gson = PrismCurveCodec.createGson();
+
+    // 曲线文件存储目录（saveCurve / reloadCurve 使用），为 null 时只能在内存中使用
+    private volatile Path curvesDirectory;
+
+    // 曲线派生数据缓存（烘焙表、细分折线等），按字节限制内存
+    private final BakedCurveCache bakedCache;
+
+    // 自动烘焙的分层执行器
+    private final PrismCurveTiering tiering;
+
+    // 已经警告过的缺失曲线名（每个名称只警告一次，避免每帧刷屏和日志调用的开销）
+    private final Set<String> missingCurveWarnings = ConcurrentHashMap.newKeySet();
+
+    // 缓存版本号：曲线被加载、覆盖、编辑或清空时递增
+    private volatile int revision;
+
+    /**
+     * 使用默认的自动烘焙策略创建曲线库
+     */
+    public PrismCurveLibrary() {
+        this(CurveTieringPolicy.DEFAULT);
+    }
+
+    /**
+     * @param policy 自动烘焙策略，派生数据缓存的容量取策略的内存预算
+     */
+    public PrismCurveLibrary(CurveTieringPolicy policy) {
+        this.bakedCache = new BakedCurveCache(policy.getMemoryBudgetBytes());
+        this.tiering = new PrismCurveTiering(policy, bakedCache);
+    }
+
+    // ========== 加载与保存 ==========
+
+    /**
+     * 设置曲线文件目录（不存在时自动创建）
+     *
+     * @param directory 曲线目录，例如 config/prismkit/curves
+     * @throws IOException 目录创建失败
+     */
+    public void setCurvesDirectory(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.curvesDirectory = directory;
+    }
+
+    public Path getCurvesDirectory() {
+        return curvesDirectory;
+    }
+
+    /**
+     * 加载曲线目录中的所有 *.json 文件，同名曲线会被覆盖
+     * 单个文件解析失败只记录错误，不影响其他文件
+     *
+     * @return 成功加载的曲线数量
+     */
+    public int loadCurvesFromDirectory() {
+        Path directory = curvesDirectory;
+        if (directory == null || !Files.exists(directory)) {
+            LOGGER.info("配置目录不存在，跳过加载用户曲线: {}", directory);
+            return 0;
+        }
+
+        int loadedCount = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.json")) {
+            for (Path file : stream) {
+                try {
+                    loadCurveFromFile(file);
+                    loadedCount++;
+                } catch (Exception e) {
+                    LOGGER.error("加载曲线文件失败: {}", file, e);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.error("扫描配置目录失败: {}", directory, e);
+        }
+        return loadedCount;
+    }
+
+    /**
+     * 从文件加载单个曲线
+     *
+     * @param filePath 曲线的 JSON 文件路径
+     * @return 加载的曲线
+     * @throws IOException 文件读取失败
+     * @throws JsonParseException JSON 解析失败
+     */
+    public PrismCurve loadCurveFromFile(Path filePath) throws IOException, JsonParseException {
+        PrismCurve curve = loadCurve(Files.readString(filePath));
+        LOGGER.debug("加载曲线: {} <- {}", curve.getName(), filePath.getFileName());
+        return curve;
+    }
+
+    /**
+     * 解析 JSON 并存入缓存（数据包、网络同步等非文件来源使用）
+     *
+     * @param json 曲线的 JSON 文本
+     * @return 加载的曲线
+     * @throws JsonParseException JSON 解析失败
+     */
+    public PrismCurve loadCurve(String json) throws JsonParseException {
+        PrismCurve curve = gson.fromJson(json, PrismCurve.class);
+        if (curve == null) {
+            throw new JsonParseException("曲线 JSON 为空");
+        }
+        putCurve(curve);
+        return curve;
+    }
+
+    /**
+     * 存入缓存并递增版本号，同名旧曲线的派生数据立即释放
+     */
+    public void putCurve(PrismCurve curve) {
+        curveCache.put(curve.getName(), curve);
+        bakedCache.invalidate(curve.getName());
+        revision++;
+    }
+
+    /**
+     * 保存曲线到曲线目录并更新缓存
+     *
+     * @param curve 要保存的曲线对象
+     * @throws IOException 文件写入失败
+     * @throws IllegalStateException 尚未设置曲线目录
+     */
+    public void saveCurve(PrismCurve curve) throws IOException {
+        Path directory = curvesDirectory;
+        if (directory == null) {
+            throw new IllegalStateException("曲线目录未设置，请先调用 setCurvesDirectory()");
+        }
+
+        Path filePath = directory.resolve(curve.getName() + ".json");
+        Files.writeString(filePath, gson.toJson(curve), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        putCurve(curve);
+
+        LOGGER.info("保存曲线: {} -> {}", curve.getName(), filePath);
+    }
+
+    /**
+     * 从曲线目录重新加载指定曲线（热重载功能）
+     *
+     * @param curveName 要重载的曲线名称
+     */
+    public void reloadCurve(String curveName) {
+        Path directory = curvesDirectory;
+        Path filePath = directory == null ? null : directory.resolve(curveName + ".json");
+        if (filePath == null || !Files.exists(filePath)) {
+            LOGGER.warn("曲线文件不存在，无法重载: {}", filePath);
+            return;
+        }
+
+        try {
+            loadCurveFromFile(filePath);
+            LOGGER.info("重新加载曲线: {}", curveName);
+        } catch (Exception e) {
+            LOGGER.error("重载曲线失败: {}", curveName, e);
+        }
+    }
+
+    /**
+     * 曲线被原地编辑后调用（PrismCurveEditor 使用）：更新派生数据缓存的键并递增版本号，
+     * 句柄和依赖曲线的派生数据（如 PrismTrack）据此在下一帧重新生成
+     *
+     * @param previousVersion 编辑前的曲线版本号
+     */
+    void onCurveEdited(PrismCurve curve, int previousVersion) {
+        bakedCache.rekey(curve, previousVersion);
+        tiering.onCurveRebaked(curve);
+        revision++;
+    }
+
+    /**
+     * 清空所有曲线和派生数据
+     */
+    public void clear() {
+        tiering.reset();
+        bakedCache.clear();
+        curveCache.clear();
+        missingCurveWarnings.clear();
+        revision++;
+    }
+
+    // ========== 查询 ==========
+
+    /**
+     * 根据名称获取曲线的值
+     *
+     * @param curveName 曲线名称（不含 .json 后缀）
+     * @param x 输入值（横轴，通常是 0 到 1）
+     * @return 对应的输出值（纵轴），如果曲线不存在则返回 x 本身（线性回退）
+     */
+    public float getCurveValue(String curveName, float x) {
+        PrismCurve curve = findCurve(curveName);
+        return curve != null ? curve.getValue(x) : x;
+    }
+
+    /**
+     * 获取曲线句柄：按名称解析一次，之后每帧求值不再做哈希查找
+     * 曲线重载或被覆盖后，句柄会自动解析到新的曲线
+     *
+     * @param curveName 曲线名称
+     * @return 新的句柄（曲线暂时不存在也可以创建，求值时按 y=x 回退）
+     */
+    public PrismCurveHandle getHandle(String curveName) {
+        return new PrismCurveHandle(this, curveName);
+    }
+
+    /**
+     * 按名称查找曲线，缺失时每个名称只警告一次
+     *
+     * @return 曲线对象，不存在时返回 null
+     */
+    public PrismCurve findCurve(String curveName) {
+        PrismCurve curve = curveCache.get(curveName);
+        if (curve == null && missingCurveWarnings.add(curveName)) {
+            LOGGER.warn("未找到曲线 '{}', 使用线性回退 (返回输入值)", curveName);
+        }
+        return curve;
+    }
+
+    public boolean hasCurve(String curveName) {
+        return curveCache.containsKey(curveName);
+    }
+
+    public Optional<PrismCurve> getCurve(String curveName) {
+        return Optional.ofNullable(curveCache.get(curveName));
+    }
+
+    /**
+     * 获取所有已加载曲线的只读视图
+     */
+    public Collection<PrismCurve> getCurves() {
+        return Collections.unmodifiableCollection(curveCache.values());
+    }
+
+    public int getCurveCount() {
+        return curveCache.size();
+    }
+
+    /**
+     * 获取缓存版本号
+     * 每次曲线被加载、覆盖或清空后都会变化，调用方可以据此判断派生数据是否过期
+     */
+    public int getRevision() {
+        return revision;
+    }
+
+    // ========== 自动烘焙 ==========
+
+    /**
+     * 执行一次自动烘焙评估（内部按策略的评估间隔节流，可以频繁调用）
+     */
+    public void updateTiering() {
+        tiering.update(curveCache.values(), System.nanoTime());
+    }
+
+    /**
+     * 设置自动烘焙策略，下一次评估时生效
+     *
+     * @param policy 新策略，使用 CurveTieringPolicy.DISABLED 可关闭自动烘焙
+     */
+    public void setTieringPolicy(CurveTieringPolicy policy) {
+        tiering.setPolicy(policy);
+    }
+
+    /**
+     * 设置派生数据缓存的内存上限（字节），自动烘焙的预算随之调整
+     */
+    public void setBakedCacheCapacity(long bytes) {
+        bakedCache.setCapacityBytes(bytes);
+        tiering.setPolicy(tiering.getPolicy().withMemoryBudget(bytes));
+    }
+
+    public BakedCurveCache getBakedCache() {
+        return bakedCache;
+    }
+
+    public PrismCurveTiering getTiering() {
+        return tiering;
+    }
+}
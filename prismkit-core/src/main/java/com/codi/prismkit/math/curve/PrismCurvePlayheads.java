@@ -0,0 +1,173 @@
+package com.codi.prismkit.math.curve;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 曲线播放头记录器（PrismCurvePlayheads）
+ * 记录运行中的特效正在哪些 x 位置对曲线求值，供调试 HUD 显示播放头标记
+ *
+ * 设计意图：
+ * - 特效看起来不对或开销过大时，不用挂分析器就能看到哪些曲线是热点、在哪里被采样
+ * - 关闭时（默认）求值路径上只多一次普通字段读取和整数与运算，节流命中时才读取 volatile 开关
+ * - 开启时按求值次数节流：每条曲线每 N 次求值才记录一次
+ *
+ * 技术细节：
+ * - 无锁环形缓冲区：写入方用 AtomicLong 领取序号，再把 (曲线版本号, x) 打包成一个 long 写入序号对应的槽位
+ * - 每个槽位另有一个序号标记：写入前标为 BUSY，写完后设为本次的序号。读取方只接受标记恰好等于
+ *   所读序号的槽位，并在读出数据后再检查一次，因此不会读到已领取但尚未写完的槽位，也不会把被下一圈覆盖的
+ *   新条目当作旧序号读出（唯一的例外是写入方在两次写之间被整整一圈的写入追上，结果只是一个错位的调试标记）
+ * - 曲线版本号全局唯一，因此可以直接作为曲线标识，读取方按版本号匹配曲线
+ * - 读取方（渲染线程）每帧调用 drain 读取上次之后写入的条目；写入速度超过容量时只保留最新的部分
+ * - 记录和读取都不分配内存
+ */
+public final class PrismCurvePlayheads {
+
+    /**
+     * 读取回调：曲线版本号和被采样的 x（已经过边界处理）
+     */
+    public interface Visitor {
+        void visit(int curveVersion, float x);
+    }
+
+    // 环形缓冲区容量（2 的幂）
+    static final int CAPACITY = 1024;
+    private static final int MASK = CAPACITY - 1;
+
+    // 默认节流：每条曲线每 8 次求值记录一次
+    private static final int DEFAULT_SAMPLE_INTERVAL = 8;
+
+    // 槽位正在写入的标记（序号从 0 开始递增，不会与之冲突）
+    private static final long BUSY = -1L;
+
+    private static final PrismCurvePlayheads INSTANCE = new PrismCurvePlayheads();
+
+    private final AtomicLongArray entries = new AtomicLongArray(CAPACITY);
+    private final AtomicLongArray sequences = newSequences();
+    private final AtomicLong writeCursor = new AtomicLong();
+    private long readCursor;
+
+    // 是否记录
+    private volatile boolean enabled;
+
+    // 节流掩码：求值计数 & sampleMask == 0 时才检查 enabled（普通字段，修改后各线程稍后可见即可）
+    private int sampleMask = DEFAULT_SAMPLE_INTERVAL - 1;
+
+    // 测试可以创建独立的实例，求值路径只使用 INSTANCE
+    PrismCurvePlayheads() {
+    }
+
+    public static PrismCurvePlayheads getInstance() {
+        return INSTANCE;
+    }
+
+    private static AtomicLongArray newSequences() {
+        AtomicLongArray sequences = new AtomicLongArray(CAPACITY);
+        for (int i = 0; i < CAPACITY; i++) {
+            sequences.set(i, BUSY);
+        }
+        return sequences;
+    }
+
+    // ========== 写入端（求值路径）==========
+
+    /**
+     * 求值路径调用：按节流条件记录一次播放头
+     *
+     * @param count 调用方自己的求值计数（每次求值递增）
+     * @param curveVersion 曲线版本号
+     * @param x 被采样的 x
+     */
+    static void sample(int count, int curveVersion, float x) {
+        PrismCurvePlayheads playheads = INSTANCE;
+        if ((count & playheads.sampleMask) == 0 && playheads.enabled) {
+            playheads.record(curveVersion, x);
+        }
+    }
+
+    /**
+     * 多通道版本：同一个 x 同时记录到多条曲线（PrismTrack 使用）
+     */
+    static void sample(int count, int[] curveVersions, float x) {
+        PrismCurvePlayheads playheads = INSTANCE;
+        if ((count & playheads.sampleMask) == 0 && playheads.enabled) {
+            for (int curveVersion : curveVersions) {
+                playheads.record(curveVersion, x);
+            }
+        }
+    }
+
+    /**
+     * 无条件记录一次播放头（调用方自行节流）
+     */
+    public void record(int curveVersion, float x) {
+        long sequence = writeCursor.getAndIncrement();
+        int index = (int) (sequence & MASK);
+        sequences.set(index, BUSY);
+        entries.set(index, pack(curveVersion, x));
+        sequences.set(index, sequence);
+    }
+
+    // ========== 读取端（调试 HUD）==========
+
+    /**
+     * 读取上次 drain 之后写入的所有条目
+     * 只应由一个线程（通常是渲染线程）调用；已领取序号但尚未写完的条目被跳过，不会在下一次读取时补上
+     *
+     * @return 读取的条目数量
+     */
+    public int drain(Visitor visitor) {
+        long end = writeCursor.get();
+        long start = Math.max(readCursor, end - CAPACITY);
+        int count = 0;
+        for (long sequence = start; sequence < end; sequence++) {
+            int index = (int) (sequence & MASK);
+            if (sequences.get(index) != sequence) {
+                continue;
+            }
+            long packed = entries.get(index);
+            if (sequences.get(index) != sequence) {
+                continue;
+            }
+            visitor.visit((int) (packed >>> 32), Float.intBitsToFloat((int) packed));
+            count++;
+        }
+        readCursor = end;
+        return count;
+    }
+
+    /**
+     * 开启或关闭记录（调试 HUD 显示曲线时开启）
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled) {
+            // 重新开启时丢弃关闭前的旧条目
+            readCursor = writeCursor.get();
+        }
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 设置节流间隔：每条曲线每 interval 次求值记录一次
+     *
+     * @param interval 记录间隔，必须是 2 的幂
+     */
+    public void setSampleInterval(int interval) {
+        if (interval <= 0 || Integer.bitCount(interval) != 1) {
+            throw new IllegalArgumentException("播放头记录间隔必须是 2 的正整数次幂: " + interval);
+        }
+        this.sampleMask = interval - 1;
+    }
+
+    public int getSampleInterval() {
+        return sampleMask + 1;
+    }
+
+    private static long pack(int curveVersion, float x) {
+        return ((long) curveVersion << 32) | (Float.floatToRawIntBits(x) & 0xFFFFFFFFL);
+    }
+}
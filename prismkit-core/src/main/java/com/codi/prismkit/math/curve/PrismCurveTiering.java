@@ -0,0 +1,240 @@
+package com.codi.prismkit.math.curve;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 曲线自动烘焙的分层执行器
+ * 根据每条曲线的求值频率，把热点曲线提升为查找表，把变冷的曲线降级并释放内存
+ *
+ * 设计意图：
+ * - 只为真正频繁使用的曲线付出烘焙内存，而不是为成千上万条很少使用的曲线全部烘焙
+ * - 完全位于 PrismCurve.getValue 之后，调用方无需任何修改
+ * - 不接管手动烘焙的曲线：已经安装了其他烘焙数据的曲线不会被提升或降级
+ *
+ * 技术细节：
+ * - 求值计数由 PrismCurve 自身累加，每个评估周期计算一次差值得到频率
+ * - 预算不足时，若候选曲线的频率明显高于（两倍以上）最冷的已提升曲线，则先降级后者再提升前者
+ * - 查找表存放在 BakedCurveCache 中，被缓存淘汰时曲线自动回退到精确计算，下一轮评估时若仍是热点会重新提升
+ * - 求值路径直接读取曲线上的查找表，不经过缓存；每轮评估按频率从低到高刷新仍保留的查找表，
+ *   与折线等数据共享缓存上限时，最热的查找表最后才被淘汰
+ * - 所有公开方法都是同步的，客户端线程和集成服务端线程可以同时调用
+ */
+public class PrismCurveTiering {
+
+    // 当前策略
+    private CurveTieringPolicy policy;
+
+    // 存放查找表的派生数据缓存
+    private final BakedCurveCache cache;
+
+    // 由本执行器安装的烘焙数据：曲线 -> 烘焙数据
+    private final Map<PrismCurve, BakedCurve> promoted = new IdentityHashMap<>();
+
+    // 最近一次评估时各曲线的频率（次/秒）
+    private final Map<PrismCurve, Float> rates = new IdentityHashMap<>();
+
+    // 上一次评估时各曲线的求值计数
+    private Map<PrismCurve, Integer> lastCounts = new IdentityHashMap<>();
+
+    // 上一次评估的时间戳（纳秒），-1 表示尚未评估
+    private long lastUpdateNanos = -1;
+
+    // 已提升曲线占用的内存（字节）
+    private long usedBytes;
+
+    public PrismCurveTiering(CurveTieringPolicy policy, BakedCurveCache cache) {
+        this.policy = policy;
+        this.cache = cache;
+    }
+
+    /**
+     * 执行一次分层评估（未到评估间隔时直接返回）
+     *
+     * @param curves 当前已加载的全部曲线
+     * @param nowNanos 当前时间（System.nanoTime）
+     */
+    public synchronized void update(Collection<PrismCurve> curves, long nowNanos) {
+        if (lastUpdateNanos >= 0 && nowNanos - lastUpdateNanos < policy.getIntervalMillis() * 1_000_000L) {
+            return;
+        }
+
+        Map<PrismCurve, Integer> counts = new IdentityHashMap<>(curves.size() * 2);
+        for (PrismCurve curve : curves) {
+            counts.put(curve, curve.getEvaluationCount());
+        }
+
+        if (lastUpdateNanos < 0) {
+            lastCounts = counts;
+            lastUpdateNanos = nowNanos;
+            return;
+        }
+
+        float seconds = (nowNanos - lastUpdateNanos) / 1.0e9f;
+        dropStaleEntries(counts);
+
+        // 计算频率，同时处理降级并收集提升候选
+        rates.clear();
+        List<PrismCurve> candidates = new ArrayList<>();
+        for (Map.Entry<PrismCurve, Integer> entry : counts.entrySet()) {
+            PrismCurve curve = entry.getKey();
+            Integer last = lastCounts.get(curve);
+            float rate = last == null ? 0.0f : (entry.getValue() - last) / seconds;
+            rates.put(curve, rate);
+
+            if (promoted.containsKey(curve)) {
+                if (rate < policy.getDemoteRate()) {
+                    demote(curve);
+                }
+            } else if (curve.getBakedCurve() == null && rate >= policy.getPromoteRate()) {
+                candidates.add(curve);
+            }
+        }
+
+        // 预算被调小时，先从最冷的曲线开始降级
+        while (usedBytes > policy.getMemoryBudgetBytes() && !promoted.isEmpty()) {
+            demote(findColdestPromoted());
+        }
+
+        // 仍保留的查找表按频率从低到高刷新使用顺序，最热的曲线成为缓存中最近使用的条目
+        touchPromoted();
+
+        // 按频率从高到低提升
+        candidates.sort((a, b) -> Float.compare(rates.get(b), rates.get(a)));
+        long tableBytes = TableBakedCurve.estimateMemoryBytes(policy.getTableSize());
+        for (PrismCurve curve : candidates) {
+            float rate = rates.get(curve);
+            while (usedBytes + tableBytes > policy.getMemoryBudgetBytes() && !promoted.isEmpty()) {
+                PrismCurve coldest = findColdestPromoted();
+                if (rates.getOrDefault(coldest, 0.0f) * 2.0f >= rate) {
+                    break;
+                }
+                demote(coldest);
+            }
+            if (usedBytes + tableBytes > policy.getMemoryBudgetBytes()) {
+                break;
+            }
+            promote(curve);
+        }
+
+        lastCounts = counts;
+        lastUpdateNanos = nowNanos;
+    }
+
+    /**
+     * 清理已从管理器移除、被缓存淘汰、或被外部改动过烘焙数据的曲线
+     */
+    private void dropStaleEntries(Map<PrismCurve, Integer> liveCurves) {
+        Iterator<Map.Entry<PrismCurve, BakedCurve>> iterator = promoted.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<PrismCurve, BakedCurve> entry = iterator.next();
+            PrismCurve curve = entry.getKey();
+            boolean replacedExternally = curve.getBakedCurve() != entry.getValue();
+            if (replacedExternally || !liveCurves.containsKey(curve)) {
+                if (!replacedExternally) {
+                    cache.remove(curve, BakedCurveCache.Kind.BAKED, 0);
+                }
+                usedBytes -= entry.getValue().getMemoryBytes();
+                iterator.remove();
+            }
+        }
+    }
+
+    private void touchPromoted() {
+        List<PrismCurve> kept = new ArrayList<>(promoted.keySet());
+        kept.sort((a, b) -> Float.compare(rates.getOrDefault(a, 0.0f), rates.getOrDefault(b, 0.0f)));
+        for (PrismCurve curve : kept) {
+            cache.touch(curve, BakedCurveCache.Kind.BAKED, 0);
+        }
+    }
+
+    private void promote(PrismCurve curve) {
+        TableBakedCurve table = TableBakedCurve.bake(curve, policy.getTableSize());
+        if (cache.install(curve, table)) {
+            promoted.put(curve, table);
+            usedBytes += table.getMemoryBytes();
+        }
+    }
+
+    private void demote(PrismCurve curve) {
+        BakedCurve baked = promoted.remove(curve);
+        if (baked == null) {
+            return;
+        }
+        if (curve.getBakedCurve() == baked) {
+            cache.remove(curve, BakedCurveCache.Kind.BAKED, 0);
+        }
+        usedBytes -= baked.getMemoryBytes();
+    }
+
+    private PrismCurve findColdestPromoted() {
+        PrismCurve coldest = null;
+        float coldestRate = Float.MAX_VALUE;
+        for (PrismCurve curve : promoted.keySet()) {
+            float rate = rates.getOrDefault(curve, 0.0f);
+            if (rate < coldestRate) {
+                coldestRate = rate;
+                coldest = curve;
+            }
+        }
+        return coldest;
+    }
+
+    /**
+     * 曲线被编辑并局部重新烘焙后调用：继续管理新的烘焙数据
+     * 否则下一次评估会把它当作外部替换而放弃管理，之后再也不会被降级
+     */
+    synchronized void onCurveRebaked(PrismCurve curve) {
+        BakedCurve previous = promoted.get(curve);
+        BakedCurve current = curve.getBakedCurve();
+        if (previous != null && current != null) {
+            promoted.put(curve, current);
+            usedBytes += current.getMemoryBytes() - previous.getMemoryBytes();
+        }
+    }
+
+    /**
+     * 降级所有已提升的曲线并重置统计（曲线全部重载时调用）
+     */
+    public synchronized void reset() {
+        for (PrismCurve curve : new ArrayList<>(promoted.keySet())) {
+            demote(curve);
+        }
+        rates.clear();
+        lastCounts = new IdentityHashMap<>();
+        lastUpdateNanos = -1;
+    }
+
+    public synchronized void setPolicy(CurveTieringPolicy policy) {
+        this.policy = policy;
+    }
+
+    public synchronized CurveTieringPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * 获取已提升曲线占用的内存（字节）
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * 获取已提升为查找表的曲线数量
+     */
+    public synchronized int getPromotedCount() {
+        return promoted.size();
+    }
+
+    /**
+     * 获取曲线最近一次评估时的求值频率（次/秒），未统计时返回 0
+     */
+    public synchronized float getRate(PrismCurve curve) {
+        return rates.getOrDefault(curve, 0.0f);
+    }
+}
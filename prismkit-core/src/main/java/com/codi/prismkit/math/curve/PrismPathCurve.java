@@ -0,0 +1,390 @@
+package com.codi.prismkit.math.curve;
+
+import java.util.Arrays;
+
+/**
+ * 三维路径曲线（分段三次贝塞尔，按弧长参数化）
+ * 用于弯曲、扫动的光束等沿路径分布的特效
+ *
+ * 设计意图：
+ * - PrismCurve 描述的是 y = f(x) 的一维动画曲线；光束路径需要 xyz 三维空间中的曲线
+ * - 贝塞尔参数 t 与弧长不成正比：直接按 t 均匀取点，宽度曲线、纹理滚动在路径上会忽快忽慢
+ * - 构造时预计算“弧长 -> 参数”的均匀查找表，运行时按距离取点只需一次下标计算和一次插值，不做数值求解
+ * - 构造后不可修改，可在多线程环境下共享
+ *
+ * 技术细节：
+ * - 内部统一存储为分段三次贝塞尔（每段 4 个控制点，12 个 float），Catmull-Rom 在构造时转换为贝塞尔
+ * - 全局参数 u 的整数部分是段下标，小数部分是段内的 t
+ * - 弧长由每段 ARC_SAMPLES_PER_SEGMENT 条弦长累加近似，再重采样为均匀距离表（至少 MIN_ARC_TABLE_SIZE + 1 项）
+ * - 渲染采样距离按转角自适应：直线部分只取两端，弯曲越大取点越密（getRenderDistances，构造后懒计算并缓存）
+ */
+public class PrismPathCurve {
+
+    // 每段用于累计弧长的弦数
+    private static final int ARC_SAMPLES_PER_SEGMENT = 64;
+
+    // 均匀距离表的最小项数（实际为 max(此值, 段数 × 32) + 1）
+    private static final int MIN_ARC_TABLE_SIZE = 256;
+
+    // 渲染采样默认的最大转角（弧度，约 5 度）
+    public static final float DEFAULT_MAX_ANGLE = 0.0873f;
+
+    // 曲线名称
+    private final String name;
+
+    // 分段贝塞尔控制点：第 i 段为 bezier[i * 12 .. i * 12 + 11]（p0, p1, p2, p3 各 xyz）
+    private final float[] bezier;
+    private final int segmentCount;
+
+    // 总弧长
+    private final float length;
+
+    // 均匀距离表：第 k 项是弧长 k * length / (size - 1) 处的全局参数 u
+    private final float[] arcTable;
+
+    // 包围球（控制点的包围盒中心，控制点凸包包含整条曲线）
+    private final float boundsCenterX;
+    private final float boundsCenterY;
+    private final float boundsCenterZ;
+    private final float boundsRadius;
+
+    // 渲染采样距离（懒计算）
+    private volatile float[] renderDistances;
+
+    private PrismPathCurve(String name, float[] bezier) {
+        this.name = name;
+        this.bezier = bezier;
+        this.segmentCount = bezier.length / 12;
+
+        // 1. 逐段累计弦长
+        int samples = segmentCount * ARC_SAMPLES_PER_SEGMENT;
+        float[] cumulative = new float[samples + 1];
+        float[] point = new float[3];
+        float prevX = bezier[0];
+        float prevY = bezier[1];
+        float prevZ = bezier[2];
+        for (int i = 1; i <= samples; i++) {
+            evaluate((float) i / ARC_SAMPLES_PER_SEGMENT, point, 0);
+            float dx = point[0] - prevX;
+            float dy = point[1] - prevY;
+            float dz = point[2] - prevZ;
+            cumulative[i] = cumulative[i - 1] + (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+            prevX = point[0];
+            prevY = point[1];
+            prevZ = point[2];
+        }
+        this.length = cumulative[samples];
+
+        // 2. 重采样为均匀距离表（两个单调序列的归并，不做二分）
+        int size = Math.max(MIN_ARC_TABLE_SIZE, segmentCount * 32) + 1;
+        float[] table = new float[size];
+        int j = 0;
+        for (int k = 0; k < size; k++) {
+            float target = length * k / (size - 1);
+            while (j < samples - 1 && cumulative[j + 1] < target) {
+                j++;
+            }
+            float span = cumulative[j + 1] - cumulative[j];
+            float fraction = span > 0.0f ? (target - cumulative[j]) / span : 0.0f;
+            table[k] = (j + Math.max(0.0f, Math.min(1.0f, fraction))) / ARC_SAMPLES_PER_SEGMENT;
+        }
+        table[size - 1] = segmentCount;
+        this.arcTable = table;
+
+        // 3. 包围球
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, minZ = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE, maxZ = -Float.MAX_VALUE;
+        for (int i = 0; i < bezier.length; i += 3) {
+            minX = Math.min(minX, bezier[i]);
+            minY = Math.min(minY, bezier[i + 1]);
+            minZ = Math.min(minZ, bezier[i + 2]);
+            maxX = Math.max(maxX, bezier[i]);
+            maxY = Math.max(maxY, bezier[i + 1]);
+            maxZ = Math.max(maxZ, bezier[i + 2]);
+        }
+        this.boundsCenterX = (minX + maxX) * 0.5f;
+        this.boundsCenterY = (minY + maxY) * 0.5f;
+        this.boundsCenterZ = (minZ + maxZ) * 0.5f;
+        float ex = maxX - minX;
+        float ey = maxY - minY;
+        float ez = maxZ - minZ;
+        this.boundsRadius = (float) Math.sqrt(ex * ex + ey * ey + ez * ez) * 0.5f;
+    }
+
+    // ========== 静态工厂 ==========
+
+    /**
+     * 由分段三次贝塞尔控制点创建路径
+     *
+     * @param name 名称
+     * @param controlPoints 控制点 xyz 交错存放，点数为 3n + 1（相邻段共享端点）
+     * @throws IllegalArgumentException 点数不是 3n + 1（n ≥ 1）
+     */
+    public static PrismPathCurve bezier(String name, float[] controlPoints) {
+        if (controlPoints.length % 3 != 0) {
+            throw new IllegalArgumentException("路径控制点数组长度必须是 3 的倍数：" + name);
+        }
+        int points = controlPoints.length / 3;
+        if (points < 4 || (points - 1) % 3 != 0) {
+            throw new IllegalArgumentException(
+                String.format("贝塞尔路径的控制点数必须为 3n + 1（n ≥ 1）：%s 有 %d 个", name, points)
+            );
+        }
+
+        int segments = (points - 1) / 3;
+        float[] bezier = new float[segments * 12];
+        for (int s = 0; s < segments; s++) {
+            System.arraycopy(controlPoints, s * 9, bezier, s * 12, 12);
+        }
+        return new PrismPathCurve(name, bezier);
+    }
+
+    /**
+     * 由经过点创建 Catmull-Rom 路径（曲线经过每一个点）
+     * 两端的切线由端点和相邻点外推，路径在端点处不会突然折返
+     *
+     * @param name 名称
+     * @param points 经过点 xyz 交错存放，至少 2 个点
+     * @throws IllegalArgumentException 点数少于 2
+     */
+    public static PrismPathCurve catmullRom(String name, float[] points) {
+        if (points.length % 3 != 0 || points.length < 6) {
+            throw new IllegalArgumentException("Catmull-Rom 路径至少需要 2 个点：" + name);
+        }
+        int count = points.length / 3;
+        int segments = count - 1;
+        float[] bezier = new float[segments * 12];
+        for (int s = 0; s < segments; s++) {
+            int i0 = Math.max(s - 1, 0);
+            int i1 = s;
+            int i2 = s + 1;
+            int i3 = Math.min(s + 2, count - 1);
+            int b = s * 12;
+            for (int axis = 0; axis < 3; axis++) {
+                float p0 = points[i0 * 3 + axis];
+                float p1 = points[i1 * 3 + axis];
+                float p2 = points[i2 * 3 + axis];
+                float p3 = points[i3 * 3 + axis];
+                // 均匀 Catmull-Rom 到贝塞尔：内侧控制点 = 端点 ± 相邻点差 / 6
+                bezier[b + axis] = p1;
+                bezier[b + 3 + axis] = p1 + (p2 - p0) / 6.0f;
+                bezier[b + 6 + axis] = p2 - (p3 - p1) / 6.0f;
+                bezier[b + 9 + axis] = p2;
+            }
+        }
+        return new PrismPathCurve(name, bezier);
+    }
+
+    // ========== 按弧长求值 ==========
+
+    /**
+     * 弧长对应的全局参数 u（查表 + 线性插值）
+     *
+     * @param distance 从起点开始的弧长（超出 [0, length] 时截断）
+     */
+    public float parameterAtDistance(float distance) {
+        float[] table = arcTable;
+        int last = table.length - 1;
+        if (!(distance > 0.0f) || length <= 0.0f) {
+            return 0.0f;
+        }
+        if (distance >= length) {
+            return table[last];
+        }
+        float position = distance / length * last;
+        int index = (int) position;
+        if (index >= last) {
+            return table[last];
+        }
+        float fraction = position - index;
+        return table[index] + (table[index + 1] - table[index]) * fraction;
+    }
+
+    /**
+     * 弧长处的位置
+     *
+     * @param distance 弧长
+     * @param out 输出数组（写入 xyz）
+     * @param offset 写入位置
+     */
+    public void positionAtDistance(float distance, float[] out, int offset) {
+        evaluate(parameterAtDistance(distance), out, offset);
+    }
+
+    /**
+     * 弧长处的单位切线
+     *
+     * @param distance 弧长
+     * @param out 输出数组（写入 xyz）
+     * @param offset 写入位置
+     */
+    public void tangentAtDistance(float distance, float[] out, int offset) {
+        tangent(parameterAtDistance(distance), out, offset);
+    }
+
+    // ========== 按参数求值 ==========
+
+    /**
+     * 全局参数 u 处的位置
+     *
+     * @param u 全局参数（0 到 segmentCount）
+     */
+    public void evaluate(float u, float[] out, int offset) {
+        int segment = segmentIndex(u);
+        float t = u - segment;
+        float mt = 1.0f - t;
+        float b0 = mt * mt * mt;
+        float b1 = 3.0f * mt * mt * t;
+        float b2 = 3.0f * mt * t * t;
+        float b3 = t * t * t;
+        int b = segment * 12;
+        for (int axis = 0; axis < 3; axis++) {
+            out[offset + axis] = b0 * bezier[b + axis] + b1 * bezier[b + 3 + axis]
+                    + b2 * bezier[b + 6 + axis] + b3 * bezier[b + 9 + axis];
+        }
+    }
+
+    /**
+     * 全局参数 u 处的单位切线（导数为零时沿用段的弦方向）
+     */
+    public void tangent(float u, float[] out, int offset) {
+        int segment = segmentIndex(u);
+        float t = u - segment;
+        float mt = 1.0f - t;
+        float d0 = 3.0f * mt * mt;
+        float d1 = 6.0f * mt * t;
+        float d2 = 3.0f * t * t;
+        int b = segment * 12;
+        float x = 0.0f, y = 0.0f, z = 0.0f;
+        for (int axis = 0; axis < 3; axis++) {
+            float value = d0 * (bezier[b + 3 + axis] - bezier[b + axis])
+                    + d1 * (bezier[b + 6 + axis] - bezier[b + 3 + axis])
+                    + d2 * (bezier[b + 9 + axis] - bezier[b + 6 + axis]);
+            if (axis == 0) {
+                x = value;
+            } else if (axis == 1) {
+                y = value;
+            } else {
+                z = value;
+            }
+        }
+        float lengthSqr = x * x + y * y + z * z;
+        if (lengthSqr < 1e-12f) {
+            // 控制点与端点重合：退化为弦方向
+            x = bezier[b + 9] - bezier[b];
+            y = bezier[b + 10] - bezier[b + 1];
+            z = bezier[b + 11] - bezier[b + 2];
+            lengthSqr = Math.max(x * x + y * y + z * z, 1e-12f);
+        }
+        float inverse = (float) (1.0 / Math.sqrt(lengthSqr));
+        out[offset] = x * inverse;
+        out[offset + 1] = y * inverse;
+        out[offset + 2] = z * inverse;
+    }
+
+    // ========== 渲染采样 ==========
+
+    /**
+     * 默认转角下的渲染采样距离（构造后第一次调用时计算并缓存）
+     * 返回的数组由所有调用方共享，不能修改
+     */
+    public float[] getRenderDistances() {
+        float[] distances = renderDistances;
+        if (distances == null) {
+            distances = computeRenderDistances(DEFAULT_MAX_ANGLE);
+            renderDistances = distances;
+        }
+        return distances;
+    }
+
+    /**
+     * 按转角自适应计算采样距离：相邻两个采样点之间切线方向的变化不超过 maxAngle
+     * 直线路径只有两端两个点，弯曲越大点越密，顶点数与曲率成正比
+     *
+     * @param maxAngle 最大转角（弧度，必须为正数）
+     * @return 采样点的弧长，第一个为 0，最后一个为 length
+     * @throws IllegalArgumentException maxAngle 不是正数
+     */
+    public float[] computeRenderDistances(float maxAngle) {
+        if (!(maxAngle > 0.0f)) {
+            throw new IllegalArgumentException("最大转角必须为正数：" + maxAngle);
+        }
+        float cosLimit = (float) Math.cos(maxAngle);
+        int last = arcTable.length - 1;
+
+        float[] result = new float[16];
+        int count = 0;
+        result[count++] = 0.0f;
+
+        // 按均匀距离表逐项扫描，与上一个采样点的切线比较
+        float[] reference = new float[3];
+        float[] current = new float[3];
+        tangent(arcTable[0], reference, 0);
+        for (int k = 1; k < last; k++) {
+            tangent(arcTable[k], current, 0);
+            float cos = reference[0] * current[0] + reference[1] * current[1] + reference[2] * current[2];
+            if (cos < cosLimit) {
+                // 尽量在前一项处落点，保证区间内转角不超过上限；前一项就是上一个采样点时落在当前项
+                int emit = length * (k - 1) / last > result[count - 1] ? k - 1 : k;
+                if (count == result.length) {
+                    result = Arrays.copyOf(result, count * 2);
+                }
+                result[count++] = length * emit / last;
+                tangent(arcTable[emit], reference, 0);
+            }
+        }
+        if (count == result.length) {
+            result = Arrays.copyOf(result, count + 1);
+        }
+        result[count++] = length;
+        return Arrays.copyOf(result, count);
+    }
+
+    // ========== 访问 ==========
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 总弧长
+     */
+    public float getLength() {
+        return length;
+    }
+
+    public int getSegmentCount() {
+        return segmentCount;
+    }
+
+    public float getBoundsCenterX() {
+        return boundsCenterX;
+    }
+
+    public float getBoundsCenterY() {
+        return boundsCenterY;
+    }
+
+    public float getBoundsCenterZ() {
+        return boundsCenterZ;
+    }
+
+    /**
+     * 包围球半径（球心为 getBoundsCenterX/Y/Z，包含整条路径）
+     */
+    public float getBoundsRadius() {
+        return boundsRadius;
+    }
+
+    @Override
+    public String toString() {
+        return "PrismPathCurve{" + name + ", segments=" + segmentCount + ", length=" + length + "}";
+    }
+
+    private int segmentIndex(float u) {
+        if (!(u > 0.0f)) {
+            return 0;
+        }
+        return Math.min((int) u, segmentCount - 1);
+    }
+}
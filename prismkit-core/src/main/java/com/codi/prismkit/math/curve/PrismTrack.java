@@ -0,0 +1,291 @@
+package com.codi.prismkit.math.curve;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 多通道关键帧轨道（PrismTrack）
+ * 在同一条时间轴上驱动特效的多个属性（透明度、宽度、高度、颜色、偏移……）
+ *
+ * 设计意图：
+ * - 特效的所有属性共用一条时间轴，一次 sample() 调用填充全部通道
+ * - 每帧每个特效只做一次段查找，而不是每个属性按名称查一次曲线
+ * - 构造后不可变，可以在渲染线程和逻辑线程之间共享
+ *
+ * 技术细节：
+ * - 所有通道曲线的枢纽点 x 坐标合并为一条共享时间轴（knots）
+ * - 每条曲线在共享时间轴上被精确地重新切分（三次多项式在子区间上仍是三次多项式）
+ * - 数据按结构数组（SoA）存放：每个通道一个 float[]，每段 4 个幂基系数，用 Horner 法求值
+ * - 通道曲线未覆盖的时间区间按端点值保持常量
+ */
+public class PrismTrack {
+    // ========== 标准通道名 ==========
+    public static final String ALPHA = "alpha";
+    public static final String WIDTH = "width";
+    public static final String HEIGHT = "height";
+    public static final String RED = "r";
+    public static final String GREEN = "g";
+    public static final String BLUE = "b";
+    public static final String OFFSET = "offset";
+
+    // 合并时间轴时视为同一位置的 x 误差
+    private static final float KNOT_EPSILON = 1e-6f;
+
+    // 轨道名称
+    private final String name;
+
+    // 通道名称（下标即通道下标）
+    private final String[] channelNames;
+
+    // 边界处理模式（作用于整条时间轴）
+    private final CurveClampMode clampMode;
+
+    // 共享时间轴：第 i 段覆盖 [knots[i], knots[i + 1]]
+    private final float[] knots;
+
+    // 每段跨度的倒数，避免求值时做除法
+    private final float[] inverseSpans;
+
+    // 各通道源曲线的版本号（供调试 HUD 的播放头记录使用）
+    private final int[] channelCurveVersions;
+
+    // 采样次数（用于播放头记录的节流；不做同步，允许并发时少量计数丢失）
+    private int sampleCount;
+
+    // 结构数组：coefficients[channel][segment * 4 + k] 为该段在局部参数 s ∈ [0, 1] 下的 s^k 系数
+    private final float[][] coefficients;
+
+    /**
+     * 构造函数
+     *
+     * @param name 轨道名称
+     * @param channels 通道名 -> 曲线，通道下标按 Map 的迭代顺序分配（建议使用 LinkedHashMap）
+     * @param clampMode 时间轴的边界处理模式
+     */
+    public PrismTrack(String name, Map<String, PrismCurve> channels, CurveClampMode clampMode) {
+        if (channels == null || channels.isEmpty()) {
+            throw new IllegalArgumentException("PrismTrack 至少需要 1 个通道");
+        }
+        this.name = name;
+        this.clampMode = clampMode;
+        this.channelNames = channels.keySet().toArray(new String[0]);
+
+        List<PrismCurve> curves = new ArrayList<>(channels.values());
+        this.knots = mergeKnots(curves);
+
+        int segmentCount = knots.length - 1;
+        this.inverseSpans = new float[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            inverseSpans[i] = 1.0f / (knots[i + 1] - knots[i]);
+        }
+
+        this.coefficients = new float[curves.size()][];
+        this.channelCurveVersions = new int[curves.size()];
+        for (int channel = 0; channel < curves.size(); channel++) {
+            coefficients[channel] = resample(curves.get(channel), knots);
+            channelCurveVersions[channel] = curves.get(channel).getVersion();
+        }
+    }
+
+    /**
+     * 简化构造函数：使用默认的 CLAMP 模式
+     */
+    public PrismTrack(String name, Map<String, PrismCurve> channels) {
+        this(name, channels, CurveClampMode.CLAMP);
+    }
+
+    /**
+     * 核心方法：在给定时间对所有通道采样
+     *
+     * @param time 时间（通常是 0 到 1 的进度值）
+     * @param out 输出数组，out[i] 为第 i 个通道的值（长度至少为通道数）
+     */
+    public void sample(float time, float[] out) {
+        float x = clampMode.apply(time);
+        PrismCurvePlayheads.sample(++sampleCount, channelCurveVersions, x);
+        int segment = findSegment(x);
+        float s = localParameter(segment, x);
+
+        int base = segment * 4;
+        for (int channel = 0; channel < coefficients.length; channel++) {
+            float[] c = coefficients[channel];
+            out[channel] = ((c[base + 3] * s + c[base + 2]) * s + c[base + 1]) * s + c[base];
+        }
+    }
+
+    /**
+     * 对单个通道采样（需要全部通道时请使用 sample）
+     *
+     * @param time 时间
+     * @param channel 通道下标（见 getChannelIndex）
+     */
+    public float sampleChannel(float time, int channel) {
+        float x = clampMode.apply(time);
+        int segment = findSegment(x);
+        float s = localParameter(segment, x);
+
+        float[] c = coefficients[channel];
+        int base = segment * 4;
+        return ((c[base + 3] * s + c[base + 2]) * s + c[base + 1]) * s + c[base];
+    }
+
+    /**
+     * 二分查找包含 x 的段；超出时间轴时返回首段或末段
+     */
+    private int findSegment(float x) {
+        int low = 0;
+        int high = knots.length - 2;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (knots[mid] <= x) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private float localParameter(int segment, float x) {
+        float s = (x - knots[segment]) * inverseSpans[segment];
+        return Math.max(0.0f, Math.min(1.0f, s));
+    }
+
+    // ========== 构建辅助方法 ==========
+
+    /**
+     * 合并所有曲线的枢纽点 x 坐标，得到升序且去重的共享时间轴
+     */
+    private static float[] mergeKnots(List<PrismCurve> curves) {
+        int total = 0;
+        for (PrismCurve curve : curves) {
+            total += curve.getSegmentCount() + 1;
+        }
+
+        float[] all = new float[total];
+        int index = 0;
+        for (PrismCurve curve : curves) {
+            List<CurveSegment> segments = curve.getSegments();
+            all[index++] = segments.get(0).getXStart();
+            for (CurveSegment segment : segments) {
+                all[index++] = segment.getXEnd();
+            }
+        }
+        Arrays.sort(all);
+
+        int unique = 1;
+        for (int i = 1; i < all.length; i++) {
+            if (all[i] - all[unique - 1] > KNOT_EPSILON) {
+                all[unique++] = all[i];
+            }
+        }
+        if (unique < 2) {
+            throw new IllegalArgumentException("PrismTrack 的时间轴跨度不能为 0");
+        }
+        return Arrays.copyOf(all, unique);
+    }
+
+    /**
+     * 将曲线在共享时间轴上重新切分，输出每段的幂基系数
+     * 子区间 [a, b] 落在原曲线某一段内部，代入 t = ta + (tb - ta)·s 后仍是三次多项式
+     */
+    private static float[] resample(PrismCurve curve, float[] knots) {
+        List<CurveSegment> segments = curve.getSegments();
+        CurveSegment first = segments.get(0);
+        CurveSegment last = segments.get(segments.size() - 1);
+
+        float[] result = new float[(knots.length - 1) * 4];
+        for (int i = 0; i < knots.length - 1; i++) {
+            float a = knots[i];
+            float b = knots[i + 1];
+            int base = i * 4;
+
+            // 曲线未覆盖的区间：保持端点值
+            if (b <= first.getXStart() + KNOT_EPSILON) {
+                result[base] = first.getAnchorStart().getY();
+                continue;
+            }
+            if (a >= last.getXEnd() - KNOT_EPSILON) {
+                result[base] = last.getAnchorEnd().getY();
+                continue;
+            }
+
+            CurveSegment segment = segmentAt(segments, (a + b) * 0.5f);
+
+            // 原段的幂基系数：y(t) = c0 + c1·t + c2·t² + c3·t³
+            double p0 = segment.getAnchorStart().getY();
+            double p1 = segment.getHandleStartOut().getY();
+            double p2 = segment.getHandleEndIn().getY();
+            double p3 = segment.getAnchorEnd().getY();
+            double c0 = p0;
+            double c1 = 3 * (p1 - p0);
+            double c2 = 3 * (p0 - 2 * p1 + p2);
+            double c3 = p3 - p0 + 3 * (p1 - p2);
+
+            // 代入 t = ta + d·s
+            double ta = (a - segment.getXStart()) / (double) segment.getLength();
+            double d = (b - a) / (double) segment.getLength();
+            result[base] = (float) (((c3 * ta + c2) * ta + c1) * ta + c0);
+            result[base + 1] = (float) ((c1 + 2 * c2 * ta + 3 * c3 * ta * ta) * d);
+            result[base + 2] = (float) ((c2 + 3 * c3 * ta) * d * d);
+            result[base + 3] = (float) (c3 * d * d * d);
+        }
+        return result;
+    }
+
+    private static CurveSegment segmentAt(List<CurveSegment> segments, float x) {
+        for (CurveSegment segment : segments) {
+            if (segment.containsX(x)) {
+                return segment;
+            }
+        }
+        return segments.get(segments.size() - 1);
+    }
+
+    // ========== Getter 方法 ==========
+
+    public String getName() {
+        return name;
+    }
+
+    public CurveClampMode getClampMode() {
+        return clampMode;
+    }
+
+    public int getChannelCount() {
+        return channelNames.length;
+    }
+
+    public String getChannelName(int channel) {
+        return channelNames[channel];
+    }
+
+    /**
+     * 根据通道名查找通道下标（应在初始化时解析一次，而不是每帧调用）
+     *
+     * @return 通道下标，不存在时返回 -1
+     */
+    public int getChannelIndex(String channel) {
+        for (int i = 0; i < channelNames.length; i++) {
+            if (channelNames[i].equals(channel)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 获取共享时间轴的段数
+     */
+    public int getSegmentCount() {
+        return knots.length - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PrismTrack[name=%s, clampMode=%s, channels=%s, segments=%d]",
+            name, clampMode, Arrays.toString(channelNames), knots.length - 1);
+    }
+}
@@ -0,0 +1,113 @@
+package com.codi.prismkit.math.curve;
+
+/**
+ * 均匀查找表烘焙曲线
+ * 在曲线定义域内等间距采样，求值时只做一次下标计算和一次线性插值
+ *
+ * 设计意图：
+ * - 求值速度最快、与段数无关，适合每帧被大量调用的热点曲线
+ * - 内存占用固定为 size 个 float，通常由分层策略按预算自动管理
+ */
+public class TableBakedCurve implements BakedCurve {
+
+    // 默认表大小
+    public static final int DEFAULT_SIZE = 1024;
+
+    // 定义域起点
+    private final float xMin;
+
+    // x 到表下标的缩放系数：(size - 1) / (xMax - xMin)
+    private final float scale;
+
+    // 采样表
+    private final float[] table;
+
+    private TableBakedCurve(float xMin, float scale, float[] table) {
+        this.xMin = xMin;
+        this.scale = scale;
+        this.table = table;
+    }
+
+    /**
+     * 将曲线烘焙为均匀查找表
+     *
+     * @param curve 原曲线
+     * @param size 表项数量（至少 2）
+     */
+    public static TableBakedCurve bake(PrismCurve curve, int size) {
+        if (size < 2) {
+            throw new IllegalArgumentException("查找表至少需要 2 项");
+        }
+        float xMin = curve.getSegments().get(0).getXStart();
+        float xMax = curve.getSegments().get(curve.getSegmentCount() - 1).getXEnd();
+
+        float[] table = new float[size];
+        for (int i = 0; i < size; i++) {
+            table[i] = curve.evaluateExact(xMin + (xMax - xMin) * i / (size - 1));
+        }
+        return new TableBakedCurve(xMin, (size - 1) / (xMax - xMin), table);
+    }
+
+    /**
+     * 只重新采样 [xFrom, xTo] 覆盖的表项（含两端各一项），其余表项直接复制
+     * 定义域变化时整体重新烘焙
+     */
+    @Override
+    public TableBakedCurve rebake(PrismCurve curve, float xFrom, float xTo) {
+        float newMin = curve.getSegments().get(0).getXStart();
+        float newMax = curve.getSegments().get(curve.getSegmentCount() - 1).getXEnd();
+        float newScale = (table.length - 1) / (newMax - newMin);
+        if (newMin != xMin || newScale != scale) {
+            return bake(curve, table.length);
+        }
+
+        int last = table.length - 1;
+        int from = Math.max(0, Math.min(last, (int) Math.floor((xFrom - xMin) * scale)));
+        int to = Math.max(0, Math.min(last, (int) Math.ceil((xTo - xMin) * scale)));
+
+        float[] updated = table.clone();
+        for (int i = from; i <= to; i++) {
+            updated[i] = curve.evaluateExact(xMin + (newMax - xMin) * i / last);
+        }
+        return new TableBakedCurve(xMin, scale, updated);
+    }
+
+    /**
+     * 估算指定大小的查找表占用的内存（用于烘焙前的预算检查）
+     */
+    public static long estimateMemoryBytes(int size) {
+        // 对象头 + 数组头 + 表数据
+        return 24L + 16L + 4L * size;
+    }
+
+    @Override
+    public float evaluate(float x) {
+        float position = (x - xMin) * scale;
+        if (position <= 0.0f) {
+            return table[0];
+        }
+        int index = (int) position;
+        if (index >= table.length - 1) {
+            return table[table.length - 1];
+        }
+        float fraction = position - index;
+        return table[index] + (table[index + 1] - table[index]) * fraction;
+    }
+
+    @Override
+    public long getMemoryBytes() {
+        return estimateMemoryBytes(table.length);
+    }
+
+    /**
+     * 获取表项数量
+     */
+    public int getSize() {
+        return table.length;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TableBakedCurve[size=%d, bytes=%d]", table.length, getMemoryBytes());
+    }
+}
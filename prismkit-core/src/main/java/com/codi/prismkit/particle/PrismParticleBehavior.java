@@ -0,0 +1,21 @@
+package com.codi.prismkit.particle;
+
+/**
+ * 粒子行为：每 tick 对整个粒子池执行一次的数组遍历
+ * 取代原版粒子在每个对象的 tick() 中各自修改字段的做法（如 TestParticle.fadeOut）
+ *
+ * 技术细节：
+ * - 在 PrismParticlePool.tick 完成移动和到期移除之后按添加顺序执行
+ * - 实现只应修改下标 [0, pool.size()) 内的粒子，不能在遍历中增删粒子
+ * - 并行更新时（PrismParticleScheduler）可能在工作线程上执行，实现只能访问所属的粒子池
+ */
+@FunctionalInterface
+public interface PrismParticleBehavior {
+
+    /**
+     * 对池中所有存活的粒子执行一次
+     *
+     * @param pool 粒子池
+     */
+    void apply(PrismParticlePool pool);
+}
@@ -0,0 +1,433 @@
+package com.codi.prismkit.particle;
+
+import com.codi.prismkit.render.BeamGeometry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 粒子池（结构数组存储）
+ * 一个发射器的所有粒子存放在固定容量的基本类型数组里，更新和渲染都是对数组的顺序遍历
+ *
+ * 设计意图：
+ * - 原版粒子每个都是一个堆对象（double 字段、SpriteSet 引用、虚方法 tick/render），
+ *   上万个粒子时对象分配和指针跳转的开销远大于实际计算
+ * - 这里每个属性一条连续数组，移动、淡出等逻辑都是紧凑的循环，粒子生成和消亡不分配任何对象
+ * - 不依赖 Minecraft，可以脱离游戏做单元测试
+ *
+ * 技术细节：
+ * - 所有数组在构造时按容量一次性分配，池满时新粒子直接丢弃（纯视觉，丢弃不影响游戏逻辑）
+ * - 到期移除采用“与末尾交换”的方式，O(1) 且数组保持紧凑（粒子顺序因此不稳定）
+ * - 每 tick 的顺序与原版 Particle.tick 一致：记录上一位置、年龄加一、到期移除、重力、移动、阻力
+ * - 位置是双缓冲：每 tick 开始时交换“当前”和“上一 tick”两个数组的引用，再由上一 tick 的位置写出新位置，
+ *   省去逐个粒子复制上一位置；渲染读取这两个数组按 partialTicks 插值
+ * - tick 拆成三个阶段（见 PrismParticleSimulation）：移动阶段每个粒子只读写自己的下标，可以分块并行；
+ *   到期移除和行为在之后单线程执行。更新期间（PrismParticleScheduler.tick 返回前）不能从其他线程访问粒子池
+ */
+public final class PrismParticlePool implements PrismParticleSimulation {
+
+    // 每个粒子输出的 float 数量（一个四边形）
+    public static final int FLOATS_PER_PARTICLE = 4 * BeamGeometry.VERTEX_STRIDE;
+
+    /**
+     * 透明度随年龄从 1 线性降到 0（即 TestParticle.fadeOut 的数组版本）
+     */
+    public static final PrismParticleBehavior FADE_OUT = PrismParticlePool::fadeOut;
+
+    private final int capacity;
+    private int size;
+
+    // ========== 结构数组 ==========
+    private double[] positions;             // 每个粒子 3 个：x, y, z
+    private double[] prevPositions;         // 上一 tick 的位置（与 positions 每 tick 交换）
+    private final float[] velocities;       // 每 tick 的位移
+    private final int[] ages;
+    private final int[] lifetimes;
+    private final float[] sizes;            // 四边形半边长
+    private final float[] colors;           // 每个粒子 4 个：r, g, b, a
+    private final int[] seeds;              // 粒子种子（发射器据此派生每个粒子的随机初始值）
+
+    // ========== 物理参数 ==========
+    private float gravity;
+    private float drag = 1.0f;
+
+    // 每 tick 依次执行的行为
+    private final List<PrismParticleBehavior> behaviors = new ArrayList<>();
+
+    /**
+     * 创建粒子池
+     *
+     * @param capacity 最多同时存在的粒子数量
+     * @throws IllegalArgumentException capacity 不是正数
+     */
+    public PrismParticlePool(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("粒子池容量必须为正数：" + capacity);
+        }
+        this.capacity = capacity;
+        this.positions = new double[capacity * 3];
+        this.prevPositions = new double[capacity * 3];
+        this.velocities = new float[capacity * 3];
+        this.ages = new int[capacity];
+        this.lifetimes = new int[capacity];
+        this.sizes = new float[capacity];
+        this.colors = new float[capacity * 4];
+        this.seeds = new int[capacity];
+    }
+
+    // ========== 配置 ==========
+
+    /**
+     * 设置重力（每 tick 从竖直速度中减去的量）
+     */
+    public PrismParticlePool setGravity(float gravity) {
+        this.gravity = gravity;
+        return this;
+    }
+
+    /**
+     * 设置阻力（每 tick 速度乘以的倍率，1 为没有阻力）
+     */
+    public PrismParticlePool setDrag(float drag) {
+        this.drag = drag;
+        return this;
+    }
+
+    /**
+     * 添加每 tick 执行的行为
+     */
+    public PrismParticlePool addBehavior(PrismParticleBehavior behavior) {
+        behaviors.add(behavior);
+        return this;
+    }
+
+    // ========== 生成与更新 ==========
+
+    /**
+     * 生成一个粒子
+     *
+     * @param x 位置 x
+     * @param y 位置 y
+     * @param z 位置 z
+     * @param velocityX 每 tick 的位移 x
+     * @param velocityY 每 tick 的位移 y
+     * @param velocityZ 每 tick 的位移 z
+     * @param lifetime 寿命（tick）
+     * @param quadSize 四边形半边长
+     * @return 粒子下标；池已满或寿命不是正数时返回 -1
+     */
+    public int spawn(double x, double y, double z, float velocityX, float velocityY, float velocityZ,
+                     int lifetime, float quadSize, float red, float green, float blue, float alpha) {
+        if (lifetime <= 0 || size == capacity) {
+            return -1;
+        }
+
+        int index = size++;
+        int p = index * 3;
+        positions[p] = x;
+        positions[p + 1] = y;
+        positions[p + 2] = z;
+        prevPositions[p] = x;
+        prevPositions[p + 1] = y;
+        prevPositions[p + 2] = z;
+        velocities[p] = velocityX;
+        velocities[p + 1] = velocityY;
+        velocities[p + 2] = velocityZ;
+        ages[index] = 0;
+        lifetimes[index] = lifetime;
+        sizes[index] = quadSize;
+        int c = index * 4;
+        colors[c] = red;
+        colors[c + 1] = green;
+        colors[c + 2] = blue;
+        colors[c + 3] = alpha;
+        seeds[index] = 0;
+        return index;
+    }
+
+    /**
+     * 更新一个 tick：移动所有粒子，移除到期的粒子，然后执行所有行为
+     *
+     * @return 本 tick 移除的粒子数量
+     */
+    public int tick() {
+        advance(0, beginTick());
+        int removed = removeExpired();
+        runBehaviors();
+        return removed;
+    }
+
+    // ========== 分阶段更新（PrismParticleSimulation） ==========
+
+    /**
+     * 交换位置缓冲：当前位置成为上一 tick 的位置，旧数组将被新位置覆盖
+     */
+    @Override
+    public int beginTick() {
+        double[] previous = positions;
+        positions = prevPositions;
+        prevPositions = previous;
+        return size;
+    }
+
+    /**
+     * 移动下标 [from, to) 的粒子：年龄加一，并按重力、速度、阻力写出新位置
+     * 到期的粒子也照常移动，随后在 removeExpired 中移除
+     */
+    @Override
+    public void advance(int from, int to) {
+        double[] current = positions;
+        double[] previous = prevPositions;
+        float[] velocity = velocities;
+        float gravity = this.gravity;
+        float drag = this.drag;
+        for (int i = from; i < to; i++) {
+            ages[i]++;
+            int p = i * 3;
+            velocity[p + 1] -= gravity;
+            current[p] = previous[p] + velocity[p];
+            current[p + 1] = previous[p + 1] + velocity[p + 1];
+            current[p + 2] = previous[p + 2] + velocity[p + 2];
+            velocity[p] *= drag;
+            velocity[p + 1] *= drag;
+            velocity[p + 2] *= drag;
+        }
+    }
+
+    /**
+     * 移除到期的粒子并执行行为
+     *
+     * @return 0：粒子池没有需要并行后处理的内容
+     */
+    @Override
+    public int finishAdvance() {
+        removeExpired();
+        runBehaviors();
+        return 0;
+    }
+
+    @Override
+    public void postProcess(int from, int to) {
+    }
+
+    /**
+     * 移除年龄达到寿命的粒子
+     *
+     * @return 移除的粒子数量
+     */
+    private int removeExpired() {
+        int removed = 0;
+        int i = 0;
+        while (i < size) {
+            if (ages[i] >= lifetimes[i]) {
+                // 末尾的粒子换到这里，本轮继续检查它
+                swapRemove(i);
+                removed++;
+                continue;
+            }
+            i++;
+        }
+        return removed;
+    }
+
+    private void runBehaviors() {
+        for (PrismParticleBehavior behavior : behaviors) {
+            behavior.apply(this);
+        }
+    }
+
+    /**
+     * 透明度随年龄从 1 线性降到 0
+     */
+    public void fadeOut() {
+        for (int i = 0; i < size; i++) {
+            colors[i * 4 + 3] = 1.0f - (float) ages[i] / lifetimes[i];
+        }
+    }
+
+    /**
+     * 移除全部粒子
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    // ========== 渲染 ==========
+
+    /**
+     * 写入所有粒子的朝向相机的四边形（位置按 partialTicks 插值，坐标减去相机位置）
+     * 四边形由相机的右方向和上方向张成，顶点按 -右-上、+右-上、+右+上、-右+上 的逆时针顺序排列，正面朝向相机
+     *
+     * @param out 输出数组
+     * @param offset 写入位置（float 下标）
+     * @param cameraX 相机位置 x
+     * @param rightX 相机右方向 x（单位向量）
+     * @param upX 相机上方向 x（单位向量）
+     * @param partialTicks 渲染帧在当前 tick 内的进度
+     * @return 写入后的下一个位置
+     * @throws IllegalArgumentException 输出数组容量不足
+     */
+    public int writeBillboards(float[] out, int offset, double cameraX, double cameraY, double cameraZ,
+                               float rightX, float rightY, float rightZ, float upX, float upY, float upZ,
+                               float partialTicks) {
+        int required = size * FLOATS_PER_PARTICLE;
+        if (offset < 0 || offset + required > out.length) {
+            throw new IllegalArgumentException(
+                String.format("粒子顶点数组容量不足：需要 %d，剩余 %d", required, out.length - offset)
+            );
+        }
+
+        int index = offset;
+        for (int i = 0; i < size; i++) {
+            int p = i * 3;
+            float x = (float) (lerp(p, partialTicks) - cameraX);
+            float y = (float) (lerp(p + 1, partialTicks) - cameraY);
+            float z = (float) (lerp(p + 2, partialTicks) - cameraZ);
+            float s = sizes[i];
+            // 对角线方向：右 + 上、右 - 上
+            float ax = (rightX + upX) * s, ay = (rightY + upY) * s, az = (rightZ + upZ) * s;
+            float bx = (rightX - upX) * s, by = (rightY - upY) * s, bz = (rightZ - upZ) * s;
+            int c = i * 4;
+            float red = colors[c], green = colors[c + 1], blue = colors[c + 2], alpha = colors[c + 3];
+
+            index = BeamGeometry.putVertex(out, index, x - ax, y - ay, z - az, red, green, blue, alpha);
+            index = BeamGeometry.putVertex(out, index, x + bx, y + by, z + bz, red, green, blue, alpha);
+            index = BeamGeometry.putVertex(out, index, x + ax, y + ay, z + az, red, green, blue, alpha);
+            index = BeamGeometry.putVertex(out, index, x - bx, y - by, z - bz, red, green, blue, alpha);
+        }
+        return index;
+    }
+
+    // ========== 访问 ==========
+
+    public int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public float getGravity() {
+        return gravity;
+    }
+
+    public float getDrag() {
+        return drag;
+    }
+
+    public double getX(int index) {
+        return positions[index * 3];
+    }
+
+    public double getY(int index) {
+        return positions[index * 3 + 1];
+    }
+
+    public double getZ(int index) {
+        return positions[index * 3 + 2];
+    }
+
+    public float getVelocityX(int index) {
+        return velocities[index * 3];
+    }
+
+    public float getVelocityY(int index) {
+        return velocities[index * 3 + 1];
+    }
+
+    public float getVelocityZ(int index) {
+        return velocities[index * 3 + 2];
+    }
+
+    /**
+     * 把粒子本 tick 的位移缩放为 scale 倍（生命周期速度模块使用）
+     * 只改变本 tick 的落点，不改变速度：阻力和重力照常作用在未缩放的速度上
+     */
+    public void scaleStep(int index, float scale) {
+        double[] current = positions;
+        double[] previous = prevPositions;
+        int p = index * 3;
+        for (int k = 0; k < 3; k++) {
+            current[p + k] = previous[p + k] + (current[p + k] - previous[p + k]) * scale;
+        }
+    }
+
+    public int getAge(int index) {
+        return ages[index];
+    }
+
+    public int getLifetime(int index) {
+        return lifetimes[index];
+    }
+
+    /**
+     * 归一化的年龄（0 为刚生成，接近 1 时即将到期）
+     */
+    public float getNormalizedAge(int index) {
+        return (float) ages[index] / lifetimes[index];
+    }
+
+    public float getSize(int index) {
+        return sizes[index];
+    }
+
+    public void setSize(int index, float size) {
+        sizes[index] = size;
+    }
+
+    /**
+     * 颜色分量
+     *
+     * @param channel 0 为 r，1 为 g，2 为 b，3 为 a
+     */
+    public float getColor(int index, int channel) {
+        return colors[index * 4 + channel];
+    }
+
+    public void setColor(int index, int channel, float value) {
+        colors[index * 4 + channel] = value;
+    }
+
+    public int getSeed(int index) {
+        return seeds[index];
+    }
+
+    /**
+     * 设置粒子种子（spawn 后默认为 0）
+     */
+    public void setSeed(int index, int seed) {
+        seeds[index] = seed;
+    }
+
+    // ========== 内部实现 ==========
+
+    private double lerp(int component, float partialTicks) {
+        double previous = prevPositions[component];
+        return previous + (positions[component] - previous) * partialTicks;
+    }
+
+    private void swapRemove(int index) {
+        int last = --size;
+        if (index == last) {
+            return;
+        }
+        int p = index * 3;
+        int q = last * 3;
+        for (int k = 0; k < 3; k++) {
+            positions[p + k] = positions[q + k];
+            prevPositions[p + k] = prevPositions[q + k];
+            velocities[p + k] = velocities[q + k];
+        }
+        ages[index] = ages[last];
+        lifetimes[index] = lifetimes[last];
+        sizes[index] = sizes[last];
+        seeds[index] = seeds[last];
+        int c = index * 4;
+        int d = last * 4;
+        colors[c] = colors[d];
+        colors[c + 1] = colors[d + 1];
+        colors[c + 2] = colors[d + 2];
+        colors[c + 3] = colors[d + 3];
+    }
+}
@@ -0,0 +1,239 @@
+package com.codi.prismkit.particle;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 粒子更新调度器：把一个 tick 内所有粒子模拟的更新分给 ForkJoin 线程池
+ *
+ * 设计意图：
+ * - 粒子之间互不影响，更新可以完全并行；原版 ParticleEngine 在客户端主线程上逐个更新，
+ *   而客户端 CPU 通常有 8 到 16 个核心
+ * - 每个粒子池或发射器是一个任务，粒子很多的模拟再按下标切成若干块，由工作窃取在线程之间平衡负载
+ * - 粒子总数低于阈值时直接在调用线程上更新：分派和等待任务的开销在粒子较少时超过并行带来的收益
+ *
+ * 技术细节：
+ * - tick 在返回前等待所有任务完成，调用方（客户端主线程）在 tick 之外可以照常生成粒子、读取数据渲染；
+ *   渲染读取的是粒子池的双缓冲位置数组，只在 tick 期间被写入
+ * - 使用独立的线程池（守护线程），不占用原版区块构建等后台任务使用的线程
+ * - 并行更新时每 tick 为每个模拟分配一个任务对象；单线程路径不分配内存
+ * - tick 只能在同一个线程上调用
+ */
+public final class PrismParticleScheduler {
+
+    // 默认阈值：粒子总数达到此值才并行更新
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+
+    // 默认分块大小：单个模拟的粒子数超过此值才切块
+    public static final int DEFAULT_CHUNK_SIZE = 4096;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private volatile int parallelThreshold;
+
+    // 每个模拟本 tick 需要移动的粒子数量（复用）
+    private int[] counts = new int[16];
+
+    // 上一次 tick 是否并行执行
+    private boolean lastTickParallel;
+
+    /**
+     * @param parallelism 工作线程数量
+     * @param parallelThreshold 粒子总数达到此值才并行更新
+     * @param chunkSize 单个模拟切块的大小（粒子数）
+     * @throws IllegalArgumentException parallelism 或 chunkSize 不是正数，或 parallelThreshold 为负数
+     */
+    public PrismParticleScheduler(int parallelism, int parallelThreshold, int chunkSize) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("粒子更新线程数必须为正数：" + parallelism);
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("粒子分块大小必须为正数：" + chunkSize);
+        }
+        setParallelThreshold(parallelThreshold);
+        this.chunkSize = chunkSize;
+        this.pool = new ForkJoinPool(parallelism, PrismParticleScheduler::newWorkerThread, null, false);
+    }
+
+    /**
+     * 按 CPU 核心数创建调度器：保留两个核心给客户端主线程和渲染相关的后台线程
+     */
+    public static PrismParticleScheduler createDefault() {
+        int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() - 2);
+        return new PrismParticleScheduler(parallelism, DEFAULT_PARALLEL_THRESHOLD, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * 设置并行阈值（粒子总数），设为 Integer.MAX_VALUE 即始终单线程更新
+     *
+     * @throws IllegalArgumentException threshold 为负数
+     */
+    public void setParallelThreshold(int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("并行阈值不能为负数：" + threshold);
+        }
+        this.parallelThreshold = threshold;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * 上一次 tick 是否在线程池中并行执行
+     */
+    public boolean wasLastTickParallel() {
+        return lastTickParallel;
+    }
+
+    /**
+     * 更新所有模拟一个 tick，返回前所有更新都已完成
+     *
+     * @param simulations 要更新的模拟（tick 期间不能修改这个列表）
+     * @return 本 tick 移动的粒子总数
+     */
+    public int tick(List<? extends PrismParticleSimulation> simulations) {
+        int count = simulations.size();
+        if (counts.length < count) {
+            counts = new int[Math.max(count, counts.length * 2)];
+        }
+
+        int total = 0;
+        for (int i = 0; i < count; i++) {
+            int particles = simulations.get(i).beginTick();
+            counts[i] = particles;
+            total += particles;
+        }
+
+        lastTickParallel = total >= parallelThreshold && pool.getParallelism() > 1 && count > 0;
+        if (!lastTickParallel) {
+            for (int i = 0; i < count; i++) {
+                PrismParticleSimulation simulation = simulations.get(i);
+                simulation.advance(0, counts[i]);
+                simulation.postProcess(0, simulation.finishAdvance());
+            }
+            return total;
+        }
+
+        SimulationTask[] tasks = new SimulationTask[count];
+        for (int i = 0; i < count; i++) {
+            tasks[i] = new SimulationTask(simulations.get(i), counts[i], chunkSize);
+        }
+        pool.invoke(new TickTask(tasks));
+        return total;
+    }
+
+    /**
+     * 关闭线程池（之后不能再调用 tick）
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    // ========== 任务 ==========
+    // ForkJoinTask 实现了 Serializable，但这些任务只在一个 tick 内存在、从不序列化
+
+    /**
+     * 根任务：并行执行所有模拟的任务
+     */
+    @SuppressWarnings("serial")
+    private static final class TickTask extends RecursiveAction {
+        private final SimulationTask[] tasks;
+
+        TickTask(SimulationTask[] tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected void compute() {
+            invokeAll(tasks);
+        }
+    }
+
+    /**
+     * 一个模拟的完整 tick：并行移动 → 单线程收尾 → 并行后处理
+     */
+    @SuppressWarnings("serial")
+    private static final class SimulationTask extends RecursiveAction {
+        private final PrismParticleSimulation simulation;
+        private final int count;
+        private final int chunkSize;
+
+        SimulationTask(PrismParticleSimulation simulation, int count, int chunkSize) {
+            this.simulation = simulation;
+            this.count = count;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            RangeTask.run(simulation, false, 0, count, chunkSize);
+            int postCount = simulation.finishAdvance();
+            RangeTask.run(simulation, true, 0, postCount, chunkSize);
+        }
+    }
+
+    /**
+     * 一个下标区间：超过分块大小时对半切分
+     */
+    @SuppressWarnings("serial")
+    private static final class RangeTask extends RecursiveAction {
+        private final PrismParticleSimulation simulation;
+        private final boolean post;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        RangeTask(PrismParticleSimulation simulation, boolean post, int from, int to, int chunkSize) {
+            this.simulation = simulation;
+            this.post = post;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        static void run(PrismParticleSimulation simulation, boolean post, int from, int to, int chunkSize) {
+            if (to - from <= chunkSize) {
+                execute(simulation, post, from, to);
+            } else {
+                new RangeTask(simulation, post, from, to, chunkSize).compute();
+            }
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                execute(simulation, post, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeTask(simulation, post, from, middle, chunkSize),
+                    new RangeTask(simulation, post, middle, to, chunkSize));
+        }
+
+        private static void execute(PrismParticleSimulation simulation, boolean post, int from, int to) {
+            if (from >= to) {
+                return;
+            }
+            if (post) {
+                simulation.postProcess(from, to);
+            } else {
+                simulation.advance(from, to);
+            }
+        }
+    }
+
+    private static ForkJoinWorkerThread newWorkerThread(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("PrismKit-Particle-" + thread.getPoolIndex());
+        // 模组加载器下的类加载器，与 Minecraft 的后台线程池相同的处理
+        thread.setContextClassLoader(PrismParticleScheduler.class.getClassLoader());
+        return thread;
+    }
+}
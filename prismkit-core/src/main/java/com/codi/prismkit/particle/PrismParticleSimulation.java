@@ -0,0 +1,49 @@
+package com.codi.prismkit.particle;
+
+/**
+ * 可分阶段更新的粒子模拟（粒子池或发射器）
+ * PrismParticleScheduler 按阶段调用，把逐粒子的部分分块交给多个线程
+ *
+ * 设计意图：
+ * - 逐粒子的计算（移动、生命周期模块）彼此独立，可以按下标区间任意切分；
+ *   改变粒子数量的操作（到期移除、生成）必须单线程执行，因此夹在两个并行阶段之间
+ *
+ * 技术细节：
+ * - 一个 tick 的调用顺序：beginTick → advance（可分块并行）→ finishAdvance → postProcess（可分块并行）
+ * - 不同的模拟之间没有共享的可变状态，可以在不同线程上同时更新
+ * - 单线程更新时等价于 advance(0, beginTick())、finishAdvance()、postProcess(0, 返回值)
+ */
+public interface PrismParticleSimulation {
+
+    /**
+     * 单线程：开始一个 tick
+     *
+     * @return 需要移动的粒子数量（advance 的下标范围为 [0, 返回值)）
+     */
+    int beginTick();
+
+    /**
+     * 可并行：移动下标 [from, to) 的粒子，只能读写这些下标的数据
+     */
+    void advance(int from, int to);
+
+    /**
+     * 单线程：移除到期粒子、执行行为、生成新粒子等会改变粒子数量的操作
+     *
+     * @return 需要后处理的粒子数量（postProcess 的下标范围为 [0, 返回值)），没有后处理时返回 0
+     */
+    int finishAdvance();
+
+    /**
+     * 可并行：后处理下标 [from, to) 的粒子，只能读写这些下标的数据
+     */
+    void postProcess(int from, int to);
+
+    /**
+     * 在当前线程上完成一个 tick（单线程更新）
+     */
+    static void tickSequential(PrismParticleSimulation simulation) {
+        simulation.advance(0, simulation.beginTick());
+        simulation.postProcess(0, simulation.finishAdvance());
+    }
+}
@@ -0,0 +1,334 @@
+package com.codi.prismkit.render;
+
+import com.codi.prismkit.math.curve.PrismCurve;
+import com.codi.prismkit.math.curve.PrismPathCurve;
+
+/**
+ * 光束几何生成器（纯函数，不依赖 Minecraft）
+ * 把一根竖直光束展开为四个侧面的四边形顶点，写入交错存放的 float 数组
+ *
+ * 设计意图：
+ * - 顶点生成与渲染管线分离：客户端只负责把数组里的顶点交给 VertexConsumer，
+ *   几何本身可以在没有 GPU 的环境下做单元测试
+ * - 每根光束的角点和渐变透明度只计算一次，四个侧面共用同一圈角点（相邻侧面共享边）
+ * - 调用方自行管理输出数组，批量写入多根光束时不分配任何对象
+ *
+ * 技术细节：
+ * - 每个顶点 VERTEX_STRIDE 个 float：x, y, z, r, g, b, a（对应 RenderType.lightning 的 POSITION_COLOR 格式）
+ * - 四个角点按 (+x,+z) -> (+x,-z) -> (-x,-z) -> (-x,+z) 的环形顺序排列，
+ *   第 k 个侧面连接角点 k 和 k+1，顶点顺序为 下k、下k+1、上k+1、上k
+ * - 透明度从底部的 alpha 线性渐变到顶部的 0（插值由光栅化完成）
+ *
+ * 分段与细节层次（writeSegment）：
+ * - 高光束按 SEGMENT_LENGTH 切成多段，调用方逐段做视锥剔除，屏幕外的段不生成顶点
+ * - 每段两端的透明度按整根光束的线性渐变插值，分段后外观与整根绘制完全一致
+ * - LOD_SIDES：只输出朝向相机的侧面（最多 2 个）。光束的渲染类型开启了背面剔除，背对相机的侧面本来就不可见，因此是无损的
+ * - LOD_BILLBOARD：远处的段只输出一个始终朝向相机的四边形
+ * - writeSegment 要求坐标已减去相机位置（相机位于原点），朝向判断依赖这一点
+ *
+ * 路径光束（writePathBeam）：
+ * - 沿 PrismPathCurve 的自适应采样点生成一条始终朝向相机的带状面，顶点数随路径弯曲程度增加
+ * - 采样点按弧长分布，宽度曲线和透明度渐变沿路径匀速变化
+ */
+public final class BeamGeometry {
+
+    // 每个顶点的 float 数量：位置 3 + 颜色 4
+    public static final int VERTEX_STRIDE = 7;
+
+    // 侧面数量
+    public static final int SIDES = 4;
+
+    // 每根光束的顶点数量和 float 数量
+    public static final int VERTICES_PER_BEAM = SIDES * 4;
+    public static final int FLOATS_PER_BEAM = VERTICES_PER_BEAM * VERTEX_STRIDE;
+
+    // ========== 分段与细节层次 ==========
+
+    // 每段的最大长度（方块）
+    public static final float SEGMENT_LENGTH = 16.0f;
+
+    // 只输出朝向相机的侧面
+    public static final int LOD_SIDES = 0;
+
+    // 只输出一个朝向相机的四边形
+    public static final int LOD_BILLBOARD = 1;
+
+    // 超过这个距离（方块）的段使用 LOD_BILLBOARD
+    public static final float BILLBOARD_DISTANCE = 64.0f;
+
+    // 每段最多输出的 float 数量（朝向相机的侧面最多 2 个）
+    public static final int MAX_FLOATS_PER_SEGMENT = 2 * 4 * VERTEX_STRIDE;
+
+    // 角点相对光束中心的方向（环形顺序）
+    private static final float[] CORNER_X = {1.0f, 1.0f, -1.0f, -1.0f};
+    private static final float[] CORNER_Z = {1.0f, -1.0f, -1.0f, 1.0f};
+
+    private BeamGeometry() {
+    }
+
+    /**
+     * 写入一根竖直光束的顶点
+     *
+     * @param out 输出数组（容量至少为 offset + FLOATS_PER_BEAM）
+     * @param offset 写入位置（float 下标）
+     * @param x 光束中心 x（通常已减去相机位置）
+     * @param y 光束基准 y
+     * @param z 光束中心 z
+     * @param halfWidth 半宽
+     * @param bottom 底部相对基准 y 的偏移
+     * @param top 顶部相对基准 y 的偏移
+     * @param red 颜色 r（0 到 1）
+     * @param green 颜色 g
+     * @param blue 颜色 b
+     * @param alpha 底部透明度（顶部为 0）
+     * @return 写入后的下一个位置
+     * @throws IllegalArgumentException 输出数组容量不足
+     */
+    public static int writeBeam(float[] out, int offset, float x, float y, float z, float halfWidth,
+                                float bottom, float top, float red, float green, float blue, float alpha) {
+        if (offset < 0 || offset + FLOATS_PER_BEAM > out.length) {
+            throw new IllegalArgumentException(
+                String.format("光束顶点数组容量不足：需要 %d，剩余 %d", FLOATS_PER_BEAM, out.length - offset)
+            );
+        }
+
+        float yBottom = y + bottom;
+        float yTop = y + top;
+        int index = offset;
+        for (int side = 0; side < SIDES; side++) {
+            int next = (side + 1) & (SIDES - 1);
+            float x0 = x + CORNER_X[side] * halfWidth;
+            float z0 = z + CORNER_Z[side] * halfWidth;
+            float x1 = x + CORNER_X[next] * halfWidth;
+            float z1 = z + CORNER_Z[next] * halfWidth;
+
+            index = putQuad(out, index, x0, z0, x1, z1, yBottom, yTop, red, green, blue, alpha, 0.0f);
+        }
+        return index;
+    }
+
+    /**
+     * 按相机距离选择细节层次
+     *
+     * @param distanceSqr 相机到段包围盒最近点的距离平方
+     * @return LOD_SIDES 或 LOD_BILLBOARD
+     */
+    public static int selectLod(float distanceSqr) {
+        return distanceSqr > BILLBOARD_DISTANCE * BILLBOARD_DISTANCE ? LOD_BILLBOARD : LOD_SIDES;
+    }
+
+    /**
+     * 相机（原点）到一段光束包围盒最近点的距离平方
+     *
+     * @param x 光束中心 x（已减去相机位置）
+     * @param z 光束中心 z（已减去相机位置）
+     * @param halfWidth 半宽
+     * @param y0 段底部 y（已减去相机位置）
+     * @param y1 段顶部 y（已减去相机位置）
+     */
+    public static float distanceSqr(float x, float z, float halfWidth, float y0, float y1) {
+        float dx = Math.max(Math.abs(x) - halfWidth, 0.0f);
+        float dz = Math.max(Math.abs(z) - halfWidth, 0.0f);
+        float dy = y0 > 0.0f ? y0 : (y1 < 0.0f ? -y1 : 0.0f);
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * 计算光束需要切成的段数
+     *
+     * @param bottom 底部
+     * @param top 顶部
+     * @return 段数（至少为 1）
+     */
+    public static int segmentCount(float bottom, float top) {
+        return Math.max(1, (int) Math.ceil((top - bottom) / SEGMENT_LENGTH));
+    }
+
+    /**
+     * 写入一段光束的顶点（坐标必须已减去相机位置）
+     *
+     * @param out 输出数组（容量至少为 offset + MAX_FLOATS_PER_SEGMENT）
+     * @param offset 写入位置（float 下标）
+     * @param lod 细节层次（LOD_SIDES 或 LOD_BILLBOARD）
+     * @param x 光束中心 x
+     * @param z 光束中心 z
+     * @param halfWidth 半宽
+     * @param y0 段底部 y
+     * @param y1 段顶部 y
+     * @param red 颜色 r（0 到 1）
+     * @param green 颜色 g
+     * @param blue 颜色 b
+     * @param alpha0 段底部的透明度
+     * @param alpha1 段顶部的透明度
+     * @return 写入后的下一个位置（相机位于光束内部时不写入任何顶点）
+     * @throws IllegalArgumentException 输出数组容量不足或 lod 未知
+     */
+    public static int writeSegment(float[] out, int offset, int lod, float x, float z, float halfWidth,
+                                   float y0, float y1, float red, float green, float blue,
+                                   float alpha0, float alpha1) {
+        if (offset < 0 || offset + MAX_FLOATS_PER_SEGMENT > out.length) {
+            throw new IllegalArgumentException(
+                String.format("光束顶点数组容量不足：需要 %d，剩余 %d", MAX_FLOATS_PER_SEGMENT, out.length - offset)
+            );
+        }
+
+        int index = offset;
+        if (lod == LOD_SIDES) {
+            for (int side = 0; side < SIDES; side++) {
+                int next = (side + 1) & (SIDES - 1);
+                // 侧面的外法线（水平方向的单位向量）
+                float normalX = (CORNER_X[side] + CORNER_X[next]) * 0.5f;
+                float normalZ = (CORNER_Z[side] + CORNER_Z[next]) * 0.5f;
+                // 相机在原点：侧面中心指向相机的向量与外法线同向时可见
+                if (normalX * x + normalZ * z >= -halfWidth) {
+                    continue;
+                }
+                float x0 = x + CORNER_X[side] * halfWidth;
+                float z0 = z + CORNER_Z[side] * halfWidth;
+                float x1 = x + CORNER_X[next] * halfWidth;
+                float z1 = z + CORNER_Z[next] * halfWidth;
+                index = putQuad(out, index, x0, z0, x1, z1, y0, y1, red, green, blue, alpha0, alpha1);
+            }
+        } else if (lod == LOD_BILLBOARD) {
+            float length = (float) Math.sqrt(x * x + z * z);
+            if (length < 1e-6f) {
+                return index;
+            }
+            // 外法线指向相机（-x, -z），切向量为法线逆时针旋转 90 度，保证四边形正面朝向相机
+            float tangentX = z / length * halfWidth;
+            float tangentZ = -x / length * halfWidth;
+            index = putQuad(out, index, x + tangentX, z + tangentZ, x - tangentX, z - tangentZ, y0, y1,
+                    red, green, blue, alpha0, alpha1);
+        } else {
+            throw new IllegalArgumentException("未知的光束细节层次：" + lod);
+        }
+        return index;
+    }
+
+    /**
+     * 路径光束需要的 float 数量
+     */
+    public static int pathFloats(PrismPathCurve path) {
+        return (path.getRenderDistances().length - 1) * 4 * VERTEX_STRIDE;
+    }
+
+    /**
+     * 写入一条沿路径弯曲的光束（朝向相机的带状面，坐标必须已减去相机位置）
+     *
+     * @param out 输出数组（容量至少为 offset + pathFloats(path)）
+     * @param offset 写入位置（float 下标）
+     * @param path 路径（路径坐标相对 originX/Y/Z）
+     * @param originX 路径原点 x
+     * @param originY 路径原点 y
+     * @param originZ 路径原点 z
+     * @param yaw 路径绕 y 轴的旋转（弧度，用于扫动的光束）
+     * @param halfWidth 半宽
+     * @param widthCurve 沿路径的宽度倍率（输入为 0 到 1 的弧长进度），为 null 时宽度不变
+     * @param red 颜色 r（0 到 1）
+     * @param green 颜色 g
+     * @param blue 颜色 b
+     * @param alpha 起点透明度（沿弧长线性渐变到终点的 0）
+     * @return 写入后的下一个位置
+     * @throws IllegalArgumentException 输出数组容量不足
+     */
+    public static int writePathBeam(float[] out, int offset, PrismPathCurve path,
+                                    float originX, float originY, float originZ, float yaw,
+                                    float halfWidth, PrismCurve widthCurve,
+                                    float red, float green, float blue, float alpha) {
+        float[] distances = path.getRenderDistances();
+        int required = (distances.length - 1) * 4 * VERTEX_STRIDE;
+        if (offset < 0 || offset + required > out.length) {
+            throw new IllegalArgumentException(
+                String.format("光束顶点数组容量不足：需要 %d，剩余 %d", required, out.length - offset)
+            );
+        }
+
+        float cos = (float) Math.cos(yaw);
+        float sin = (float) Math.sin(yaw);
+        float length = path.getLength();
+        float inverseLength = length > 0.0f ? 1.0f / length : 0.0f;
+
+        int index = offset;
+        // 上一个采样点：位置、半宽向量、透明度
+        float prevX = 0.0f, prevY = 0.0f, prevZ = 0.0f;
+        float prevSideX = 0.0f, prevSideY = 0.0f, prevSideZ = 0.0f;
+        float prevAlpha = 0.0f;
+        for (int i = 0; i < distances.length; i++) {
+            float distance = distances[i];
+            float progress = distance * inverseLength;
+            // 借用输出数组中即将写入顶点的位置暂存位置和切线（随后被顶点覆盖），避免分配临时数组
+            path.positionAtDistance(distance, out, index);
+            path.tangentAtDistance(distance, out, index + 3);
+
+            // 绕 y 轴旋转后平移到原点
+            float px = originX + out[index] * cos + out[index + 2] * sin;
+            float py = originY + out[index + 1];
+            float pz = originZ - out[index] * sin + out[index + 2] * cos;
+            float tx = out[index + 3] * cos + out[index + 5] * sin;
+            float ty = out[index + 4];
+            float tz = -out[index + 3] * sin + out[index + 5] * cos;
+
+            // 半宽向量 = normalize(指向相机的向量 × 切线)，带状面的正面因此朝向相机
+            float cx = -px;
+            float cy = -py;
+            float cz = -pz;
+            float sideX = cy * tz - cz * ty;
+            float sideY = cz * tx - cx * tz;
+            float sideZ = cx * ty - cy * tx;
+            float sideLength = (float) Math.sqrt(sideX * sideX + sideY * sideY + sideZ * sideZ);
+            if (sideLength < 1e-6f) {
+                // 视线与切线平行：任取一个与切线垂直的水平方向
+                sideX = tz;
+                sideY = 0.0f;
+                sideZ = -tx;
+                sideLength = Math.max((float) Math.sqrt(sideX * sideX + sideZ * sideZ), 1e-6f);
+            }
+            float width = halfWidth * (widthCurve != null ? widthCurve.getValue(progress) : 1.0f) / sideLength;
+            sideX *= width;
+            sideY *= width;
+            sideZ *= width;
+            float pointAlpha = alpha * (1.0f - progress);
+
+            if (i > 0) {
+                index = putVertex(out, index, prevX + prevSideX, prevY + prevSideY, prevZ + prevSideZ,
+                        red, green, blue, prevAlpha);
+                index = putVertex(out, index, prevX - prevSideX, prevY - prevSideY, prevZ - prevSideZ,
+                        red, green, blue, prevAlpha);
+                index = putVertex(out, index, px - sideX, py - sideY, pz - sideZ, red, green, blue, pointAlpha);
+                index = putVertex(out, index, px + sideX, py + sideY, pz + sideZ, red, green, blue, pointAlpha);
+            }
+            prevX = px;
+            prevY = py;
+            prevZ = pz;
+            prevSideX = sideX;
+            prevSideY = sideY;
+            prevSideZ = sideZ;
+            prevAlpha = pointAlpha;
+        }
+        return index;
+    }
+
+    private static int putQuad(float[] out, int index, float x0, float z0, float x1, float z1,
+                               float y0, float y1, float red, float green, float blue,
+                               float alpha0, float alpha1) {
+        index = putVertex(out, index, x0, y0, z0, red, green, blue, alpha0);
+        index = putVertex(out, index, x1, y0, z1, red, green, blue, alpha0);
+        index = putVertex(out, index, x1, y1, z1, red, green, blue, alpha1);
+        return putVertex(out, index, x0, y1, z0, red, green, blue, alpha1);
+    }
+
+    /**
+     * 按 VERTEX_STRIDE 的布局写入一个顶点，返回下一个写入位置
+     */
+    public static int putVertex(float[] out, int index, float x, float y, float z,
+                                 float red, float green, float blue, float alpha) {
+        out[index] = x;
+        out[index + 1] = y;
+        out[index + 2] = z;
+        out[index + 3] = red;
+        out[index + 4] = green;
+        out[index + 5] = blue;
+        out[index + 6] = alpha;
+        return index + VERTEX_STRIDE;
+    }
+}
@@ -0,0 +1,354 @@
+package com.codi.prismkit.render;
+
+import com.codi.prismkit.math.PrismHash;
+
+/**
+ * 一道闪电的几何（中点位移生成的主干折线和若干分支）
+ * 形状保存在以闪电长度为单位的局部坐标中，与起点和终点无关，可以缓存后画在任意两点之间
+ *
+ * 设计意图：
+ * - 连锁闪电同时命中许多目标时，每一帧为每条链重新细分几十条分支的开销很大；
+ *   形状与端点解耦后，只要种子和细节层次相同就可以复用，目标移动时形状跟着端点伸缩
+ * - 所有数据存放在构造时按最大容量分配的数组里，重新生成（重新抖动）时原地覆盖，不分配内存
+ *
+ * 技术细节：
+ * - 每个点 3 个 float：t, u, v。t 沿起点到终点的方向（0 为起点，1 为终点），
+ *   u, v 是两个垂直方向上的偏移；三个方向的单位长度都等于闪电长度
+ * - 中点位移：从两端固定的线段开始，每层把每段的中点沿 u, v 随机偏移，幅度逐层乘以 roughness
+ * - 随机数由 PrismHash 按 (种子, 点位) 计算，点位使用最高细节下的下标，
+ *   因此低细节的主干点恰好是高细节主干点的子集，切换细节层次时主干形状不会跳变
+ * - 分支从主干的随机位置向前方伸出，细分层数比主干少 BRANCH_DEPTH_REDUCTION 层，宽度从根部到末端逐渐收窄
+ * - 每段输出一个独立的朝向相机的四边形（与原版闪电一样逐段绘制），叠加混合下折角处的接缝不可见
+ */
+public final class LightningBolt {
+
+    // ========== 细节层次 ==========
+
+    // 最高细节的细分层数（主干 2^6 + 1 = 65 个点）
+    public static final int MAX_DEPTH = 6;
+
+    // 细节层次数量：LOD k 的主干细分 MAX_DEPTH - k 层
+    public static final int LOD_COUNT = 3;
+
+    // 超过这些距离（方块）时依次降低一级细节
+    public static final float LOD1_DISTANCE = 32.0f;
+    public static final float LOD2_DISTANCE = 64.0f;
+
+    // 分支比主干少细分的层数
+    public static final int BRANCH_DEPTH_REDUCTION = 2;
+
+    // 分支的亮度（宽度和透明度倍率）
+    public static final float BRANCH_INTENSITY = 0.6f;
+
+    // 分支种子的 salt 起点（与主干点位的 salt 范围不重叠）
+    private static final int BRANCH_SALT = 1 << 16;
+
+    private final PrismLightningStyle style;
+    private final int lod;
+
+    // 所有折线的点（t, u, v），主干在前，分支依次在后
+    private final float[] points;
+
+    // 第 s 条折线的点下标范围为 [strandStarts[s], strandStarts[s + 1])
+    private final int[] strandStarts;
+    private int strandCount;
+
+    // 所有点偏离起点-终点线段的上界（闪电长度的倍数），用于视锥剔除
+    private float boundsRadius;
+
+    // 缓存状态（由 LightningBoltCache 维护）
+    long epoch = Long.MIN_VALUE;
+    long lastUsedTick;
+
+    /**
+     * 创建闪电几何（尚未生成形状，需要调用 generate）
+     *
+     * @param style 形状参数
+     * @param lod 细节层次（0 为最高细节）
+     * @throws IllegalArgumentException lod 超出范围
+     */
+    public LightningBolt(PrismLightningStyle style, int lod) {
+        if (lod < 0 || lod >= LOD_COUNT) {
+            throw new IllegalArgumentException("闪电细节层次超出范围：" + lod);
+        }
+        this.style = style;
+        this.lod = lod;
+        int capacity = pointCount(lod) + style.getBranchCount() * branchPointCount(lod);
+        this.points = new float[capacity * 3];
+        this.strandStarts = new int[style.getBranchCount() + 2];
+    }
+
+    // ========== 静态工具 ==========
+
+    /**
+     * 按相机距离选择细节层次
+     *
+     * @param distanceSqr 相机到闪电（中点）距离的平方
+     */
+    public static int selectLod(double distanceSqr) {
+        if (distanceSqr < LOD1_DISTANCE * LOD1_DISTANCE) {
+            return 0;
+        }
+        return distanceSqr < LOD2_DISTANCE * LOD2_DISTANCE ? 1 : 2;
+    }
+
+    /**
+     * 指定细节层次下主干的点数
+     */
+    public static int pointCount(int lod) {
+        return (1 << (MAX_DEPTH - lod)) + 1;
+    }
+
+    /**
+     * 指定细节层次下每条分支的点数
+     */
+    public static int branchPointCount(int lod) {
+        return (1 << (MAX_DEPTH - lod - BRANCH_DEPTH_REDUCTION)) + 1;
+    }
+
+    // ========== 生成 ==========
+
+    /**
+     * 用指定种子重新生成形状（原地覆盖，不分配内存）
+     *
+     * @param seed 种子（相同的种子、样式和细节层次总是生成相同的形状）
+     */
+    public void generate(int seed) {
+        float amplitude = style.getAmplitude();
+        int mainPoints = pointCount(lod);
+
+        // 主干：两端固定在起点和终点
+        strandStarts[0] = 0;
+        displace(0, mainPoints, 1 << lod, seed, 0,
+                0.0f, 0.0f, 0.0f, 1.0f, 0.0f, 0.0f, amplitude, 0.0f, 1.0f);
+        int next = mainPoints;
+        strandCount = 1;
+
+        // 分支：从主干的随机点向前方伸出
+        int branchPoints = branchPointCount(lod);
+        int branchStride = 1 << (lod + BRANCH_DEPTH_REDUCTION);
+        for (int b = 0; b < style.getBranchCount(); b++) {
+            int branchSeed = PrismHash.hash(seed, BRANCH_SALT + b);
+            int origin = Math.round(PrismHash.range(branchSeed, 0, 0.15f, 0.75f) * (mainPoints - 1)) * 3;
+            float length = PrismHash.range(branchSeed, 1, 0.15f, 0.35f);
+            float angle = PrismHash.range(branchSeed, 2, 0.0f, (float) (Math.PI * 2.0));
+            float spread = length * PrismHash.range(branchSeed, 3, 0.4f, 0.8f);
+
+            float t0 = points[origin];
+            float u0 = points[origin + 1];
+            float v0 = points[origin + 2];
+            strandStarts[strandCount] = next;
+            displace(next, branchPoints, branchStride, branchSeed, 4,
+                    t0, u0, v0, t0 + length, u0 + (float) Math.cos(angle) * spread,
+                    v0 + (float) Math.sin(angle) * spread, amplitude * length, t0, length);
+            next += branchPoints;
+            strandCount++;
+        }
+        strandStarts[strandCount] = next;
+
+        // 包围半径：t 超出 [0, 1] 的部分加上两个垂直方向的偏移（三角不等式给出的上界）
+        float radius = 0.0f;
+        for (int i = 0; i < next * 3; i += 3) {
+            float excess = Math.max(0.0f, Math.max(-points[i], points[i] - 1.0f));
+            radius = Math.max(radius, excess + Math.abs(points[i + 1]) + Math.abs(points[i + 2]));
+        }
+        boundsRadius = radius;
+    }
+
+    /**
+     * 对一条折线做中点位移：写入 count 个点，首尾为给定端点
+     *
+     * @param start 第一个点的下标
+     * @param count 点数（2^n + 1）
+     * @param stride 相邻点在最高细节下的下标间隔（用于计算 salt，保证不同细节层次的一致性）
+     * @param seed 种子
+     * @param saltBase salt 偏移（分支用来避开自己的形状参数）
+     * @param amplitude 第一层位移幅度
+     * @param progressStart 第一个点在主干上的进度（查抖动曲线用）
+     * @param progressLength 折线覆盖的进度长度
+     */
+    private void displace(int start, int count, int stride, int seed, int saltBase,
+                          float t0, float u0, float v0, float t1, float u1, float v1,
+                          float amplitude, float progressStart, float progressLength) {
+        int last = count - 1;
+        int first = start * 3;
+        int end = (start + last) * 3;
+        points[first] = t0;
+        points[first + 1] = u0;
+        points[first + 2] = v0;
+        points[end] = t1;
+        points[end + 1] = u1;
+        points[end + 2] = v1;
+
+        float scale = amplitude;
+        for (int step = last; step > 1; step >>= 1) {
+            int half = step >> 1;
+            for (int i = half; i < last; i += step) {
+                int a = (start + i - half) * 3;
+                int b = (start + i + half) * 3;
+                int p = (start + i) * 3;
+                int salt = saltBase + i * stride * 2;
+                float jitter = scale * style.getJitter(progressStart + progressLength * i / last);
+                points[p] = (points[a] + points[b]) * 0.5f;
+                points[p + 1] = (points[a + 1] + points[b + 1]) * 0.5f
+                        + PrismHash.range(seed, salt, -1.0f, 1.0f) * jitter;
+                points[p + 2] = (points[a + 2] + points[b + 2]) * 0.5f
+                        + PrismHash.range(seed, salt + 1, -1.0f, 1.0f) * jitter;
+            }
+            scale *= style.getRoughness();
+        }
+    }
+
+    // ========== 访问 ==========
+
+    public PrismLightningStyle getStyle() {
+        return style;
+    }
+
+    public int getLod() {
+        return lod;
+    }
+
+    /**
+     * 折线数量（主干 + 分支）
+     */
+    public int getStrandCount() {
+        return strandCount;
+    }
+
+    public int getStrandStart(int strand) {
+        return strandStarts[strand];
+    }
+
+    public int getStrandEnd(int strand) {
+        return strandStarts[strand + 1];
+    }
+
+    /**
+     * 第 index 个点的局部坐标
+     *
+     * @param axis 0 为 t，1 为 u，2 为 v
+     */
+    public float getPoint(int index, int axis) {
+        return points[index * 3 + axis];
+    }
+
+    /**
+     * 所有点偏离起点-终点线段的距离上界（闪电长度的倍数）
+     */
+    public float getBoundsRadius() {
+        return boundsRadius;
+    }
+
+    /**
+     * 写入整道闪电需要的 float 数量
+     */
+    public int floatCount() {
+        return (strandStarts[strandCount] - strandCount) * 4 * BeamGeometry.VERTEX_STRIDE;
+    }
+
+    // ========== 顶点输出 ==========
+
+    /**
+     * 在两点之间写入闪电的顶点：折线的每一段是一个朝向相机的四边形
+     * 坐标必须已减去相机位置（相机位于原点）
+     *
+     * @param out 输出数组
+     * @param offset 写入位置（float 下标）
+     * @param startX 起点 x（相机相对坐标）
+     * @param endX 终点 x（相机相对坐标）
+     * @param halfWidth 主干的半宽
+     * @param alpha 主干的透明度
+     * @return 写入后的下一个位置（起点和终点重合时不写入）
+     * @throws IllegalArgumentException 输出数组容量不足
+     */
+    public int write(float[] out, int offset, float startX, float startY, float startZ,
+                     float endX, float endY, float endZ, float halfWidth,
+                     float red, float green, float blue, float alpha) {
+        int required = floatCount();
+        if (offset < 0 || offset + required > out.length) {
+            throw new IllegalArgumentException(
+                String.format("闪电顶点数组容量不足：需要 %d，剩余 %d", required, out.length - offset)
+            );
+        }
+
+        float dx = endX - startX;
+        float dy = endY - startY;
+        float dz = endZ - startZ;
+        float length = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (length < 1e-6f) {
+            return offset;
+        }
+
+        // 垂直方向 U = D × 上方向（D 接近竖直时改用 x 轴），V = D × U，长度都缩放到闪电长度
+        float ux = -dz;
+        float uy = 0.0f;
+        float uz = dx;
+        float uLength = (float) Math.sqrt(ux * ux + uz * uz);
+        if (uLength < 1e-4f * length) {
+            ux = 0.0f;
+            uy = dz;
+            uz = -dy;
+            uLength = (float) Math.sqrt(uy * uy + uz * uz);
+        }
+        float uScale = length / uLength;
+        ux *= uScale;
+        uy *= uScale;
+        uz *= uScale;
+        float vx = (dy * uz - dz * uy) / length;
+        float vy = (dz * ux - dx * uz) / length;
+        float vz = (dx * uy - dy * ux) / length;
+
+        int index = offset;
+        for (int s = 0; s < strandCount; s++) {
+            int first = strandStarts[s];
+            int last = strandStarts[s + 1] - 1;
+            float intensity = s == 0 ? 1.0f : BRANCH_INTENSITY;
+            float pointAlpha = alpha * intensity;
+
+            float prevX = 0.0f, prevY = 0.0f, prevZ = 0.0f;
+            float prevWidth = 0.0f;
+            for (int i = first; i <= last; i++) {
+                int p = i * 3;
+                float px = startX + points[p] * dx + points[p + 1] * ux + points[p + 2] * vx;
+                float py = startY + points[p] * dy + points[p + 1] * uy + points[p + 2] * vy;
+                float pz = startZ + points[p] * dz + points[p + 1] * uz + points[p + 2] * vz;
+                // 分支从根部到末端收窄到 0，主干宽度不变
+                float width = halfWidth * intensity * (s == 0 ? 1.0f : (float) (last - i) / (last - first));
+
+                if (i > first) {
+                    // 每段单独取半宽方向 = normalize(指向段中点的相机向量 × 段方向)，四边形是平面梯形且总是正对相机。
+                    // 闪电折角很尖，若相邻段共用顶点，逐点的朝向在折角处会让四边形扭转到背面而被剔除
+                    float tx = px - prevX;
+                    float ty = py - prevY;
+                    float tz = pz - prevZ;
+                    float mx = (px + prevX) * 0.5f;
+                    float my = (py + prevY) * 0.5f;
+                    float mz = (pz + prevZ) * 0.5f;
+                    float sideX = -my * tz + mz * ty;
+                    float sideY = -mz * tx + mx * tz;
+                    float sideZ = -mx * ty + my * tx;
+                    float inverse = 1.0f / Math.max((float) Math.sqrt(sideX * sideX + sideY * sideY + sideZ * sideZ),
+                            1e-6f);
+                    sideX *= inverse;
+                    sideY *= inverse;
+                    sideZ *= inverse;
+
+                    index = BeamGeometry.putVertex(out, index, prevX + sideX * prevWidth, prevY + sideY * prevWidth,
+                            prevZ + sideZ * prevWidth, red, green, blue, pointAlpha);
+                    index = BeamGeometry.putVertex(out, index, prevX - sideX * prevWidth, prevY - sideY * prevWidth,
+                            prevZ - sideZ * prevWidth, red, green, blue, pointAlpha);
+                    index = BeamGeometry.putVertex(out, index, px - sideX * width, py - sideY * width,
+                            pz - sideZ * width, red, green, blue, pointAlpha);
+                    index = BeamGeometry.putVertex(out, index, px + sideX * width, py + sideY * width,
+                            pz + sideZ * width, red, green, blue, pointAlpha);
+                }
+                prevX = px;
+                prevY = py;
+                prevZ = pz;
+                prevWidth = width;
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,109 @@
+package com.codi.prismkit.render;
+
+import com.codi.prismkit.math.PrismHash;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+
+/**
+ * 闪电几何缓存：按 (种子, 细节层次) 保存生成好的 LightningBolt
+ * 同一道闪电在更新间隔内每帧都复用同一份几何，只有跨过间隔时才重新抖动
+ *
+ * 设计意图：
+ * - 闪电的形状每隔几个 tick 跳变一次即可产生闪烁感，不需要每帧重新细分
+ * - 连锁闪电的每一条链用各自的种子查询，几十条链和分支在一个间隔内只生成一次
+ * - 一个缓存对应一种 PrismLightningStyle，样式改变时丢弃整个缓存即可
+ *
+ * 技术细节：
+ * - 重新抖动使用 hash(种子, 间隔编号) 作为生成种子，所有客户端在同一 tick 看到相同的形状
+ * - 每个种子的间隔起点按种子错开，同时存在的许多闪电不会在同一 tick 一起跳变
+ * - 键是 (种子, 细节层次) 打包成的 long，用 fastutil 的 Long2ObjectOpenHashMap 保存，每帧查询不装箱
+ * - 连续 EVICT_TICKS 个 tick 没有被查询的条目由 evictUnused 移除
+ * - 不做同步：只在客户端渲染线程访问
+ */
+public final class LightningBoltCache {
+
+    // 条目在没有被查询多少 tick 后被移除
+    public static final int EVICT_TICKS = 20;
+
+    private final PrismLightningStyle style;
+    private final Long2ObjectMap<LightningBolt> bolts = new Long2ObjectOpenHashMap<>();
+
+    // 累计生成（包括重新抖动）的次数
+    private long generationCount;
+
+    public LightningBoltCache(PrismLightningStyle style) {
+        this.style = style;
+    }
+
+    /**
+     * 获取一道闪电的几何，必要时生成或重新抖动
+     *
+     * @param seed 种子（同一道闪电在生命周期内应保持不变）
+     * @param lod 细节层次（见 LightningBolt.selectLod）
+     * @param gameTime 当前游戏时间
+     * @return 闪电几何（属于缓存，调用方不能修改，下一次重新抖动后形状会改变）
+     */
+    public LightningBolt get(int seed, int lod, long gameTime) {
+        int interval = style.getUpdateInterval();
+        long phase = (PrismHash.hash(seed) >>> 1) % interval;
+        long epoch = Math.floorDiv(gameTime + phase, interval);
+
+        long key = ((long) seed << 32) | (lod & 0xFFFFFFFFL);
+        LightningBolt bolt = bolts.get(key);
+        if (bolt == null) {
+            bolt = new LightningBolt(style, lod);
+            bolts.put(key, bolt);
+        }
+        if (bolt.epoch != epoch) {
+            bolt.generate(PrismHash.hash(seed, (int) epoch));
+            bolt.epoch = epoch;
+            generationCount++;
+        }
+        bolt.lastUsedTick = gameTime;
+        return bolt;
+    }
+
+    /**
+     * 移除长时间未被查询的条目
+     *
+     * @param gameTime 当前游戏时间
+     * @return 移除的数量
+     */
+    public int evictUnused(long gameTime) {
+        int removed = 0;
+        ObjectIterator<LightningBolt> iterator = bolts.values().iterator();
+        while (iterator.hasNext()) {
+            if (gameTime - iterator.next().lastUsedTick >= EVICT_TICKS) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * 移除所有条目
+     */
+    public void clear() {
+        bolts.clear();
+    }
+
+    public PrismLightningStyle getStyle() {
+        return style;
+    }
+
+    /**
+     * 当前缓存的闪电数量
+     */
+    public int size() {
+        return bolts.size();
+    }
+
+    /**
+     * 累计生成（包括重新抖动）的次数
+     */
+    public long getGenerationCount() {
+        return generationCount;
+    }
+}
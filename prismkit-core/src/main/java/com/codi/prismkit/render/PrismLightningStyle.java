@@ -0,0 +1,94 @@
+package com.codi.prismkit.render;
+
+import com.codi.prismkit.math.curve.PrismCurve;
+
+/**
+ * 闪电的形状参数（不可变）
+ * 同一种闪电的所有实例共用一份样式，抖动曲线在构造时按最高细节的点位预先求值
+ *
+ * 设计意图：
+ * - 闪电的折线由中点位移生成，每一层的位移幅度乘以抖动曲线在该点的值，
+ *   曲线可以让闪电在两端收紧、在中间张开，或者整体一致
+ * - 曲线只在构造样式时求值一次（最高细节的每个点位一个值），生成几何时直接查表
+ *
+ * 技术细节：
+ * - 幅度以闪电长度为单位：amplitude = 0.1 表示第一层中点最多偏离直线 0.1 倍长度
+ * - 每深入一层，位移幅度乘以 roughness（0.5 左右是常见的自相似闪电）
+ * - 抖动曲线输入为 0 到 1 的进度（0 为起点，1 为终点）
+ */
+public final class PrismLightningStyle {
+
+    private final float amplitude;
+    private final float roughness;
+    private final int branchCount;
+    private final int updateInterval;
+    private final float[] jitterProfile;
+
+    /**
+     * @param amplitude 第一层位移幅度（闪电长度的倍数）
+     * @param roughness 每层位移幅度的衰减倍率，范围 (0, 1]
+     * @param jitterCurve 沿闪电长度的位移倍率曲线，为 null 时处处为 1
+     * @param branchCount 分支数量
+     * @param updateInterval 重新抖动的间隔（tick），同一间隔内闪电形状保持不变
+     * @throws IllegalArgumentException 参数超出范围
+     */
+    public PrismLightningStyle(float amplitude, float roughness, PrismCurve jitterCurve,
+                               int branchCount, int updateInterval) {
+        if (!(amplitude >= 0.0f) || !Float.isFinite(amplitude)) {
+            throw new IllegalArgumentException("闪电位移幅度必须是非负有限数：" + amplitude);
+        }
+        if (!(roughness > 0.0f && roughness <= 1.0f)) {
+            throw new IllegalArgumentException("闪电粗糙度必须在 (0, 1] 内：" + roughness);
+        }
+        if (branchCount < 0) {
+            throw new IllegalArgumentException("闪电分支数量不能为负数：" + branchCount);
+        }
+        if (updateInterval <= 0) {
+            throw new IllegalArgumentException("闪电更新间隔必须为正数：" + updateInterval);
+        }
+        this.amplitude = amplitude;
+        this.roughness = roughness;
+        this.branchCount = branchCount;
+        this.updateInterval = updateInterval;
+
+        int last = LightningBolt.pointCount(0) - 1;
+        this.jitterProfile = new float[last + 1];
+        for (int i = 0; i <= last; i++) {
+            jitterProfile[i] = jitterCurve != null ? jitterCurve.getValue((float) i / last) : 1.0f;
+        }
+    }
+
+    public float getAmplitude() {
+        return amplitude;
+    }
+
+    public float getRoughness() {
+        return roughness;
+    }
+
+    public int getBranchCount() {
+        return branchCount;
+    }
+
+    public int getUpdateInterval() {
+        return updateInterval;
+    }
+
+    /**
+     * 沿闪电长度的位移倍率
+     *
+     * @param progress 进度（0 为起点，1 为终点），超出范围时取端点的值
+     */
+    public float getJitter(float progress) {
+        int last = jitterProfile.length - 1;
+        int index = Math.round(progress * last);
+        return jitterProfile[Math.max(0, Math.min(last, index))];
+    }
+
+    /**
+     * 最高细节下第 index 个点位的位移倍率
+     */
+    float getJitterAt(int index) {
+        return jitterProfile[index];
+    }
+}
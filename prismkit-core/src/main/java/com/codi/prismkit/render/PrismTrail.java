@@ -0,0 +1,201 @@
+package com.codi.prismkit.render;
+
+/**
+ * 拖尾（环形缓冲区存储最近的位置）
+ * 特效或粒子每 tick 调用 push 追加一个头部点，缓冲区满时自动丢弃最旧的尾部点
+ *
+ * 设计意图：
+ * - 用 List<Vec3> 保存拖尾时，每个点都是一个对象，几百个弹射物的拖尾会持续产生垃圾
+ * - 这里所有数据都是固定容量的基本类型数组：push 只写入一个槽位，不移动其他点，不分配内存
+ * - 几何按增量维护：每个点的切线在追加时计算一次（并顺带更新前一个点），渲染时不再重新计算
+ *
+ * 技术细节：
+ * - head 指向最新的点，第 k 新的点位于 (head - k) mod capacity
+ * - 切线指向拖尾前进方向（从旧点指向新点）；中间点使用前后两点的中心差分，头部使用单侧差分
+ * - 生成的是朝向相机的带状面，顶点格式与 BeamGeometry 相同，可以和光束写入同一个批次
+ * - 点按 tick 追加，而粒子按 lerp(上一 tick, 当前 tick, partialTicks) 绘制；写入时头部画到两者之间的插值点，
+ *   拖尾始终接在粒子后面，不会领先一个 tick，也不会按 20 Hz 跳动
+ * - 不做同步：通常只在客户端主线程上追加和渲染
+ */
+public final class PrismTrail {
+
+    private final PrismTrailStyle style;
+    private final int capacity;
+
+    // 环形缓冲区（每个点 3 个分量）
+    private final double[] positions;
+    private final float[] tangents;
+    private int head = -1;
+    private int size;
+
+    public PrismTrail(PrismTrailStyle style) {
+        this.style = style;
+        this.capacity = style.getLength();
+        this.positions = new double[capacity * 3];
+        this.tangents = new float[capacity * 3];
+    }
+
+    /**
+     * 追加一个头部点（缓冲区已满时覆盖最旧的点）
+     */
+    public void push(double x, double y, double z) {
+        head = head + 1 == capacity ? 0 : head + 1;
+        int p = head * 3;
+        positions[p] = x;
+        positions[p + 1] = y;
+        positions[p + 2] = z;
+        if (size < capacity) {
+            size++;
+        }
+
+        if (size >= 2) {
+            int previous = slot(1);
+            // 新头部：单侧差分
+            setTangent(head, x - positions[previous * 3], y - positions[previous * 3 + 1],
+                    z - positions[previous * 3 + 2]);
+            // 原头部变为中间点：中心差分
+            if (size >= 3) {
+                int older = slot(2);
+                setTangent(previous, x - positions[older * 3], y - positions[older * 3 + 1],
+                        z - positions[older * 3 + 2]);
+            } else {
+                tangents[previous * 3] = tangents[p];
+                tangents[previous * 3 + 1] = tangents[p + 1];
+                tangents[previous * 3 + 2] = tangents[p + 2];
+            }
+        } else {
+            tangents[p] = 0.0f;
+            tangents[p + 1] = 1.0f;
+            tangents[p + 2] = 0.0f;
+        }
+    }
+
+    /**
+     * 清空所有点（如粒子被回收复用时）
+     */
+    public void clear() {
+        head = -1;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public PrismTrailStyle getStyle() {
+        return style;
+    }
+
+    /**
+     * 第 k 新的点的坐标（k = 0 为头部）
+     *
+     * @param axis 0 为 x，1 为 y，2 为 z
+     */
+    public double getPosition(int k, int axis) {
+        return positions[slot(k) * 3 + axis];
+    }
+
+    /**
+     * 写入拖尾的顶点（朝向相机的带状面，从尾部写到头部）
+     *
+     * @param out 输出数组（容量至少为 offset + style.maxFloats()）
+     * @param offset 写入位置（float 下标）
+     * @param partialTicks 帧内插值进度（0 到 1）：头部画在第 1 新的点和头部之间的这个位置，传 1 时画在头部
+     * @param cameraX 相机位置 x（顶点坐标会减去相机位置）
+     * @param cameraY 相机位置 y
+     * @param cameraZ 相机位置 z
+     * @param red 颜色 r（0 到 1）
+     * @param green 颜色 g
+     * @param blue 颜色 b
+     * @param alpha 透明度（乘以样式中每个点的透明度倍率）
+     * @return 写入后的下一个位置（少于 2 个点时不写入）
+     * @throws IllegalArgumentException 输出数组容量不足
+     */
+    public int write(float[] out, int offset, float partialTicks, double cameraX, double cameraY, double cameraZ,
+                     float red, float green, float blue, float alpha) {
+        int required = Math.max(0, size - 1) * 4 * BeamGeometry.VERTEX_STRIDE;
+        if (offset < 0 || offset + required > out.length) {
+            throw new IllegalArgumentException(
+                String.format("拖尾顶点数组容量不足：需要 %d，剩余 %d", required, out.length - offset)
+            );
+        }
+
+        int index = offset;
+        // 上一个（更旧的）点：位置、半宽向量、透明度
+        float prevX = 0.0f, prevY = 0.0f, prevZ = 0.0f;
+        float prevSideX = 0.0f, prevSideY = 0.0f, prevSideZ = 0.0f;
+        float prevAlpha = 0.0f;
+        for (int k = size - 1; k >= 0; k--) {
+            int s = slot(k);
+            double x = positions[s * 3];
+            double y = positions[s * 3 + 1];
+            double z = positions[s * 3 + 2];
+            if (k == 0 && size >= 2) {
+                // 头部与粒子同步：在上一 tick 的点和当前点之间插值
+                int o = slot(1) * 3;
+                x = positions[o] + (x - positions[o]) * partialTicks;
+                y = positions[o + 1] + (y - positions[o + 1]) * partialTicks;
+                z = positions[o + 2] + (z - positions[o + 2]) * partialTicks;
+            }
+            float px = (float) (x - cameraX);
+            float py = (float) (y - cameraY);
+            float pz = (float) (z - cameraZ);
+            float tx = tangents[s * 3];
+            float ty = tangents[s * 3 + 1];
+            float tz = tangents[s * 3 + 2];
+
+            // 半宽向量 = normalize(指向相机的向量 × 切线)，带状面的正面因此朝向相机
+            float sideX = -py * tz + pz * ty;
+            float sideY = -pz * tx + px * tz;
+            float sideZ = -px * ty + py * tx;
+            float sideLength = (float) Math.sqrt(sideX * sideX + sideY * sideY + sideZ * sideZ);
+            float width = style.getWidth(k) / Math.max(sideLength, 1e-6f);
+            sideX *= width;
+            sideY *= width;
+            sideZ *= width;
+            float pointAlpha = alpha * style.getAlpha(k);
+
+            if (k < size - 1) {
+                index = BeamGeometry.putVertex(out, index,
+                        prevX + prevSideX, prevY + prevSideY, prevZ + prevSideZ, red, green, blue, prevAlpha);
+                index = BeamGeometry.putVertex(out, index,
+                        prevX - prevSideX, prevY - prevSideY, prevZ - prevSideZ, red, green, blue, prevAlpha);
+                index = BeamGeometry.putVertex(out, index,
+                        px - sideX, py - sideY, pz - sideZ, red, green, blue, pointAlpha);
+                index = BeamGeometry.putVertex(out, index,
+                        px + sideX, py + sideY, pz + sideZ, red, green, blue, pointAlpha);
+            }
+            prevX = px;
+            prevY = py;
+            prevZ = pz;
+            prevSideX = sideX;
+            prevSideY = sideY;
+            prevSideZ = sideZ;
+            prevAlpha = pointAlpha;
+        }
+        return index;
+    }
+
+    // ========== 内部实现 ==========
+
+    private int slot(int k) {
+        int s = head - k;
+        return s < 0 ? s + capacity : s;
+    }
+
+    private void setTangent(int slot, double dx, double dy, double dz) {
+        double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        int t = slot * 3;
+        if (length < 1e-9) {
+            // 原地不动：沿用已有方向（新头部沿用前一个点的方向）
+            int previous = slot == head && size >= 2 ? slot(1) * 3 : t;
+            tangents[t] = tangents[previous];
+            tangents[t + 1] = tangents[previous + 1];
+            tangents[t + 2] = tangents[previous + 2];
+            return;
+        }
+        tangents[t] = (float) (dx / length);
+        tangents[t + 1] = (float) (dy / length);
+        tangents[t + 2] = (float) (dz / length);
+    }
+}
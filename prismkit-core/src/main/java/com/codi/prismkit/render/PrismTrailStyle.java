@@ -0,0 +1,88 @@
+package com.codi.prismkit.render;
+
+import com.codi.prismkit.math.curve.PrismCurve;
+
+/**
+ * 拖尾样式：长度、宽度和透明度沿拖尾的分布
+ * 构造时把宽度曲线和透明度曲线在每个拖尾点上各求值一次，之后所有使用该样式的拖尾共享结果
+ *
+ * 设计意图：
+ * - 拖尾点按“年龄”排列（第 k 个点是 k 个 tick 之前的位置），点的宽度和透明度只取决于 k
+ * - 因此曲线只需要在 length 个点上求值一次，几百条拖尾每帧都不再访问曲线
+ * - 不可修改，可以在多个拖尾和多个线程之间共享
+ *
+ * 技术细节：
+ * - 曲线输入为 k / (length - 1)：0 是拖尾头部（最新的点），1 是尾部（最旧的点）
+ */
+public final class PrismTrailStyle {
+
+    private final int length;
+    private final float halfWidth;
+    private final float[] widthProfile;
+    private final float[] alphaProfile;
+    private final float maxWidth;
+
+    /**
+     * @param length 拖尾点数（至少 2）
+     * @param halfWidth 头部的半宽
+     * @param widthCurve 宽度倍率曲线（0 为头部，1 为尾部），为 null 时宽度不变
+     * @param alphaCurve 透明度倍率曲线（0 为头部，1 为尾部），为 null 时从 1 线性渐变到 0
+     * @throws IllegalArgumentException length 小于 2
+     */
+    public PrismTrailStyle(int length, float halfWidth, PrismCurve widthCurve, PrismCurve alphaCurve) {
+        if (length < 2) {
+            throw new IllegalArgumentException("拖尾至少需要 2 个点：" + length);
+        }
+        this.length = length;
+        this.halfWidth = halfWidth;
+        this.widthProfile = new float[length];
+        this.alphaProfile = new float[length];
+        float widest = 0.0f;
+        for (int k = 0; k < length; k++) {
+            float progress = (float) k / (length - 1);
+            widthProfile[k] = halfWidth * (widthCurve != null ? widthCurve.getValue(progress) : 1.0f);
+            alphaProfile[k] = alphaCurve != null ? alphaCurve.getValue(progress) : 1.0f - progress;
+            widest = Math.max(widest, Math.abs(widthProfile[k]));
+        }
+        this.maxWidth = widest;
+    }
+
+    /**
+     * 拖尾点数（即拖尾保留的 tick 数）
+     */
+    public int getLength() {
+        return length;
+    }
+
+    public float getHalfWidth() {
+        return halfWidth;
+    }
+
+    /**
+     * 所有点中最大的半宽（用于包围盒外扩）
+     */
+    public float getMaxWidth() {
+        return maxWidth;
+    }
+
+    /**
+     * 第 k 个点（0 为头部）的半宽
+     */
+    public float getWidth(int k) {
+        return widthProfile[k];
+    }
+
+    /**
+     * 第 k 个点（0 为头部）的透明度倍率
+     */
+    public float getAlpha(int k) {
+        return alphaProfile[k];
+    }
+
+    /**
+     * 一条满长拖尾需要的 float 数量
+     */
+    public int maxFloats() {
+        return (length - 1) * 4 * BeamGeometry.VERTEX_STRIDE;
+    }
+}
@@ -0,0 +1,190 @@
+package com.codi.prismkit.vfx;
+
+import java.util.Arrays;
+
+/**
+ * 纯视觉特效实例池（结构数组存储）
+ * 客户端用来保存服务端通过“播放特效”数据包触发的特效，不经过实体系统
+ *
+ * 设计意图：
+ * - 纯视觉特效不需要服务端 tick、区块实体追踪、NBT 存档和逐玩家同步，服务端只发一个数据包
+ * - 每个字段一条连续数组，逐帧遍历时只读取需要的字段，数百个特效也不会产生对象分配
+ * - 不依赖 Minecraft：时间用游戏时间（tick）表示，可以脱离游戏做单元测试
+ *
+ * 技术细节：
+ * - 到期移除采用“与末尾交换”的方式，O(1) 且数组保持紧凑（实例顺序因此不稳定）
+ * - 数组从较小容量开始按需翻倍，直到 maxCapacity；池满时新特效直接丢弃（纯视觉，丢弃不影响游戏逻辑）
+ * - 只在单一线程（客户端主线程）访问，不做同步
+ */
+public final class VfxInstancePool {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int maxCapacity;
+    private int size;
+
+    // ========== 结构数组 ==========
+    private int[] effectIds;
+    private double[] positions;     // 每个实例 3 个：x, y, z
+    private long[] seeds;
+    private long[] startTicks;
+    private int[] durations;
+
+    /**
+     * 创建特效实例池
+     *
+     * @param maxCapacity 最多同时存在的实例数量
+     * @throws IllegalArgumentException maxCapacity 不是正数
+     */
+    public VfxInstancePool(int maxCapacity) {
+        if (maxCapacity <= 0) {
+            throw new IllegalArgumentException("特效实例池容量必须为正数：" + maxCapacity);
+        }
+        this.maxCapacity = maxCapacity;
+
+        int capacity = Math.min(INITIAL_CAPACITY, maxCapacity);
+        this.effectIds = new int[capacity];
+        this.positions = new double[capacity * 3];
+        this.seeds = new long[capacity];
+        this.startTicks = new long[capacity];
+        this.durations = new int[capacity];
+    }
+
+    /**
+     * 添加一个特效实例
+     *
+     * @param effectId 特效类型编号
+     * @param x 位置 x
+     * @param y 位置 y
+     * @param z 位置 z
+     * @param seed 随机种子（同一种子在所有客户端上表现一致）
+     * @param startTick 开始时的游戏时间
+     * @param duration 持续时间（tick）
+     * @return 实例下标；池已满或持续时间不是正数时返回 -1
+     */
+    public int add(int effectId, double x, double y, double z, long seed, long startTick, int duration) {
+        if (duration <= 0) {
+            return -1;
+        }
+        if (size == effectIds.length && !grow()) {
+            return -1;
+        }
+
+        int index = size++;
+        effectIds[index] = effectId;
+        positions[index * 3] = x;
+        positions[index * 3 + 1] = y;
+        positions[index * 3 + 2] = z;
+        seeds[index] = seed;
+        startTicks[index] = startTick;
+        durations[index] = duration;
+        return index;
+    }
+
+    /**
+     * 移除所有到期的实例
+     *
+     * @param gameTime 当前游戏时间
+     * @return 移除的数量
+     */
+    public int removeExpired(long gameTime) {
+        int removed = 0;
+        int i = 0;
+        while (i < size) {
+            if (gameTime - startTicks[i] >= durations[i]) {
+                swapRemove(i);
+                removed++;
+            } else {
+                i++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * 移除全部实例（如切换维度或断开连接时）
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    // ========== 访问 ==========
+
+    public int size() {
+        return size;
+    }
+
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    public int getEffectId(int index) {
+        return effectIds[index];
+    }
+
+    public double getX(int index) {
+        return positions[index * 3];
+    }
+
+    public double getY(int index) {
+        return positions[index * 3 + 1];
+    }
+
+    public double getZ(int index) {
+        return positions[index * 3 + 2];
+    }
+
+    public long getSeed(int index) {
+        return seeds[index];
+    }
+
+    public long getStartTick(int index) {
+        return startTicks[index];
+    }
+
+    public int getDuration(int index) {
+        return durations[index];
+    }
+
+    /**
+     * 获取归一化的生命进度（0.0 到 1.0），在两个 tick 之间按 partialTicks 插值
+     *
+     * @param index 实例下标
+     * @param gameTime 当前游戏时间
+     * @param partialTicks 渲染帧在当前 tick 内的进度
+     */
+    public float getNormalizedAge(int index, long gameTime, float partialTicks) {
+        float age = (gameTime - startTicks[index] + partialTicks) / durations[index];
+        return Math.max(0.0f, Math.min(1.0f, age));
+    }
+
+    // ========== 内部实现 ==========
+
+    private void swapRemove(int index) {
+        int last = --size;
+        if (index == last) {
+            return;
+        }
+        effectIds[index] = effectIds[last];
+        positions[index * 3] = positions[last * 3];
+        positions[index * 3 + 1] = positions[last * 3 + 1];
+        positions[index * 3 + 2] = positions[last * 3 + 2];
+        seeds[index] = seeds[last];
+        startTicks[index] = startTicks[last];
+        durations[index] = durations[last];
+    }
+
+    private boolean grow() {
+        int capacity = effectIds.length;
+        if (capacity >= maxCapacity) {
+            return false;
+        }
+        int newCapacity = (int) Math.min((long) capacity * 2, maxCapacity);
+        effectIds = Arrays.copyOf(effectIds, newCapacity);
+        positions = Arrays.copyOf(positions, newCapacity * 3);
+        seeds = Arrays.copyOf(seeds, newCapacity);
+        startTicks = Arrays.copyOf(startTicks, newCapacity);
+        durations = Arrays.copyOf(durations, newCapacity);
+        return true;
+    }
+}
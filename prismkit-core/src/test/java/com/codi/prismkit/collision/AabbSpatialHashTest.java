@@ -0,0 +1,94 @@
+package com.codi.prismkit.collision;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 空间哈希射线查询测试
+ * 查询结果必须与逐个包围盒暴力测试的结果完全一致（包括重建之后）
+ */
+class AabbSpatialHashTest {
+
+    private static final int BOXES = 500;
+
+    @Test
+    void rayQueryMatchesBruteForce() {
+        Random random = new Random(4404);
+        AabbSpatialHash hash = new AabbSpatialHash(4.0, 1.0);
+        double[][] boxes = new double[BOXES][];
+
+        // 重建两次，验证 clear 之后旧数据不会残留
+        for (int round = 0; round < 2; round++) {
+            hash.clear();
+            for (int i = 0; i < BOXES; i++) {
+                double x = random.nextDouble() * 100 - 50;
+                double y = random.nextDouble() * 40;
+                double z = random.nextDouble() * 100 - 50;
+                double w = 0.3 + random.nextDouble();
+                double h = 0.5 + random.nextDouble() * 2;
+                boxes[i] = new double[]{x - w, y, z - w, x + w, y + h, z + w};
+                assertEquals(i, hash.add(x - w, y, z - w, x + w, y + h, z + w));
+            }
+
+            int[] out = new int[BOXES];
+            for (int ray = 0; ray < 300; ray++) {
+                double ox = random.nextDouble() * 100 - 50;
+                double oy = random.nextDouble() * 40;
+                double oz = random.nextDouble() * 100 - 50;
+                double dx = random.nextGaussian();
+                double dy = random.nextGaussian();
+                double dz = random.nextGaussian();
+                double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+                dx /= length;
+                dy /= length;
+                dz /= length;
+                double rayLength = random.nextDouble() * 60;
+                double radius = random.nextDouble();
+
+                int count = hash.queryRay(ox, oy, oz, dx, dy, dz, rayLength, radius, out);
+                int[] actual = Arrays.copyOf(out, count);
+                Arrays.sort(actual);
+
+                int[] expected = new int[BOXES];
+                int expectedCount = 0;
+                for (int i = 0; i < BOXES; i++) {
+                    double[] b = boxes[i];
+                    if (VoxelRaycast.intersectAabb(ox, oy, oz, dx, dy, dz, rayLength,
+                            b[0] - radius, b[1] - radius, b[2] - radius,
+                            b[3] + radius, b[4] + radius, b[5] + radius) >= 0.0) {
+                        expected[expectedCount++] = i;
+                    }
+                }
+                assertArrayEquals(Arrays.copyOf(expected, expectedCount), actual);
+            }
+        }
+    }
+
+    @Test
+    void verticalBeamFindsBoxesAlongItsLength() {
+        AabbSpatialHash hash = new AabbSpatialHash(4.0, 0.5);
+        hash.add(-0.3, 10.0, -0.3, 0.3, 11.8, 0.3);
+        // 与光束轴相距 0.3，在查询半径 0.5 之内
+        hash.add(0.3, 30.0, 0.3, 0.9, 31.8, 0.9);
+        hash.add(5.0, 20.0, 5.0, 5.6, 21.8, 5.6);
+
+        int[] out = new int[8];
+        assertEquals(2, hash.queryRay(0.0, 0.0, 0.0, 0.0, 1.0, 0.0, 50.0, 0.5, out));
+        assertEquals(1, hash.queryRay(0.0, 0.0, 0.0, 0.0, 1.0, 0.0, 20.0, 0.5, out));
+        assertEquals(0, out[0]);
+    }
+
+    @Test
+    void rejectsRadiusAboveMargin() {
+        AabbSpatialHash hash = new AabbSpatialHash(4.0, 0.5);
+        assertThrows(IllegalArgumentException.class, () ->
+                hash.queryRay(0, 0, 0, 0, 1, 0, 10, 0.75, new int[4]));
+        assertThrows(IllegalArgumentException.class, () -> new AabbSpatialHash(0.0, 0.5));
+    }
+}
@@ -0,0 +1,148 @@
+package com.codi.prismkit.collision;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 体素遍历和射线包围盒测试
+ * DDA 访问的体素必须按顺序相邻、覆盖密集采样经过的每一个体素，并能在命中处停止
+ */
+class VoxelRaycastTest {
+
+    @Test
+    void axisAlignedRayVisitsEachVoxelOnce() {
+        List<int[]> visited = new ArrayList<>();
+        double t = VoxelRaycast.traverse(0.5, 64.5, 0.5, 0.0, 1.0, 0.0, 10.0, (x, y, z, tEnter) -> {
+            visited.add(new int[]{x, y, z});
+            return false;
+        });
+
+        assertEquals(-1.0, t, 0.0);
+        assertEquals(11, visited.size());
+        for (int i = 0; i < visited.size(); i++) {
+            assertEquals(0, visited.get(i)[0]);
+            assertEquals(64 + i, visited.get(i)[1]);
+            assertEquals(0, visited.get(i)[2]);
+        }
+    }
+
+    @Test
+    void stopsAtFirstSolidVoxel() {
+        // x = 5 处有一堵墙，沿 -x 方向从 x = 9.25 出发
+        double t = VoxelRaycast.traverse(9.25, 0.5, 0.5, -1.0, 0.0, 0.0, 20.0,
+                (x, y, z, tEnter) -> x == 5);
+        assertEquals(3.25, t, 1e-9);
+    }
+
+    @Test
+    void negativeBeamBoundsContainRemovedHitBlock() {
+        // 沿 -x 方向命中 x = 5 的方块：终点 x = 6.0 恰好在格线上，按终点取整会得到 6，漏掉命中的方块
+        Set<Long> solid = new HashSet<>();
+        solid.add(key(5, 0, 0));
+        VoxelBounds bounds = new VoxelBounds();
+        VoxelRaycast.VoxelVisitor visitor = (x, y, z, tEnter) -> {
+            bounds.include(x, y, z);
+            return solid.contains(key(x, y, z));
+        };
+
+        double t = VoxelRaycast.traverse(9.25, 0.5, 0.5, -1.0, 0.0, 0.0, 20.0, visitor);
+        assertEquals(3.25, t, 1e-9);
+        assertEquals(6, (int) Math.floor(9.25 - t));
+        assertTrue(bounds.contains(5, 0, 0));
+        assertEquals(5, bounds.getMinX());
+        assertEquals(9, bounds.getMaxX());
+
+        // 方块被移除：变化位置在失效区域内，重新遍历后光束穿过原来的位置
+        solid.remove(key(5, 0, 0));
+        assertTrue(bounds.contains(5, 0, 0));
+        bounds.clear();
+        assertEquals(-1.0, VoxelRaycast.traverse(9.25, 0.5, 0.5, -1.0, 0.0, 0.0, 20.0, visitor), 0.0);
+        assertTrue(bounds.contains(-10, 0, 0));
+        assertFalse(bounds.contains(10, 0, 0));
+    }
+
+    @Test
+    void randomRaysMatchDenseSampling() {
+        Random random = new Random(44);
+        for (int ray = 0; ray < 200; ray++) {
+            double ox = random.nextDouble() * 20 - 10;
+            double oy = random.nextDouble() * 20 - 10;
+            double oz = random.nextDouble() * 20 - 10;
+            double dx = random.nextGaussian();
+            double dy = random.nextGaussian();
+            double dz = random.nextGaussian();
+            double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            dx /= length;
+            dy /= length;
+            dz /= length;
+            double maxT = 15.0;
+
+            List<Long> visited = new ArrayList<>();
+            int[] previous = null;
+            double[] lastT = {-1.0};
+            final double fdx = dx, fdy = dy, fdz = dz;
+            List<int[]> cells = new ArrayList<>();
+            VoxelRaycast.traverse(ox, oy, oz, fdx, fdy, fdz, maxT, (x, y, z, tEnter) -> {
+                assertTrue(tEnter >= lastT[0]);
+                lastT[0] = tEnter;
+                cells.add(new int[]{x, y, z});
+                return false;
+            });
+            for (int[] cell : cells) {
+                if (previous != null) {
+                    // 相邻两次访问只在一个轴上相差 1
+                    int diff = Math.abs(cell[0] - previous[0]) + Math.abs(cell[1] - previous[1])
+                            + Math.abs(cell[2] - previous[2]);
+                    assertEquals(1, diff);
+                }
+                previous = cell;
+                visited.add(key(cell[0], cell[1], cell[2]));
+            }
+
+            Set<Long> visitedSet = new HashSet<>(visited);
+            assertEquals(visited.size(), visitedSet.size());
+            for (int i = 0; i <= 3000; i++) {
+                double s = maxT * i / 3000.0;
+                long sample = key((int) Math.floor(ox + dx * s), (int) Math.floor(oy + dy * s),
+                        (int) Math.floor(oz + dz * s));
+                assertTrue(visitedSet.contains(sample));
+            }
+        }
+    }
+
+    @Test
+    void intersectAabbHandlesInsideParallelAndMiss() {
+        // 起点在盒内
+        assertEquals(0.0, VoxelRaycast.intersectAabb(0.5, 0.5, 0.5, 1, 0, 0, 10, 0, 0, 0, 1, 1, 1), 0.0);
+        // 正面命中
+        assertEquals(2.0, VoxelRaycast.intersectAabb(-2, 0.5, 0.5, 1, 0, 0, 10, 0, 0, 0, 1, 1, 1), 1e-9);
+        // 平行于 slab 且在盒外
+        assertEquals(-1.0, VoxelRaycast.intersectAabb(-2, 1.5, 0.5, 1, 0, 0, 10, 0, 0, 0, 1, 1, 1), 0.0);
+        // 超出射线长度
+        assertEquals(-1.0, VoxelRaycast.intersectAabb(-20, 0.5, 0.5, 1, 0, 0, 10, 0, 0, 0, 1, 1, 1), 0.0);
+        // 盒子在射线后方
+        assertEquals(-1.0, VoxelRaycast.intersectAabb(3, 0.5, 0.5, 1, 0, 0, 10, 0, 0, 0, 1, 1, 1), 0.0);
+    }
+
+    @Test
+    void rejectsInvalidLength() {
+        assertThrows(IllegalArgumentException.class, () ->
+                VoxelRaycast.traverse(0, 0, 0, 1, 0, 0, Double.POSITIVE_INFINITY, (x, y, z, t) -> false));
+        assertThrows(IllegalArgumentException.class, () ->
+                VoxelRaycast.traverse(0, 0, 0, 1, 0, 0, -1.0, (x, y, z, t) -> false));
+    }
+
+    private static long key(int x, int y, int z) {
+        return ((long) x & 0x1FFFFF) << 42 | ((long) y & 0x1FFFFF) << 21 | ((long) z & 0x1FFFFF);
+    }
+}
@@ -0,0 +1,232 @@
+package com.codi.prismkit.emitter;
+
+import com.codi.prismkit.math.curve.PrismCurve;
+import com.codi.prismkit.math.curve.PrismCurveLibrary;
+import com.codi.prismkit.particle.PrismParticlePool;
+import com.google.gson.JsonParseException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 数据驱动发射器测试
+ * 生成总数必须与速率曲线的积分一致，曲线在加载时解析为引用，生命周期模块按曲线改写粒子属性
+ */
+class PrismEmitterTest {
+
+    private static final String RAMP_EMITTER = """
+        {
+          "emitter_name": "ramp",
+          "capacity": 4096,
+          "duration": 40,
+          "rate": 3.3,
+          "rate_curve": "ramp_up",
+          "bursts": [{"time": 0, "count": 7}, {"time": 20, "count": 5}],
+          "lifetime": 200,
+          "shape": {"type": "SPHERE", "radius": 0.5},
+          "speed": [0.05, 0.1],
+          "modules": {"alpha": "fade"}
+        }
+        """;
+
+    @Test
+    void rateCurveIntegralGivesExactTotals() {
+        PrismCurveLibrary curves = new PrismCurveLibrary();
+        curves.putCurve(PrismCurve.linear("ramp_up", 0.0f, 2.0f));
+        curves.putCurve(PrismCurve.linear("fade", 1.0f, 0.0f));
+        PrismEmitterLibrary library = new PrismEmitterLibrary(curves);
+        library.loadEmitter(RAMP_EMITTER);
+
+        PrismEmitter emitter = new PrismEmitter(library.getType("ramp"), 0, 64, 0, 1234);
+        int spawned = 0;
+        for (int tick = 0; tick < 100; tick++) {
+            spawned += emitter.tick();
+        }
+
+        // 速率曲线平均值为 1：3.3 × 40 × 1 = 132，加上两次 burst
+        assertEquals(132 + 7 + 5, spawned);
+        assertEquals(spawned, emitter.getPool().size());
+    }
+
+    @Test
+    void loopingEmitterKeepsFractionalRemainderAcrossCycles() {
+        PrismCurveLibrary curves = new PrismCurveLibrary();
+        PrismEmitterLibrary library = new PrismEmitterLibrary(curves);
+        library.loadEmitter("""
+            {"emitter_name": "drizzle", "duration": 7, "looping": true, "rate": 0.3, "lifetime": 1}
+            """);
+        PrismEmitterType type = library.getType("drizzle");
+
+        // 每个周期 2.1 个：十个周期必须正好 21 个，而不是每个周期取整后的 20 个
+        long total = 0;
+        for (long age = 0; age < 70; age++) {
+            total += type.getSpawnCount(age);
+        }
+        assertEquals(21L, total);
+        assertEquals(21L, type.cumulativeRateSpawns(70));
+    }
+
+    @Test
+    void curveNamesResolveToReferencesAndRefreshOnReload() {
+        PrismCurveLibrary curves = new PrismCurveLibrary();
+        PrismCurve fade = PrismCurve.linear("fade", 1.0f, 0.0f);
+        curves.putCurve(fade);
+        PrismEmitterLibrary library = new PrismEmitterLibrary(curves);
+        library.loadEmitter(RAMP_EMITTER);
+
+        PrismEmitterType type = library.getType("ramp");
+        assertSame(fade, type.getAlphaCurve());
+        assertSame(type, library.getType("ramp"));
+        assertNull(type.getSizeCurve());
+        // 缺失的速率曲线按常数 1 处理
+        assertEquals(3.3 * 40, type.getSpawnsPerCycle(), 1e-4);
+
+        PrismCurve replaced = PrismCurve.linear("fade", 0.5f, 0.0f);
+        curves.putCurve(replaced);
+        PrismEmitterType refreshed = library.getType("ramp");
+        assertSame(replaced, refreshed.getAlphaCurve());
+        assertNull(library.getType("missing"));
+    }
+
+    @Test
+    void modulesFollowCurvesOverLifetime() {
+        PrismCurveLibrary curves = new PrismCurveLibrary();
+        curves.putCurve(PrismCurve.linear("fade", 1.0f, 0.0f));
+        curves.putCurve(PrismCurve.linear("grow", 1.0f, 3.0f));
+        curves.putCurve(PrismCurve.linear("shift", 0.0f, 1.0f));
+        PrismEmitterLibrary library = new PrismEmitterLibrary(curves);
+        library.loadEmitter("""
+            {
+              "emitter_name": "ember",
+              "duration": 1,
+              "bursts": [{"time": 0, "count": 3}],
+              "lifetime": 10,
+              "speed": 0.2,
+              "direction": [0, 2, 0],
+              "size": [0.1, 0.2],
+              "color": [1.0, 1.0, 0.0, 0.8],
+              "modules": {
+                "alpha": "fade",
+                "size": "grow",
+                "speed": "fade",
+                "color": {"curve": "shift", "end_color": [1.0, 0.0, 0.0]}
+              }
+            }
+            """);
+        PrismEmitterType type = library.getType("ember");
+        PrismEmitter emitter = new PrismEmitter(type, 0, 0, 0, 7);
+        PrismParticlePool pool = emitter.getPool();
+
+        emitter.tick();
+        assertEquals(3, pool.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0.8f, pool.getColor(i, 3), 1e-6f);
+            assertEquals(type.getStartSize(pool.getSeed(i)), pool.getSize(i), 1e-6f);
+            assertEquals(0.2f, pool.getVelocityY(i), 1e-6f);
+        }
+
+        for (int tick = 0; tick < 4; tick++) {
+            emitter.tick();
+        }
+        double[] previousY = new double[3];
+        for (int i = 0; i < 3; i++) {
+            previousY[i] = pool.getY(i);
+        }
+        emitter.tick();
+        // 年龄 5 / 10：alpha 减半、大小翻倍、本 tick 位移减半（速度本身不变）、颜色走到一半
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0.4f, pool.getColor(i, 3), 1e-5f);
+            assertEquals(type.getStartSize(pool.getSeed(i)) * 2.0f, pool.getSize(i), 1e-5f);
+            assertEquals(0.1, pool.getY(i) - previousY[i], 1e-5);
+            assertEquals(0.2f, pool.getVelocityY(i), 1e-6f);
+            assertEquals(0.5f, pool.getColor(i, 1), 1e-5f);
+        }
+
+        for (int tick = 0; tick < 5; tick++) {
+            emitter.tick();
+        }
+        assertTrue(emitter.isFinished());
+    }
+
+    @Test
+    void speedModuleScalesMotionWithoutOverridingPhysics() {
+        PrismCurveLibrary curves = new PrismCurveLibrary();
+        curves.putCurve(PrismCurve.linear("rise", 0.0f, 1.0f));
+        PrismEmitterLibrary library = new PrismEmitterLibrary(curves);
+        library.loadEmitter("""
+            {"emitter_name": "drift", "duration": 1, "bursts": [{"time": 0, "count": 1}], "lifetime": 10,
+             "speed": 0.2, "direction": [1, 0, 0], "gravity": 0.01, "drag": 0.5,
+             "modules": {"speed": "rise"}}
+            """);
+        PrismEmitter emitter = new PrismEmitter(library.getType("drift"), 0, 0, 0, 3);
+        PrismParticlePool pool = emitter.getPool();
+
+        // 生成时速度曲线为 0：速度保持不变，不会被清零
+        emitter.tick();
+        assertEquals(0.2f, pool.getVelocityX(0), 1e-6f);
+
+        // 年龄 1：重力和阻力作用在速度上，位移按曲线值 0.1 缩放
+        emitter.tick();
+        assertEquals(0.1f, pool.getVelocityX(0), 1e-6f);
+        assertEquals(-0.005f, pool.getVelocityY(0), 1e-6f);
+        assertEquals(0.02, pool.getX(0), 1e-6);
+        assertEquals(-0.001, pool.getY(0), 1e-6);
+
+        // 年龄 2：阻力继续生效，位移 0.1 × 0.2
+        emitter.tick();
+        assertEquals(0.05f, pool.getVelocityX(0), 1e-6f);
+        assertEquals(0.04, pool.getX(0), 1e-6);
+    }
+
+    @Test
+    void sameSeedReplaysSameParticles() {
+        PrismCurveLibrary curves = new PrismCurveLibrary();
+        PrismEmitterLibrary library = new PrismEmitterLibrary(curves);
+        library.loadEmitter("""
+            {"emitter_name": "box", "duration": 5, "rate": 4, "lifetime": [5, 15],
+             "shape": {"type": "BOX", "size": [1, 2, 3]}, "speed": [0, 0.3], "spread": 0.5, "direction": [1, 0, 0]}
+            """);
+        PrismEmitter first = new PrismEmitter(library.getType("box"), 10, 20, 30, 99);
+        PrismEmitter second = new PrismEmitter(library.getType("box"), 10, 20, 30, 99);
+        for (int tick = 0; tick < 3; tick++) {
+            first.tick();
+            second.tick();
+        }
+
+        PrismParticlePool a = first.getPool();
+        PrismParticlePool b = second.getPool();
+        assertEquals(a.size(), b.size());
+        for (int i = 0; i < a.size(); i++) {
+            assertEquals(a.getX(i), b.getX(i), 0.0);
+            assertEquals(a.getLifetime(i), b.getLifetime(i));
+            assertTrue(Math.abs(a.getX(i) - 10) <= 1.0 + 0.3 * 3, "粒子必须在长方体附近");
+            assertTrue(a.getLifetime(i) >= 5 && a.getLifetime(i) <= 15, "寿命必须在范围内");
+        }
+    }
+
+    @Test
+    void codecRejectsInvalidDefinitions() {
+        PrismEmitterLibrary library = new PrismEmitterLibrary(new PrismCurveLibrary());
+        assertThrows(JsonParseException.class, () -> library.loadEmitter("{\"rate\": 1}"));
+        assertThrows(JsonParseException.class, () -> library.loadEmitter(
+            "{\"emitter_name\": \"a\", \"duration\": 10, \"bursts\": [{\"time\": 10, \"count\": 1}]}"));
+        assertThrows(JsonParseException.class, () -> library.loadEmitter(
+            "{\"emitter_name\": \"a\", \"shape\": {\"type\": \"CONE\"}}"));
+        assertThrows(JsonParseException.class, () -> library.loadEmitter(
+            "{\"emitter_name\": \"a\", \"lifetime\": [20, 10]}"));
+        assertThrows(JsonParseException.class, () -> library.loadEmitter(
+            "{\"emitter_name\": \"a\", \"modules\": {\"color\": {\"curve\": \"x\"}}}"));
+        assertThrows(JsonParseException.class, () -> library.loadEmitter(
+            "{\"emitter_name\": \"a\", \"rate\": \"fast\"}"));
+
+        PrismEmitterDefinition definition = library.loadEmitter("{\"emitter_name\": \"defaults\"}");
+        assertNotNull(library.getType("defaults"));
+        assertEquals(PrismEmitterShape.Type.POINT, definition.getShape().getType());
+        assertEquals(1, library.getEmitterCount());
+    }
+}
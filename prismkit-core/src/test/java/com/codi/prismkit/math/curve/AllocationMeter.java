@@ -0,0 +1,74 @@
+package com.codi.prismkit.math.curve;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 测量单次调用在当前线程上分配的字节数
+ * 基于 com.sun.management.ThreadMXBean.getThreadAllocatedBytes（HotSpot 的 TLAB 计数器）
+ *
+ * 技术细节：
+ * - 先预热足够多次，让 JIT 编译并完成逃逸分析，测到的是稳态下的分配
+ * - 用空操作校准测量本身的开销，从结果中扣除
+ * - 重复测量若干轮取最小值，排除一次性的类加载、去优化等噪声
+ */
+final class AllocationMeter {
+
+    /**
+     * 被测操作：参数为调用序号（用于在预生成的输入数组中取值），返回值会被累加防止被 JIT 消除
+     */
+    interface Operation {
+        float run(int i);
+    }
+
+    private static final int WARMUP_ITERATIONS = 50_000;
+    private static final int MEASURE_ITERATIONS = 20_000;
+    private static final int ROUNDS = 5;
+
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static final Operation EMPTY = i -> i;
+
+    // 结果汇总，防止被测调用被当作死代码消除
+    static volatile float sink;
+
+    private AllocationMeter() {
+    }
+
+    static boolean isSupported() {
+        return THREAD_BEAN.isThreadAllocatedMemorySupported() && THREAD_BEAN.isThreadAllocatedMemoryEnabled();
+    }
+
+    /**
+     * 测量操作的稳态分配量
+     *
+     * @return 平均每次调用分配的字节数（已扣除测量开销）
+     */
+    static double bytesPerCall(Operation operation) {
+        run(operation, WARMUP_ITERATIONS);
+        run(EMPTY, WARMUP_ITERATIONS);
+
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long overhead = measure(EMPTY);
+            long bytes = measure(operation);
+            best = Math.min(best, Math.max(0L, bytes - overhead));
+        }
+        return best / (double) MEASURE_ITERATIONS;
+    }
+
+    private static long measure(Operation operation) {
+        long threadId = Thread.currentThread().getId();
+        long before = THREAD_BEAN.getThreadAllocatedBytes(threadId);
+        run(operation, MEASURE_ITERATIONS);
+        return THREAD_BEAN.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    private static void run(Operation operation, int iterations) {
+        float sum = 0.0f;
+        for (int i = 0; i < iterations; i++) {
+            sum += operation.run(i);
+        }
+        sink = sum;
+    }
+}
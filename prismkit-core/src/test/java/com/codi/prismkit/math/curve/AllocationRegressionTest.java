@@ -0,0 +1,126 @@
+package com.codi.prismkit.math.curve;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.joml.Vector2d;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 每帧调用路径的分配回归测试
+ * 曲线求值、句柄查找、游标推进、批量求值都必须是零分配的；
+ * 任何改动在这些路径上重新引入分配都会让构建失败
+ */
+class AllocationRegressionTest {
+
+    // 平均每次调用允许的分配量：低于 1 字节意味着没有任何逐次调用的分配
+    private static final double MAX_BYTES_PER_CALL = 1.0;
+
+    private static final int INPUT_COUNT = 1024;
+
+    private static float[] inputs;
+
+    @BeforeAll
+    static void setUp() {
+        assumeTrue(AllocationMeter.isSupported(), "当前 JVM 不支持线程分配计数");
+
+        Random random = new Random(7L);
+        inputs = new float[INPUT_COUNT];
+        for (int i = 0; i < INPUT_COUNT; i++) {
+            inputs[i] = random.nextFloat() * 2.0f - 0.5f;
+        }
+    }
+
+    @Test
+    void exactEvaluationDoesNotAllocate() {
+        for (CurveClampMode clampMode : CurveClampMode.values()) {
+            PrismCurve curve = createCurve("exact_" + clampMode, 16, clampMode);
+            assertNoAllocation("PrismCurve.getValue（" + clampMode + "）",
+                    i -> curve.getValue(inputs[i & (INPUT_COUNT - 1)]));
+        }
+    }
+
+    @Test
+    void bakedEvaluationDoesNotAllocate() {
+        PrismCurve table = createCurve("table", 16, CurveClampMode.CLAMP);
+        table.bake(CurveBakeMode.TABLE, 0.0f);
+        assertNoAllocation("PrismCurve.getValue（TABLE）", i -> table.getValue(inputs[i & (INPUT_COUNT - 1)]));
+
+        PrismCurve chebyshev = createCurve("chebyshev", 16, CurveClampMode.CLAMP);
+        chebyshev.bake(CurveBakeMode.CHEBYSHEV, 1e-3f);
+        assertNoAllocation("PrismCurve.getValue（CHEBYSHEV）", i -> chebyshev.getValue(inputs[i & (INPUT_COUNT - 1)]));
+    }
+
+    @Test
+    void handleLookupDoesNotAllocate() {
+        PrismCurveLibrary library = new PrismCurveLibrary(CurveTieringPolicy.DISABLED);
+        library.putCurve(createCurve("handle_target", 8, CurveClampMode.CLAMP));
+
+        PrismCurveHandle handle = library.getHandle("handle_target");
+        assertNoAllocation("PrismCurveHandle.getValue", i -> handle.getValue(inputs[i & (INPUT_COUNT - 1)]));
+
+        PrismCurveHandle missing = library.getHandle("handle_missing");
+        assertNoAllocation("PrismCurveHandle.getValue（缺失）", i -> missing.getValue(inputs[i & (INPUT_COUNT - 1)]));
+
+        assertNoAllocation("PrismCurveLibrary.getCurveValue（缺失）",
+                i -> library.getCurveValue("lookup_missing", inputs[i & (INPUT_COUNT - 1)]));
+    }
+
+    @Test
+    void cursorAdvanceDoesNotAllocate() {
+        PrismCurve curve = createCurve("cursor", 64, CurveClampMode.REPEAT);
+        CurveCursor cursor = new CurveCursor(curve);
+        assertNoAllocation("CurveCursor.advance", i -> cursor.advance(i * 0.001f));
+    }
+
+    @Test
+    void batchEvaluationDoesNotAllocate() {
+        PrismCurve curve = createCurve("batch", 16, CurveClampMode.MIRROR);
+        float[] out = new float[INPUT_COUNT];
+        assertNoAllocation("PrismCurve.getValues", i -> {
+            curve.getValues(inputs, out, 64);
+            return out[i & 63];
+        });
+    }
+
+    @Test
+    void trackSampleDoesNotAllocate() {
+        Map<String, PrismCurve> channels = new LinkedHashMap<>();
+        channels.put(PrismTrack.ALPHA, createCurve("track_alpha", 8, CurveClampMode.CLAMP));
+        channels.put(PrismTrack.WIDTH, createCurve("track_width", 5, CurveClampMode.CLAMP));
+        channels.put(PrismTrack.RED, PrismCurve.constant("track_red", 1.0f));
+        PrismTrack track = new PrismTrack("track", channels);
+        float[] out = new float[track.getChannelCount()];
+        assertNoAllocation("PrismTrack.sample", i -> {
+            track.sample(inputs[i & (INPUT_COUNT - 1)], out);
+            return out[0];
+        });
+    }
+
+    // ========== 辅助方法 ==========
+
+    private static void assertNoAllocation(String description, AllocationMeter.Operation operation) {
+        double bytes = AllocationMeter.bytesPerCall(operation);
+        assertTrue(bytes < MAX_BYTES_PER_CALL,
+                String.format("%s 每次调用分配了 %.2f 字节，每帧路径必须是零分配的", description, bytes));
+    }
+
+    private static PrismCurve createCurve(String name, int segmentCount, CurveClampMode clampMode) {
+        Random random = new Random(name.hashCode());
+        List<CurvePivotPoint> pivotPoints = new ArrayList<>(segmentCount + 1);
+        double handleLength = 1.0 / (segmentCount * 3.0);
+        for (int i = 0; i <= segmentCount; i++) {
+            float x = i / (float) segmentCount;
+            Vector2d tangent = new Vector2d(handleLength, (random.nextDouble() - 0.5) * handleLength);
+            pivotPoints.add(CurvePivotPoint.createSmoothPivotPoint(x, random.nextFloat(), tangent));
+        }
+        return new PrismCurve(name, pivotPoints, clampMode);
+    }
+}
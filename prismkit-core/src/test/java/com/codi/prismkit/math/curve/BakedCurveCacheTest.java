@@ -0,0 +1,119 @@
+package com.codi.prismkit.math.curve;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 派生数据缓存测试
+ * 烘焙表和折线混合存放时，字节统计必须准确，淘汰必须按使用顺序进行，被淘汰的烘焙表要从曲线上卸载
+ */
+class BakedCurveCacheTest {
+
+    // 16 项查找表的大小，折线条目使用同样的大小方便计算容量
+    private static final int TABLE_SIZE = 16;
+    private static final long ENTRY_BYTES = TableBakedCurve.estimateMemoryBytes(TABLE_SIZE);
+
+    @Test
+    void byteAccountingWithMixedKinds() {
+        BakedCurveCache cache = new BakedCurveCache(ENTRY_BYTES * 10);
+        PrismCurve a = PrismCurve.linear("a", 0.0f, 1.0f);
+        PrismCurve b = PrismCurve.linear("b", 1.0f, 0.0f);
+
+        assertTrue(cache.install(a, TableBakedCurve.bake(a, TABLE_SIZE)));
+        assertTrue(cache.put(a, BakedCurveCache.Kind.POLYLINE, 1, new float[4], 100));
+        assertTrue(cache.put(b, BakedCurveCache.Kind.POLYLINE, 1, new float[4], 60));
+        assertEquals(ENTRY_BYTES + 160, cache.getUsedBytes());
+        assertEquals(3, cache.size());
+
+        // 同一个键再次存入时替换旧条目，不重复计数
+        assertTrue(cache.put(b, BakedCurveCache.Kind.POLYLINE, 1, new float[8], 80));
+        assertEquals(ENTRY_BYTES + 180, cache.getUsedBytes());
+
+        // 移除烘焙表时扣除字节并从曲线上卸载
+        cache.remove(a, BakedCurveCache.Kind.BAKED, 0);
+        assertNull(a.getBakedCurve());
+        assertEquals(180, cache.getUsedBytes());
+
+        cache.invalidate("b");
+        assertEquals(100, cache.getUsedBytes());
+        cache.clear();
+        assertEquals(0, cache.getUsedBytes());
+        assertEquals(0, cache.size());
+
+        // 超过整个上限的条目不缓存
+        assertFalse(cache.put(a, BakedCurveCache.Kind.POLYLINE, 2, new float[4], ENTRY_BYTES * 11));
+        assertEquals(0, cache.getUsedBytes());
+    }
+
+    @Test
+    void evictionFollowsRecencyAcrossKinds() {
+        BakedCurveCache cache = new BakedCurveCache(ENTRY_BYTES * 3);
+        PrismCurve hot = PrismCurve.linear("hot", 0.0f, 1.0f);
+        PrismCurve cold = PrismCurve.linear("cold", 0.0f, 1.0f);
+        PrismCurve debug = PrismCurve.linear("debug", 0.0f, 1.0f);
+
+        TableBakedCurve hotTable = TableBakedCurve.bake(hot, TABLE_SIZE);
+        assertTrue(cache.install(hot, hotTable));
+        assertTrue(cache.install(cold, TableBakedCurve.bake(cold, TABLE_SIZE)));
+        assertTrue(cache.put(debug, BakedCurveCache.Kind.POLYLINE, 1, new float[4], ENTRY_BYTES));
+
+        // 刷新最早安装的烘焙表：超出上限时先淘汰另一个烘焙表
+        assertTrue(cache.touch(hot, BakedCurveCache.Kind.BAKED, 0));
+        assertTrue(cache.put(debug, BakedCurveCache.Kind.POLYLINE, 2, new float[4], ENTRY_BYTES));
+        assertSame(hotTable, hot.getBakedCurve());
+        assertNull(cold.getBakedCurve());
+        assertFalse(cache.touch(cold, BakedCurveCache.Kind.BAKED, 0));
+        assertEquals(ENTRY_BYTES * 3, cache.getUsedBytes());
+
+        // 没有刷新时按使用顺序淘汰：最早的折线，然后是烘焙表
+        assertTrue(cache.put(debug, BakedCurveCache.Kind.POLYLINE, 3, new float[4], ENTRY_BYTES));
+        assertNull(cache.get(debug, BakedCurveCache.Kind.POLYLINE, 1));
+        assertSame(hotTable, hot.getBakedCurve());
+        assertTrue(cache.put(debug, BakedCurveCache.Kind.POLYLINE, 4, new float[4], ENTRY_BYTES));
+        assertNull(hot.getBakedCurve());
+        assertEquals(ENTRY_BYTES * 3, cache.getUsedBytes());
+    }
+
+    @Test
+    void tieringKeepsHotTablesRecentInSharedCache() {
+        BakedCurveCache cache = new BakedCurveCache(ENTRY_BYTES * 4);
+        CurveTieringPolicy policy = new CurveTieringPolicy(100.0f, 10.0f, TABLE_SIZE, ENTRY_BYTES * 8, 1000);
+        PrismCurveTiering tiering = new PrismCurveTiering(policy, cache);
+        PrismCurve hot = PrismCurve.linear("hot", 0.0f, 1.0f);
+        PrismCurve debug = PrismCurve.linear("debug", 0.0f, 1.0f);
+        List<PrismCurve> curves = List.of(hot, debug);
+
+        tiering.update(curves, 0L);
+        evaluate(hot, 1000);
+        tiering.update(curves, 1_000_000_000L);
+        assertNotNull(hot.getBakedCurve());
+
+        // 提升之后调试面板生成了折线
+        cache.put(debug, BakedCurveCache.Kind.POLYLINE, 1, new float[4], ENTRY_BYTES);
+        cache.put(debug, BakedCurveCache.Kind.POLYLINE, 2, new float[4], ENTRY_BYTES);
+
+        // 下一轮评估时曲线仍然是热点：查找表被刷新，之后的折线先淘汰更早的折线
+        evaluate(hot, 1000);
+        tiering.update(curves, 2_000_000_000L);
+        cache.put(debug, BakedCurveCache.Kind.POLYLINE, 3, new float[4], ENTRY_BYTES);
+        cache.put(debug, BakedCurveCache.Kind.POLYLINE, 4, new float[4], ENTRY_BYTES);
+
+        assertNotNull(hot.getBakedCurve());
+        assertNull(cache.get(debug, BakedCurveCache.Kind.POLYLINE, 1));
+        assertEquals(1, tiering.getPromotedCount());
+        assertEquals(ENTRY_BYTES * 4, cache.getUsedBytes());
+    }
+
+    private static void evaluate(PrismCurve curve, int count) {
+        float[] xs = new float[count];
+        curve.getValues(xs, new float[count], 0, count);
+    }
+}
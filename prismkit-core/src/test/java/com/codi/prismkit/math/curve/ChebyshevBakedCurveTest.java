@@ -0,0 +1,122 @@
+package com.codi.prismkit.math.curve;
+
+import org.joml.Vector2d;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 切比雪夫烘焙的误差测试
+ * 在密集网格上逐点检查 |evaluate(x) - getValue(x)| <= maxError，网格包含每个枢纽点两侧紧邻的 x
+ */
+class ChebyshevBakedCurveTest {
+
+    private static final int SAMPLES = 20000;
+
+    @Test
+    void smoothCurveStaysWithinMaxError() {
+        PrismCurve curve = createSmoothCurve("smooth", 40);
+        for (float maxError : new float[]{1e-2f, 1e-3f, 1e-4f}) {
+            for (int degree = 1; degree <= 6; degree++) {
+                assertWithinError(curve, ChebyshevBakedCurve.bake(curve, maxError, degree), maxError);
+            }
+        }
+    }
+
+    @Test
+    void sharpPivotsStayWithinMaxError() {
+        PrismCurve curve = createSharpCurve("sharp");
+        for (float maxError : new float[]{1e-2f, 1e-3f, 1e-4f}) {
+            assertWithinError(curve, ChebyshevBakedCurve.bake(curve, maxError), maxError);
+            assertWithinError(curve, ChebyshevBakedCurve.bake(curve, maxError, 1), maxError);
+            assertWithinError(curve, ChebyshevBakedCurve.bake(curve, maxError, 5), maxError);
+        }
+    }
+
+    @Test
+    void rebakeAfterEditStaysWithinMaxError() {
+        float maxError = 1e-3f;
+        PrismCurve curve = createSmoothCurve("rebake", 40);
+        ChebyshevBakedCurve baked = ChebyshevBakedCurve.bake(curve, maxError);
+        curve.setBakedCurve(baked);
+
+        // 把一个平滑枢纽点改成尖角，再移动一个枢纽点：两次都只重新拟合受影响的区间
+        CurvePivotPoint corner = CurvePivotPoint.createSplitPivotPoint(
+            curve.getPivotPoints().get(12).getX(), 1.5f, new Vector2d(-0.005, -0.02), new Vector2d(0.005, -0.02));
+        curve.setPivotPoint(12, corner);
+        CurvePivotPoint moved = curve.getPivotPoints().get(25);
+        curve.setPivotPoint(25, moved.withPosition(moved.getX() + 0.004f, -0.8f));
+
+        BakedCurve rebaked = curve.getBakedCurve();
+        assertNotSame(baked, rebaked);
+        assertTrue(rebaked instanceof ChebyshevBakedCurve, "编辑后烘焙数据被替换成了其他类型");
+
+        // 与未安装烘焙数据的同一条曲线比较
+        curve.setBakedCurve(null);
+        assertWithinError(curve, rebaked, maxError);
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        PrismCurve curve = PrismCurve.linear("invalid", 0.0f, 1.0f);
+        assertThrows(IllegalArgumentException.class, () -> ChebyshevBakedCurve.bake(curve, 0.0f));
+        assertThrows(IllegalArgumentException.class, () -> ChebyshevBakedCurve.bake(curve, Float.NaN));
+        assertThrows(IllegalArgumentException.class, () -> ChebyshevBakedCurve.bake(curve, 1e-3f, 0));
+        assertThrows(IllegalArgumentException.class, () -> ChebyshevBakedCurve.bake(curve, 1e-3f, 7));
+    }
+
+    // ========== 辅助方法 ==========
+
+    private static void assertWithinError(PrismCurve curve, BakedCurve baked, float maxError) {
+        for (int i = 0; i < SAMPLES; i++) {
+            assertPointWithinError(curve, baked, i / (float) (SAMPLES - 1), maxError);
+        }
+        for (CurvePivotPoint pivot : curve.getPivotPoints()) {
+            float x = pivot.getX();
+            assertPointWithinError(curve, baked, Math.nextDown(x), maxError);
+            assertPointWithinError(curve, baked, x, maxError);
+            assertPointWithinError(curve, baked, Math.nextUp(x), maxError);
+        }
+    }
+
+    private static void assertPointWithinError(PrismCurve curve, BakedCurve baked, float x, float maxError) {
+        float error = Math.abs(baked.evaluate(x) - curve.getValue(x));
+        assertTrue(error <= maxError, "x=" + x + " 误差 " + error + " 超过 " + maxError);
+    }
+
+    private static PrismCurve createSmoothCurve(String name, int pivotCount) {
+        Random random = new Random(name.hashCode());
+        List<CurvePivotPoint> pivotPoints = new ArrayList<>(pivotCount);
+        double handleLength = 1.0 / ((pivotCount - 1) * 3.0);
+        for (int i = 0; i < pivotCount; i++) {
+            float x = i / (float) (pivotCount - 1);
+            Vector2d tangent = new Vector2d(handleLength, (random.nextDouble() - 0.5) * 4.0 * handleLength);
+            pivotPoints.add(CurvePivotPoint.createSmoothPivotPoint(x, random.nextFloat() * 2.0f - 1.0f, tangent));
+        }
+        return new PrismCurve(name, pivotPoints);
+    }
+
+    /**
+     * 锯齿、尖峰和近似阶跃：SPLIT 枢纽点两侧的切线方向相反，斜率在枢纽点处突变
+     */
+    private static PrismCurve createSharpCurve(String name) {
+        List<CurvePivotPoint> pivotPoints = new ArrayList<>();
+        pivotPoints.add(CurvePivotPoint.createLinearPivotPoint(0.0f, 0.0f));
+        pivotPoints.add(CurvePivotPoint.createSplitPivotPoint(
+            0.2f, 1.0f, new Vector2d(-0.05, -0.2), new Vector2d(0.05, -0.2)));
+        pivotPoints.add(CurvePivotPoint.createSplitPivotPoint(
+            0.3f, -1.0f, new Vector2d(-0.03, 0.15), new Vector2d(0.03, 0.15)));
+        pivotPoints.add(CurvePivotPoint.createLinearPivotPoint(0.5f, -1.0f));
+        pivotPoints.add(CurvePivotPoint.createLinearPivotPoint(0.501f, 1.0f));
+        pivotPoints.add(CurvePivotPoint.createSplitPivotPoint(
+            0.7f, 0.2f, new Vector2d(-0.01, 0.05), new Vector2d(0.06, 0.3)));
+        pivotPoints.add(CurvePivotPoint.createLinearPivotPoint(1.0f, 0.0f));
+        return new PrismCurve(name, pivotPoints);
+    }
+}
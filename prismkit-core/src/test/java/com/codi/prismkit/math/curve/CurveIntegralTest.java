@@ -0,0 +1,77 @@
+package com.codi.prismkit.math.curve;
+
+import org.joml.Vector2d;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 曲线解析积分测试
+ * 常数和直线的积分有闭式解，多段曲线与对 getValue 的密集数值积分比较
+ */
+class CurveIntegralTest {
+
+    @Test
+    void constantAndLinearCurvesIntegrateExactly() {
+        CurveIntegral constant = CurveIntegral.of(PrismCurve.constant("constant", 2.5f));
+        assertEquals(2.5, constant.getTotal(), 1e-6);
+        assertEquals(1.0, constant.integrate(0.4), 1e-6);
+
+        // y = x 的积分为 x² / 2
+        CurveIntegral linear = CurveIntegral.of(PrismCurve.linear("linear", 0.0f, 1.0f));
+        assertEquals(0.5, linear.getTotal(), 1e-6);
+        assertEquals(0.125, linear.integrate(0.5), 1e-6);
+        assertEquals(0.0, linear.integrate(-1.0), 0.0);
+        assertEquals(linear.getTotal(), linear.integrate(2.0), 0.0);
+    }
+
+    @Test
+    void multiSegmentCurveMatchesNumericIntegral() {
+        PrismCurve curve = new PrismCurve("mountain", List.of(
+            CurvePivotPoint.createLinearPivotPoint(0.0f, 0.2f),
+            CurvePivotPoint.createSmoothPivotPoint(0.35f, 1.4f, new Vector2d(0.1, 0.05)),
+            CurvePivotPoint.createSplitPivotPoint(0.7f, 0.6f, new Vector2d(-0.1, 0.2), new Vector2d(0.1, -0.3)),
+            CurvePivotPoint.createLinearPivotPoint(1.0f, 0.0f)
+        ), CurveClampMode.CLAMP);
+        CurveIntegral integral = CurveIntegral.of(curve);
+
+        for (int i = 1; i <= 10; i++) {
+            double x = i / 10.0;
+            assertEquals(simpson(curve, x), integral.integrate(x), 1e-5, "x = " + x);
+        }
+        assertEquals(simpson(curve, 1.0), integral.getTotal(), 1e-5);
+    }
+
+    @Test
+    void integralIsMonotonicForPositiveCurve() {
+        CurveIntegral integral = CurveIntegral.of(new PrismCurve("positive", List.of(
+            CurvePivotPoint.createLinearPivotPoint(0.0f, 1.0f),
+            CurvePivotPoint.createSmoothPivotPoint(0.5f, 3.0f, new Vector2d(0.2, 0.0)),
+            CurvePivotPoint.createLinearPivotPoint(1.0f, 0.5f)
+        ), CurveClampMode.CLAMP));
+
+        double previous = 0.0;
+        for (int i = 1; i <= 1000; i++) {
+            double value = integral.integrate(i / 1000.0);
+            assertTrue(value > previous, "积分必须严格递增: i = " + i);
+            previous = value;
+        }
+    }
+
+    /**
+     * 复合辛普森积分：步长足够小，误差远小于比较容差
+     */
+    private static double simpson(PrismCurve curve, double upper) {
+        int steps = 20_000;
+        double h = upper / steps;
+        double sum = 0.0;
+        for (int i = 0; i <= steps; i++) {
+            double weight = (i == 0 || i == steps) ? 1.0 : (i % 2 == 1 ? 4.0 : 2.0);
+            sum += weight * curve.getValue((float) (i * h));
+        }
+        return sum * h / 3.0;
+    }
+}
@@ -0,0 +1,97 @@
+package com.codi.prismkit.math.curve;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 曲线带测试
+ * 同一个种子的取值固定，不同种子的取值分布在上下边界之间
+ */
+class PrismCurveBandTest {
+
+    private static final int SEEDS = 4096;
+
+    @Test
+    void evaluationIsDeterministicPerSeed() {
+        PrismCurveBand band = createBand();
+        PrismCurveBand copy = createBand();
+        for (int seed = -50; seed < 50; seed++) {
+            for (int i = 0; i <= 20; i++) {
+                float x = i / 20.0f;
+                float value = band.getValue(x, seed);
+                assertEquals(value, band.getValue(x, seed), 0.0f);
+                assertEquals(value, copy.getValue(x, seed), 0.0f);
+                assertEquals(band.getValue(x, seed, 7), copy.getValue(x, seed, 7), 0.0f);
+            }
+        }
+    }
+
+    @Test
+    void valuesStayBetweenBoundaryCurves() {
+        PrismCurveBand band = createBand();
+        for (int seed = 0; seed < SEEDS; seed++) {
+            for (int i = 0; i <= 20; i++) {
+                float x = i / 20.0f;
+                // 两条边界曲线在 x = 0.5 处交叉，交叉之后上下关系互换
+                float low = Math.min(band.getMinCurve().getValue(x), band.getMaxCurve().getValue(x));
+                float high = Math.max(band.getMinCurve().getValue(x), band.getMaxCurve().getValue(x));
+                float value = band.getValue(x, seed);
+                assertTrue(value >= low && value <= high, "seed=" + seed + " x=" + x + " 取值 " + value);
+                float salted = band.getValue(x, seed, 3);
+                assertTrue(salted >= low && salted <= high, "seed=" + seed + " x=" + x + " 取值 " + salted);
+            }
+        }
+
+        // 随机因子的两端分别对应两条边界曲线
+        assertEquals(band.getMinCurve().getValue(0.25f), band.getValueWithFactor(0.25f, 0.0f), 0.0f);
+        assertEquals(band.getMaxCurve().getValue(0.25f), band.getValueWithFactor(0.25f, 1.0f), 1e-6f);
+    }
+
+    @Test
+    void valuesSpreadAcrossSeeds() {
+        PrismCurveBand band = new PrismCurveBand("spread",
+            PrismCurve.constant("low", 0.0f), PrismCurve.constant("high", 1.0f));
+
+        // 分成 16 个区间统计：每个区间都应接近平均数量
+        int[] buckets = new int[16];
+        List<Float> values = new ArrayList<>(SEEDS);
+        for (int seed = 0; seed < SEEDS; seed++) {
+            float value = band.getValue(0.5f, seed);
+            buckets[Math.min(15, (int) (value * 16.0f))]++;
+            values.add(value);
+        }
+        int expected = SEEDS / buckets.length;
+        for (int i = 0; i < buckets.length; i++) {
+            assertTrue(buckets[i] > expected / 2 && buckets[i] < expected * 2,
+                "区间 " + i + " 有 " + buckets[i] + " 个取值");
+        }
+        assertTrue(values.stream().distinct().count() > SEEDS * 0.99, "不同种子得到了大量相同的取值");
+
+        // 同一个种子的不同属性（salt）互不相关
+        int same = 0;
+        for (int seed = 0; seed < SEEDS; seed++) {
+            if (Math.abs(band.getValue(0.5f, seed, 1) - band.getValue(0.5f, seed, 2)) < 0.01f) {
+                same++;
+            }
+        }
+        assertTrue(same < SEEDS / 20, "不同 salt 的取值过于接近：" + same);
+    }
+
+    @Test
+    void rejectsMissingBoundary() {
+        PrismCurve curve = PrismCurve.linear("curve", 0.0f, 1.0f);
+        assertThrows(IllegalArgumentException.class, () -> new PrismCurveBand("band", null, curve));
+        assertThrows(IllegalArgumentException.class, () -> new PrismCurveBand("band", curve, null));
+    }
+
+    private static PrismCurveBand createBand() {
+        return new PrismCurveBand("band",
+            PrismCurve.linear("min", 0.0f, 2.0f), PrismCurve.linear("max", 3.0f, -1.0f));
+    }
+}
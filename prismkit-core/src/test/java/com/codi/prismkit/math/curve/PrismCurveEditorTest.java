@@ -0,0 +1,170 @@
+package com.codi.prismkit.math.curve;
+
+import org.joml.Vector2d;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 实时编辑的正确性测试
+ * 局部重建的段和局部重新烘焙的数据，必须与用同样的枢纽点从头构造、从头烘焙的结果一致
+ */
+class PrismCurveEditorTest {
+
+    private static final int PIVOT_COUNT = 50;
+    private static final int SAMPLES = 2000;
+
+    @Test
+    void movedPivotMatchesRebuiltCurve() {
+        PrismCurveLibrary library = new PrismCurveLibrary(CurveTieringPolicy.DISABLED);
+        PrismCurve curve = createCurve("edit_move", PIVOT_COUNT);
+        library.putCurve(curve);
+        PrismCurveEditor editor = new PrismCurveEditor(library, curve);
+
+        int revision = library.getRevision();
+        int version = curve.getVersion();
+        editor.movePivot(20, 0.41f, 0.9f);
+        editor.movePivot(0, 0.0f, 0.3f);
+        editor.movePivot(PIVOT_COUNT - 1, 1.0f, -0.2f);
+
+        assertNotEquals(version, curve.getVersion());
+        assertEquals(revision + 3, library.getRevision());
+        assertTrue(editor.isDirty());
+        assertMatchesRebuilt(curve, 0.0f);
+    }
+
+    @Test
+    void movePivotStaysBetweenNeighbours() {
+        PrismCurveLibrary library = new PrismCurveLibrary(CurveTieringPolicy.DISABLED);
+        PrismCurve curve = createCurve("edit_clamp", 5);
+        library.putCurve(curve);
+        PrismCurveEditor editor = new PrismCurveEditor(library, curve);
+
+        editor.movePivot(2, 2.0f, 0.5f);
+        float x = curve.getPivotPoints().get(2).getX();
+        assertTrue(x < curve.getPivotPoints().get(3).getX(), "枢纽点越过了右侧相邻枢纽点");
+        assertMatchesRebuilt(curve, 0.0f);
+
+        // 直接替换时顺序不合法应抛出异常，且曲线保持不变
+        int version = curve.getVersion();
+        CurvePivotPoint invalid = curve.getPivotPoints().get(2).withPosition(-1.0f, 0.0f);
+        assertThrows(IllegalArgumentException.class, () -> curve.setPivotPoint(2, invalid));
+        assertEquals(version, curve.getVersion());
+        assertMatchesRebuilt(curve, 0.0f);
+    }
+
+    @Test
+    void tangentAndModeEditsMatchRebuiltCurve() {
+        PrismCurveLibrary library = new PrismCurveLibrary(CurveTieringPolicy.DISABLED);
+        PrismCurve curve = createCurve("edit_tangent", 8);
+        library.putCurve(curve);
+        PrismCurveEditor editor = new PrismCurveEditor(library, curve);
+
+        editor.setTangentOut(3, 0.02, 0.5);
+        editor.setTangentIn(4, 0.05, -0.1);
+        editor.setMode(5, CurvePivotPointMode.SPLIT);
+        editor.setTangentIn(5, -0.03, 0.2);
+        editor.setMode(6, CurvePivotPointMode.LINEAR);
+        editor.setMode(7, CurvePivotPointMode.LINEAR);
+
+        // SMOOTH 模式的两侧切线保持镜像
+        CurvePivotPoint smooth = curve.getPivotPoints().get(4);
+        assertEquals(-smooth.getTangentIn().x, smooth.getTangentOut().x, 1e-9);
+        assertEquals(-smooth.getTangentIn().y, smooth.getTangentOut().y, 1e-9);
+
+        assertMatchesRebuilt(curve, 0.0f);
+    }
+
+    @Test
+    void linearPivotsProduceStraightSegments() {
+        List<CurvePivotPoint> pivotPoints = new ArrayList<>();
+        pivotPoints.add(CurvePivotPoint.createLinearPivotPoint(0.0f, 0.0f));
+        pivotPoints.add(CurvePivotPoint.createLinearPivotPoint(0.5f, 1.0f));
+        pivotPoints.add(CurvePivotPoint.createLinearPivotPoint(1.0f, 0.0f));
+        PrismCurve curve = new PrismCurve("linear_pivots", pivotPoints);
+
+        assertEquals(0.5f, curve.getValue(0.25f), 1e-6f);
+        assertEquals(0.5f, curve.getValue(0.75f), 1e-6f);
+    }
+
+    @Test
+    void tableBakeIsUpdatedInPlace() {
+        // 默认策略的缓存有容量；测试中不调用 updateTiering，不会发生自动烘焙
+        PrismCurveLibrary library = new PrismCurveLibrary();
+        PrismCurve curve = createCurve("edit_table", PIVOT_COUNT);
+        library.putCurve(curve);
+        library.getBakedCache().install(curve, TableBakedCurve.bake(curve, TableBakedCurve.DEFAULT_SIZE));
+        PrismCurveEditor editor = new PrismCurveEditor(library, curve);
+
+        editor.movePivot(25, 0.5f, 2.0f);
+        editor.setTangentOut(10, 0.01, -0.3);
+        assertTrue(curve.getBakedCurve() instanceof TableBakedCurve, "编辑后烘焙数据被卸载");
+        assertSame(curve.getBakedCurve(), library.getBakedCache().get(curve, BakedCurveCache.Kind.BAKED, 0));
+
+        // 局部更新后的表必须与从头烘焙的表逐项一致
+        TableBakedCurve fresh = TableBakedCurve.bake(curve, TableBakedCurve.DEFAULT_SIZE);
+        for (int i = 0; i < SAMPLES; i++) {
+            float x = i / (float) (SAMPLES - 1);
+            assertEquals(fresh.evaluate(x), curve.getBakedCurve().evaluate(x), 0.0f, "x=" + x);
+        }
+
+        // 移动首个枢纽点会改变定义域，整体重新烘焙
+        editor.movePivot(0, 0.01f, 0.0f);
+        assertMatchesRebuilt(curve, 1e-2f);
+    }
+
+    @Test
+    void chebyshevBakeStaysWithinError() {
+        float maxError = 1e-3f;
+        PrismCurveLibrary library = new PrismCurveLibrary(CurveTieringPolicy.DISABLED);
+        PrismCurve curve = createCurve("edit_chebyshev", PIVOT_COUNT);
+        library.putCurve(curve);
+        curve.bake(CurveBakeMode.CHEBYSHEV, maxError);
+        PrismCurveEditor editor = new PrismCurveEditor(library, curve);
+
+        editor.movePivot(30, 0.6f, -1.0f);
+        editor.setMode(31, CurvePivotPointMode.LINEAR);
+        editor.movePivot(PIVOT_COUNT - 1, 0.97f, 0.5f);
+
+        assertTrue(curve.getBakedCurve() instanceof ChebyshevBakedCurve, "编辑后烘焙数据被卸载");
+        for (int i = 0; i < SAMPLES; i++) {
+            float x = i / (float) (SAMPLES - 1);
+            assertEquals(curve.evaluateExact(x), curve.getBakedCurve().evaluate(x), maxError * 1.5f, "x=" + x);
+        }
+    }
+
+    // ========== 辅助方法 ==========
+
+    /**
+     * 用曲线当前的枢纽点从头构造一条曲线，逐点比较求值结果
+     */
+    private static void assertMatchesRebuilt(PrismCurve curve, float tolerance) {
+        PrismCurve rebuilt = new PrismCurve("rebuilt", curve.getPivotPoints(), curve.getClampMode());
+        assertEquals(rebuilt.getSegmentCount(), curve.getSegmentCount());
+        for (int i = 0; i < SAMPLES; i++) {
+            float x = i / (float) (SAMPLES - 1);
+            assertEquals(rebuilt.evaluateExact(x), curve.evaluateExact(x), 0.0f, "精确求值 x=" + x);
+            assertEquals(rebuilt.evaluateExact(x), curve.getValue(x), tolerance, "求值 x=" + x);
+        }
+    }
+
+    private static PrismCurve createCurve(String name, int pivotCount) {
+        Random random = new Random(name.hashCode());
+        List<CurvePivotPoint> pivotPoints = new ArrayList<>(pivotCount);
+        double handleLength = 1.0 / ((pivotCount - 1) * 3.0);
+        for (int i = 0; i < pivotCount; i++) {
+            float x = i / (float) (pivotCount - 1);
+            Vector2d tangent = new Vector2d(handleLength, (random.nextDouble() - 0.5) * handleLength);
+            pivotPoints.add(CurvePivotPoint.createSmoothPivotPoint(x, random.nextFloat(), tangent));
+        }
+        return new PrismCurve(name, pivotPoints);
+    }
+}
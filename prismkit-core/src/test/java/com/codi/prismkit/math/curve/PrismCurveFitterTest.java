@@ -0,0 +1,124 @@
+package com.codi.prismkit.math.curve;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 曲线拟合与简化测试
+ * 拟合结果必须在每个采样点上满足容差，同时枢纽点数量远少于采样点
+ */
+class PrismCurveFitterTest {
+
+    private static final int SAMPLES = 500;
+
+    @Test
+    void fitStaysWithinToleranceAtEverySample() {
+        float[] xs = new float[SAMPLES];
+        float[] sine = new float[SAMPLES];
+        float[] kinked = new float[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            float x = i / (float) (SAMPLES - 1);
+            xs[i] = x;
+            sine[i] = (float) Math.sin(x * Math.PI * 4.0);
+            // 两处斜率突变
+            kinked[i] = Math.abs(x - 0.3f) - 2.0f * Math.max(0.0f, x - 0.8f);
+        }
+
+        for (float tolerance : new float[]{1e-2f, 1e-3f, 1e-4f}) {
+            assertFitsSamples(PrismCurveFitter.fit("sine", xs, sine, tolerance), xs, sine, SAMPLES, tolerance);
+            assertFitsSamples(PrismCurveFitter.fit("kinked", xs, kinked, tolerance), xs, kinked, SAMPLES, tolerance);
+        }
+
+        // 只使用前 count 个采样点
+        PrismCurve prefix = PrismCurveFitter.fit("prefix", xs, sine, 100, 1e-3f, CurveClampMode.CLAMP);
+        assertEquals(xs[99], prefix.getSegments().get(prefix.getSegmentCount() - 1).getXEnd(), 0.0f);
+        assertFitsSamples(prefix, xs, sine, 100, 1e-3f);
+    }
+
+    @Test
+    void fitUsesFewSegments() {
+        float[] xs = new float[SAMPLES];
+        float[] line = new float[SAMPLES];
+        float[] cubic = new float[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            float x = i / (float) (SAMPLES - 1);
+            xs[i] = x;
+            line[i] = 0.5f * x - 0.25f;
+            cubic[i] = x * x * (3.0f - 2.0f * x);
+        }
+
+        // 直线和单段三次多项式都只需要一段
+        assertEquals(1, PrismCurveFitter.fit("line", xs, line, 1e-4f).getSegmentCount());
+        assertEquals(1, PrismCurveFitter.fit("cubic", xs, cubic, 1e-4f).getSegmentCount());
+    }
+
+    @Test
+    void simplifyCollapsesNearlyCollinearPivots() {
+        int pivotCount = 300;
+        Random random = new Random(26);
+        List<CurvePivotPoint> pivotPoints = new ArrayList<>(pivotCount);
+        for (int i = 0; i < pivotCount; i++) {
+            float x = i / (float) (pivotCount - 1);
+            float jitter = (random.nextFloat() - 0.5f) * 2e-5f;
+            pivotPoints.add(CurvePivotPoint.createLinearPivotPoint(x, 0.2f + 0.5f * x + jitter));
+        }
+        PrismCurve recorded = new PrismCurve("recorded", pivotPoints, CurveClampMode.REPEAT);
+
+        float tolerance = 1e-3f;
+        PrismCurve simplified = PrismCurveFitter.simplify(recorded, tolerance);
+
+        assertTrue(simplified.getPivotPoints().size() <= 4,
+            "简化后仍有 " + simplified.getPivotPoints().size() + " 个枢纽点");
+        assertEquals("recorded", simplified.getName());
+        assertEquals(CurveClampMode.REPEAT, simplified.getClampMode());
+        assertEquals(pivotCount, recorded.getPivotPoints().size());
+        for (CurvePivotPoint pivot : pivotPoints) {
+            float error = Math.abs(simplified.evaluateExact(pivot.getX()) - pivot.getY());
+            assertTrue(error <= tolerance, "x=" + pivot.getX() + " 误差 " + error);
+        }
+    }
+
+    @Test
+    void rejectsInvalidInput() {
+        float[] xs = {0.0f, 0.5f, 1.0f};
+        float[] ys = {0.0f, 1.0f, 0.0f};
+
+        // x 不严格递增
+        assertThrows(IllegalArgumentException.class,
+            () -> PrismCurveFitter.fit("equal", new float[]{0.0f, 0.5f, 0.5f}, ys, 1e-3f));
+        assertThrows(IllegalArgumentException.class,
+            () -> PrismCurveFitter.fit("decreasing", new float[]{0.0f, 0.6f, 0.4f}, ys, 1e-3f));
+        assertThrows(IllegalArgumentException.class,
+            () -> PrismCurveFitter.fit("nan", new float[]{0.0f, Float.NaN, 1.0f}, ys, 1e-3f));
+
+        // 采样数量不足或超过数组长度
+        assertThrows(IllegalArgumentException.class,
+            () -> PrismCurveFitter.fit("single", new float[]{0.0f}, new float[]{1.0f}, 1e-3f));
+        assertThrows(IllegalArgumentException.class,
+            () -> PrismCurveFitter.fit("count", xs, ys, 1, 1e-3f, CurveClampMode.CLAMP));
+        assertThrows(IllegalArgumentException.class,
+            () -> PrismCurveFitter.fit("overflow", xs, new float[2], 3, 1e-3f, CurveClampMode.CLAMP));
+
+        assertThrows(IllegalArgumentException.class, () -> PrismCurveFitter.fit("null", null, ys, 1e-3f));
+        assertThrows(IllegalArgumentException.class, () -> PrismCurveFitter.fit("negative", xs, ys, -1e-3f));
+        assertThrows(IllegalArgumentException.class,
+            () -> PrismCurveFitter.simplify(PrismCurve.linear("linear", 0.0f, 1.0f), 1e-3f, 1));
+    }
+
+    // ========== 辅助方法 ==========
+
+    private static void assertFitsSamples(PrismCurve curve, float[] xs, float[] ys, int count, float tolerance) {
+        assertTrue(curve.getSegmentCount() < count / 4, "拟合结果有 " + curve.getSegmentCount() + " 段");
+        for (int i = 0; i < count; i++) {
+            float error = Math.abs(curve.evaluateExact(xs[i]) - ys[i]);
+            assertTrue(error <= tolerance, curve.getName() + " x=" + xs[i] + " 误差 " + error + " 超过 " + tolerance);
+        }
+    }
+}
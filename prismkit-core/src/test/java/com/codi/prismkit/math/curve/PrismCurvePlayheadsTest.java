@@ -0,0 +1,162 @@
+package com.codi.prismkit.math.curve;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 播放头环形缓冲区测试
+ * 写入超过容量时只保留最新的一圈，读取不会重复、不会读到被覆盖的旧条目，多个写入线程并发时每个条目都完整
+ */
+class PrismCurvePlayheadsTest {
+
+    private static final int CAPACITY = PrismCurvePlayheads.CAPACITY;
+
+    @Test
+    void drainReturnsEntriesInOrderOnce() {
+        PrismCurvePlayheads playheads = new PrismCurvePlayheads();
+        for (int i = 0; i < 100; i++) {
+            playheads.record(7, i);
+        }
+
+        List<float[]> read = drainAll(playheads);
+        assertEquals(100, read.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(7, (int) read.get(i)[0]);
+            assertEquals(i, read.get(i)[1], 0.0f);
+        }
+        // 已读取的条目不会再次返回
+        assertEquals(0, playheads.drain((curveVersion, x) -> { }));
+    }
+
+    @Test
+    void wraparoundKeepsOnlyTheNewestLap() {
+        PrismCurvePlayheads playheads = new PrismCurvePlayheads();
+        int written = CAPACITY * 2 + 300;
+        for (int i = 0; i < written; i++) {
+            playheads.record(1, i);
+        }
+
+        List<float[]> read = drainAll(playheads);
+        assertEquals(CAPACITY, read.size());
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(written - CAPACITY + i, read.get(i)[1], 0.0f);
+        }
+
+        // 读取位置跨过环形缓冲区边界后继续读取
+        for (int i = 0; i < 10; i++) {
+            playheads.record(2, -i);
+        }
+        read = drainAll(playheads);
+        assertEquals(10, read.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(2, (int) read.get(i)[0]);
+            assertEquals(-i, read.get(i)[1], 0.0f);
+        }
+    }
+
+    @Test
+    void overwrittenEntriesAreNotReportedAgain() {
+        PrismCurvePlayheads playheads = new PrismCurvePlayheads();
+        for (int i = 0; i < 50; i++) {
+            playheads.record(1, i);
+        }
+        assertEquals(50, drainAll(playheads).size());
+
+        // 读取之后又写入了超过一圈：只读到最新的一圈，先前已读取的槽位里不会混入旧条目
+        for (int i = 0; i < CAPACITY + 50; i++) {
+            playheads.record(2, i);
+        }
+        List<float[]> read = drainAll(playheads);
+        assertEquals(CAPACITY, read.size());
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(2, (int) read.get(i)[0]);
+            assertEquals(50 + i, read.get(i)[1], 0.0f);
+        }
+    }
+
+    @Test
+    void concurrentWritersNeverProduceTornOrStaleEntries() throws InterruptedException {
+        PrismCurvePlayheads playheads = new PrismCurvePlayheads();
+        int writers = 4;
+        int perWriter = 200_000;
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(writers);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int version = w + 1;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perWriter; i++) {
+                        playheads.record(version, i);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        // 每个写入线程的 x 按写入顺序递增：读到更小的值说明读到了上一圈的旧条目
+        float[] last = new float[writers + 1];
+        Arrays.fill(last, -1.0f);
+        AtomicBoolean invalid = new AtomicBoolean();
+        long[] total = new long[1];
+        PrismCurvePlayheads.Visitor visitor = (curveVersion, x) -> {
+            if (curveVersion < 1 || curveVersion > writers || x != Math.rint(x) || x < 0 || x >= perWriter
+                    || x < last[curveVersion]) {
+                invalid.set(true);
+                return;
+            }
+            last[curveVersion] = x;
+            total[0]++;
+        };
+
+        start.countDown();
+        while (done.getCount() > 0) {
+            playheads.drain(visitor);
+        }
+        playheads.drain(visitor);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertFalse(invalid.get());
+        assertTrue(total[0] >= CAPACITY, "读取的条目过少: " + total[0]);
+        assertTrue(total[0] <= (long) writers * perWriter);
+        // 写入全部结束后的最后一次读取包含最后写入的条目：至少一个线程的最后一个值被读到
+        boolean sawFinalEntry = false;
+        for (int w = 1; w <= writers; w++) {
+            sawFinalEntry |= last[w] == perWriter - 1;
+        }
+        assertTrue(sawFinalEntry);
+    }
+
+    @Test
+    void rejectsSampleIntervalThatIsNotPowerOfTwo() {
+        PrismCurvePlayheads playheads = new PrismCurvePlayheads();
+        assertThrows(IllegalArgumentException.class, () -> playheads.setSampleInterval(0));
+        assertThrows(IllegalArgumentException.class, () -> playheads.setSampleInterval(6));
+        playheads.setSampleInterval(16);
+        assertEquals(16, playheads.getSampleInterval());
+    }
+
+    private static List<float[]> drainAll(PrismCurvePlayheads playheads) {
+        List<float[]> read = new ArrayList<>();
+        playheads.drain((curveVersion, x) -> read.add(new float[]{curveVersion, x}));
+        return read;
+    }
+}
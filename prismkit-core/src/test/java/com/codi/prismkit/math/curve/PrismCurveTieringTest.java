@@ -0,0 +1,168 @@
+package com.codi.prismkit.math.curve;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 曲线自动烘焙分层测试
+ * 时间戳由测试给出，每次评估间隔一秒，求值次数即为频率（次/秒）
+ */
+class PrismCurveTieringTest {
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final int TABLE_SIZE = 16;
+    private static final long TABLE_BYTES = TableBakedCurve.estimateMemoryBytes(TABLE_SIZE);
+
+    @Test
+    void promotesAboveThresholdAndDemotesBelow() {
+        PrismCurveTiering tiering = newTiering(TABLE_BYTES * 8);
+        PrismCurve curve = PrismCurve.linear("curve", 0.0f, 1.0f);
+        List<PrismCurve> curves = List.of(curve);
+
+        // 第一次评估只记录计数
+        evaluate(curve, 1000);
+        tiering.update(curves, 0L);
+        assertNull(curve.getBakedCurve());
+
+        // 低于提升阈值
+        evaluate(curve, 50);
+        tiering.update(curves, SECOND);
+        assertEquals(50.0f, tiering.getRate(curve), 1.0e-3f);
+        assertNull(curve.getBakedCurve());
+
+        // 未到评估间隔时不评估，计数留到下一次评估
+        evaluate(curve, 100);
+        tiering.update(curves, SECOND + SECOND / 2);
+        assertNull(curve.getBakedCurve());
+
+        evaluate(curve, 50);
+        tiering.update(curves, 2 * SECOND);
+        assertEquals(150.0f, tiering.getRate(curve), 1.0e-3f);
+        assertNotNull(curve.getBakedCurve());
+        assertEquals(1, tiering.getPromotedCount());
+        assertEquals(TABLE_BYTES, tiering.getUsedBytes());
+
+        // 两个阈值之间保持不变
+        evaluate(curve, 50);
+        tiering.update(curves, 3 * SECOND);
+        assertNotNull(curve.getBakedCurve());
+
+        // 低于降级阈值时释放查找表
+        evaluate(curve, 5);
+        tiering.update(curves, 4 * SECOND);
+        assertNull(curve.getBakedCurve());
+        assertEquals(0, tiering.getPromotedCount());
+        assertEquals(0, tiering.getUsedBytes());
+    }
+
+    @Test
+    void memoryBudgetCapsPromotions() {
+        PrismCurveTiering tiering = newTiering(TABLE_BYTES * 2);
+        PrismCurve hot = PrismCurve.linear("hot", 0.0f, 1.0f);
+        PrismCurve warm = PrismCurve.linear("warm", 0.0f, 1.0f);
+        PrismCurve mild = PrismCurve.linear("mild", 0.0f, 1.0f);
+        List<PrismCurve> curves = List.of(hot, warm, mild);
+
+        tiering.update(curves, 0L);
+        evaluate(hot, 300);
+        evaluate(warm, 200);
+        evaluate(mild, 150);
+        tiering.update(curves, SECOND);
+
+        // 按频率从高到低提升，预算只够两张表
+        assertNotNull(hot.getBakedCurve());
+        assertNotNull(warm.getBakedCurve());
+        assertNull(mild.getBakedCurve());
+        assertEquals(TABLE_BYTES * 2, tiering.getUsedBytes());
+
+        // 预算被调小时从最冷的曲线开始降级
+        tiering.setPolicy(tiering.getPolicy().withMemoryBudget(TABLE_BYTES));
+        evaluate(hot, 300);
+        evaluate(warm, 200);
+        tiering.update(curves, 2 * SECOND);
+        assertNotNull(hot.getBakedCurve());
+        assertNull(warm.getBakedCurve());
+        assertEquals(1, tiering.getPromotedCount());
+        assertEquals(TABLE_BYTES, tiering.getUsedBytes());
+    }
+
+    @Test
+    void evictsPromotedCurveOnlyForMuchHotterCandidate() {
+        PrismCurveTiering tiering = newTiering(TABLE_BYTES);
+        PrismCurve incumbent = PrismCurve.linear("incumbent", 0.0f, 1.0f);
+        PrismCurve candidate = PrismCurve.linear("candidate", 0.0f, 1.0f);
+        List<PrismCurve> curves = List.of(incumbent, candidate);
+
+        tiering.update(curves, 0L);
+        evaluate(incumbent, 200);
+        tiering.update(curves, SECOND);
+        BakedCurve table = incumbent.getBakedCurve();
+        assertNotNull(table);
+
+        // 候选曲线不到两倍：不替换
+        evaluate(incumbent, 200);
+        evaluate(candidate, 400);
+        tiering.update(curves, 2 * SECOND);
+        assertSame(table, incumbent.getBakedCurve());
+        assertNull(candidate.getBakedCurve());
+
+        // 超过两倍：降级已提升的曲线，提升候选曲线
+        evaluate(incumbent, 200);
+        evaluate(candidate, 401);
+        tiering.update(curves, 3 * SECOND);
+        assertNull(incumbent.getBakedCurve());
+        assertNotNull(candidate.getBakedCurve());
+        assertEquals(1, tiering.getPromotedCount());
+        assertEquals(TABLE_BYTES, tiering.getUsedBytes());
+    }
+
+    @Test
+    void dropsReplacedAndRemovedCurves() {
+        BakedCurveCache cache = new BakedCurveCache(TABLE_BYTES * 16);
+        PrismCurveTiering tiering = new PrismCurveTiering(policy(TABLE_BYTES * 8), cache);
+        PrismCurve replaced = PrismCurve.linear("replaced", 0.0f, 1.0f);
+        PrismCurve removed = PrismCurve.linear("removed", 0.0f, 1.0f);
+
+        tiering.update(List.of(replaced, removed), 0L);
+        evaluate(replaced, 200);
+        evaluate(removed, 200);
+        tiering.update(List.of(replaced, removed), SECOND);
+        assertEquals(2, tiering.getPromotedCount());
+
+        // 外部安装的烘焙数据不再受管理：变冷也不会被降级
+        TableBakedCurve manual = TableBakedCurve.bake(replaced, 64);
+        replaced.setBakedCurve(manual);
+        evaluate(removed, 200);
+        tiering.update(List.of(replaced, removed), 2 * SECOND);
+        assertSame(manual, replaced.getBakedCurve());
+        assertEquals(1, tiering.getPromotedCount());
+        assertEquals(TABLE_BYTES, tiering.getUsedBytes());
+
+        // 从管理器移除的曲线：卸载查找表并释放缓存
+        tiering.update(List.of(replaced), 3 * SECOND);
+        assertNull(removed.getBakedCurve());
+        assertNull(cache.get(removed, BakedCurveCache.Kind.BAKED, 0));
+        assertSame(manual, replaced.getBakedCurve());
+        assertEquals(0, tiering.getPromotedCount());
+        assertEquals(0, tiering.getUsedBytes());
+    }
+
+    private static PrismCurveTiering newTiering(long budgetBytes) {
+        return new PrismCurveTiering(policy(budgetBytes), new BakedCurveCache(TABLE_BYTES * 16));
+    }
+
+    private static CurveTieringPolicy policy(long budgetBytes) {
+        return new CurveTieringPolicy(100.0f, 10.0f, TABLE_SIZE, budgetBytes, 1000);
+    }
+
+    private static void evaluate(PrismCurve curve, int count) {
+        float[] xs = new float[count];
+        curve.getValues(xs, new float[count], 0, count);
+    }
+}
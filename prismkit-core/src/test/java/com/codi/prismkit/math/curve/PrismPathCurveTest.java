@@ -0,0 +1,112 @@
+package com.codi.prismkit.math.curve;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 三维路径曲线测试
+ * 按弧长取点必须匀速，自适应采样的点数随弯曲程度变化且相邻采样的转角不超过上限
+ */
+class PrismPathCurveTest {
+
+    @Test
+    void straightPathHasExactLengthAndTwoRenderSamples() {
+        PrismPathCurve path = PrismPathCurve.catmullRom("straight", new float[]{0, 0, 0, 0, 10, 0, 0, 20, 0});
+        assertEquals(20.0f, path.getLength(), 1e-3f);
+
+        float[] distances = path.getRenderDistances();
+        assertEquals(2, distances.length);
+        assertEquals(0.0f, distances[0], 0.0f);
+        assertEquals(path.getLength(), distances[1], 0.0f);
+
+        float[] point = new float[3];
+        path.positionAtDistance(7.5f, point, 0);
+        assertEquals(0.0f, point[0], 1e-3f);
+        assertEquals(7.5f, point[1], 1e-2f);
+    }
+
+    @Test
+    void catmullRomPassesThroughPoints() {
+        float[] points = {0, 0, 0, 3, 4, 0, 6, 0, 2, 9, 5, 1};
+        PrismPathCurve path = PrismPathCurve.catmullRom("through", points);
+        assertEquals(3, path.getSegmentCount());
+
+        float[] point = new float[3];
+        for (int i = 0; i < 4; i++) {
+            path.evaluate(i, point, 0);
+            assertEquals(points[i * 3], point[0], 1e-5f);
+            assertEquals(points[i * 3 + 1], point[1], 1e-5f);
+            assertEquals(points[i * 3 + 2], point[2], 1e-5f);
+        }
+    }
+
+    @Test
+    void distanceLookupMatchesDenseArcLength() {
+        // 控制点分布很不均匀：按 t 均匀取点时间距差别很大
+        PrismPathCurve path = PrismPathCurve.bezier("uneven", new float[]{
+                0, 0, 0,
+                0.1f, 0.1f, 0,
+                1, 8, 0,
+                10, 10, 5
+        });
+        // 用密集采样的弦长累加作为参考弧长，检查查表得到的参数确实位于对应的弧长处
+        int dense = 200000;
+        float[] point = new float[3];
+        double[] reference = new double[dense + 1];
+        path.evaluate(0.0f, point, 0);
+        double px = point[0], py = point[1], pz = point[2];
+        for (int i = 1; i <= dense; i++) {
+            path.evaluate((float) i / dense, point, 0);
+            double dx = point[0] - px, dy = point[1] - py, dz = point[2] - pz;
+            reference[i] = reference[i - 1] + Math.sqrt(dx * dx + dy * dy + dz * dz);
+            px = point[0];
+            py = point[1];
+            pz = point[2];
+        }
+        assertEquals(reference[dense], path.getLength(), reference[dense] * 1e-3);
+
+        float length = path.getLength();
+        for (int i = 0; i <= 100; i++) {
+            float distance = length * i / 100;
+            float u = path.parameterAtDistance(distance);
+            double actual = reference[Math.min(dense, Math.round(u * dense))];
+            assertEquals(distance, actual, length * 2e-3);
+        }
+    }
+
+    @Test
+    void renderSamplesScaleWithCurvature() {
+        PrismPathCurve gentle = PrismPathCurve.catmullRom("gentle", new float[]{0, 0, 0, 5, 20, 0, 10, 40, 0});
+        PrismPathCurve tight = PrismPathCurve.catmullRom("tight", new float[]{
+                0, 0, 0, 4, 4, 0, 0, 8, 0, -4, 4, 0, 0, 0.5f, 0
+        });
+        assertTrue(tight.getRenderDistances().length > gentle.getRenderDistances().length);
+
+        float maxAngle = PrismPathCurve.DEFAULT_MAX_ANGLE;
+        float[] distances = tight.getRenderDistances();
+        float[] a = new float[3];
+        float[] b = new float[3];
+        for (int i = 1; i < distances.length; i++) {
+            assertTrue(distances[i] > distances[i - 1]);
+            tight.tangentAtDistance(distances[i - 1], a, 0);
+            tight.tangentAtDistance(distances[i], b, 0);
+            float cos = a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+            // 均匀距离表的一项之内也可能转过少量角度
+            assertTrue(Math.acos(Math.min(1.0f, cos)) <= maxAngle * 2.0f);
+        }
+    }
+
+    @Test
+    void rejectsInvalidControlPoints() {
+        assertThrows(IllegalArgumentException.class, () -> PrismPathCurve.catmullRom("one", new float[]{0, 0, 0}));
+        assertThrows(IllegalArgumentException.class, () ->
+                PrismPathCurve.bezier("five", new float[15]));
+        assertThrows(IllegalArgumentException.class, () ->
+                PrismPathCurve.bezier("ragged", new float[13]));
+        PrismPathCurve path = PrismPathCurve.catmullRom("ok", new float[]{0, 0, 0, 1, 0, 0});
+        assertThrows(IllegalArgumentException.class, () -> path.computeRenderDistances(0.0f));
+    }
+}
@@ -0,0 +1,120 @@
+package com.codi.prismkit.particle;
+
+import com.codi.prismkit.render.BeamGeometry;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 粒子池测试
+ * 到期交换删除后剩余粒子的字段必须保持一致，移动规则与原版 Particle.tick 相同，四边形正面朝向相机
+ */
+class PrismParticlePoolTest {
+
+    private static final float EPSILON = 1e-6f;
+
+    @Test
+    void expiredParticlesAreRemovedAndOthersKeepTheirFields() {
+        PrismParticlePool pool = new PrismParticlePool(1000);
+        for (int i = 0; i < 300; i++) {
+            // 粒子 i 的寿命为 1 + i % 3 tick，用 x 坐标和颜色标记编号
+            pool.spawn(i, 0.0, 0.0, 0.0f, 0.0f, 0.0f, 1 + i % 3, i * 0.01f, i, 0.0f, 0.0f, 1.0f);
+        }
+
+        assertEquals(100, pool.tick());
+        assertEquals(200, pool.size());
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < pool.size(); i++) {
+            int id = (int) pool.getX(i);
+            assertTrue(id % 3 != 0);
+            assertEquals(1 + id % 3, pool.getLifetime(i));
+            assertEquals(1, pool.getAge(i));
+            assertEquals(id * 0.01f, pool.getSize(i), EPSILON);
+            assertEquals(id, pool.getColor(i, 0), EPSILON);
+            ids.add(id);
+        }
+        assertEquals(200, ids.size());
+
+        assertEquals(100, pool.tick());
+        assertEquals(100, pool.tick());
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    void fullPoolDropsNewParticles() {
+        PrismParticlePool pool = new PrismParticlePool(4);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i, pool.spawn(0.0, 0.0, 0.0, 0.0f, 0.0f, 0.0f, 1, 0.1f, 1.0f, 1.0f, 1.0f, 1.0f));
+        }
+        assertEquals(-1, pool.spawn(0.0, 0.0, 0.0, 0.0f, 0.0f, 0.0f, 1, 0.1f, 1.0f, 1.0f, 1.0f, 1.0f));
+        assertEquals(-1, new PrismParticlePool(4).spawn(0.0, 0.0, 0.0, 0.0f, 0.0f, 0.0f, 0, 0.1f, 1, 1, 1, 1));
+
+        pool.tick();
+        assertEquals(0, pool.spawn(0.0, 0.0, 0.0, 0.0f, 0.0f, 0.0f, 1, 0.1f, 1.0f, 1.0f, 1.0f, 1.0f));
+    }
+
+    @Test
+    void movementMatchesVanillaOrder() {
+        PrismParticlePool pool = new PrismParticlePool(4).setGravity(0.04f).setDrag(0.8f);
+        pool.spawn(10.0, 64.0, -3.0, 0.5f, 0.0f, 0.0f, 20, 0.1f, 1.0f, 1.0f, 1.0f, 1.0f);
+
+        pool.tick();
+        assertEquals(10.5, pool.getX(0), EPSILON);
+        assertEquals(64.0 - 0.04, pool.getY(0), EPSILON);
+        assertEquals(0.4f, pool.getVelocityX(0), EPSILON);
+        assertEquals(-0.04f * 0.8f, pool.getVelocityY(0), EPSILON);
+
+        pool.tick();
+        assertEquals(10.9, pool.getX(0), EPSILON);
+    }
+
+    @Test
+    void behaviorsRunAsArrayPasses() {
+        PrismParticlePool pool = new PrismParticlePool(8).addBehavior(PrismParticlePool.FADE_OUT);
+        pool.spawn(0.0, 0.0, 0.0, 0.0f, 0.0f, 0.0f, 4, 0.1f, 1.0f, 1.0f, 1.0f, 1.0f);
+        pool.spawn(0.0, 0.0, 0.0, 0.0f, 0.0f, 0.0f, 10, 0.1f, 1.0f, 1.0f, 1.0f, 1.0f);
+
+        pool.tick();
+        for (int i = 0; i < pool.size(); i++) {
+            assertEquals(1.0f - 1.0f / pool.getLifetime(i), pool.getColor(i, 3), EPSILON);
+        }
+    }
+
+    @Test
+    void billboardsFaceCameraAndInterpolate() {
+        PrismParticlePool pool = new PrismParticlePool(4);
+        pool.spawn(100.0, 70.0, 195.0, 1.0f, 0.0f, 0.0f, 10, 0.5f, 0.2f, 0.4f, 0.6f, 0.8f);
+        pool.tick();
+
+        // 相机位于 (100, 70, 200)，沿 -z 方向看
+        float[] out = new float[PrismParticlePool.FLOATS_PER_PARTICLE];
+        int next = pool.writeBillboards(out, 0, 100.0, 70.0, 200.0,
+                1.0f, 0.0f, 0.0f, 0.0f, 1.0f, 0.0f, 0.5f);
+        assertEquals(out.length, next);
+
+        float centerX = 0.0f, centerZ = 0.0f;
+        for (int v = 0; v < 4; v++) {
+            centerX += out[v * BeamGeometry.VERTEX_STRIDE] / 4.0f;
+            centerZ += out[v * BeamGeometry.VERTEX_STRIDE + 2] / 4.0f;
+        }
+        assertEquals(0.5f, centerX, EPSILON);
+        assertEquals(-5.0f, centerZ, EPSILON);
+        assertEquals(0.8f, out[6], EPSILON);
+
+        int stride = BeamGeometry.VERTEX_STRIDE;
+        float ax = out[stride] - out[0], ay = out[stride + 1] - out[1];
+        float bx = out[2 * stride] - out[0], by = out[2 * stride + 1] - out[1];
+        // 法线 z 分量为正，指向位于 +z 方向的相机
+        assertTrue(ax * by - ay * bx > 0.0f);
+        assertEquals(1.0f, ax, EPSILON);
+
+        assertThrows(IllegalArgumentException.class, () ->
+                pool.writeBillboards(new float[4], 0, 0.0, 0.0, 0.0, 1, 0, 0, 0, 1, 0, 0.0f));
+        assertThrows(IllegalArgumentException.class, () -> new PrismParticlePool(0));
+    }
+}
@@ -0,0 +1,177 @@
+package com.codi.prismkit.particle;
+
+import com.codi.prismkit.emitter.PrismEmitter;
+import com.codi.prismkit.emitter.PrismEmitterLibrary;
+import com.codi.prismkit.math.curve.PrismCurve;
+import com.codi.prismkit.math.curve.PrismCurveLibrary;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 粒子更新调度器测试
+ * 并行更新的结果必须与单线程逐位相同，低于阈值时不使用线程池，分块必须恰好覆盖每个粒子一次
+ */
+class PrismParticleSchedulerTest {
+
+    @Test
+    void parallelUpdateMatchesSequential() {
+        PrismParticleScheduler sequential = new PrismParticleScheduler(4, Integer.MAX_VALUE, 256);
+        PrismParticleScheduler parallel = new PrismParticleScheduler(4, 0, 256);
+        try {
+            List<PrismParticleSimulation> expected = createScene();
+            List<PrismParticleSimulation> actual = createScene();
+            for (int tick = 0; tick < 30; tick++) {
+                sequential.tick(expected);
+                parallel.tick(actual);
+                assertFalse(sequential.wasLastTickParallel());
+                assertTrue(parallel.wasLastTickParallel());
+            }
+
+            for (int i = 0; i < expected.size(); i++) {
+                assertSamePool(poolOf(expected.get(i)), poolOf(actual.get(i)));
+            }
+        } finally {
+            sequential.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    void thresholdKeepsSmallUpdatesOnCallingThread() {
+        PrismParticleScheduler scheduler = new PrismParticleScheduler(4, 1000, 100);
+        try {
+            RecordingSimulation small = new RecordingSimulation(999);
+            scheduler.tick(List.of(small));
+            assertFalse(scheduler.wasLastTickParallel());
+            assertEquals(Thread.currentThread().getName(), small.lastThread);
+
+            RecordingSimulation large = new RecordingSimulation(1234);
+            scheduler.tick(List.of(large));
+            assertTrue(scheduler.wasLastTickParallel());
+            assertTrue(large.lastThread.startsWith("PrismKit-Particle-"), large.lastThread);
+            // 每个粒子恰好移动一次、后处理一次，且每块不超过分块大小
+            for (int i = 0; i < 1234; i++) {
+                assertEquals(1, large.advanced.get(i));
+                assertEquals(1, large.postProcessed.get(i));
+            }
+            assertTrue(large.largestChunk <= 100, "分块过大: " + large.largestChunk);
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new PrismParticleScheduler(0, 10, 10));
+        assertThrows(IllegalArgumentException.class, () -> new PrismParticleScheduler(1, 10, 0));
+        assertThrows(IllegalArgumentException.class, () -> new PrismParticleScheduler(1, -1, 10));
+    }
+
+    // ========== 辅助方法 ==========
+
+    /**
+     * 两个粒子池（一个带行为）和两个带生命周期模块的发射器
+     */
+    private static List<PrismParticleSimulation> createScene() {
+        List<PrismParticleSimulation> scene = new ArrayList<>();
+        for (int p = 0; p < 2; p++) {
+            PrismParticlePool pool = new PrismParticlePool(5000).setGravity(0.01f).setDrag(0.98f);
+            if (p == 1) {
+                pool.addBehavior(PrismParticlePool.FADE_OUT);
+            }
+            for (int i = 0; i < 3000; i++) {
+                pool.spawn(i * 0.1, p, -i * 0.1, 0.01f * (i % 7), 0.2f, -0.01f * (i % 5),
+                        5 + i % 40, 0.1f, 1.0f, 1.0f, 1.0f, 1.0f);
+            }
+            scene.add(pool);
+        }
+
+        PrismCurveLibrary curves = new PrismCurveLibrary();
+        curves.putCurve(PrismCurve.linear("fade", 1.0f, 0.0f));
+        curves.putCurve(PrismCurve.linear("grow", 0.5f, 2.0f));
+        PrismEmitterLibrary emitters = new PrismEmitterLibrary(curves);
+        emitters.loadEmitter("""
+            {"emitter_name": "fountain", "capacity": 8000, "duration": 30, "rate": 120,
+             "bursts": [{"time": 0, "count": 1500}], "lifetime": [10, 25],
+             "shape": {"type": "SPHERE", "radius": 1}, "speed": [0.05, 0.2],
+             "gravity": 0.02, "drag": 0.95,
+             "modules": {"alpha": "fade", "size": "grow", "speed": "fade",
+                         "color": {"curve": "fade", "end_color": [1, 0, 0]}}}
+            """);
+        scene.add(new PrismEmitter(emitters.getType("fountain"), 0, 64, 0, 1));
+        scene.add(new PrismEmitter(emitters.getType("fountain"), 8, 64, 8, 2));
+        return scene;
+    }
+
+    private static PrismParticlePool poolOf(PrismParticleSimulation simulation) {
+        return simulation instanceof PrismEmitter emitter ? emitter.getPool() : (PrismParticlePool) simulation;
+    }
+
+    private static void assertSamePool(PrismParticlePool expected, PrismParticlePool actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.getX(i), actual.getX(i), 0.0);
+            assertEquals(expected.getY(i), actual.getY(i), 0.0);
+            assertEquals(expected.getZ(i), actual.getZ(i), 0.0);
+            assertEquals(expected.getVelocityY(i), actual.getVelocityY(i), 0.0f);
+            assertEquals(expected.getAge(i), actual.getAge(i));
+            assertEquals(expected.getSize(i), actual.getSize(i), 0.0f);
+            for (int channel = 0; channel < 4; channel++) {
+                assertEquals(expected.getColor(i, channel), actual.getColor(i, channel), 0.0f);
+            }
+        }
+    }
+
+    /**
+     * 记录每个粒子被处理的次数和执行线程
+     */
+    private static final class RecordingSimulation implements PrismParticleSimulation {
+        private final int count;
+        private final AtomicIntegerArray advanced;
+        private final AtomicIntegerArray postProcessed;
+        private volatile String lastThread;
+        private volatile int largestChunk;
+
+        RecordingSimulation(int count) {
+            this.count = count;
+            this.advanced = new AtomicIntegerArray(count);
+            this.postProcessed = new AtomicIntegerArray(count);
+        }
+
+        @Override
+        public int beginTick() {
+            return count;
+        }
+
+        @Override
+        public void advance(int from, int to) {
+            record(advanced, from, to);
+        }
+
+        @Override
+        public int finishAdvance() {
+            return count;
+        }
+
+        @Override
+        public void postProcess(int from, int to) {
+            record(postProcessed, from, to);
+        }
+
+        private synchronized void record(AtomicIntegerArray counters, int from, int to) {
+            for (int i = from; i < to; i++) {
+                counters.incrementAndGet(i);
+            }
+            largestChunk = Math.max(largestChunk, to - from);
+            lastThread = Thread.currentThread().getName();
+        }
+    }
+}
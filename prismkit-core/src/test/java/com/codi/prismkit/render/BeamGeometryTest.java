@@ -0,0 +1,244 @@
+package com.codi.prismkit.render;
+
+import com.codi.prismkit.math.curve.PrismPathCurve;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 光束几何的正确性测试
+ * 顶点数量、渐变透明度、角点位置、相邻侧面共享边、批量写入的偏移，以及分段的朝向剔除和细节层次
+ */
+class BeamGeometryTest {
+
+    private static final float EPSILON = 1e-6f;
+
+    @Test
+    void writesSixteenVerticesWithGradientAlpha() {
+        float[] out = new float[BeamGeometry.FLOATS_PER_BEAM];
+        int next = BeamGeometry.writeBeam(out, 0, 1.0f, 2.0f, 3.0f, 0.5f, 0.0f, 10.0f,
+                1.0f, 0.2f, 0.3f, 0.8f);
+
+        assertEquals(BeamGeometry.FLOATS_PER_BEAM, next);
+        for (int v = 0; v < BeamGeometry.VERTICES_PER_BEAM; v++) {
+            int i = v * BeamGeometry.VERTEX_STRIDE;
+            boolean isBottom = (v & 3) < 2;
+            assertEquals(isBottom ? 2.0f : 12.0f, out[i + 1], EPSILON);
+            assertEquals(isBottom ? 0.8f : 0.0f, out[i + 6], EPSILON);
+            assertEquals(1.0f, out[i + 3], EPSILON);
+            assertEquals(0.2f, out[i + 4], EPSILON);
+            assertEquals(0.3f, out[i + 5], EPSILON);
+
+            // 所有顶点都在以中心为原点、半宽为 0.5 的正方形边框上
+            assertEquals(0.5f, Math.abs(out[i] - 1.0f), EPSILON);
+            assertEquals(0.5f, Math.abs(out[i + 2] - 3.0f), EPSILON);
+        }
+    }
+
+    @Test
+    void adjacentSidesShareEdges() {
+        float[] out = new float[BeamGeometry.FLOATS_PER_BEAM];
+        BeamGeometry.writeBeam(out, 0, 0.0f, 0.0f, 0.0f, 1.0f, -1.0f, 4.0f, 1.0f, 1.0f, 1.0f, 1.0f);
+
+        for (int side = 0; side < BeamGeometry.SIDES; side++) {
+            int nextSide = (side + 1) % BeamGeometry.SIDES;
+            // 本侧面的“下k+1”与下一个侧面的“下k”是同一个角点
+            int end = (side * 4 + 1) * BeamGeometry.VERTEX_STRIDE;
+            int start = (nextSide * 4) * BeamGeometry.VERTEX_STRIDE;
+            assertEquals(out[end], out[start], EPSILON);
+            assertEquals(out[end + 1], out[start + 1], EPSILON);
+            assertEquals(out[end + 2], out[start + 2], EPSILON);
+
+            // 每个侧面的两个底部角点不同（侧面不退化）
+            int first = side * 4 * BeamGeometry.VERTEX_STRIDE;
+            float dx = out[end] - out[first];
+            float dz = out[end + 2] - out[first + 2];
+            assertEquals(2.0f, (float) Math.sqrt(dx * dx + dz * dz), EPSILON);
+        }
+    }
+
+    @Test
+    void sidesFaceOutward() {
+        float[] out = new float[BeamGeometry.FLOATS_PER_BEAM];
+        BeamGeometry.writeBeam(out, 0, 0.0f, 0.0f, 0.0f, 1.0f, 0.0f, 1.0f, 1.0f, 1.0f, 1.0f, 1.0f);
+
+        // 所有侧面的绕序一致：顶点 0->1 的边与 0->3 的边的叉积方向都指向同一侧（相对中心）
+        float firstSign = 0.0f;
+        for (int side = 0; side < BeamGeometry.SIDES; side++) {
+            int v0 = side * 4 * BeamGeometry.VERTEX_STRIDE;
+            int v1 = v0 + BeamGeometry.VERTEX_STRIDE;
+            int v3 = v0 + 3 * BeamGeometry.VERTEX_STRIDE;
+            float ax = out[v1] - out[v0];
+            float az = out[v1 + 2] - out[v0 + 2];
+            float by = out[v3 + 1] - out[v0 + 1];
+            // 法线 = a × b，a 在水平面内、b 竖直向上
+            float nx = -az * by;
+            float nz = ax * by;
+            float centerX = (out[v0] + out[v1]) * 0.5f;
+            float centerZ = (out[v0 + 2] + out[v1 + 2]) * 0.5f;
+            float sign = Math.signum(nx * centerX + nz * centerZ);
+            assertTrue(sign != 0.0f);
+            if (side == 0) {
+                firstSign = sign;
+            } else {
+                assertEquals(firstSign, sign, EPSILON);
+            }
+        }
+    }
+
+    @Test
+    void batchesBeamsAtOffsets() {
+        float[] out = new float[BeamGeometry.FLOATS_PER_BEAM * 3];
+        int offset = 0;
+        for (int beam = 0; beam < 3; beam++) {
+            offset = BeamGeometry.writeBeam(out, offset, beam * 10.0f, 0.0f, 0.0f, 0.5f, 0.0f, 1.0f,
+                    1.0f, 1.0f, 1.0f, 1.0f);
+        }
+        assertEquals(out.length, offset);
+
+        for (int beam = 0; beam < 3; beam++) {
+            int i = beam * BeamGeometry.FLOATS_PER_BEAM;
+            // 每根光束的第一个顶点是 (+x,+z) 角点
+            assertEquals(beam * 10.0f + 0.5f, out[i], EPSILON);
+            assertEquals(0.5f, out[i + 2], EPSILON);
+        }
+    }
+
+    @Test
+    void segmentsEmitOnlyCameraFacingSides() {
+        float[] out = new float[BeamGeometry.MAX_FLOATS_PER_SEGMENT];
+
+        // 相机正对 -x 侧面（光束在相机的 +x 方向）：只有一个侧面
+        int next = BeamGeometry.writeSegment(out, 0, BeamGeometry.LOD_SIDES, 5.0f, 0.0f, 0.5f, 0.0f, 1.0f,
+                1.0f, 1.0f, 1.0f, 1.0f, 0.5f);
+        assertEquals(4 * BeamGeometry.VERTEX_STRIDE, next);
+        for (int v = 0; v < 4; v++) {
+            assertEquals(4.5f, out[v * BeamGeometry.VERTEX_STRIDE], EPSILON);
+        }
+
+        // 相机在对角方向：两个侧面
+        next = BeamGeometry.writeSegment(out, 0, BeamGeometry.LOD_SIDES, 5.0f, 5.0f, 0.5f, 0.0f, 1.0f,
+                1.0f, 1.0f, 1.0f, 1.0f, 0.5f);
+        assertEquals(8 * BeamGeometry.VERTEX_STRIDE, next);
+
+        // 相机在光束内部：所有侧面都背对相机
+        next = BeamGeometry.writeSegment(out, 0, BeamGeometry.LOD_SIDES, 0.1f, -0.2f, 0.5f, 0.0f, 1.0f,
+                1.0f, 1.0f, 1.0f, 1.0f, 0.5f);
+        assertEquals(0, next);
+    }
+
+    @Test
+    void visibleSidesMatchFullBeamSides() {
+        float[] full = new float[BeamGeometry.FLOATS_PER_BEAM];
+        float[] segment = new float[BeamGeometry.MAX_FLOATS_PER_SEGMENT];
+        float x = -3.0f;
+        float z = 7.0f;
+        BeamGeometry.writeBeam(full, 0, x, 0.0f, z, 0.5f, 0.0f, 10.0f, 1.0f, 1.0f, 1.0f, 1.0f);
+        int next = BeamGeometry.writeSegment(segment, 0, BeamGeometry.LOD_SIDES, x, z, 0.5f, 0.0f, 10.0f,
+                1.0f, 1.0f, 1.0f, 1.0f, 0.0f);
+
+        // 输出的每个侧面都能在完整光束中找到完全相同的四个顶点
+        int quadFloats = 4 * BeamGeometry.VERTEX_STRIDE;
+        for (int quad = 0; quad < next / quadFloats; quad++) {
+            boolean found = false;
+            for (int side = 0; side < BeamGeometry.SIDES && !found; side++) {
+                found = true;
+                for (int k = 0; k < quadFloats; k++) {
+                    if (Math.abs(full[side * quadFloats + k] - segment[quad * quadFloats + k]) > EPSILON) {
+                        found = false;
+                        break;
+                    }
+                }
+            }
+            assertTrue(found);
+        }
+    }
+
+    @Test
+    void billboardFacesCamera() {
+        float[] out = new float[BeamGeometry.MAX_FLOATS_PER_SEGMENT];
+        float x = 60.0f;
+        float z = 80.0f;
+        int next = BeamGeometry.writeSegment(out, 0, BeamGeometry.LOD_BILLBOARD, x, z, 0.5f, 0.0f, 16.0f,
+                1.0f, 1.0f, 1.0f, 0.8f, 0.4f);
+        assertEquals(4 * BeamGeometry.VERTEX_STRIDE, next);
+
+        int v1 = BeamGeometry.VERTEX_STRIDE;
+        int v3 = 3 * BeamGeometry.VERTEX_STRIDE;
+        float ax = out[v1] - out[0];
+        float az = out[v1 + 2] - out[2];
+        float by = out[v3 + 1] - out[1];
+        // 四边形宽度为 2 * halfWidth，且垂直于视线方向
+        assertEquals(1.0f, (float) Math.sqrt(ax * ax + az * az), 1e-4f);
+        assertEquals(0.0f, (ax * x + az * z) / (float) Math.sqrt(x * x + z * z), 1e-4f);
+        // 正面法线（逆时针绕序）指向相机
+        float nx = -az * by;
+        float nz = ax * by;
+        assertTrue(nx * -x + nz * -z > 0.0f);
+        assertEquals(0.8f, out[6], EPSILON);
+        assertEquals(0.4f, out[v3 + 6], EPSILON);
+    }
+
+    @Test
+    void lodAndSegmentSelection() {
+        assertEquals(BeamGeometry.LOD_SIDES, BeamGeometry.selectLod(10.0f * 10.0f));
+        assertEquals(BeamGeometry.LOD_BILLBOARD, BeamGeometry.selectLod(100.0f * 100.0f));
+
+        assertEquals(0.0f, BeamGeometry.distanceSqr(0.2f, 0.0f, 0.5f, -5.0f, 5.0f), EPSILON);
+        assertEquals(9.0f + 16.0f, BeamGeometry.distanceSqr(3.5f, 0.0f, 0.5f, 4.0f, 20.0f), EPSILON);
+        assertEquals(4.0f, BeamGeometry.distanceSqr(0.0f, 0.0f, 0.5f, -10.0f, -2.0f), EPSILON);
+
+        assertEquals(1, BeamGeometry.segmentCount(0.0f, 0.0f));
+        assertEquals(1, BeamGeometry.segmentCount(0.0f, 16.0f));
+        assertEquals(4, BeamGeometry.segmentCount(0.0f, 50.0f));
+    }
+
+    @Test
+    void pathBeamFacesCameraWithUniformGradient() {
+        PrismPathCurve path = PrismPathCurve.catmullRom("arc", new float[]{0, 0, 0, 3, 6, 0, 8, 9, 0, 14, 10, 0});
+        float[] out = new float[BeamGeometry.pathFloats(path) + 3];
+        int next = BeamGeometry.writePathBeam(out, 3, path, 2.0f, -5.0f, 20.0f, 0.7f, 0.25f, null,
+                1.0f, 0.5f, 0.0f, 0.9f);
+        assertEquals(out.length, next);
+
+        int quads = (next - 3) / (4 * BeamGeometry.VERTEX_STRIDE);
+        assertEquals(path.getRenderDistances().length - 1, quads);
+        for (int quad = 0; quad < quads; quad++) {
+            int v0 = 3 + quad * 4 * BeamGeometry.VERTEX_STRIDE;
+            int v1 = v0 + BeamGeometry.VERTEX_STRIDE;
+            int v3 = v0 + 3 * BeamGeometry.VERTEX_STRIDE;
+
+            // 起点一侧的宽度为 2 * halfWidth
+            float wx = out[v1] - out[v0];
+            float wy = out[v1 + 1] - out[v0 + 1];
+            float wz = out[v1 + 2] - out[v0 + 2];
+            assertEquals(0.5f, (float) Math.sqrt(wx * wx + wy * wy + wz * wz), 1e-4f);
+
+            // 正面法线指向相机（原点）
+            float ax = out[v3] - out[v0];
+            float ay = out[v3 + 1] - out[v0 + 1];
+            float az = out[v3 + 2] - out[v0 + 2];
+            float nx = wy * az - wz * ay;
+            float ny = wz * ax - wx * az;
+            float nz = wx * ay - wy * ax;
+            assertTrue(nx * -out[v0] + ny * -out[v0 + 1] + nz * -out[v0 + 2] > 0.0f);
+        }
+        assertEquals(0.9f, out[3 + 6], EPSILON);
+        assertEquals(0.0f, out[next - 1], 1e-5f);
+    }
+
+    @Test
+    void rejectsInsufficientCapacity() {
+        float[] out = new float[BeamGeometry.FLOATS_PER_BEAM + 3];
+        assertThrows(IllegalArgumentException.class, () ->
+                BeamGeometry.writeBeam(out, 4, 0.0f, 0.0f, 0.0f, 1.0f, 0.0f, 1.0f, 1.0f, 1.0f, 1.0f, 1.0f));
+        assertThrows(IllegalArgumentException.class, () ->
+                BeamGeometry.writeBeam(out, -1, 0.0f, 0.0f, 0.0f, 1.0f, 0.0f, 1.0f, 1.0f, 1.0f, 1.0f, 1.0f));
+        float[] small = new float[BeamGeometry.MAX_FLOATS_PER_SEGMENT - 1];
+        assertThrows(IllegalArgumentException.class, () ->
+            BeamGeometry.writeSegment(small, 0, BeamGeometry.LOD_SIDES, 5.0f, 0.0f, 0.5f, 0.0f, 1.0f,
+                    1.0f, 1.0f, 1.0f, 1.0f, 0.0f));
+    }
+}
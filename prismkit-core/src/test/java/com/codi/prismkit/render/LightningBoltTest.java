@@ -0,0 +1,172 @@
+package com.codi.prismkit.render;
+
+import com.codi.prismkit.math.curve.PrismCurve;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 闪电几何与缓存测试
+ * 形状只由种子和细节层次决定，低细节主干是高细节主干的子集，缓存只在跨过更新间隔时重新生成
+ */
+class LightningBoltTest {
+
+    private static final PrismLightningStyle STYLE = new PrismLightningStyle(0.15f, 0.55f, null, 3, 2);
+
+    @Test
+    void shapeIsDeterminedBySeedAndEndpointsAreFixed() {
+        LightningBolt a = new LightningBolt(STYLE, 0);
+        LightningBolt b = new LightningBolt(STYLE, 0);
+        a.generate(42);
+        b.generate(42);
+
+        assertEquals(4, a.getStrandCount());
+        int points = a.getStrandEnd(a.getStrandCount() - 1);
+        for (int i = 0; i < points; i++) {
+            for (int axis = 0; axis < 3; axis++) {
+                assertEquals(a.getPoint(i, axis), b.getPoint(i, axis), 0.0f);
+            }
+        }
+
+        int last = LightningBolt.pointCount(0) - 1;
+        assertEquals(0.0f, a.getPoint(0, 0), 0.0f);
+        assertEquals(0.0f, a.getPoint(0, 1), 0.0f);
+        assertEquals(1.0f, a.getPoint(last, 0), 0.0f);
+        assertEquals(0.0f, a.getPoint(last, 2), 0.0f);
+
+        b.generate(43);
+        boolean differs = false;
+        for (int i = 0; i <= last; i++) {
+            differs |= a.getPoint(i, 1) != b.getPoint(i, 1);
+        }
+        assertTrue(differs);
+    }
+
+    @Test
+    void coarserLodMainStrandIsSubsetOfFinerLod() {
+        LightningBolt fine = new LightningBolt(STYLE, 0);
+        fine.generate(7);
+        for (int lod = 1; lod < LightningBolt.LOD_COUNT; lod++) {
+            LightningBolt coarse = new LightningBolt(STYLE, lod);
+            coarse.generate(7);
+            int stride = 1 << lod;
+            for (int i = 0; i < LightningBolt.pointCount(lod); i++) {
+                for (int axis = 0; axis < 3; axis++) {
+                    assertEquals(fine.getPoint(i * stride, axis), coarse.getPoint(i, axis), 1e-6f);
+                }
+            }
+        }
+    }
+
+    @Test
+    void jitterCurveScalesDisplacement() {
+        PrismLightningStyle flat = new PrismLightningStyle(0.3f, 0.5f, PrismCurve.constant("flat", 0.0f), 0, 1);
+        LightningBolt bolt = new LightningBolt(flat, 0);
+        bolt.generate(99);
+        for (int i = 0; i < LightningBolt.pointCount(0); i++) {
+            assertEquals(0.0f, bolt.getPoint(i, 1), 0.0f);
+            assertEquals(0.0f, bolt.getPoint(i, 2), 0.0f);
+            assertEquals(i / 64.0f, bolt.getPoint(i, 0), 1e-6f);
+        }
+        assertEquals(0.0f, bolt.getBoundsRadius(), 0.0f);
+    }
+
+    @Test
+    void writtenStripsFaceCameraAndStayWithinBounds() {
+        LightningBolt bolt = new LightningBolt(STYLE, 1);
+        bolt.generate(1234);
+
+        float[] out = new float[bolt.floatCount()];
+        float sx = 4.0f, sy = 20.0f, sz = 12.0f;
+        float ex = 6.0f, ey = 0.0f, ez = 10.0f;
+        int next = bolt.write(out, 0, sx, sy, sz, ex, ey, ez, 0.1f, 0.6f, 0.7f, 1.0f, 1.0f);
+        assertEquals(out.length, next);
+
+        float length = (float) Math.sqrt(4.0 + 400.0 + 4.0);
+        float limit = bolt.getBoundsRadius() * length + 0.1f + 1e-3f;
+        int quadFloats = 4 * BeamGeometry.VERTEX_STRIDE;
+        for (int q = 0; q < next; q += quadFloats) {
+            // 四边形按 (0, 1, 2) 和 (2, 3, 0) 两个三角形光栅化，两个都必须正对相机
+            assertTrue(facing(out, q, 0, 1, 2) >= -1e-4f);
+            assertTrue(facing(out, q, 2, 3, 0) >= -1e-4f);
+
+            for (int v = q; v < q + quadFloats; v += BeamGeometry.VERTEX_STRIDE) {
+                assertTrue(distanceToSegment(out[v], out[v + 1], out[v + 2], sx, sy, sz, ex, ey, ez) <= limit);
+            }
+        }
+        // 分支比主干暗
+        assertEquals(1.0f, out[6], 0.0f);
+        assertEquals(LightningBolt.BRANCH_INTENSITY, out[next - 1], 1e-6f);
+    }
+
+    @Test
+    void cacheReusesGeometryWithinUpdateInterval() {
+        LightningBoltCache cache = new LightningBoltCache(new PrismLightningStyle(0.1f, 0.5f, null, 2, 4));
+        LightningBolt bolt = cache.get(5, 0, 100L);
+        assertEquals(1, cache.getGenerationCount());
+
+        // 同一个间隔内（最多 4 个 tick）最多再生成一次
+        float before = bolt.getPoint(32, 1);
+        for (long tick = 100L; tick < 104L; tick++) {
+            assertSame(bolt, cache.get(5, 0, tick));
+        }
+        assertTrue(cache.getGenerationCount() <= 2);
+
+        long generated = cache.getGenerationCount();
+        cache.get(5, 0, 104L);
+        cache.get(5, 0, 105L);
+        cache.get(5, 0, 106L);
+        cache.get(5, 0, 107L);
+        assertEquals(generated + 1, cache.getGenerationCount());
+        assertNotEquals(before, bolt.getPoint(32, 1));
+
+        cache.get(5, 1, 107L);
+        cache.get(6, 0, 107L);
+        assertEquals(3, cache.size());
+        assertEquals(0, cache.evictUnused(107L + LightningBoltCache.EVICT_TICKS - 1));
+        assertEquals(3, cache.evictUnused(107L + LightningBoltCache.EVICT_TICKS));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void lodSelectionAndArgumentValidation() {
+        assertEquals(0, LightningBolt.selectLod(10.0 * 10.0));
+        assertEquals(1, LightningBolt.selectLod(40.0 * 40.0));
+        assertEquals(2, LightningBolt.selectLod(100.0 * 100.0));
+
+        assertThrows(IllegalArgumentException.class, () -> new LightningBolt(STYLE, LightningBolt.LOD_COUNT));
+        assertThrows(IllegalArgumentException.class, () -> new PrismLightningStyle(0.1f, 0.0f, null, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new PrismLightningStyle(0.1f, 0.5f, null, -1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new PrismLightningStyle(0.1f, 0.5f, null, 0, 0));
+
+        LightningBolt bolt = new LightningBolt(STYLE, 2);
+        bolt.generate(1);
+        assertThrows(IllegalArgumentException.class, () ->
+                bolt.write(new float[8], 0, 0.0f, 0.0f, 0.0f, 0.0f, 1.0f, 0.0f, 0.1f, 1.0f, 1.0f, 1.0f, 1.0f));
+    }
+
+    private static float facing(float[] out, int quad, int a, int b, int c) {
+        int pa = quad + a * BeamGeometry.VERTEX_STRIDE;
+        int pb = quad + b * BeamGeometry.VERTEX_STRIDE;
+        int pc = quad + c * BeamGeometry.VERTEX_STRIDE;
+        float bx = out[pb] - out[pa], by = out[pb + 1] - out[pa + 1], bz = out[pb + 2] - out[pa + 2];
+        float cx = out[pc] - out[pa], cy = out[pc + 1] - out[pa + 1], cz = out[pc + 2] - out[pa + 2];
+        float nx = by * cz - bz * cy;
+        float ny = bz * cx - bx * cz;
+        float nz = bx * cy - by * cx;
+        return nx * -out[pa] + ny * -out[pa + 1] + nz * -out[pa + 2];
+    }
+
+    private static float distanceToSegment(float px, float py, float pz,
+                                           float ax, float ay, float az, float bx, float by, float bz) {
+        float dx = bx - ax, dy = by - ay, dz = bz - az;
+        float t = ((px - ax) * dx + (py - ay) * dy + (pz - az) * dz) / (dx * dx + dy * dy + dz * dz);
+        t = Math.max(0.0f, Math.min(1.0f, t));
+        float cx = ax + dx * t - px, cy = ay + dy * t - py, cz = az + dz * t - pz;
+        return (float) Math.sqrt(cx * cx + cy * cy + cz * cz);
+    }
+}
@@ -0,0 +1,135 @@
+package com.codi.prismkit.render;
+
+import com.codi.prismkit.math.curve.PrismCurve;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 拖尾测试
+ * 环形缓冲区满后丢弃最旧的点，宽度和透明度按点的年龄取自样式，带状面朝向相机
+ */
+class PrismTrailTest {
+
+    private static final float EPSILON = 1e-5f;
+
+    @Test
+    void ringBufferKeepsNewestPoints() {
+        PrismTrail trail = new PrismTrail(new PrismTrailStyle(4, 0.1f, null, null));
+        for (int i = 0; i < 10; i++) {
+            trail.push(i, 0.0, 0.0);
+        }
+        assertEquals(4, trail.size());
+        for (int k = 0; k < 4; k++) {
+            assertEquals(9 - k, trail.getPosition(k, 0), 0.0);
+        }
+
+        trail.clear();
+        assertEquals(0, trail.size());
+        assertEquals(0, trail.write(new float[0], 0, 1.0f, 0.0, 0.0, 0.0, 1.0f, 1.0f, 1.0f, 1.0f));
+    }
+
+    @Test
+    void styleEvaluatesCurvesOncePerPoint() {
+        PrismCurve width = PrismCurve.linear("trail_width", 1.0f, 0.5f);
+        PrismCurve alpha = PrismCurve.constant("trail_alpha", 0.25f);
+        PrismTrailStyle style = new PrismTrailStyle(5, 0.2f, width, alpha);
+
+        assertEquals(0.2f, style.getWidth(0), EPSILON);
+        assertEquals(0.1f, style.getWidth(4), EPSILON);
+        assertEquals(0.15f, style.getWidth(2), EPSILON);
+        assertEquals(0.25f, style.getAlpha(3), EPSILON);
+        assertEquals(0.2f, style.getMaxWidth(), EPSILON);
+
+        PrismTrailStyle linearFade = new PrismTrailStyle(3, 0.2f, null, null);
+        assertEquals(1.0f, linearFade.getAlpha(0), EPSILON);
+        assertEquals(0.0f, linearFade.getAlpha(2), EPSILON);
+    }
+
+    @Test
+    void stripFacesCameraWithPerPointWidthAndAlpha() {
+        PrismTrailStyle style = new PrismTrailStyle(8, 0.5f, PrismCurve.linear("w", 1.0f, 0.0f), null);
+        PrismTrail trail = new PrismTrail(style);
+        // 在相机前方画一段弧
+        for (int i = 0; i < 12; i++) {
+            double angle = i * 0.3;
+            trail.push(100.0 + Math.cos(angle) * 5.0, 64.0 + i * 0.2, 200.0 + Math.sin(angle) * 5.0);
+        }
+
+        float[] out = new float[style.maxFloats()];
+        double cameraX = 90.0, cameraY = 70.0, cameraZ = 190.0;
+        int next = trail.write(out, 0, 1.0f, cameraX, cameraY, cameraZ, 1.0f, 1.0f, 1.0f, 0.8f);
+        assertEquals(style.maxFloats(), next);
+
+        int quadFloats = 4 * BeamGeometry.VERTEX_STRIDE;
+        for (int quad = 0; quad < 7; quad++) {
+            int v0 = quad * quadFloats;
+            int v1 = v0 + BeamGeometry.VERTEX_STRIDE;
+            int v3 = v0 + 3 * BeamGeometry.VERTEX_STRIDE;
+            // 第 quad 个四边形从第 (7 - quad) 个点连到第 (6 - quad) 个点
+            int k = 7 - quad;
+            float wx = out[v1] - out[v0];
+            float wy = out[v1 + 1] - out[v0 + 1];
+            float wz = out[v1 + 2] - out[v0 + 2];
+            assertEquals(2.0f * style.getWidth(k), (float) Math.sqrt(wx * wx + wy * wy + wz * wz), 1e-4f);
+            assertEquals(0.8f * style.getAlpha(k), out[v0 + 6], EPSILON);
+
+            float ax = out[v3] - out[v0];
+            float ay = out[v3 + 1] - out[v0 + 1];
+            float az = out[v3 + 2] - out[v0 + 2];
+            float nx = wy * az - wz * ay;
+            float ny = wz * ax - wx * az;
+            float nz = wx * ay - wy * ax;
+            assertTrue(nx * -out[v0] + ny * -out[v0 + 1] + nz * -out[v0 + 2] >= 0.0f);
+        }
+        // 头部（最后写入的两个顶点）的透明度最大
+        assertEquals(0.8f, out[next - 1], EPSILON);
+    }
+
+    @Test
+    void headFollowsInterpolatedPosition() {
+        PrismTrail trail = new PrismTrail(new PrismTrailStyle(4, 0.1f, null, null));
+        trail.push(0.0, 0.0, 0.0);
+        trail.push(1.0, 0.0, 0.0);
+        trail.push(2.0, 0.0, 0.0);
+
+        // 粒子在上一 tick 的点 (1, 0, 0) 和当前点 (2, 0, 0) 之间绘制，拖尾头部必须落在同一位置
+        float[] out = new float[trail.getStyle().maxFloats()];
+        for (float partialTicks : new float[]{0.0f, 0.25f, 1.0f}) {
+            int next = trail.write(out, 0, partialTicks, 0.0, 5.0, 0.0, 1.0f, 1.0f, 1.0f, 1.0f);
+            int v2 = next - 2 * BeamGeometry.VERTEX_STRIDE;
+            int v3 = next - BeamGeometry.VERTEX_STRIDE;
+            assertEquals(1.0f + partialTicks, (out[v2] + out[v3]) * 0.5f, EPSILON);
+            assertEquals(-5.0f, (out[v2 + 1] + out[v3 + 1]) * 0.5f, EPSILON);
+            // 更旧的点不受插值影响
+            assertEquals(0.0f, (out[0] + out[BeamGeometry.VERTEX_STRIDE]) * 0.5f, EPSILON);
+        }
+    }
+
+    @Test
+    void stationaryPointsKeepTheirDirection() {
+        PrismTrail trail = new PrismTrail(new PrismTrailStyle(6, 0.1f, null, null));
+        trail.push(0.0, 0.0, 0.0);
+        trail.push(1.0, 0.0, 0.0);
+        trail.push(1.0, 0.0, 0.0);
+        trail.push(1.0, 0.0, 0.0);
+
+        float[] out = new float[trail.getStyle().maxFloats()];
+        int next = trail.write(out, 0, 1.0f, 0.5, 5.0, 0.0, 1.0f, 1.0f, 1.0f, 1.0f);
+        for (int i = 0; i < next; i++) {
+            assertTrue(Float.isFinite(out[i]));
+        }
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new PrismTrailStyle(1, 0.1f, null, null));
+        PrismTrail trail = new PrismTrail(new PrismTrailStyle(4, 0.1f, null, null));
+        trail.push(0.0, 0.0, 0.0);
+        trail.push(0.0, 1.0, 0.0);
+        assertThrows(IllegalArgumentException.class, () ->
+                trail.write(new float[10], 0, 1.0f, 5.0, 0.0, 0.0, 1.0f, 1.0f, 1.0f, 1.0f));
+    }
+}
@@ -0,0 +1,80 @@
+package com.codi.prismkit.vfx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 特效实例池的正确性测试
+ * 到期移除后剩余实例的字段必须保持一致，容量达到上限后丢弃新实例
+ */
+class VfxInstancePoolTest {
+
+    @Test
+    void expiredInstancesAreRemovedAndOthersKeepTheirFields() {
+        VfxInstancePool pool = new VfxInstancePool(1000);
+        for (int i = 0; i < 200; i++) {
+            // 偶数实例持续 10 tick，奇数实例持续 100 tick
+            int duration = (i & 1) == 0 ? 10 : 100;
+            pool.add(i, i, i * 2.0, i * 3.0, i * 31L, 0L, duration);
+        }
+        assertEquals(200, pool.size());
+
+        assertEquals(0, pool.removeExpired(9L));
+        assertEquals(100, pool.removeExpired(10L));
+        assertEquals(100, pool.size());
+
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < pool.size(); i++) {
+            int id = pool.getEffectId(i);
+            assertEquals(1, id & 1);
+            assertEquals(id, pool.getX(i), 0.0);
+            assertEquals(id * 2.0, pool.getY(i), 0.0);
+            assertEquals(id * 3.0, pool.getZ(i), 0.0);
+            assertEquals(id * 31L, pool.getSeed(i));
+            assertEquals(100, pool.getDuration(i));
+            ids.add(id);
+        }
+        assertEquals(100, ids.size());
+
+        assertEquals(100, pool.removeExpired(100L));
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    void fullPoolDropsNewInstances() {
+        VfxInstancePool pool = new VfxInstancePool(100);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(pool.add(0, 0.0, 0.0, 0.0, 0L, 0L, 5) >= 0);
+        }
+        assertEquals(-1, pool.add(0, 0.0, 0.0, 0.0, 0L, 0L, 5));
+        assertEquals(100, pool.size());
+
+        pool.removeExpired(5L);
+        assertEquals(0, pool.add(0, 0.0, 0.0, 0.0, 0L, 5L, 5));
+    }
+
+    @Test
+    void normalizedAgeInterpolatesAndClamps() {
+        VfxInstancePool pool = new VfxInstancePool(4);
+        int index = pool.add(0, 0.0, 0.0, 0.0, 0L, 100L, 40);
+
+        assertEquals(0.0f, pool.getNormalizedAge(index, 100L, 0.0f), 1e-6f);
+        assertEquals(0.5f, pool.getNormalizedAge(index, 119L, 1.0f), 1e-6f);
+        assertEquals(1.0f, pool.getNormalizedAge(index, 200L, 0.5f), 1e-6f);
+        // 数据包早于客户端时间到达（时钟偏差）时不会出现负进度
+        assertEquals(0.0f, pool.getNormalizedAge(index, 98L, 0.0f), 1e-6f);
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new VfxInstancePool(0));
+        VfxInstancePool pool = new VfxInstancePool(4);
+        assertEquals(-1, pool.add(0, 0.0, 0.0, 0.0, 0L, 0L, 0));
+    }
+}
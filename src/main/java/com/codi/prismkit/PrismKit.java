@@ -1,21 +1,43 @@
 package com.codi.prismkit;
 
+import com.codi.prismkit.client.PKKeyMappings;
 import com.codi.prismkit.client.debug.PrismCurveDebugRenderer;
+import com.codi.prismkit.client.editor.PrismCurveEditorScreen;
+import com.codi.prismkit.client.particle.PrismParticleManager;
+import com.codi.prismkit.client.renderer.BeamBatchRenderer;
+import com.codi.prismkit.client.renderer.LaserRenderer;
+import com.codi.prismkit.client.renderer.LightningRenderer;
+import com.codi.prismkit.client.vfx.ClientEffectManager;
+import com.codi.prismkit.collision.BeamCollisionService;
+import com.codi.prismkit.emitter.PrismEmitterManager;
 import com.codi.prismkit.math.curve.PrismCurveManager;
+import com.codi.prismkit.network.PKNetwork;
 import com.codi.prismkit.registry.PKEntityRegister;
 import com.codi.prismkit.registry.PKParticleRegister;
+import com.codi.prismkit.vfx.PrismEffectType;
+import com.codi.prismkit.vfx.PrismEffects;
 import com.mojang.logging.LogUtils;
+import net.minecraft.client.Minecraft;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.client.event.EntityRenderersEvent;
+import net.minecraftforge.client.event.RegisterKeyMappingsEvent;
 import net.minecraftforge.client.event.RegisterParticleProvidersEvent;
 import net.minecraftforge.client.event.RenderGuiEvent;
+import net.minecraftforge.client.event.RenderLevelStageEvent;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.OnDatapackSyncEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.level.LevelEvent;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.config.ModConfig;
+import net.minecraftforge.fml.event.lifecycle.FMLClientSetupEvent;
 import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
+import net.minecraftforge.fml.loading.FMLEnvironment;
 import net.minecraftforge.fml.loading.FMLPaths;
 import org.slf4j.Logger;
 
@@ -33,26 +55,31 @@ public class PrismKit {
         // 注册公共设置事件
         modEventBus.addListener(this::commonSetup);
 
+        // 注册配置文件
+        context.registerConfig(ModConfig.Type.COMMON, PrismKitConfig.SPEC);
+
         MinecraftForge.EVENT_BUS.register(this);
     }
 
     /**
-     * 公共设置阶段：初始化 PrismCurve 管理器
+     * 公共设置阶段：注册网络数据包，初始化 PrismCurve 和 PrismEmitter 管理器
      * 这个方法在服务端和客户端都会执行
      */
     private void commonSetup(FMLCommonSetupEvent event) {
         event.enqueueWork(() -> {
+            PKNetwork.register();
+
             // 运行单元测试（开发阶段验证功能）
             //PrismCurveTest.runAllTests();
 
             // 初始化曲线管理器
             PrismCurveManager.getInstance().initialize(FMLPaths.CONFIGDIR.get());
-            LOGGER.info("PrismKit 初始化完成，已加载 {} 个曲线",
-                    PrismCurveManager.getInstance().getCurveCount());
 
-            // 设置默认调试曲线（可以在这里修改要显示的曲线）
-            // 如果不需要显示，注释掉下面这行
-            PrismCurveDebugRenderer.setDebugCurve("mountain2");
+            // 初始化发射器管理器（发射器引用的曲线在首次使用时解析）
+            PrismEmitterManager.getInstance().initialize(FMLPaths.CONFIGDIR.get());
+            LOGGER.info("PrismKit 初始化完成，已加载 {} 个曲线、{} 个发射器",
+                    PrismCurveManager.getInstance().getCurveCount(),
+                    PrismEmitterManager.getInstance().getEmitterCount());
         });
     }
 
@@ -82,6 +109,24 @@ public class PrismKit {
         return PrismCurveManager.getInstance().hasCurve(curveName);
     }
 
+    /**
+     * 在指定位置播放纯视觉特效（只能在服务端调用）
+     * 服务端只发送一个数据包，特效完全由客户端更新和渲染，不创建实体
+     *
+     * @param level 服务端世界
+     * @param type  特效类型（如 PrismEffects.LASER）
+     * @param x     位置 x
+     * @param y     位置 y
+     * @param z     位置 z
+     * @param seed  随机种子
+     *              <p>
+     *              使用示例：
+     *              PrismKit.playEffect(serverLevel, PrismEffects.LASER, x, y, z, level.random.nextLong());
+     */
+    public static void playEffect(ServerLevel level, PrismEffectType type, double x, double y, double z, long seed) {
+        PrismEffects.play(level, type, x, y, z, seed);
+    }
+
     // ========== 调试 API ==========
 
     /**
@@ -97,6 +142,15 @@ public class PrismKit {
         PrismCurveDebugRenderer.setDebugCurve(curveName);
     }
 
+    /**
+     * 追加一条调试曲线（多个面板同时显示，并标出特效正在采样的位置）
+     *
+     * @param curveName 曲线名称
+     */
+    public static void addDebugCurve(String curveName) {
+        PrismCurveDebugRenderer.addDebugCurve(curveName);
+    }
+
     /**
      * 获取当前正在调试显示的曲线名称
      *
@@ -119,6 +173,24 @@ public class PrismKit {
             event.registerEntityRenderer(PKEntityRegister.LASER.get(),
                     com.codi.prismkit.client.renderer.LaserRenderer::new);
         }
+
+        @SubscribeEvent
+        public static void registerKeyMappings(RegisterKeyMappingsEvent event) {
+            PKKeyMappings.register(event);
+        }
+
+        @SubscribeEvent
+        public static void onClientSetup(FMLClientSetupEvent event) {
+            ClientEffectManager.getInstance().registerRenderer(PrismEffects.LASER, LaserRenderer::renderEffect);
+            ClientEffectManager.getInstance().registerRenderer(PrismEffects.LASER_SWEEP, LaserRenderer::renderSweepEffect);
+            ClientEffectManager.getInstance().registerRenderer(PrismEffects.LIGHTNING, LightningRenderer::renderEffect);
+
+            // 开发环境下默认显示一条调试曲线（可以在这里修改要显示的曲线），发布版本默认不显示 HUD、不记录播放头
+            // 调试渲染器只存在于客户端，不能放在 commonSetup 中（专用服务端会因找不到类而崩溃）
+            if (!FMLEnvironment.production) {
+                PrismCurveDebugRenderer.setDebugCurve("mountain2");
+            }
+        }
     }
 
     /**
@@ -142,14 +214,92 @@ public class PrismKit {
             // 绘制调试信息文本
             PrismCurveDebugRenderer.renderDebugText(event.getGuiGraphics());
         }
+
+        /**
+         * 世界渲染事件：粒子绘制完成后，绘制 PrismKit 粒子池，登记纯视觉特效的光束，再一次性提交本帧所有激光光束和拖尾
+         * （拖尾在粒子渲染时登记，所以提交放在粒子阶段之后，保证同一帧内绘制）
+         */
+        @SubscribeEvent
+        public static void onRenderLevelStage(RenderLevelStageEvent event) {
+            if (event.getStage() == RenderLevelStageEvent.Stage.AFTER_PARTICLES) {
+                PrismParticleManager.getInstance().render(event.getPoseStack(), event.getCamera(),
+                        event.getPartialTick());
+                ClientEffectManager.getInstance().render(event.getPartialTick());
+                BeamBatchRenderer.flush(event.getPoseStack(), event.getProjectionMatrix(),
+                        event.getCamera().getPosition());
+            }
+        }
+
+        /**
+         * 客户端 tick：评估曲线的自动烘焙（内部按间隔节流），更新 PrismKit 粒子池，移除到期的纯视觉特效和闲置的闪电几何，
+         * 在调试 HUD 不可见时关闭播放头记录，处理打开曲线编辑器的按键
+         */
+        @SubscribeEvent
+        public static void onClientTick(TickEvent.ClientTickEvent event) {
+            if (event.phase == TickEvent.Phase.END) {
+                PrismCurveManager.getInstance().updateTiering();
+                ClientEffectManager.getInstance().tick();
+                PrismParticleManager.getInstance().tick();
+                PrismCurveDebugRenderer.tick();
+                if (Minecraft.getInstance().level != null) {
+                    LightningRenderer.tick(Minecraft.getInstance().level.getGameTime());
+                }
+
+                while (PKKeyMappings.OPEN_CURVE_EDITOR.consumeClick()) {
+                    // 默认打开调试 HUD 正在显示的曲线
+                    Minecraft.getInstance().setScreen(
+                            new PrismCurveEditorScreen(PrismCurveDebugRenderer.getDebugCurveName()));
+                }
+            }
+        }
+
+        /**
+         * 客户端世界卸载（切换维度、断开连接）：丢弃残留的纯视觉特效、粒子和闪电几何
+         */
+        @SubscribeEvent
+        public static void onLevelUnload(LevelEvent.Unload event) {
+            if (event.getLevel().isClientSide()) {
+                ClientEffectManager.getInstance().clear();
+                LightningRenderer.clear();
+                PrismParticleManager.getInstance().clear();
+            }
+        }
     }
 
     @Mod.EventBusSubscriber(modid = MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
     public static class ServerEvents {
         @SubscribeEvent
         public static void onDatapackSync(OnDatapackSyncEvent event) {
-            // 资源包同步完成后重新加载曲线
+            // 资源包同步完成后重新加载曲线和发射器
             PrismCurveManager.getInstance().loadCurvesFromDataDirectory();
+            PrismEmitterManager.getInstance().loadEmittersFromDataDirectory();
+        }
+
+        /**
+         * 服务端 tick：评估曲线的自动烘焙（内部按间隔节流）
+         */
+        @SubscribeEvent
+        public static void onServerTick(TickEvent.ServerTickEvent event) {
+            if (event.phase == TickEvent.Phase.END) {
+                PrismCurveManager.getInstance().updateTiering();
+            }
+        }
+
+        /**
+         * 方块变化：使经过该方块的光束碰撞缓存失效
+         */
+        @SubscribeEvent
+        public static void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+            if (event.getLevel() instanceof ServerLevel serverLevel) {
+                BeamCollisionService.onBlockChanged(serverLevel, event.getPos());
+            }
+        }
+
+        @SubscribeEvent
+        public static void onLevelUnload(LevelEvent.Unload event) {
+            if (event.getLevel() instanceof ServerLevel serverLevel) {
+                BeamCollisionService.onLevelUnload(serverLevel);
+            }
         }
     }
 }
@@ -0,0 +1,45 @@
+package com.codi.prismkit;
+
+import com.codi.prismkit.math.curve.PrismCurveManager;
+import com.codi.prismkit.particle.PrismParticleScheduler;
+import net.minecraftforge.common.ForgeConfigSpec;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.config.ModConfigEvent;
+
+/**
+ * PrismKit 配置文件（config/prismkit-common.toml）
+ * 配置加载或重载时，把数值同步到对应的运行时组件
+ */
+@Mod.EventBusSubscriber(modid = PrismKit.MOD_ID, bus = Mod.EventBusSubscriber.Bus.MOD)
+public class PrismKitConfig {
+    private static final ForgeConfigSpec.Builder BUILDER = new ForgeConfigSpec.Builder();
+
+    private static final ForgeConfigSpec.IntValue CURVE_CACHE_MAX_KILOBYTES = BUILDER
+            .comment("曲线派生数据（烘焙表、细分折线等）的内存上限，单位 KB",
+                    "超出上限时淘汰最久未使用的数据，被淘汰的曲线自动回退到精确计算；设为 0 则不缓存任何派生数据")
+            .defineInRange("curveCacheMaxKilobytes", 4096, 0, 1024 * 1024);
+
+    private static final ForgeConfigSpec.IntValue PARTICLE_PARALLEL_THRESHOLD = BUILDER
+            .comment("PrismKit 粒子总数达到此值时，粒子更新分给多个工作线程并行执行",
+                    "粒子较少时分派任务的开销超过并行的收益，因此保持单线程；设为最大值则始终单线程")
+            .defineInRange("particleParallelThreshold", PrismParticleScheduler.DEFAULT_PARALLEL_THRESHOLD, 0, Integer.MAX_VALUE);
+
+    static final ForgeConfigSpec SPEC = BUILDER.build();
+
+    // 曲线派生数据缓存的内存上限（字节）
+    public static long curveCacheMaxBytes;
+
+    // 粒子并行更新阈值（粒子总数）
+    public static int particleParallelThreshold = PrismParticleScheduler.DEFAULT_PARALLEL_THRESHOLD;
+
+    @SubscribeEvent
+    static void onLoad(final ModConfigEvent event) {
+        if (event.getConfig().getSpec() != SPEC) {
+            return;
+        }
+        curveCacheMaxBytes = CURVE_CACHE_MAX_KILOBYTES.get() * 1024L;
+        PrismCurveManager.getInstance().setBakedCacheCapacity(curveCacheMaxBytes);
+        particleParallelThreshold = PARTICLE_PARALLEL_THRESHOLD.get();
+    }
+}
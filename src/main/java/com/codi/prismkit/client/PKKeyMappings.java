@@ -0,0 +1,24 @@
+package com.codi.prismkit.client;
+
+import com.codi.prismkit.PrismKit;
+import net.minecraft.client.KeyMapping;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+import net.minecraftforge.client.event.RegisterKeyMappingsEvent;
+import org.lwjgl.glfw.GLFW;
+
+/**
+ * PrismKit 的客户端按键绑定
+ */
+@OnlyIn(Dist.CLIENT)
+public class PKKeyMappings {
+    public static final String CATEGORY = "key.categories." + PrismKit.MOD_ID;
+
+    // 打开实时曲线编辑器（默认 F8）
+    public static final KeyMapping OPEN_CURVE_EDITOR =
+            new KeyMapping("key." + PrismKit.MOD_ID + ".curve_editor", GLFW.GLFW_KEY_F8, CATEGORY);
+
+    public static void register(RegisterKeyMappingsEvent event) {
+        event.register(OPEN_CURVE_EDITOR);
+    }
+}
@@ -1,209 +1,504 @@
 package com.codi.prismkit.client.debug;
 
-import com.codi.prismkit.PrismKit;
+import com.codi.prismkit.math.curve.PrismCurve;
+import com.codi.prismkit.math.curve.PrismCurveHandle;
+import com.codi.prismkit.math.curve.PrismCurveManager;
+import com.codi.prismkit.math.curve.PrismCurvePlayheads;
+import com.mojang.blaze3d.vertex.VertexConsumer;
 import com.mojang.logging.LogUtils;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.renderer.RenderType;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
+import org.joml.Matrix4f;
 import org.slf4j.Logger;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
- * PrismCurve 调试渲染器
- * 在游戏界面上可视化显示指定的贝塞尔曲线
- * 
+ * PrismCurve 调试渲染器（多曲线 HUD）
+ * 在游戏界面左上角以面板形式同时显示多条曲线，并标出运行中的特效正在采样的位置
+ *
  * 设计意图：
  * - 让开发者实时预览曲线效果，无需反复进出游戏
- * - 使用红色线条绘制曲线，背景透明不遮挡游戏画面
- * - 坐标系统：屏幕左下角 (0,0)，右上角 (1,1)
- * 
+ * - 特效看起来不对或开销过大时，直接看到哪些曲线是热点（求值频率）、在哪里被采样（播放头）
+ * - 开销足够低，性能分析时也可以一直开着
+ *
+ * 技术细节：
+ * - 每个面板通过 PrismCurveHandle 解析曲线，每帧不做按名称的查找
+ * - 折线由 BakedCurveCache.getOrTessellate 自适应细分得到，面板内的四边形顶点只在曲线版本或面板尺寸变化时重建
+ * - 播放头来自 PrismCurvePlayheads 的无锁环形缓冲区：HUD 实际绘制时才开启记录，每帧读取一次，标记保留若干帧后淡出；
+ *   隐藏界面（F1）、没有进入世界或移除所有面板后，下一个客户端 tick 关闭记录
+ * - 所有面板的曲线和播放头标记都写入 RenderType.gui() 的同一个 BufferBuilder，一次提交
+ * - 面板标题（求值频率、是否已烘焙）每隔若干帧才重新格式化一次
+ *
  * 使用方法：
- * 在 Config.java 中设置 debugCurveName = "fade_in_smooth"
- * 进入游戏后曲线会自动显示在屏幕上
+ * PrismKit.setDebugCurve("fade_in_smooth");   // 只显示一条曲线
+ * PrismKit.addDebugCurve("pulse");            // 追加一个面板
  */
 @OnlyIn(Dist.CLIENT)
 public class PrismCurveDebugRenderer {
-    
+
     private static final Logger LOGGER = LogUtils.getLogger();
-    
-    // 调试配置：要显示的曲线名称（为空则不显示）
-    private static String debugCurveName = "";
-    
-    // 曲线采样点数量（越多越平滑，但性能开销越大）
-    private static final int SAMPLE_POINTS = 200;
-    
-    // 曲线颜色（RGBA，红色）
-    private static final float RED = 1.0f;
-    private static final float GREEN = 0.0f;
-    private static final float BLUE = 0.0f;
-    private static final float ALPHA = 1.0f;
-    
+
+    // ========== 面板布局（GUI 坐标）==========
+    private static final int PANEL_WIDTH = 160;
+    private static final int PANEL_HEIGHT = 64;
+    private static final int PANEL_MARGIN = 6;
+    private static final int HEADER_HEIGHT = 11;
+
+    // ========== 颜色 ==========
+    // 曲线（RGBA，不透明红色）
+    private static final int CURVE_RED = 255;
+    private static final int CURVE_GREEN = 0;
+    private static final int CURVE_BLUE = 0;
+
+    // 播放头（黄色）
+    private static final int PLAYHEAD_RED = 255;
+    private static final int PLAYHEAD_GREEN = 220;
+    private static final int PLAYHEAD_BLUE = 64;
+
+    // 面板背景和坐标轴（ARGB）
+    private static final int BACKGROUND_COLOR = 0x80000000;
+    private static final int AXIS_COLOR = 0x4DFFFFFF;
+
     // 线条粗细（像素）
     private static final float LINE_WIDTH = 2.0f;
 
+    // 播放头标记的边长（像素）
+    private static final float PLAYHEAD_SIZE = 3.0f;
+
+    // 细分容差：半个 GUI 像素
+    private static final float TOLERANCE_PIXELS = 0.5f;
+
+    // 每个面板最多同时显示的播放头数量
+    private static final int MAX_PLAYHEADS = 32;
+
+    // 播放头标记保留的帧数（之后淡出消失）
+    private static final int PLAYHEAD_LIFETIME_FRAMES = 20;
+
+    // 面板标题的刷新间隔（帧）
+    private static final int LABEL_REFRESH_FRAMES = 10;
+
+    // 当前显示的面板（只在渲染线程访问）
+    private static final List<DebugPanel> panels = new ArrayList<>();
+
+    // 渲染帧计数（用于播放头淡出和标题刷新）
+    private static int frame;
+
+    // 上一个客户端 tick 之后 HUD 是否绘制过
+    private static boolean renderedSinceTick;
+
+    // 读取播放头的回调（复用同一个对象，每帧读取不分配内存）
+    private static final PrismCurvePlayheads.Visitor PLAYHEAD_VISITOR = (curveVersion, x) -> {
+        for (int i = 0; i < panels.size(); i++) {
+            DebugPanel panel = panels.get(i);
+            if (panel.cachedCurve != null && panel.cachedVersion == curveVersion) {
+                panel.addPlayhead(x, frame);
+            }
+        }
+    };
+
+    // ========== 面板管理 ==========
+
     /**
-     * 设置要调试显示的曲线
-     * 
+     * 设置要调试显示的曲线（替换所有已有面板）
+     *
      * @param curveName 曲线名称（如 "fade_in_smooth"），传入 null 或空字符串则关闭显示
      */
     public static void setDebugCurve(String curveName) {
-        debugCurveName = (curveName == null) ? "" : curveName;
-        if (!debugCurveName.isEmpty()) {
-            LOGGER.info("[PrismCurve Debug] 设置调试曲线: {}", debugCurveName);
-        } else {
+        panels.clear();
+        if (curveName == null || curveName.isEmpty()) {
             LOGGER.info("[PrismCurve Debug] 关闭曲线显示");
+        } else {
+            panels.add(new DebugPanel(curveName));
+            LOGGER.info("[PrismCurve Debug] 设置调试曲线: {}", curveName);
         }
+        updatePlayheadRecording();
     }
 
     /**
-     * 获取当前正在调试的曲线名称
+     * 追加一条调试曲线（已存在时忽略）
+     *
+     * @param curveName 曲线名称
      */
-    public static String getDebugCurveName() {
-        return debugCurveName;
+    public static void addDebugCurve(String curveName) {
+        if (curveName == null || curveName.isEmpty() || findPanel(curveName) != null) {
+            return;
+        }
+        panels.add(new DebugPanel(curveName));
+        LOGGER.info("[PrismCurve Debug] 添加调试曲线: {}", curveName);
+        updatePlayheadRecording();
     }
 
     /**
-     * 渲染曲线到屏幕
-     * 使用 GuiGraphics 内置方法绘制，确保与 Minecraft GUI 渲染系统兼容
-     * 
-     * @param guiGraphics Minecraft 的 GUI 渲染上下文
+     * 移除一条调试曲线
+     *
+     * @param curveName 曲线名称
      */
-    public static void renderCurve(GuiGraphics guiGraphics) {
-        // 如果未设置调试曲线，直接返回
-        if (debugCurveName.isEmpty()) {
-            return;
+    public static void removeDebugCurve(String curveName) {
+        DebugPanel panel = findPanel(curveName);
+        if (panel != null) {
+            panels.remove(panel);
+            LOGGER.info("[PrismCurve Debug] 移除调试曲线: {}", curveName);
+            updatePlayheadRecording();
         }
-        
-        // 检查曲线是否存在
-        if (!PrismKit.hasCurve(debugCurveName)) {
-            LOGGER.warn("[PrismCurve Debug] 曲线 '{}' 不存在", debugCurveName);
-            return;
+    }
+
+    /**
+     * 获取当前正在调试的第一条曲线名称（兼容单曲线 API）
+     *
+     * @return 曲线名称，没有面板时返回空字符串
+     */
+    public static String getDebugCurveName() {
+        return panels.isEmpty() ? "" : panels.get(0).curveName;
+    }
+
+    /**
+     * 获取所有正在调试的曲线名称
+     */
+    public static List<String> getDebugCurveNames() {
+        List<String> names = new ArrayList<>(panels.size());
+        for (DebugPanel panel : panels) {
+            names.add(panel.curveName);
         }
-        
-        LOGGER.debug("[PrismCurve Debug] 开始渲染曲线: {}", debugCurveName);
-        
-        // 使用 GUI 缩放后的尺寸（与 GuiGraphics 一致）
-        Minecraft mc = Minecraft.getInstance();
-        int screenWidth = mc.getWindow().getGuiScaledWidth();
-        int screenHeight = mc.getWindow().getGuiScaledHeight();
-        
-        LOGGER.debug("[PrismCurve Debug] GUI 屏幕尺寸: {}x{}", screenWidth, screenHeight);
-        
-        // 采样曲线并用直线连接点
-        int prevX = -1;
-        int prevY = -1;
-        
-        for (int i = 0; i < SAMPLE_POINTS; i++) {
-            // 计算归一化的 x 坐标（0 到 1）
-            float normalizedX = i / (float) (SAMPLE_POINTS - 1);
-            
-            // 通过 PrismKit API 获取对应的 y 值
-            float normalizedY = PrismKit.getCurveValue(debugCurveName, normalizedX);
-            
-            // 转换为屏幕坐标（GUI 缩放后的逻辑坐标）
-            int screenX = (int) (normalizedX * screenWidth);
-            int screenY = (int) (screenHeight - (normalizedY * screenHeight));  // 反转 y 轴
-            
-            // 从第二个点开始，用直线连接前一个点和当前点
-            if (prevX >= 0) {
-                // 使用 GuiGraphics.fill 绘制粗线（通过多个平行线模拟粗线）
-                int thickness = (int) LINE_WIDTH;
-                // 颜色格式：ARGB，RED = 0xFFFF0000
-                int red = 0xFFFF0000;  // 不透明红色
-                for (int t = -thickness/2; t <= thickness/2; t++) {
-                    drawLine(guiGraphics, prevX, prevY + t, screenX, screenY + t, red);
-                }
+        return names;
+    }
+
+    private static DebugPanel findPanel(String curveName) {
+        for (DebugPanel panel : panels) {
+            if (panel.curveName.equals(curveName)) {
+                return panel;
             }
-            
-            prevX = screenX;
-            prevY = screenY;
         }
-        
-        LOGGER.debug("[PrismCurve Debug] 渲染完成");
+        return null;
     }
-    
+
     /**
-     * 使用 Bresenham 算法绘制直线
-     * 通过 GuiGraphics.fill 绘制单个像素
+     * 移除所有面板时立即关闭播放头记录；开启由 renderCurve 在 HUD 实际绘制时完成
      */
-    private static void drawLine(GuiGraphics guiGraphics, int x0, int y0, int x1, int y1, int color) {
-        int dx = Math.abs(x1 - x0);
-        int dy = Math.abs(y1 - y0);
-        int sx = x0 < x1
-                ? 1
-                : -1;
-        int sy = y0 < y1
-                ? 1
-                : -1;
-        int err = dy - dx;
-        
-        while (true) {
-            // 绘制单个像素（使用 fill 填充 1x1 的矩形）
-            guiGraphics.fill(x0, y0, x0 + 1, y0 + 1, color);
-            
-            if (x0 == x1 && y0 == y1) {
-                break;
-            }
-            
-            int e2 = 2*err;
-            if (e2 < dy) {
-                err += dy;
-                x0 += sx;
-            }
-            if (e2 > -dx) {
-                err -= dx;
-                y0 += sy;
-            }
+    private static void updatePlayheadRecording() {
+        if (panels.isEmpty()) {
+            PrismCurvePlayheads.getInstance().setEnabled(false);
         }
     }
 
     /**
-     * 渲染坐标轴（辅助功能，可选）
-     * 绘制白色的 X 轴和 Y 轴，帮助理解坐标系统
+     * 客户端 tick 调用：上一个 tick 之后 HUD 没有绘制过（界面被隐藏、不在世界中）时关闭播放头记录，
+     * 没有 HUD 时求值路径不做任何记录
+     */
+    public static void tick() {
+        if (!renderedSinceTick) {
+            PrismCurvePlayheads.getInstance().setEnabled(false);
+        }
+        renderedSinceTick = false;
+    }
+
+    // ========== 渲染 ==========
+
+    /**
+     * 渲染面板背景和坐标轴
      *
      * @param guiGraphics Minecraft 的 GUI 渲染上下文
      */
     public static void renderAxes(GuiGraphics guiGraphics) {
-        if (debugCurveName.isEmpty()) {
+        if (panels.isEmpty()) {
             return;
         }
-        
-        Minecraft mc = Minecraft.getInstance();
-        int screenWidth = mc.getWindow().getGuiScaledWidth();
-        int screenHeight = mc.getWindow().getGuiScaledHeight();
-        
-        // 白色半透明（ARGB: 0x4DFFFFFF 约 30% 透明度）
-        int whiteAlpha = 0x4DFFFFFF;
-        
-        // 绘制 X 轴（底部，水平线）
-        drawLine(guiGraphics, 0, screenHeight - 1, screenWidth - 1, screenHeight - 1, whiteAlpha);
-        
-        // 绘制 Y 轴（左侧，垂直线）
-        drawLine(guiGraphics, 0, 0, 0, screenHeight - 1, whiteAlpha);
+
+        int screenHeight = Minecraft.getInstance().getWindow().getGuiScaledHeight();
+        for (int i = 0; i < panels.size(); i++) {
+            int left = panelLeft(i, screenHeight);
+            int top = panelTop(i, screenHeight);
+            int graphTop = top + HEADER_HEIGHT;
+            int bottom = top + HEADER_HEIGHT + PANEL_HEIGHT;
+
+            guiGraphics.fill(left, top, left + PANEL_WIDTH, bottom, BACKGROUND_COLOR);
+            // X 轴（底部）和 Y 轴（左侧）
+            guiGraphics.fill(left, bottom - 1, left + PANEL_WIDTH, bottom, AXIS_COLOR);
+            guiGraphics.fill(left, graphTop, left + 1, bottom - 1, AXIS_COLOR);
+        }
     }
 
     /**
-     * 渲染调试信息文本（显示当前曲线名称）
-     * 
+     * 渲染所有面板的曲线和播放头标记
+     * 所有四边形写入同一个 GUI 缓冲区，由 GuiGraphics 一次提交
+     *
+     * @param guiGraphics Minecraft 的 GUI 渲染上下文
+     */
+    public static void renderCurve(GuiGraphics guiGraphics) {
+        if (panels.isEmpty()) {
+            return;
+        }
+        frame++;
+        renderedSinceTick = true;
+
+        int screenHeight = Minecraft.getInstance().getWindow().getGuiScaledHeight();
+        for (int i = 0; i < panels.size(); i++) {
+            panels.get(i).update(panelLeft(i, screenHeight), panelTop(i, screenHeight) + HEADER_HEIGHT);
+        }
+        PrismCurvePlayheads playheads = PrismCurvePlayheads.getInstance();
+        if (playheads.isEnabled()) {
+            playheads.drain(PLAYHEAD_VISITOR);
+        } else {
+            // HUD 第一次显示：从现在开始记录，下一帧起才有播放头
+            playheads.setEnabled(true);
+        }
+
+        Matrix4f pose = guiGraphics.pose().last().pose();
+        VertexConsumer buffer = guiGraphics.bufferSource().getBuffer(RenderType.gui());
+        for (int i = 0; i < panels.size(); i++) {
+            DebugPanel panel = panels.get(i);
+            panel.emitCurve(buffer, pose);
+            panel.emitPlayheads(buffer, pose, frame);
+        }
+        guiGraphics.flush();
+    }
+
+    /**
+     * 渲染面板标题：曲线名、求值频率、是否已烘焙
+     *
      * @param guiGraphics Minecraft 的 GUI 渲染上下文
      */
     public static void renderDebugText(GuiGraphics guiGraphics) {
-        if (debugCurveName.isEmpty()) {
+        if (panels.isEmpty()) {
             return;
         }
-        
+
         Minecraft mc = Minecraft.getInstance();
-        String text = "Debug Curve: " + debugCurveName;
-        
-        // 在屏幕右上角显示文本
-        int textWidth = mc.font.width(text);
-        int x = mc.getWindow().getGuiScaledWidth() - textWidth - 10;
-        int y = 10;
-        
-        // 绘制半透明黑色背景
-        guiGraphics.fill(x - 2, y - 2, x + textWidth + 2, y + mc.font.lineHeight + 2, 0x80000000);
-        
-        // 绘制文本（红色）
-        guiGraphics.drawString(mc.font, text, x, y, 0xFFFF0000);
+        int screenHeight = mc.getWindow().getGuiScaledHeight();
+        for (int i = 0; i < panels.size(); i++) {
+            DebugPanel panel = panels.get(i);
+            if (panel.label == null || frame - panel.labelFrame >= LABEL_REFRESH_FRAMES) {
+                panel.refreshLabel(frame);
+            }
+            guiGraphics.drawString(mc.font, panel.label,
+                    panelLeft(i, screenHeight) + 2, panelTop(i, screenHeight) + 2, 0xFFFFFFFF);
+        }
+    }
+
+    /**
+     * 面板按列从上到下排列，一列放不下时换到右侧新的一列
+     */
+    private static int panelsPerColumn(int screenHeight) {
+        return Math.max(1, (screenHeight - PANEL_MARGIN) / (HEADER_HEIGHT + PANEL_HEIGHT + PANEL_MARGIN));
+    }
+
+    private static int panelLeft(int index, int screenHeight) {
+        return PANEL_MARGIN + (index / panelsPerColumn(screenHeight)) * (PANEL_WIDTH + PANEL_MARGIN);
+    }
+
+    private static int panelTop(int index, int screenHeight) {
+        return PANEL_MARGIN + (index % panelsPerColumn(screenHeight)) * (HEADER_HEIGHT + PANEL_HEIGHT + PANEL_MARGIN);
+    }
+
+    // ========== 单个面板 ==========
+
+    /**
+     * 一条调试曲线的面板状态：解析句柄、缓存的顶点、最近的播放头
+     */
+    private static class DebugPanel {
+        private final String curveName;
+        private final PrismCurveHandle handle;
+
+        // 缓存对应的曲线（按引用比较，重载后是新对象）、曲线版本和面板位置
+        private PrismCurve cachedCurve;
+        private int cachedVersion;
+        private int cachedLeft;
+        private int cachedTop;
+
+        // 面板显示的 y 范围（包含 [0, 1] 和曲线的实际范围）
+        private float yMin;
+        private float yMax;
+
+        // 每段折线一个四边形：x0, y0, x1, y1, x2, y2, x3, y3
+        private float[] quadVertices = new float[0];
+        private int quadCount;
+
+        // 最近的播放头（环形覆盖）：采样的 x 和记录时的帧号
+        private final float[] playheadX = new float[MAX_PLAYHEADS];
+        private final int[] playheadFrame = new int[MAX_PLAYHEADS];
+        private int playheadCursor;
+
+        // 标题文本及其生成时的帧号
+        private String label;
+        private int labelFrame;
+
+        DebugPanel(String curveName) {
+            this.curveName = curveName;
+            this.handle = PrismCurveManager.getInstance().getHandle(curveName);
+            for (int i = 0; i < MAX_PLAYHEADS; i++) {
+                playheadFrame[i] = Integer.MIN_VALUE / 2;
+            }
+        }
+
+        /**
+         * 解析曲线，曲线版本或面板位置变化时重建顶点
+         */
+        void update(int left, int top) {
+            PrismCurve curve = handle.resolve();
+            if (curve == null) {
+                cachedCurve = null;
+                quadCount = 0;
+                return;
+            }
+            if (curve != cachedCurve || curve.getVersion() != cachedVersion || left != cachedLeft || top != cachedTop) {
+                rebuildQuads(curve, left, top);
+            }
+        }
+
+        void addPlayhead(float x, int currentFrame) {
+            playheadX[playheadCursor] = x;
+            playheadFrame[playheadCursor] = currentFrame;
+            playheadCursor = (playheadCursor + 1) % MAX_PLAYHEADS;
+        }
+
+        void refreshLabel(int currentFrame) {
+            PrismCurve curve = cachedCurve;
+            if (curve == null) {
+                label = curveName + "（未找到）";
+            } else {
+                float rate = PrismCurveManager.getInstance().getTiering().getRate(curve);
+                label = String.format("%s  %.0f/s  %s", curveName, rate,
+                        curve.getBakedCurve() != null ? "baked" : "exact");
+            }
+            labelFrame = currentFrame;
+        }
+
+        /**
+         * 重建面板内的四边形顶点
+         * 折线在曲线坐标系下缓存于 BakedCurveCache，这里只做坐标变换和线宽展开
+         */
+        private void rebuildQuads(PrismCurve curve, int left, int top) {
+            float[] polyline = PrismCurveManager.getInstance().getBakedCache()
+                    .getOrTessellate(curve, TOLERANCE_PIXELS / PANEL_HEIGHT);
+            int pointCount = polyline.length / 2;
+
+            yMin = 0.0f;
+            yMax = 1.0f;
+            for (int i = 0; i < pointCount; i++) {
+                yMin = Math.min(yMin, polyline[i * 2 + 1]);
+                yMax = Math.max(yMax, polyline[i * 2 + 1]);
+            }
+
+            // 曲线未覆盖 [0, 1] 的部分按端点值延伸（与 CLAMP 求值一致）
+            boolean extendStart = polyline[0] > 0.0f;
+            boolean extendEnd = polyline[polyline.length - 2] < 1.0f;
+            int totalPoints = pointCount + (extendStart ? 1 : 0) + (extendEnd ? 1 : 0);
+
+            float[] screen = new float[totalPoints * 2];
+            int index = 0;
+            if (extendStart) {
+                index = putScreenPoint(screen, index, 0.0f, polyline[1], left, top);
+            }
+            for (int i = 0; i < pointCount; i++) {
+                index = putScreenPoint(screen, index, polyline[i * 2], polyline[i * 2 + 1], left, top);
+            }
+            if (extendEnd) {
+                putScreenPoint(screen, index, 1.0f, polyline[polyline.length - 1], left, top);
+            }
+
+            int segmentCount = totalPoints - 1;
+            if (quadVertices.length < segmentCount * 8) {
+                quadVertices = new float[segmentCount * 8];
+            }
+
+            float halfWidth = LINE_WIDTH * 0.5f;
+            int quads = 0;
+            for (int i = 0; i < segmentCount; i++) {
+                float x0 = screen[i * 2];
+                float y0 = screen[i * 2 + 1];
+                float x1 = screen[i * 2 + 2];
+                float y1 = screen[i * 2 + 3];
+                float dx = x1 - x0;
+                float dy = y1 - y0;
+                float length = (float) Math.sqrt(dx * dx + dy * dy);
+                if (length < 1e-4f) {
+                    continue;
+                }
+
+                // 法线方向展开线宽，并沿线段方向各延长半个线宽以填补折角处的缝隙
+                float nx = -dy / length * halfWidth;
+                float ny = dx / length * halfWidth;
+                float ex = dx / length * halfWidth;
+                float ey = dy / length * halfWidth;
+
+                // 顶点顺序与 GuiGraphics.fill 一致（逆时针）
+                int base = quads * 8;
+                quadVertices[base] = x0 - ex + nx;
+                quadVertices[base + 1] = y0 - ey + ny;
+                quadVertices[base + 2] = x1 + ex + nx;
+                quadVertices[base + 3] = y1 + ey + ny;
+                quadVertices[base + 4] = x1 + ex - nx;
+                quadVertices[base + 5] = y1 + ey - ny;
+                quadVertices[base + 6] = x0 - ex - nx;
+                quadVertices[base + 7] = y0 - ey - ny;
+                quads++;
+            }
+
+            quadCount = quads;
+            cachedCurve = curve;
+            cachedVersion = curve.getVersion();
+            cachedLeft = left;
+            cachedTop = top;
+        }
+
+        /**
+         * 曲线坐标转换为面板内的 GUI 坐标（反转 y 轴）
+         */
+        private int putScreenPoint(float[] out, int index, float x, float y, int left, int top) {
+            out[index] = screenX(x, left);
+            out[index + 1] = screenY(y, top);
+            return index + 2;
+        }
+
+        private float screenX(float x, int left) {
+            return left + x * PANEL_WIDTH;
+        }
+
+        private float screenY(float y, int top) {
+            return top + PANEL_HEIGHT - (y - yMin) / (yMax - yMin) * PANEL_HEIGHT;
+        }
+
+        void emitCurve(VertexConsumer buffer, Matrix4f pose) {
+            float[] vertices = quadVertices;
+            for (int i = 0; i < quadCount * 8; i += 2) {
+                buffer.vertex(pose, vertices[i], vertices[i + 1], 0.0f)
+                        .color(CURVE_RED, CURVE_GREEN, CURVE_BLUE, 255).endVertex();
+            }
+        }
+
+        /**
+         * 每个仍在保留期内的播放头画一条竖线和一个曲线上的方块，随时间淡出
+         * 曲线值使用 evaluateExact，不计入求值统计，也不会产生新的播放头
+         */
+        void emitPlayheads(VertexConsumer buffer, Matrix4f pose, int currentFrame) {
+            PrismCurve curve = cachedCurve;
+            if (curve == null) {
+                return;
+            }
+            float half = PLAYHEAD_SIZE * 0.5f;
+            for (int i = 0; i < MAX_PLAYHEADS; i++) {
+                int age = currentFrame - playheadFrame[i];
+                if (age >= PLAYHEAD_LIFETIME_FRAMES) {
+                    continue;
+                }
+                int alpha = 255 * (PLAYHEAD_LIFETIME_FRAMES - age) / PLAYHEAD_LIFETIME_FRAMES;
+
+                float x = screenX(playheadX[i], cachedLeft);
+                float y = screenY(curve.evaluateExact(playheadX[i]), cachedTop);
+                emitQuad(buffer, pose, x - 0.5f, cachedTop, x + 0.5f, cachedTop + PANEL_HEIGHT, alpha / 3);
+                emitQuad(buffer, pose, x - half, y - half, x + half, y + half, alpha);
+            }
+        }
+
+        private static void emitQuad(VertexConsumer buffer, Matrix4f pose, float x0, float y0, float x1, float y1, int alpha) {
+            buffer.vertex(pose, x0, y0, 0.0f).color(PLAYHEAD_RED, PLAYHEAD_GREEN, PLAYHEAD_BLUE, alpha).endVertex();
+            buffer.vertex(pose, x0, y1, 0.0f).color(PLAYHEAD_RED, PLAYHEAD_GREEN, PLAYHEAD_BLUE, alpha).endVertex();
+            buffer.vertex(pose, x1, y1, 0.0f).color(PLAYHEAD_RED, PLAYHEAD_GREEN, PLAYHEAD_BLUE, alpha).endVertex();
+            buffer.vertex(pose, x1, y0, 0.0f).color(PLAYHEAD_RED, PLAYHEAD_GREEN, PLAYHEAD_BLUE, alpha).endVertex();
+        }
     }
 }
@@ -0,0 +1,503 @@
+package com.codi.prismkit.client.editor;
+
+import com.codi.prismkit.math.curve.CurvePivotPoint;
+import com.codi.prismkit.math.curve.CurvePivotPointMode;
+import com.codi.prismkit.math.curve.PrismCurve;
+import com.codi.prismkit.math.curve.PrismCurveEditor;
+import com.codi.prismkit.math.curve.PrismCurveLibrary;
+import com.codi.prismkit.math.curve.PrismCurveManager;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import com.mojang.logging.LogUtils;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.gui.components.Button;
+import net.minecraft.client.gui.screens.Screen;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.network.chat.Component;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+import org.joml.Matrix4f;
+import org.lwjgl.glfw.GLFW;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 游戏内实时曲线编辑界面
+ * 拖动枢纽点和切线手柄、切换枢纽点模式，修改立即作用于正在播放的特效
+ *
+ * 设计意图：
+ * - 实现 README 中“实时可视化编辑”的目标：不需要改 JSON、不需要重载资源
+ * - 界面不暂停游戏，编辑时可以直接看到激光等特效的变化
+ * - 所有修改都通过 PrismCurveEditor 进行，只重建相邻的两段并局部重新烘焙，拖动时保持帧率
+ *
+ * 技术细节：
+ * - 曲线折线每帧细分到复用的数组中，不经过派生数据缓存（拖动时每帧都是新版本）
+ * - 曲线和切线手柄写入 RenderType.gui() 的同一个缓冲区，一次提交
+ * - 拖动期间视图的 y 范围保持不变，松开鼠标后再按曲线的新范围调整，避免画面跟着鼠标跳动
+ *
+ * 操作方式：
+ * - 左键拖动枢纽点或选中枢纽点的切线手柄
+ * - 右键点击枢纽点切换模式（SMOOTH -> SPLIT -> LINEAR）
+ * - Ctrl + S 保存到配置目录，Tab 切换到下一条曲线
+ */
+@OnlyIn(Dist.CLIENT)
+public class PrismCurveEditorScreen extends Screen {
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    // ========== 布局（GUI 坐标）==========
+    private static final int GRAPH_MARGIN = 32;
+    private static final int TOOLBAR_HEIGHT = 28;
+    private static final int BUTTON_HEIGHT = 20;
+
+    // 枢纽点和手柄的绘制边长、拾取半径（像素）
+    private static final float PIVOT_SIZE = 5.0f;
+    private static final float HANDLE_SIZE = 4.0f;
+    private static final float PICK_RADIUS = 6.0f;
+
+    // 曲线线宽（像素）
+    private static final float LINE_WIDTH = 2.0f;
+
+    // 细分容差：半个 GUI 像素
+    private static final float TOLERANCE_PIXELS = 0.5f;
+
+    // 视图 y 范围的留白比例
+    private static final float VIEW_PADDING = 0.1f;
+
+    // ========== 颜色（ARGB）==========
+    private static final int GRAPH_BACKGROUND = 0xC0101010;
+    private static final int AXIS_COLOR = 0x4DFFFFFF;
+    private static final int CURVE_COLOR = 0xFFFF3030;
+    private static final int PIVOT_COLOR = 0xFFFFFFFF;
+    private static final int SELECTED_COLOR = 0xFFFFDC40;
+    private static final int HANDLE_COLOR = 0xFF40C0FF;
+    private static final int ERROR_COLOR = 0xFFFF5555;
+
+    /**
+     * 拖动目标
+     */
+    private enum DragTarget {
+        NONE,
+        PIVOT,
+        TANGENT_IN,
+        TANGENT_OUT
+    }
+
+    private final PrismCurveLibrary library = PrismCurveManager.getInstance().getLibrary();
+
+    // 可编辑的曲线名称（按字母排序）
+    private final List<String> curveNames = new ArrayList<>();
+    private int curveIndex;
+
+    // 当前曲线的编辑器（没有任何曲线时为 null）
+    private PrismCurveEditor editor;
+
+    private int selectedPivot = -1;
+    private DragTarget dragTarget = DragTarget.NONE;
+
+    // 视图范围（曲线坐标）
+    private float viewXMin;
+    private float viewXMax;
+    private float viewYMin;
+    private float viewYMax;
+
+    // 每帧复用的折线数组（x/y 交错）
+    private float[] polyline = new float[512];
+
+    // 状态栏提示
+    private Component status = Component.empty();
+    private int statusColor = PIVOT_COLOR;
+
+    private Button modeButton;
+
+    /**
+     * @param curveName 初始打开的曲线，不存在时打开第一条曲线
+     */
+    public PrismCurveEditorScreen(String curveName) {
+        super(Component.literal("PrismCurve 编辑器"));
+        for (PrismCurve curve : library.getCurves()) {
+            curveNames.add(curve.getName());
+        }
+        curveNames.sort(String::compareTo);
+        curveIndex = Math.max(0, curveNames.indexOf(curveName));
+    }
+
+    @Override
+    protected void init() {
+        int y = (TOOLBAR_HEIGHT - BUTTON_HEIGHT) / 2;
+        addRenderableWidget(Button.builder(Component.literal("<"), button -> switchCurve(-1))
+                .bounds(GRAPH_MARGIN, y, 20, BUTTON_HEIGHT).build());
+        addRenderableWidget(Button.builder(Component.literal(">"), button -> switchCurve(1))
+                .bounds(GRAPH_MARGIN + 24, y, 20, BUTTON_HEIGHT).build());
+        modeButton = addRenderableWidget(Button.builder(Component.literal("模式"), button -> cycleSelectedMode())
+                .bounds(width - GRAPH_MARGIN - 164, y, 80, BUTTON_HEIGHT).build());
+        addRenderableWidget(Button.builder(Component.literal("保存"), button -> save())
+                .bounds(width - GRAPH_MARGIN - 80, y, 80, BUTTON_HEIGHT).build());
+
+        openCurve();
+    }
+
+    @Override
+    public boolean isPauseScreen() {
+        // 不暂停游戏：编辑时特效继续播放，修改实时可见
+        return false;
+    }
+
+    // ========== 曲线切换与保存 ==========
+
+    private void openCurve() {
+        editor = null;
+        selectedPivot = -1;
+        dragTarget = DragTarget.NONE;
+        if (!curveNames.isEmpty()) {
+            library.getCurve(curveNames.get(curveIndex))
+                    .ifPresent(curve -> editor = new PrismCurveEditor(library, curve));
+        }
+        if (editor != null) {
+            fitView();
+        }
+        updateModeButton();
+    }
+
+    private void switchCurve(int step) {
+        if (curveNames.isEmpty()) {
+            return;
+        }
+        curveIndex = Math.floorMod(curveIndex + step, curveNames.size());
+        openCurve();
+    }
+
+    private void save() {
+        if (editor == null) {
+            return;
+        }
+        try {
+            editor.save();
+            setStatus(Component.literal("已保存: " + editor.getCurve().getName()), PIVOT_COLOR);
+        } catch (IOException | IllegalStateException e) {
+            LOGGER.error("保存曲线失败: {}", editor.getCurve().getName(), e);
+            setStatus(Component.literal("保存失败: " + e.getMessage()), ERROR_COLOR);
+        }
+    }
+
+    private void setStatus(Component message, int color) {
+        this.status = message;
+        this.statusColor = color;
+    }
+
+    @Override
+    public void tick() {
+        // 曲线被重载或覆盖后，编辑器持有的是旧对象，切换到新加载的曲线
+        if (editor != null && library.getCurve(editor.getCurve().getName()).orElse(null) != editor.getCurve()) {
+            openCurve();
+        }
+    }
+
+    // ========== 枢纽点模式 ==========
+
+    private void cycleSelectedMode() {
+        if (editor == null || selectedPivot < 0) {
+            return;
+        }
+        CurvePivotPointMode mode = editor.getPivot(selectedPivot).getPointMode();
+        CurvePivotPointMode next = switch (mode) {
+            case SMOOTH -> CurvePivotPointMode.SPLIT;
+            case SPLIT -> CurvePivotPointMode.LINEAR;
+            case LINEAR -> CurvePivotPointMode.SMOOTH;
+        };
+        editor.setMode(selectedPivot, next);
+        updateModeButton();
+    }
+
+    private void updateModeButton() {
+        if (modeButton == null) {
+            return;
+        }
+        modeButton.active = editor != null && selectedPivot >= 0;
+        modeButton.setMessage(Component.literal(modeButton.active
+                ? editor.getPivot(selectedPivot).getPointMode().name()
+                : "模式"));
+    }
+
+    // ========== 鼠标与键盘 ==========
+
+    @Override
+    public boolean mouseClicked(double mouseX, double mouseY, int button) {
+        if (super.mouseClicked(mouseX, mouseY, button)) {
+            return true;
+        }
+        if (editor == null) {
+            return false;
+        }
+
+        // 先检查选中枢纽点的手柄（手柄可能与其他枢纽点重叠）
+        if (button == GLFW.GLFW_MOUSE_BUTTON_LEFT && selectedPivot >= 0) {
+            CurvePivotPoint pivot = editor.getPivot(selectedPivot);
+            if (hasHandles(pivot)) {
+                if (hit(mouseX, mouseY, pivot.getX() + (float) pivot.getTangentOut().x, pivot.getY() + (float) pivot.getTangentOut().y)) {
+                    dragTarget = DragTarget.TANGENT_OUT;
+                    return true;
+                }
+                if (hit(mouseX, mouseY, pivot.getX() + (float) pivot.getTangentIn().x, pivot.getY() + (float) pivot.getTangentIn().y)) {
+                    dragTarget = DragTarget.TANGENT_IN;
+                    return true;
+                }
+            }
+        }
+
+        for (int i = 0; i < editor.getPivotCount(); i++) {
+            CurvePivotPoint pivot = editor.getPivot(i);
+            if (hit(mouseX, mouseY, pivot.getX(), pivot.getY())) {
+                selectedPivot = i;
+                if (button == GLFW.GLFW_MOUSE_BUTTON_RIGHT) {
+                    cycleSelectedMode();
+                } else {
+                    dragTarget = DragTarget.PIVOT;
+                }
+                updateModeButton();
+                return true;
+            }
+        }
+
+        selectedPivot = -1;
+        updateModeButton();
+        return false;
+    }
+
+    @Override
+    public boolean mouseDragged(double mouseX, double mouseY, int button, double dragX, double dragY) {
+        if (editor == null || selectedPivot < 0 || dragTarget == DragTarget.NONE) {
+            return super.mouseDragged(mouseX, mouseY, button, dragX, dragY);
+        }
+
+        float x = toCurveX(mouseX);
+        float y = toCurveY(mouseY);
+        CurvePivotPoint pivot = editor.getPivot(selectedPivot);
+        switch (dragTarget) {
+            case PIVOT -> editor.movePivot(selectedPivot, x, y);
+            case TANGENT_OUT -> editor.setTangentOut(selectedPivot, x - pivot.getX(), y - pivot.getY());
+            case TANGENT_IN -> editor.setTangentIn(selectedPivot, x - pivot.getX(), y - pivot.getY());
+            default -> {
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean mouseReleased(double mouseX, double mouseY, int button) {
+        if (dragTarget != DragTarget.NONE) {
+            dragTarget = DragTarget.NONE;
+            fitView();
+            return true;
+        }
+        return super.mouseReleased(mouseX, mouseY, button);
+    }
+
+    @Override
+    public boolean keyPressed(int keyCode, int scanCode, int modifiers) {
+        if (keyCode == GLFW.GLFW_KEY_S && hasControlDown()) {
+            save();
+            return true;
+        }
+        if (keyCode == GLFW.GLFW_KEY_TAB) {
+            switchCurve(hasShiftDown() ? -1 : 1);
+            return true;
+        }
+        return super.keyPressed(keyCode, scanCode, modifiers);
+    }
+
+    private static boolean hasHandles(CurvePivotPoint pivot) {
+        return pivot.getPointMode() != CurvePivotPointMode.LINEAR;
+    }
+
+    private boolean hit(double mouseX, double mouseY, float curveX, float curveY) {
+        return Math.abs(mouseX - toScreenX(curveX)) <= PICK_RADIUS
+                && Math.abs(mouseY - toScreenY(curveY)) <= PICK_RADIUS;
+    }
+
+    // ========== 坐标变换 ==========
+
+    private int graphLeft() {
+        return GRAPH_MARGIN;
+    }
+
+    private int graphRight() {
+        return width - GRAPH_MARGIN;
+    }
+
+    private int graphTop() {
+        return TOOLBAR_HEIGHT + 8;
+    }
+
+    private int graphBottom() {
+        return height - GRAPH_MARGIN;
+    }
+
+    private float toScreenX(float x) {
+        return graphLeft() + (x - viewXMin) / (viewXMax - viewXMin) * (graphRight() - graphLeft());
+    }
+
+    private float toScreenY(float y) {
+        return graphBottom() - (y - viewYMin) / (viewYMax - viewYMin) * (graphBottom() - graphTop());
+    }
+
+    private float toCurveX(double screenX) {
+        return viewXMin + (float) (screenX - graphLeft()) / (graphRight() - graphLeft()) * (viewXMax - viewXMin);
+    }
+
+    private float toCurveY(double screenY) {
+        return viewYMin + (float) (graphBottom() - screenY) / (graphBottom() - graphTop()) * (viewYMax - viewYMin);
+    }
+
+    /**
+     * 按枢纽点、切线手柄和 [0, 1] 单位区间调整视图范围
+     */
+    private void fitView() {
+        float xMin = 0.0f;
+        float xMax = 1.0f;
+        float yMin = 0.0f;
+        float yMax = 1.0f;
+        for (int i = 0; i < editor.getPivotCount(); i++) {
+            CurvePivotPoint pivot = editor.getPivot(i);
+            xMin = Math.min(xMin, pivot.getX());
+            xMax = Math.max(xMax, pivot.getX());
+            yMin = Math.min(yMin, pivot.getY());
+            yMax = Math.max(yMax, pivot.getY());
+            if (hasHandles(pivot)) {
+                yMin = Math.min(yMin, pivot.getY() + (float) Math.min(pivot.getTangentIn().y, pivot.getTangentOut().y));
+                yMax = Math.max(yMax, pivot.getY() + (float) Math.max(pivot.getTangentIn().y, pivot.getTangentOut().y));
+            }
+        }
+        float padding = (yMax - yMin) * VIEW_PADDING;
+        viewXMin = xMin;
+        viewXMax = xMax;
+        viewYMin = yMin - padding;
+        viewYMax = yMax + padding;
+    }
+
+    // ========== 渲染 ==========
+
+    @Override
+    public void render(GuiGraphics guiGraphics, int mouseX, int mouseY, float partialTick) {
+        renderBackground(guiGraphics);
+
+        guiGraphics.fill(graphLeft(), graphTop(), graphRight(), graphBottom(), GRAPH_BACKGROUND);
+        if (editor != null) {
+            renderGrid(guiGraphics);
+            renderCurveAndHandles(guiGraphics);
+            renderPivots(guiGraphics);
+        }
+
+        // 标题：曲线名（有未保存的修改时加 *）和枢纽点数量
+        String title = editor == null
+                ? "没有可编辑的曲线"
+                : String.format("%s%s  (%d/%d)  枢纽点: %d", editor.getCurve().getName(), editor.isDirty() ? " *" : "",
+                        curveIndex + 1, curveNames.size(), editor.getPivotCount());
+        guiGraphics.drawString(font, title, GRAPH_MARGIN + 50, (TOOLBAR_HEIGHT - font.lineHeight) / 2 + 1, PIVOT_COLOR);
+        guiGraphics.drawString(font, status, GRAPH_MARGIN, graphBottom() + 6, statusColor);
+
+        super.render(guiGraphics, mouseX, mouseY, partialTick);
+    }
+
+    /**
+     * y = 0 和 y = 1 的参考线，以及 x = 0 和 x = 1 的边界
+     */
+    private void renderGrid(GuiGraphics guiGraphics) {
+        int y0 = Math.round(toScreenY(0.0f));
+        int y1 = Math.round(toScreenY(1.0f));
+        int x0 = Math.round(toScreenX(0.0f));
+        int x1 = Math.round(toScreenX(1.0f));
+        guiGraphics.fill(graphLeft(), y0, graphRight(), y0 + 1, AXIS_COLOR);
+        guiGraphics.fill(graphLeft(), y1, graphRight(), y1 + 1, AXIS_COLOR);
+        guiGraphics.fill(x0, graphTop(), x0 + 1, graphBottom(), AXIS_COLOR);
+        guiGraphics.fill(x1, graphTop(), x1 + 1, graphBottom(), AXIS_COLOR);
+    }
+
+    /**
+     * 曲线折线与选中枢纽点的切线手柄连线，全部写入同一个 GUI 缓冲区
+     */
+    private void renderCurveAndHandles(GuiGraphics guiGraphics) {
+        PrismCurve curve = editor.getCurve();
+        float tolerance = TOLERANCE_PIXELS * (viewYMax - viewYMin) / (graphBottom() - graphTop());
+        int count = curve.tessellate(tolerance, polyline);
+        if (count * 2 > polyline.length) {
+            polyline = new float[Integer.highestOneBit(count * 2) << 1];
+            count = curve.tessellate(tolerance, polyline);
+        }
+
+        Matrix4f pose = guiGraphics.pose().last().pose();
+        VertexConsumer buffer = guiGraphics.bufferSource().getBuffer(RenderType.gui());
+        for (int i = 0; i + 1 < count; i++) {
+            emitLine(buffer, pose,
+                    toScreenX(polyline[i * 2]), toScreenY(polyline[i * 2 + 1]),
+                    toScreenX(polyline[i * 2 + 2]), toScreenY(polyline[i * 2 + 3]),
+                    LINE_WIDTH, CURVE_COLOR);
+        }
+
+        if (selectedPivot >= 0) {
+            CurvePivotPoint pivot = editor.getPivot(selectedPivot);
+            if (hasHandles(pivot)) {
+                float px = toScreenX(pivot.getX());
+                float py = toScreenY(pivot.getY());
+                emitLine(buffer, pose, px, py,
+                        toScreenX(pivot.getX() + (float) pivot.getTangentIn().x),
+                        toScreenY(pivot.getY() + (float) pivot.getTangentIn().y), 1.0f, HANDLE_COLOR);
+                emitLine(buffer, pose, px, py,
+                        toScreenX(pivot.getX() + (float) pivot.getTangentOut().x),
+                        toScreenY(pivot.getY() + (float) pivot.getTangentOut().y), 1.0f, HANDLE_COLOR);
+            }
+        }
+        guiGraphics.flush();
+    }
+
+    private void renderPivots(GuiGraphics guiGraphics) {
+        for (int i = 0; i < editor.getPivotCount(); i++) {
+            CurvePivotPoint pivot = editor.getPivot(i);
+            fillCentered(guiGraphics, toScreenX(pivot.getX()), toScreenY(pivot.getY()), PIVOT_SIZE,
+                    i == selectedPivot ? SELECTED_COLOR : PIVOT_COLOR);
+        }
+
+        if (selectedPivot >= 0) {
+            CurvePivotPoint pivot = editor.getPivot(selectedPivot);
+            if (hasHandles(pivot)) {
+                fillCentered(guiGraphics, toScreenX(pivot.getX() + (float) pivot.getTangentIn().x),
+                        toScreenY(pivot.getY() + (float) pivot.getTangentIn().y), HANDLE_SIZE, HANDLE_COLOR);
+                fillCentered(guiGraphics, toScreenX(pivot.getX() + (float) pivot.getTangentOut().x),
+                        toScreenY(pivot.getY() + (float) pivot.getTangentOut().y), HANDLE_SIZE, HANDLE_COLOR);
+            }
+        }
+    }
+
+    private static void fillCentered(GuiGraphics guiGraphics, float x, float y, float size, int color) {
+        int half = Math.round(size * 0.5f);
+        int cx = Math.round(x);
+        int cy = Math.round(y);
+        guiGraphics.fill(cx - half, cy - half, cx + half + 1, cy + half + 1, color);
+    }
+
+    /**
+     * 写入一条有宽度的线段（沿法线展开为四边形，顶点顺序与 GuiGraphics.fill 一致）
+     */
+    private static void emitLine(VertexConsumer buffer, Matrix4f pose, float x0, float y0, float x1, float y1,
+                                 float width, int color) {
+        float dx = x1 - x0;
+        float dy = y1 - y0;
+        float length = (float) Math.sqrt(dx * dx + dy * dy);
+        if (length < 1e-4f) {
+            return;
+        }
+        float nx = -dy / length * width * 0.5f;
+        float ny = dx / length * width * 0.5f;
+
+        int alpha = color >>> 24;
+        int red = (color >> 16) & 0xFF;
+        int green = (color >> 8) & 0xFF;
+        int blue = color & 0xFF;
+        buffer.vertex(pose, x0 + nx, y0 + ny, 0.0f).color(red, green, blue, alpha).endVertex();
+        buffer.vertex(pose, x1 + nx, y1 + ny, 0.0f).color(red, green, blue, alpha).endVertex();
+        buffer.vertex(pose, x1 - nx, y1 - ny, 0.0f).color(red, green, blue, alpha).endVertex();
+        buffer.vertex(pose, x0 - nx, y0 - ny, 0.0f).color(red, green, blue, alpha).endVertex();
+    }
+}
@@ -0,0 +1,228 @@
+package com.codi.prismkit.client.particle;
+
+import com.codi.prismkit.PrismKitConfig;
+import com.codi.prismkit.emitter.PrismEmitter;
+import com.codi.prismkit.emitter.PrismEmitterManager;
+import com.codi.prismkit.emitter.PrismEmitterType;
+import com.codi.prismkit.particle.PrismParticlePool;
+import com.codi.prismkit.particle.PrismParticleScheduler;
+import com.codi.prismkit.particle.PrismParticleSimulation;
+import com.codi.prismkit.render.BeamGeometry;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import net.minecraft.client.Camera;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+import org.joml.Matrix4f;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * PrismKit 粒子管理器（单例）
+ * 统一更新和渲染所有已注册的 PrismParticlePool，粒子不经过原版 ParticleEngine
+ *
+ * 设计意图：
+ * - 原版粒子每个都是一个对象，一万个以上时更新和渲染都被对象遍历拖慢；
+ *   这里每个发射器一个结构数组粒子池，更新和渲染都是对数组的顺序遍历
+ * - 所有池的四边形写入同一个顶点数组，再一次性提交到一个 RenderType.lightning() 批次
+ * - 数据驱动的 PrismEmitter 也在这里播放：每个发射器自带粒子池，播放结束后自动移除
+ * - 粒子总数超过配置的阈值时，更新由 PrismParticleScheduler 分给多个工作线程，tick 返回前全部完成
+ *
+ * 技术细节：
+ * - 粒子是不带贴图的发光四边形（POSITION_COLOR，叠加混合），与激光和闪电使用同一种渲染类型
+ * - 四边形由相机旋转后的右方向和上方向张成，与原版 SingleQuadParticle 的朝向相同
+ * - 所有方法都在客户端主线程调用；顶点数组只在容量不足时扩容，稳定后每帧不分配内存
+ */
+@OnlyIn(Dist.CLIENT)
+public final class PrismParticleManager {
+
+    private static final PrismParticleManager INSTANCE = new PrismParticleManager();
+
+    private final List<PrismParticlePool> pools = new ArrayList<>();
+
+    // 正在播放的发射器
+    private final List<PrismEmitter> emitters = new ArrayList<>();
+
+    // 本 tick 要更新的粒子池和发射器（复用）
+    private final List<PrismParticleSimulation> simulations = new ArrayList<>();
+
+    // 并行更新调度器
+    private final PrismParticleScheduler scheduler = PrismParticleScheduler.createDefault();
+
+    // 顶点缓冲（PrismParticlePool.writeBillboards 的输出）
+    private float[] vertices = new float[1024 * PrismParticlePool.FLOATS_PER_PARTICLE];
+
+    // 每帧复用的相机方向
+    private final Vector3f right = new Vector3f();
+    private final Vector3f up = new Vector3f();
+
+    private PrismParticleManager() {
+    }
+
+    public static PrismParticleManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 注册一个粒子池，之后每 tick 更新、每帧渲染
+     */
+    public void register(PrismParticlePool pool) {
+        if (!pools.contains(pool)) {
+            pools.add(pool);
+        }
+    }
+
+    /**
+     * 取消注册粒子池（池中剩余的粒子不再更新和渲染）
+     */
+    public void unregister(PrismParticlePool pool) {
+        pools.remove(pool);
+    }
+
+    /**
+     * 按名称播放一个发射器（JSON 定义见 PrismEmitterCodec）
+     *
+     * @param emitterName 发射器名称
+     * @param seed 实例种子（同一个种子每次播放的粒子相同）
+     * @return 发射器实例（循环发射器需要调用 stop 结束），发射器不存在时返回 null
+     */
+    public PrismEmitter play(String emitterName, double x, double y, double z, int seed) {
+        PrismEmitterType type = PrismEmitterManager.getInstance().getType(emitterName);
+        return type != null ? play(type, x, y, z, seed) : null;
+    }
+
+    /**
+     * 播放一个已解析的发射器类型
+     */
+    public PrismEmitter play(PrismEmitterType type, double x, double y, double z, int seed) {
+        PrismEmitter emitter = new PrismEmitter(type, x, y, z, seed);
+        emitters.add(emitter);
+        return emitter;
+    }
+
+    /**
+     * 客户端 tick：更新所有粒子池和发射器（游戏暂停时与原版粒子一样停止更新）
+     */
+    public void tick() {
+        if (Minecraft.getInstance().isPaused()) {
+            return;
+        }
+        // 逐个添加：addAll 每次都会复制出一个临时数组
+        simulations.clear();
+        for (int i = 0; i < pools.size(); i++) {
+            simulations.add(pools.get(i));
+        }
+        for (int i = 0; i < emitters.size(); i++) {
+            simulations.add(emitters.get(i));
+        }
+        scheduler.setParallelThreshold(PrismKitConfig.particleParallelThreshold);
+        scheduler.tick(simulations);
+        simulations.clear();
+
+        for (int i = emitters.size() - 1; i >= 0; i--) {
+            PrismEmitter emitter = emitters.get(i);
+            if (emitter.isFinished()) {
+                // 与末尾交换后移除，发射器之间没有顺序要求
+                int last = emitters.size() - 1;
+                emitters.set(i, emitters.get(last));
+                emitters.remove(last);
+            }
+        }
+    }
+
+    /**
+     * 渲染所有粒子（世界渲染阶段调用）
+     *
+     * @param poseStack 世界渲染的矩阵栈（已包含相机旋转）
+     * @param camera 相机
+     * @param partialTicks 渲染帧在当前 tick 内的进度
+     */
+    public void render(PoseStack poseStack, Camera camera, float partialTicks) {
+        int required = 0;
+        for (int i = 0; i < pools.size(); i++) {
+            required += pools.get(i).size() * PrismParticlePool.FLOATS_PER_PARTICLE;
+        }
+        for (int i = 0; i < emitters.size(); i++) {
+            required += emitters.get(i).getPool().size() * PrismParticlePool.FLOATS_PER_PARTICLE;
+        }
+        if (required == 0) {
+            return;
+        }
+        if (required > vertices.length) {
+            vertices = Arrays.copyOf(vertices, Math.max(vertices.length * 2, required));
+        }
+
+        Quaternionf rotation = camera.rotation();
+        right.set(1.0f, 0.0f, 0.0f).rotate(rotation);
+        up.set(0.0f, 1.0f, 0.0f).rotate(rotation);
+        Vec3 position = camera.getPosition();
+
+        int offset = 0;
+        for (int i = 0; i < pools.size(); i++) {
+            offset = pools.get(i).writeBillboards(vertices, offset, position.x, position.y, position.z,
+                    right.x, right.y, right.z, up.x, up.y, up.z, partialTicks);
+        }
+        for (int i = 0; i < emitters.size(); i++) {
+            offset = emitters.get(i).getPool().writeBillboards(vertices, offset, position.x, position.y, position.z,
+                    right.x, right.y, right.z, up.x, up.y, up.z, partialTicks);
+        }
+
+        Matrix4f pose = poseStack.last().pose();
+        MultiBufferSource.BufferSource bufferSource = Minecraft.getInstance().renderBuffers().bufferSource();
+        VertexConsumer consumer = bufferSource.getBuffer(RenderType.lightning());
+        float[] data = vertices;
+        for (int i = 0; i < offset; i += BeamGeometry.VERTEX_STRIDE) {
+            consumer.vertex(pose, data[i], data[i + 1], data[i + 2])
+                    .color(data[i + 3], data[i + 4], data[i + 5], data[i + 6])
+                    .endVertex();
+        }
+        bufferSource.endBatch(RenderType.lightning());
+    }
+
+    /**
+     * 清空所有粒子、取消注册所有粒子池并移除所有发射器（离开世界时调用）
+     */
+    public void clear() {
+        for (PrismParticlePool pool : pools) {
+            pool.clear();
+        }
+        pools.clear();
+        emitters.clear();
+    }
+
+    /**
+     * 当前存活的粒子总数
+     */
+    public int getParticleCount() {
+        int count = 0;
+        for (PrismParticlePool pool : pools) {
+            count += pool.size();
+        }
+        for (PrismEmitter emitter : emitters) {
+            count += emitter.getPool().size();
+        }
+        return count;
+    }
+
+    /**
+     * 上一次 tick 是否并行更新（调试显示使用）
+     */
+    public boolean wasLastTickParallel() {
+        return scheduler.wasLastTickParallel();
+    }
+
+    /**
+     * 正在播放的发射器数量
+     */
+    public int getEmitterCount() {
+        return emitters.size();
+    }
+}
@@ -1,5 +1,11 @@
 package com.codi.prismkit.client.particle;
 
+import com.codi.prismkit.client.renderer.BeamBatchRenderer;
+import com.codi.prismkit.math.curve.PrismCurve;
+import com.codi.prismkit.render.PrismTrail;
+import com.codi.prismkit.render.PrismTrailStyle;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import net.minecraft.client.Camera;
 import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.client.particle.*;
 import net.minecraft.core.particles.SimpleParticleType;
@@ -9,6 +15,12 @@ import org.jetbrains.annotations.Nullable;
 
 @OnlyIn(Dist.CLIENT)
 public class TestParticle extends TextureSheetParticle {
+    // 所有测试粒子共用一份拖尾样式：宽度从头部到尾部线性收窄
+    private static final PrismTrailStyle TRAIL_STYLE =
+            new PrismTrailStyle(8, 0.05f, PrismCurve.linear("test_particle_trail_width", 1.0f, 0.0f), null);
+
+    private final PrismTrail trail = new PrismTrail(TRAIL_STYLE);
+
     protected TestParticle(ClientLevel level, double x, double y, double z, SpriteSet spriteSet, double xSpeed, double ySpeed, double zSpeed) {
         super(level, x, y, z, xSpeed, ySpeed, zSpeed);
 
@@ -23,6 +35,7 @@ public class TestParticle extends TextureSheetParticle {
         this.rCol = 1f;
         this.gCol = 1f;
         this.bCol = 1f;
+        this.trail.push(x, y, z);
     }
 
     @Override
@@ -39,6 +52,13 @@ public class TestParticle extends TextureSheetParticle {
     public void tick() {
         super.tick();
         this.fadeOut();
+        this.trail.push(this.x, this.y, this.z);
+    }
+
+    @Override
+    public void render(VertexConsumer buffer, Camera camera, float partialTicks) {
+        super.render(buffer, camera, partialTicks);
+        BeamBatchRenderer.submitTrail(this.trail, partialTicks, this.rCol, this.gCol, this.bCol, this.alpha);
     }
 
     private void fadeOut() {
@@ -0,0 +1,453 @@
+package com.codi.prismkit.client.renderer;
+
+import com.codi.prismkit.math.curve.PrismCurve;
+import com.codi.prismkit.math.curve.PrismPathCurve;
+import com.codi.prismkit.render.BeamGeometry;
+import com.codi.prismkit.render.LightningBolt;
+import com.codi.prismkit.render.PrismTrail;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+import org.joml.FrustumIntersection;
+import org.joml.Matrix4f;
+
+import java.util.Arrays;
+
+/**
+ * 光束批量渲染器
+ * 实体渲染阶段只登记每根光束的参数，每帧在世界渲染的固定阶段统一生成顶点并一次性提交
+ *
+ * 设计意图：
+ * - 逐个实体渲染时，每根激光都要获取一次缓冲区、压入弹出矩阵、逐顶点计算渐变透明度
+ * - 批量渲染把所有光束写入同一个 RenderType.lightning() 缓冲区，只结束一次批次
+ * - 顶点由 BeamGeometry 生成（纯函数，可脱离 GPU 测试），这里只负责登记和提交
+ *
+ * 技术细节：
+ * - 登记数据按结构数组存放：位置使用 double（世界坐标），其余参数每根光束 PARAM_STRIDE 个 float
+ * - 提交时位置减去相机坐标再转为 float，避免远离原点时的精度损失
+ * - 登记和提交都在渲染线程进行；数组只在容量不足时翻倍扩容，稳定后每帧不分配内存
+ * - 剔除与细节层次：整根光束先做一次视锥测试，再按 BeamGeometry.SEGMENT_LENGTH 分段逐段测试，
+ *   屏幕外的段直接跳过；每段按相机距离选择只画朝向相机的侧面或只画一个朝向相机的四边形
+ * - 视锥测试使用 JOML 的 FrustumIntersection（与原版 Frustum 相同的平面测试），直接传入坐标，不创建 AABB
+ * - 路径光束（submitPath）沿 PrismPathCurve 弯曲，用路径的包围球做视锥测试，与竖直光束写入同一个批次
+ * - 拖尾（submitTrail）只登记 PrismTrail 的引用，flush 时用拖尾各点的包围盒做视锥测试后写入同一个批次
+ * - 闪电（submitLightning）登记缓存的 LightningBolt 和两个端点，用端点连线加形状包围半径的球做视锥测试
+ */
+@OnlyIn(Dist.CLIENT)
+public final class BeamBatchRenderer {
+
+    // 每根光束的参数：halfWidth, bottom, top, r, g, b, a
+    private static final int PARAM_STRIDE = 7;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // 登记的光束
+    private static double[] positions = new double[INITIAL_CAPACITY * 3];
+    private static float[] params = new float[INITIAL_CAPACITY * PARAM_STRIDE];
+    private static int beamCount;
+
+    // 每根路径光束的参数：yaw, halfWidth, r, g, b, a
+    private static final int PATH_PARAM_STRIDE = 6;
+
+    // 登记的路径光束
+    private static PrismPathCurve[] paths = new PrismPathCurve[16];
+    private static PrismCurve[] pathWidthCurves = new PrismCurve[16];
+    private static double[] pathPositions = new double[16 * 3];
+    private static float[] pathParams = new float[16 * PATH_PARAM_STRIDE];
+    private static int pathCount;
+
+    // 每条拖尾的参数：r, g, b, a, partialTicks
+    private static final int TRAIL_PARAM_STRIDE = 5;
+
+    // 登记的拖尾
+    private static PrismTrail[] trails = new PrismTrail[INITIAL_CAPACITY];
+    private static float[] trailParams = new float[INITIAL_CAPACITY * TRAIL_PARAM_STRIDE];
+    private static int trailCount;
+
+    // 每道闪电的参数：halfWidth, r, g, b, a
+    private static final int BOLT_PARAM_STRIDE = 5;
+
+    // 登记的闪电（端点每道 6 个 double：起点 x, y, z，终点 x, y, z）
+    private static LightningBolt[] bolts = new LightningBolt[INITIAL_CAPACITY];
+    private static double[] boltEndpoints = new double[INITIAL_CAPACITY * 6];
+    private static float[] boltParams = new float[INITIAL_CAPACITY * BOLT_PARAM_STRIDE];
+    private static int boltCount;
+
+    // 顶点缓冲（BeamGeometry 的输出）
+    private static float[] vertices = new float[INITIAL_CAPACITY * BeamGeometry.MAX_FLOATS_PER_SEGMENT];
+
+    // 视锥（相机相对坐标）
+    private static final Matrix4f frustumMatrix = new Matrix4f();
+    private static final FrustumIntersection frustum = new FrustumIntersection();
+
+    private BeamBatchRenderer() {
+    }
+
+    /**
+     * 登记一根竖直光束（在实体渲染时调用），本帧的 flush 中统一绘制
+     *
+     * @param x 光束中心的世界坐标 x
+     * @param y 光束基准的世界坐标 y
+     * @param z 光束中心的世界坐标 z
+     * @param halfWidth 半宽
+     * @param bottom 底部相对基准 y 的偏移
+     * @param top 顶部相对基准 y 的偏移
+     */
+    public static void submit(double x, double y, double z, float halfWidth, float bottom, float top,
+                              float red, float green, float blue, float alpha) {
+        if (beamCount * 3 == positions.length) {
+            positions = Arrays.copyOf(positions, positions.length * 2);
+            params = Arrays.copyOf(params, params.length * 2);
+        }
+
+        int p = beamCount * 3;
+        positions[p] = x;
+        positions[p + 1] = y;
+        positions[p + 2] = z;
+
+        int q = beamCount * PARAM_STRIDE;
+        params[q] = halfWidth;
+        params[q + 1] = bottom;
+        params[q + 2] = top;
+        params[q + 3] = red;
+        params[q + 4] = green;
+        params[q + 5] = blue;
+        params[q + 6] = alpha;
+        beamCount++;
+    }
+
+    /**
+     * 登记一根沿路径弯曲的光束，本帧的 flush 中统一绘制
+     *
+     * @param path 路径（坐标相对 x, y, z）
+     * @param x 路径原点的世界坐标 x
+     * @param y 路径原点的世界坐标 y
+     * @param z 路径原点的世界坐标 z
+     * @param yaw 路径绕 y 轴的旋转（弧度），随时间变化即为扫动的光束
+     * @param halfWidth 半宽
+     * @param widthCurve 沿路径的宽度倍率（输入为 0 到 1 的弧长进度），为 null 时宽度不变
+     * @param alpha 起点透明度（沿路径渐变到终点的 0）
+     */
+    public static void submitPath(PrismPathCurve path, double x, double y, double z, float yaw, float halfWidth,
+                                  PrismCurve widthCurve, float red, float green, float blue, float alpha) {
+        if (pathCount == paths.length) {
+            int capacity = paths.length * 2;
+            paths = Arrays.copyOf(paths, capacity);
+            pathWidthCurves = Arrays.copyOf(pathWidthCurves, capacity);
+            pathPositions = Arrays.copyOf(pathPositions, capacity * 3);
+            pathParams = Arrays.copyOf(pathParams, capacity * PATH_PARAM_STRIDE);
+        }
+
+        int index = pathCount++;
+        paths[index] = path;
+        pathWidthCurves[index] = widthCurve;
+        pathPositions[index * 3] = x;
+        pathPositions[index * 3 + 1] = y;
+        pathPositions[index * 3 + 2] = z;
+
+        int q = index * PATH_PARAM_STRIDE;
+        pathParams[q] = yaw;
+        pathParams[q + 1] = halfWidth;
+        pathParams[q + 2] = red;
+        pathParams[q + 3] = green;
+        pathParams[q + 4] = blue;
+        pathParams[q + 5] = alpha;
+    }
+
+    /**
+     * 登记一条拖尾（在粒子或实体渲染时调用），本帧的 flush 中统一绘制
+     * 拖尾在 flush 之前不能再被修改
+     *
+     * @param trail 拖尾（少于两个点时不绘制）
+     * @param partialTicks 帧内插值进度（与拥有者的渲染位置一致，头部画在插值位置）
+     * @param alpha 头部透明度（乘以拖尾样式中每个点的透明度）
+     */
+    public static void submitTrail(PrismTrail trail, float partialTicks, float red, float green, float blue, float alpha) {
+        if (trail.size() < 2 || alpha <= 0.0f) {
+            return;
+        }
+        if (trailCount == trails.length) {
+            int capacity = trails.length * 2;
+            trails = Arrays.copyOf(trails, capacity);
+            trailParams = Arrays.copyOf(trailParams, capacity * TRAIL_PARAM_STRIDE);
+        }
+
+        int index = trailCount++;
+        trails[index] = trail;
+        int q = index * TRAIL_PARAM_STRIDE;
+        trailParams[q] = red;
+        trailParams[q + 1] = green;
+        trailParams[q + 2] = blue;
+        trailParams[q + 3] = alpha;
+        trailParams[q + 4] = partialTicks;
+    }
+
+    /**
+     * 登记一道闪电，本帧的 flush 中统一绘制
+     * 闪电几何来自 LightningBoltCache，在 flush 之前不能重新生成
+     *
+     * @param bolt 闪电几何
+     * @param startX 起点的世界坐标 x
+     * @param endX 终点的世界坐标 x
+     * @param halfWidth 主干的半宽
+     * @param alpha 主干的透明度
+     */
+    public static void submitLightning(LightningBolt bolt, double startX, double startY, double startZ,
+                                       double endX, double endY, double endZ, float halfWidth,
+                                       float red, float green, float blue, float alpha) {
+        if (alpha <= 0.0f) {
+            return;
+        }
+        if (boltCount == bolts.length) {
+            int capacity = bolts.length * 2;
+            bolts = Arrays.copyOf(bolts, capacity);
+            boltEndpoints = Arrays.copyOf(boltEndpoints, capacity * 6);
+            boltParams = Arrays.copyOf(boltParams, capacity * BOLT_PARAM_STRIDE);
+        }
+
+        int index = boltCount++;
+        bolts[index] = bolt;
+        int p = index * 6;
+        boltEndpoints[p] = startX;
+        boltEndpoints[p + 1] = startY;
+        boltEndpoints[p + 2] = startZ;
+        boltEndpoints[p + 3] = endX;
+        boltEndpoints[p + 4] = endY;
+        boltEndpoints[p + 5] = endZ;
+
+        int q = index * BOLT_PARAM_STRIDE;
+        boltParams[q] = halfWidth;
+        boltParams[q + 1] = red;
+        boltParams[q + 2] = green;
+        boltParams[q + 3] = blue;
+        boltParams[q + 4] = alpha;
+    }
+
+    /**
+     * 生成本帧所有可见光束的顶点并提交，然后清空登记
+     *
+     * @param poseStack 世界渲染的矩阵栈（已包含相机旋转）
+     * @param projection 投影矩阵
+     * @param camera 相机位置
+     */
+    public static void flush(PoseStack poseStack, Matrix4f projection, Vec3 camera) {
+        if (beamCount == 0 && pathCount == 0 && trailCount == 0 && boltCount == 0) {
+            return;
+        }
+
+        Matrix4f pose = poseStack.last().pose();
+        frustum.set(frustumMatrix.set(projection).mul(pose), false);
+
+        int offset = 0;
+        for (int i = 0; i < beamCount; i++) {
+            int p = i * 3;
+            int q = i * PARAM_STRIDE;
+            float x = (float) (positions[p] - camera.x);
+            float y = (float) (positions[p + 1] - camera.y);
+            float z = (float) (positions[p + 2] - camera.z);
+            float halfWidth = params[q];
+            float bottom = y + params[q + 1];
+            float top = y + params[q + 2];
+            float alpha = params[q + 6];
+
+            if (top <= bottom || alpha <= 0.0f
+                    || !frustum.testAab(x - halfWidth, bottom, z - halfWidth, x + halfWidth, top, z + halfWidth)) {
+                continue;
+            }
+
+            int segments = BeamGeometry.segmentCount(bottom, top);
+            float step = (top - bottom) / segments;
+            for (int s = 0; s < segments; s++) {
+                float y0 = bottom + step * s;
+                float y1 = s == segments - 1 ? top : y0 + step;
+                if (segments > 1
+                        && !frustum.testAab(x - halfWidth, y0, z - halfWidth, x + halfWidth, y1, z + halfWidth)) {
+                    continue;
+                }
+
+                // 透明度沿整根光束从底部的 alpha 线性渐变到顶部的 0
+                float alpha0 = alpha * (1.0f - (float) s / segments);
+                float alpha1 = alpha * (1.0f - (float) (s + 1) / segments);
+                int lod = BeamGeometry.selectLod(BeamGeometry.distanceSqr(x, z, halfWidth, y0, y1));
+
+                if (offset + BeamGeometry.MAX_FLOATS_PER_SEGMENT > vertices.length) {
+                    vertices = Arrays.copyOf(vertices, vertices.length * 2);
+                }
+                offset = BeamGeometry.writeSegment(vertices, offset, lod, x, z, halfWidth, y0, y1,
+                        params[q + 3], params[q + 4], params[q + 5], alpha0, alpha1);
+            }
+        }
+        beamCount = 0;
+
+        offset = writePaths(offset, camera);
+        offset = writeTrails(offset, camera);
+        offset = writeBolts(offset, camera);
+
+        if (offset == 0) {
+            return;
+        }
+
+        MultiBufferSource.BufferSource bufferSource = Minecraft.getInstance().renderBuffers().bufferSource();
+        VertexConsumer consumer = bufferSource.getBuffer(RenderType.lightning());
+        float[] data = vertices;
+        for (int i = 0; i < offset; i += BeamGeometry.VERTEX_STRIDE) {
+            consumer.vertex(pose, data[i], data[i + 1], data[i + 2])
+                    .color(data[i + 3], data[i + 4], data[i + 5], data[i + 6])
+                    .endVertex();
+        }
+        bufferSource.endBatch(RenderType.lightning());
+    }
+
+    /**
+     * 写入所有可见的路径光束，返回写入后的位置
+     */
+    private static int writePaths(int offset, Vec3 camera) {
+        for (int i = 0; i < pathCount; i++) {
+            PrismPathCurve path = paths[i];
+            float x = (float) (pathPositions[i * 3] - camera.x);
+            float y = (float) (pathPositions[i * 3 + 1] - camera.y);
+            float z = (float) (pathPositions[i * 3 + 2] - camera.z);
+            int q = i * PATH_PARAM_STRIDE;
+            float yaw = pathParams[q];
+            float halfWidth = pathParams[q + 1];
+
+            // 包围球中心随路径一起绕 y 轴旋转；半径留出宽度曲线放大的余量
+            float cos = (float) Math.cos(yaw);
+            float sin = (float) Math.sin(yaw);
+            float centerX = x + path.getBoundsCenterX() * cos + path.getBoundsCenterZ() * sin;
+            float centerY = y + path.getBoundsCenterY();
+            float centerZ = z - path.getBoundsCenterX() * sin + path.getBoundsCenterZ() * cos;
+            if (pathParams[q + 5] <= 0.0f
+                    || !frustum.testSphere(centerX, centerY, centerZ, path.getBoundsRadius() + halfWidth * 2.0f)) {
+                continue;
+            }
+
+            int required = BeamGeometry.pathFloats(path);
+            if (offset + required > vertices.length) {
+                vertices = Arrays.copyOf(vertices, Math.max(vertices.length * 2, offset + required));
+            }
+            offset = BeamGeometry.writePathBeam(vertices, offset, path, x, y, z, yaw, halfWidth,
+                    pathWidthCurves[i], pathParams[q + 2], pathParams[q + 3], pathParams[q + 4], pathParams[q + 5]);
+        }
+
+        // 不保留对曲线的引用
+        Arrays.fill(paths, 0, pathCount, null);
+        Arrays.fill(pathWidthCurves, 0, pathCount, null);
+        pathCount = 0;
+        return offset;
+    }
+
+    /**
+     * 写入所有可见的拖尾，返回写入后的位置
+     */
+    private static int writeTrails(int offset, Vec3 camera) {
+        for (int i = 0; i < trailCount; i++) {
+            PrismTrail trail = trails[i];
+            if (!isTrailVisible(trail, camera)) {
+                continue;
+            }
+
+            int required = trail.getStyle().maxFloats();
+            if (offset + required > vertices.length) {
+                vertices = Arrays.copyOf(vertices, Math.max(vertices.length * 2, offset + required));
+            }
+            int q = i * TRAIL_PARAM_STRIDE;
+            offset = trail.write(vertices, offset, trailParams[q + 4], camera.x, camera.y, camera.z,
+                    trailParams[q], trailParams[q + 1], trailParams[q + 2], trailParams[q + 3]);
+        }
+
+        // 不保留对拖尾的引用（拖尾随粒子一起回收）
+        Arrays.fill(trails, 0, trailCount, null);
+        trailCount = 0;
+        return offset;
+    }
+
+    /**
+     * 写入所有可见的闪电，返回写入后的位置
+     */
+    private static int writeBolts(int offset, Vec3 camera) {
+        for (int i = 0; i < boltCount; i++) {
+            LightningBolt bolt = bolts[i];
+            int p = i * 6;
+            float startX = (float) (boltEndpoints[p] - camera.x);
+            float startY = (float) (boltEndpoints[p + 1] - camera.y);
+            float startZ = (float) (boltEndpoints[p + 2] - camera.z);
+            float endX = (float) (boltEndpoints[p + 3] - camera.x);
+            float endY = (float) (boltEndpoints[p + 4] - camera.y);
+            float endZ = (float) (boltEndpoints[p + 5] - camera.z);
+            int q = i * BOLT_PARAM_STRIDE;
+            float halfWidth = boltParams[q];
+
+            // 包围球：端点连线的中点，半径为半长加上形状偏离连线的上界
+            float dx = endX - startX;
+            float dy = endY - startY;
+            float dz = endZ - startZ;
+            float length = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+            float radius = length * (0.5f + bolt.getBoundsRadius()) + halfWidth;
+            if (!frustum.testSphere(startX + dx * 0.5f, startY + dy * 0.5f, startZ + dz * 0.5f, radius)) {
+                continue;
+            }
+
+            int required = bolt.floatCount();
+            if (offset + required > vertices.length) {
+                vertices = Arrays.copyOf(vertices, Math.max(vertices.length * 2, offset + required));
+            }
+            offset = bolt.write(vertices, offset, startX, startY, startZ, endX, endY, endZ, halfWidth,
+                    boltParams[q + 1], boltParams[q + 2], boltParams[q + 3], boltParams[q + 4]);
+        }
+
+        // 不保留对缓存几何的引用
+        Arrays.fill(bolts, 0, boltCount, null);
+        boltCount = 0;
+        return offset;
+    }
+
+    /**
+     * 用拖尾所有点的包围盒（外扩最大半宽）做视锥测试
+     */
+    private static boolean isTrailVisible(PrismTrail trail, Vec3 camera) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (int k = 0; k < trail.size(); k++) {
+            double px = trail.getPosition(k, 0);
+            double py = trail.getPosition(k, 1);
+            double pz = trail.getPosition(k, 2);
+            minX = Math.min(minX, px);
+            minY = Math.min(minY, py);
+            minZ = Math.min(minZ, pz);
+            maxX = Math.max(maxX, px);
+            maxY = Math.max(maxY, py);
+            maxZ = Math.max(maxZ, pz);
+        }
+        float margin = trail.getStyle().getMaxWidth();
+        return frustum.testAab(
+                (float) (minX - camera.x) - margin, (float) (minY - camera.y) - margin, (float) (minZ - camera.z) - margin,
+                (float) (maxX - camera.x) + margin, (float) (maxY - camera.y) + margin, (float) (maxZ - camera.z) + margin);
+    }
+
+    /**
+     * 丢弃本帧的登记（未能到达 flush 阶段时调用，如切换维度）
+     */
+    public static void clear() {
+        beamCount = 0;
+        Arrays.fill(paths, 0, pathCount, null);
+        Arrays.fill(pathWidthCurves, 0, pathCount, null);
+        pathCount = 0;
+        Arrays.fill(trails, 0, trailCount, null);
+        trailCount = 0;
+        Arrays.fill(bolts, 0, boltCount, null);
+        boltCount = 0;
+    }
+
+    /**
+     * 当前已登记的光束数量（竖直光束、路径光束、拖尾和闪电）
+     */
+    public static int getBeamCount() {
+        return beamCount + pathCount + trailCount + boltCount;
+    }
+}
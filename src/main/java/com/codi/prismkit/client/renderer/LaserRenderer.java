@@ -1,96 +1,137 @@
 package com.codi.prismkit.client.renderer;
 
-import com.codi.prismkit.PrismKit;
 import com.codi.prismkit.entity.vfx.LaserEntity;
+import com.codi.prismkit.math.curve.PrismCurve;
+import com.codi.prismkit.math.curve.PrismCurveManager;
+import com.codi.prismkit.math.curve.PrismPathCurve;
+import com.codi.prismkit.math.curve.PrismTrack;
+import com.codi.prismkit.vfx.VfxInstancePool;
 import com.mojang.blaze3d.vertex.PoseStack;
-import com.mojang.blaze3d.vertex.VertexConsumer;
 import net.minecraft.client.renderer.MultiBufferSource;
-import net.minecraft.client.renderer.RenderType;
 import net.minecraft.client.renderer.entity.EntityRenderer;
 import net.minecraft.client.renderer.entity.EntityRendererProvider;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
-import org.joml.Matrix3f;
-import org.joml.Matrix4f;
 
-import static java.lang.Math.pow;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @OnlyIn(Dist.CLIENT)
 public class LaserRenderer extends EntityRenderer<LaserEntity> {
+
+    // 激光属性轨道：所有属性共用一条时间轴，曲线重载后自动重建
+    private static PrismTrack laserTrack;
+    private static int laserTrackRevision = -1;
+
+    // 轨道通道下标（与 createLaserTrack 中的通道顺序一致）
+    private static final int CHANNEL_ALPHA = 0;
+    private static final int CHANNEL_WIDTH = 1;
+    private static final int CHANNEL_HEIGHT = 2;
+    private static final int CHANNEL_RED = 3;
+    private static final int CHANNEL_GREEN = 4;
+    private static final int CHANNEL_BLUE = 5;
+    private static final int CHANNEL_OFFSET = 6;
+
+    // 纯视觉激光特效（PrismEffects.LASER）的高度，与 LaserEntity 的默认高度一致
+    private static final double EFFECT_HEIGHT = 50.0;
+
+    // 扫动激光（PrismEffects.LASER_SWEEP）的弧形路径和生命周期内转过的角度
+    private static final PrismPathCurve SWEEP_PATH = PrismPathCurve.catmullRom("laser_sweep", new float[]{
+            0.0f, 0.0f, 0.0f,
+            1.0f, 8.0f, 0.0f,
+            5.0f, 14.0f, 0.0f,
+            12.0f, 17.0f, 0.0f
+    });
+    private static final float SWEEP_ANGLE = (float) Math.PI;
+
+    // 每帧复用的通道采样结果（只在渲染线程访问）
+    private static final float[] channels = new float[7];
     
     public LaserRenderer(EntityRendererProvider.Context context) {
         super(context);
     }
 
+    /**
+     * 获取激光属性轨道，曲线缓存发生变化时重建
+     */
+    private static PrismTrack getLaserTrack() {
+        int revision = PrismCurveManager.getInstance().getRevision();
+        if (laserTrack == null || laserTrackRevision != revision) {
+            laserTrack = createLaserTrack();
+            laserTrackRevision = revision;
+        }
+        return laserTrack;
+    }
+
+    /**
+     * 创建激光的默认属性轨道
+     * 透明度使用 "pulse" 曲线（不存在时线性回退，与 getCurveValue 的行为一致），其余通道为常量
+     */
+    private static PrismTrack createLaserTrack() {
+        PrismCurve pulse = PrismCurveManager.getInstance().getCurve("pulse")
+                .orElseGet(() -> PrismCurve.linear("pulse", 0.0f, 1.0f));
+
+        Map<String, PrismCurve> trackChannels = new LinkedHashMap<>();
+        trackChannels.put(PrismTrack.ALPHA, pulse);
+        trackChannels.put(PrismTrack.WIDTH, PrismCurve.constant("laser_width", 0.5f));
+        trackChannels.put(PrismTrack.HEIGHT, PrismCurve.constant("laser_height", 1.0f));
+        trackChannels.put(PrismTrack.RED, PrismCurve.constant("laser_red", 1.0f));
+        trackChannels.put(PrismTrack.GREEN, PrismCurve.constant("laser_green", 0.2f));
+        trackChannels.put(PrismTrack.BLUE, PrismCurve.constant("laser_blue", 0.2f));
+        trackChannels.put(PrismTrack.OFFSET, PrismCurve.constant("laser_offset", 0.0f));
+        return new PrismTrack("laser", trackChannels);
+    }
+
     @Override
     public void render(LaserEntity entity, float entityYaw, float partialTicks, 
                        PoseStack poseStack, MultiBufferSource bufferSource, int packedLight) {
         
         super.render(entity, entityYaw, partialTicks, poseStack, bufferSource, packedLight);
         
-        double height = entity.getLaserHeight();
-        int duration = entity.getDuration();
-        int maxDuration = entity.getMaxDuration();
-        
-        // 计算归一化的生命进度（0.0 到 1.0）
-        float normalizedAge = 1 - ((float) duration / (float) maxDuration);
-        normalizedAge = Math.max(0.0f, Math.min(1.0f, normalizedAge)); // 确保在 [0, 1] 范围
-        
-        // 使用 PrismCurve 计算整体透明度（淡入效果）
-        float alpha = PrismKit.getCurveValue("pulse", normalizedAge);
+        // 计算归一化的生命进度（0.0 到 1.0），由客户端游戏时间推算并按 partialTicks 插值
+        // 激光不会移动，直接使用当前位置即可，不需要按 partialTicks 插值
+        submitBeam(entity.getX(), entity.getY(), entity.getZ(), entity.getLaserHeight(),
+                entity.getNormalizedAge(partialTicks));
+    }
 
-        poseStack.pushPose();
-        
-        VertexConsumer vertexConsumer = bufferSource.getBuffer(RenderType.lightning());
-        
-        Matrix4f matrix4f = poseStack.last().pose();
-        Matrix3f matrix3f = poseStack.last().normal();
-        
-        float width = 0.5f;
-        float red = 1.0f;
-        float green = 0.2f;
-        float blue = 0.2f;
-        
-        float bottom = 0.0f;
-        float top = (float) height;
-        
-        addVertexWithGradient(vertexConsumer, matrix4f, matrix3f, width, bottom, width, red, green, blue, alpha, 15728880, 1.0f);
-        addVertexWithGradient(vertexConsumer, matrix4f, matrix3f, width, bottom, -width, red, green, blue, alpha, 15728880, 1.0f);
-        addVertexWithGradient(vertexConsumer, matrix4f, matrix3f, width, top, -width, red, green, blue, alpha, 15728880, 0f);
-        addVertexWithGradient(vertexConsumer, matrix4f, matrix3f, width, top, width, red, green, blue, alpha, 15728880, 0f);
-        
-        addVertexWithGradient(vertexConsumer, matrix4f, matrix3f, -width, bottom, -width, red, green, blue, alpha, 15728880, 1.0f);
-        addVertexWithGradient(vertexConsumer, matrix4f, matrix3f, -width, bottom, width, red, green, blue, alpha, 15728880, 1.0f);
-        addVertexWithGradient(vertexConsumer, matrix4f, matrix3f, -width, top, width, red, green, blue, alpha, 15728880, 0f);
-        addVertexWithGradient(vertexConsumer, matrix4f, matrix3f, -width, top, -width, red, green, blue, alpha, 15728880, 0f);
-        
-        addVertexWithGradient(vertexConsumer, matrix4f, matrix3f, -width, bottom, width, red, green, blue, alpha, 15728880, 1.0f);
-        addVertexWithGradient(vertexConsumer, matrix4f, matrix3f, width, bottom, width, red, green, blue, alpha, 15728880, 1.0f);
-        addVertexWithGradient(vertexConsumer, matrix4f, matrix3f, width, top, width, red, green, blue, alpha, 15728880, 0f);
-        addVertexWithGradient(vertexConsumer, matrix4f, matrix3f, -width, top, width, red, green, blue, alpha, 15728880, 0f);
-        
-        addVertexWithGradient(vertexConsumer, matrix4f, matrix3f, width, bottom, -width, red, green, blue, alpha, 15728880, 1.0f);
-        addVertexWithGradient(vertexConsumer, matrix4f, matrix3f, -width, bottom, -width, red, green, blue, alpha, 15728880, 1.0f);
-        addVertexWithGradient(vertexConsumer, matrix4f, matrix3f, -width, top, -width, red, green, blue, alpha, 15728880, 0f);
-        addVertexWithGradient(vertexConsumer, matrix4f, matrix3f, width, top, -width, red, green, blue, alpha, 15728880, 0f);
-        
-        poseStack.popPose();
+    /**
+     * 渲染纯视觉激光特效（由 ClientEffectManager 对每个存活实例调用）
+     */
+    public static void renderEffect(VfxInstancePool pool, int index, float normalizedAge) {
+        submitBeam(pool.getX(index), pool.getY(index), pool.getZ(index), EFFECT_HEIGHT, normalizedAge);
     }
 
-    private void addVertexWithGradient(VertexConsumer consumer, Matrix4f matrix4f, Matrix3f matrix3f,
-                          float x, float y, float z, 
-                          float red, float green, float blue, float baseAlpha,
-                          int packedLight, float gradientFactor) {
-        float finalAlpha = (float) (baseAlpha * pow(gradientFactor,10));
-        
-        consumer.vertex(matrix4f, x, y, z)
-                .color(red, green, blue, finalAlpha)
-                .uv(0, 0)
-                .overlayCoords(0)
-                .uv2(packedLight)
-                .normal(matrix3f, 0, 1, 0)
-                .endVertex();
+    /**
+     * 渲染扫动激光特效：弧形路径绕竖直轴转动，起始朝向由随机种子决定
+     */
+    public static void renderSweepEffect(VfxInstancePool pool, int index, float normalizedAge) {
+        getLaserTrack().sample(normalizedAge, channels);
+
+        long seed = pool.getSeed(index);
+        float startYaw = (float) ((seed & 0xFFFF) / 65536.0 * Math.PI * 2.0);
+        BeamBatchRenderer.submitPath(SWEEP_PATH, pool.getX(index), pool.getY(index), pool.getZ(index),
+                startYaw + SWEEP_ANGLE * normalizedAge, channels[CHANNEL_WIDTH], null,
+                channels[CHANNEL_RED], channels[CHANNEL_GREEN], channels[CHANNEL_BLUE],
+                channels[CHANNEL_ALPHA]);
+    }
+
+    /**
+     * 按生命进度采样激光轨道，并把光束登记到 BeamBatchRenderer
+     * 实体和纯视觉特效共用同一套外观
+     */
+    private static void submitBeam(double x, double y, double z, double height, float normalizedAge) {
+        // 一次采样得到所有属性（透明度、宽度、高度倍率、颜色、偏移）
+        getLaserTrack().sample(normalizedAge, channels);
+
+        float bottom = channels[CHANNEL_OFFSET];
+        float top = bottom + (float) height * channels[CHANNEL_HEIGHT];
+
+        // 只登记光束参数，顶点在 BeamBatchRenderer.flush 中与本帧所有激光一起生成和提交
+        BeamBatchRenderer.submit(x, y, z,
+                channels[CHANNEL_WIDTH], bottom, top,
+                channels[CHANNEL_RED], channels[CHANNEL_GREEN], channels[CHANNEL_BLUE],
+                channels[CHANNEL_ALPHA]);
     }
 
     @Override
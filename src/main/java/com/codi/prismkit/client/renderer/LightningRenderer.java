@@ -0,0 +1,119 @@
+package com.codi.prismkit.client.renderer;
+
+import com.codi.prismkit.math.curve.PrismCurve;
+import com.codi.prismkit.math.curve.PrismCurveManager;
+import com.codi.prismkit.render.LightningBolt;
+import com.codi.prismkit.render.LightningBoltCache;
+import com.codi.prismkit.render.PrismLightningStyle;
+import com.codi.prismkit.vfx.VfxInstancePool;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+
+/**
+ * 闪电渲染器
+ * 从 LightningBoltCache 取出（必要时生成）闪电几何，登记到 BeamBatchRenderer，与激光共用同一个 lightning 批次
+ *
+ * 设计意图：
+ * - 连锁闪电的每一条链只需调用一次 submitBolt：形状在更新间隔内复用，每帧只做端点映射和顶点输出
+ * - 抖动幅度沿闪电长度由 "lightning_jitter" 曲线控制（不存在时处处为 1），曲线重载后重建样式和缓存
+ *
+ * 技术细节：
+ * - 细节层次按相机到闪电中点的距离选择，远处的闪电点数更少
+ * - 缓存条目在客户端 tick 中按 LightningBoltCache.EVICT_TICKS 淘汰，离开世界时清空
+ * - 只在客户端主线程访问
+ */
+@OnlyIn(Dist.CLIENT)
+public final class LightningRenderer {
+
+    // 闪电形状参数
+    private static final float AMPLITUDE = 0.12f;
+    private static final float ROUGHNESS = 0.55f;
+    private static final int BRANCH_COUNT = 4;
+    private static final int UPDATE_INTERVAL = 2;
+
+    // 纯视觉闪电特效（PrismEffects.LIGHTNING）的外观
+    private static final double STRIKE_HEIGHT = 24.0;
+    private static final float STRIKE_HALF_WIDTH = 0.12f;
+
+    // 闪电几何缓存，抖动曲线重载后重建
+    private static LightningBoltCache cache;
+    private static int cacheRevision = -1;
+
+    private LightningRenderer() {
+    }
+
+    /**
+     * 获取闪电几何缓存，曲线缓存发生变化时重建
+     */
+    private static LightningBoltCache getCache() {
+        int revision = PrismCurveManager.getInstance().getRevision();
+        if (cache == null || cacheRevision != revision) {
+            PrismCurve jitter = PrismCurveManager.getInstance().getCurve("lightning_jitter")
+                    .orElseGet(() -> PrismCurve.constant("lightning_jitter", 1.0f));
+            cache = new LightningBoltCache(
+                    new PrismLightningStyle(AMPLITUDE, ROUGHNESS, jitter, BRANCH_COUNT, UPDATE_INTERVAL));
+            cacheRevision = revision;
+        }
+        return cache;
+    }
+
+    /**
+     * 在两点之间登记一道闪电（连锁闪电的每一条链调用一次）
+     *
+     * @param seed 种子（同一条链在生命周期内保持不变，不同的链使用不同的种子）
+     * @param startX 起点的世界坐标 x
+     * @param endX 终点的世界坐标 x
+     * @param halfWidth 主干的半宽
+     * @param alpha 主干的透明度
+     */
+    public static void submitBolt(int seed, double startX, double startY, double startZ,
+                                  double endX, double endY, double endZ, float halfWidth,
+                                  float red, float green, float blue, float alpha) {
+        ClientLevel level = Minecraft.getInstance().level;
+        if (level == null || alpha <= 0.0f) {
+            return;
+        }
+
+        Vec3 camera = Minecraft.getInstance().gameRenderer.getMainCamera().getPosition();
+        int lod = LightningBolt.selectLod(camera.distanceToSqr(
+                (startX + endX) * 0.5, (startY + endY) * 0.5, (startZ + endZ) * 0.5));
+        LightningBolt bolt = getCache().get(seed, lod, level.getGameTime());
+        BeamBatchRenderer.submitLightning(bolt, startX, startY, startZ, endX, endY, endZ, halfWidth,
+                red, green, blue, alpha);
+    }
+
+    /**
+     * 渲染纯视觉闪电特效：从特效位置上方 STRIKE_HEIGHT 处劈到特效位置，逐渐淡出
+     */
+    public static void renderEffect(VfxInstancePool pool, int index, float normalizedAge) {
+        long seed = pool.getSeed(index);
+        double x = pool.getX(index);
+        double y = pool.getY(index);
+        double z = pool.getZ(index);
+        submitBolt((int) (seed ^ (seed >>> 32)), x, y + STRIKE_HEIGHT, z, x, y, z, STRIKE_HALF_WIDTH,
+                0.7f, 0.8f, 1.0f, 1.0f - normalizedAge);
+    }
+
+    /**
+     * 客户端 tick：淘汰长时间未使用的闪电几何
+     *
+     * @param gameTime 当前游戏时间
+     */
+    public static void tick(long gameTime) {
+        if (cache != null) {
+            cache.evictUnused(gameTime);
+        }
+    }
+
+    /**
+     * 清空闪电几何缓存（离开世界时调用）
+     */
+    public static void clear() {
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
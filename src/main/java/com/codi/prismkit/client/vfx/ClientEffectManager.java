@@ -0,0 +1,119 @@
+package com.codi.prismkit.client.vfx;
+
+import com.codi.prismkit.PrismKit;
+import com.codi.prismkit.network.PlayEffectPacket;
+import com.codi.prismkit.vfx.PrismEffectType;
+import com.codi.prismkit.vfx.PrismEffects;
+import com.codi.prismkit.vfx.VfxInstancePool;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+
+import java.util.Arrays;
+
+/**
+ * 客户端纯视觉特效管理器（单例）
+ * 保存服务端通过 PlayEffectPacket 触发的特效，在实体系统之外更新和渲染
+ *
+ * 设计意图：
+ * - 服务端对纯视觉特效只付出一个数据包，没有实体 tick、区块追踪、存档和逐 tick 同步
+ * - 客户端不创建实体：实例存放在 VfxInstancePool 的结构数组里，到期时交换删除
+ *
+ * 技术细节：
+ * - 所有方法都在客户端主线程调用（数据包通过 consumerMainThread 处理，渲染和 tick 也在主线程）
+ * - 渲染器按特效编号存放在数组中，渲染时不做哈希查找
+ * - 离开世界时清空实例，避免特效跨维度残留
+ */
+@OnlyIn(Dist.CLIENT)
+public final class ClientEffectManager {
+
+    private static final ClientEffectManager INSTANCE = new ClientEffectManager();
+
+    // 同时存在的纯视觉特效上限，超出时新特效被丢弃
+    private static final int MAX_INSTANCES = 8192;
+
+    private final VfxInstancePool pool = new VfxInstancePool(MAX_INSTANCES);
+    private ClientEffectRenderer[] renderers = new ClientEffectRenderer[8];
+
+    private ClientEffectManager() {
+    }
+
+    public static ClientEffectManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 注册特效类型的渲染器（客户端设置阶段调用）
+     *
+     * @param type 特效类型
+     * @param renderer 渲染器
+     */
+    public void registerRenderer(PrismEffectType type, ClientEffectRenderer renderer) {
+        int id = type.getId();
+        if (id >= renderers.length) {
+            renderers = Arrays.copyOf(renderers, Math.max(renderers.length * 2, id + 1));
+        }
+        renderers[id] = renderer;
+    }
+
+    /**
+     * 开始播放数据包描述的特效
+     */
+    public void play(PlayEffectPacket packet) {
+        PrismEffectType type = PrismEffects.byId(packet.getEffectId());
+        if (type == null) {
+            PrismKit.LOGGER.warn("收到未知的特效编号：{}", packet.getEffectId());
+            return;
+        }
+        pool.add(type.getId(), packet.getX(), packet.getY(), packet.getZ(),
+                packet.getSeed(), packet.getStartTick(), type.getDuration());
+    }
+
+    /**
+     * 客户端 tick：移除到期的特效
+     */
+    public void tick() {
+        ClientLevel level = Minecraft.getInstance().level;
+        if (level == null) {
+            pool.clear();
+            return;
+        }
+        pool.removeExpired(level.getGameTime());
+    }
+
+    /**
+     * 渲染所有存活的特效（世界渲染阶段调用，在批量渲染器提交之前）
+     *
+     * @param partialTicks 渲染帧在当前 tick 内的进度
+     */
+    public void render(float partialTicks) {
+        ClientLevel level = Minecraft.getInstance().level;
+        if (level == null || pool.size() == 0) {
+            return;
+        }
+        long gameTime = level.getGameTime();
+        ClientEffectRenderer[] renderers = this.renderers;
+        for (int i = 0; i < pool.size(); i++) {
+            int id = pool.getEffectId(i);
+            ClientEffectRenderer renderer = id < renderers.length ? renderers[id] : null;
+            if (renderer != null) {
+                renderer.render(pool, i, pool.getNormalizedAge(i, gameTime, partialTicks));
+            }
+        }
+    }
+
+    /**
+     * 移除所有特效
+     */
+    public void clear() {
+        pool.clear();
+    }
+
+    /**
+     * 当前存活的特效数量
+     */
+    public int getInstanceCount() {
+        return pool.size();
+    }
+}
@@ -0,0 +1,21 @@
+package com.codi.prismkit.client.vfx;
+
+import com.codi.prismkit.vfx.VfxInstancePool;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+
+/**
+ * 纯视觉特效的渲染器
+ * 每帧对每个存活实例调用一次，通常只登记几何（如 BeamBatchRenderer.submit），由批量渲染器统一提交
+ */
+@OnlyIn(Dist.CLIENT)
+@FunctionalInterface
+public interface ClientEffectRenderer {
+
+    /**
+     * @param pool 实例池（按下标读取位置、种子等字段）
+     * @param index 实例下标
+     * @param normalizedAge 归一化的生命进度（0.0 到 1.0，已按 partialTicks 插值）
+     */
+    void render(VfxInstancePool pool, int index, float normalizedAge);
+}
@@ -0,0 +1,403 @@
+package com.codi.prismkit.collision;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.BlockHitResult;
+import net.minecraft.world.phys.Vec3;
+import net.minecraft.world.phys.shapes.Shapes;
+import net.minecraft.world.phys.shapes.VoxelShape;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Predicate;
+
+/**
+ * 光束碰撞服务（每个服务端世界一个实例）
+ * 为伤害类光束提供方块遮挡和实体命中检测，LaserEntity 和以后的光束类型共用
+ *
+ * 设计意图：
+ * - 方块遮挡用 VoxelRaycast 的 3D DDA 逐格前进，只对非完整方块才调用形状求交，不走原版 clip 的通用流程
+ * - 方块结果按光束缓存：光束不动、附近方块不变时，之后的 tick 直接复用，不再遍历
+ * - 实体查询使用每 tick 重建一次的 AabbSpatialHash，所有光束共享，而不是每根光束各扫描一次 getEntities；
+ *   哈希只登记活跃光束所在区域内的实体，不遍历整个世界的实体
+ *
+ * 技术细节：
+ * - 缓存以调用方提供的整数编号区分光束（实体光束使用实体编号），起点、方向或长度变化时缓存自动失效
+ * - 方块变化通过 BlockEvent.NeighborNotifyEvent 通知：DDA 访问过该方块的缓存条目失效
+ * - 空间哈希在本 tick 第一次查询时才重建，没有光束查询的 tick 没有任何开销
+ * - 哈希区域是本次查询的光束与上一 tick 查询过的光束的包围盒的并集（外扩 PREDICTION_MARGIN），
+ *   光束稳定时每 tick 只重建一次；本 tick 的查询超出已登记区域时把区域扩大到包含它再重建
+ * - 连续 STALE_TICKS 个 tick 未被查询的缓存条目（光束已消失）会被清理
+ * - 未加载的区块视为遮挡：碰撞检测绝不会触发区块加载；这样的结果不缓存，区块加载后的下一次查询即可穿过
+ * - 只在服务端主线程使用，不做同步
+ */
+public final class BeamCollisionService {
+
+    private static final Map<ServerLevel, BeamCollisionService> SERVICES = new WeakHashMap<>();
+
+    // 空间哈希的单元边长和外扩量（外扩量即支持的最大光束半径）
+    private static final double CELL_SIZE = 4.0;
+    public static final double MAX_BEAM_RADIUS = 2.0;
+
+    // 单根光束最多返回的实体数量
+    private static final int MAX_ENTITY_HITS = 64;
+
+    // 未被查询多少 tick 后清理缓存条目
+    private static final int STALE_TICKS = 20;
+
+    // 哈希区域的外扩量：容纳光束在两次查询之间的移动，避免同一 tick 内重复重建
+    private static final double PREDICTION_MARGIN = CELL_SIZE;
+
+    // 可被光束命中的实体
+    private static final Predicate<Entity> HASHABLE = entity ->
+            entity.isPickable() && entity.isAlive() && !entity.isSpectator();
+
+    private final ServerLevel level;
+
+    // ========== 每 tick 的实体空间哈希 ==========
+    private final AabbSpatialHash entityHash = new AabbSpatialHash(CELL_SIZE, MAX_BEAM_RADIUS);
+    private Entity[] hashedEntities = new Entity[64];
+    private long hashedTick = Long.MIN_VALUE;
+    private double hashedMinX;
+    private double hashedMinY;
+    private double hashedMinZ;
+    private double hashedMaxX;
+    private double hashedMaxY;
+    private double hashedMaxZ;
+    private final int[] entityHitBuffer = new int[MAX_ENTITY_HITS];
+
+    // ========== 每根光束的缓存 ==========
+    private final Int2ObjectMap<BeamCache> caches = new Int2ObjectOpenHashMap<>();
+    private final BlockVisitor blockVisitor = new BlockVisitor();
+
+    private BeamCollisionService(ServerLevel level) {
+        this.level = level;
+    }
+
+    /**
+     * 获取世界对应的碰撞服务
+     */
+    public static BeamCollisionService get(ServerLevel level) {
+        return SERVICES.computeIfAbsent(level, BeamCollisionService::new);
+    }
+
+    /**
+     * 方块发生变化（由 NeighborNotifyEvent 调用）
+     */
+    public static void onBlockChanged(ServerLevel level, BlockPos pos) {
+        BeamCollisionService service = SERVICES.get(level);
+        if (service != null) {
+            service.invalidate(pos.getX(), pos.getY(), pos.getZ());
+        }
+    }
+
+    /**
+     * 世界卸载时丢弃服务
+     */
+    public static void onLevelUnload(ServerLevel level) {
+        SERVICES.remove(level);
+    }
+
+    /**
+     * 检测一根光束的命中
+     *
+     * @param beamId 光束编号（在同一世界内唯一，实体光束使用 Entity.getId()）
+     * @param origin 起点
+     * @param direction 方向（单位向量）
+     * @param length 最大长度
+     * @param radius 光束半径（不超过 MAX_BEAM_RADIUS）
+     * @param ignored 不参与命中的实体（如发射者），可以为 null
+     * @return 命中结果（由服务复用，只在下一次对同一光束调用 cast 之前有效）
+     * @throws IllegalArgumentException 半径超出范围或长度不是有限的非负数
+     */
+    public BeamHit cast(int beamId, Vec3 origin, Vec3 direction, double length, double radius, Entity ignored) {
+        if (radius < 0.0 || radius > MAX_BEAM_RADIUS) {
+            throw new IllegalArgumentException("光束半径必须在 0 到 " + MAX_BEAM_RADIUS + " 之间：" + radius);
+        }
+        long tick = level.getGameTime();
+        BeamCache cache = caches.get(beamId);
+        if (cache == null) {
+            cache = new BeamCache();
+            caches.put(beamId, cache);
+        }
+        cache.lastUsedTick = tick;
+
+        // 方块遮挡：光束不变且未被方块变化失效时直接复用
+        if (!cache.blocksValid || !cache.matches(origin, direction, length)) {
+            castBlocks(cache, origin, direction, length);
+        }
+
+        // 实体命中：每个 tick 最多计算一次
+        if (cache.entityTick != tick || cache.radius != radius || cache.ignored != ignored) {
+            BeamHit hit = cache.hit;
+            cache.rememberQuery(origin, direction, hit.length, radius);
+            ensureEntityHash(tick, cache);
+            hit.entities.clear();
+            int count = entityHash.queryRay(origin.x, origin.y, origin.z, direction.x, direction.y, direction.z,
+                    hit.length, radius, entityHitBuffer);
+            for (int i = 0; i < count; i++) {
+                Entity entity = hashedEntities[entityHitBuffer[i]];
+                if (entity != ignored && entity.isAlive()) {
+                    hit.entities.add(entity);
+                }
+            }
+            cache.entityTick = tick;
+            cache.radius = radius;
+            cache.ignored = ignored;
+        }
+        return cache.hit;
+    }
+
+    /**
+     * 光束被移除时丢弃其缓存（可选，未调用时在 STALE_TICKS 后自动清理）
+     */
+    public void release(int beamId) {
+        caches.remove(beamId);
+    }
+
+    // ========== 方块遮挡 ==========
+
+    private void castBlocks(BeamCache cache, Vec3 origin, Vec3 direction, double length) {
+        BlockVisitor visitor = blockVisitor;
+        visitor.begin(origin, direction, length, cache.blockBounds);
+        VoxelRaycast.traverse(origin.x, origin.y, origin.z, direction.x, direction.y, direction.z, length, visitor);
+
+        BeamHit hit = cache.hit;
+        hit.length = visitor.hitDistance;
+        hit.blockPos = visitor.hitBlock ? visitor.pos.immutable() : null;
+
+        // 失效区域由访问器在遍历时累计：起点到停止处经过的所有方块，包括命中的方块
+        cache.remember(origin, direction, length);
+        // 被未加载区块挡住的结果不缓存：区块加载后不会有方块变化通知，下一次查询必须重新遍历
+        cache.blocksValid = !visitor.hitUnloaded;
+        // 光束长度可能变化，实体结果需要重新计算
+        cache.entityTick = Long.MIN_VALUE;
+    }
+
+    private void invalidate(int x, int y, int z) {
+        for (BeamCache cache : caches.values()) {
+            if (cache.blocksValid && cache.blockBounds.contains(x, y, z)) {
+                cache.blocksValid = false;
+            }
+        }
+    }
+
+    /**
+     * DDA 的方块访问器（复用，单线程）
+     */
+    private final class BlockVisitor implements VoxelRaycast.VoxelVisitor {
+        final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        double hitDistance;
+        boolean hitBlock;
+        // 遍历因区块未加载而停止
+        boolean hitUnloaded;
+
+        private Vec3 origin;
+        private double endX;
+        private double endY;
+        private double endZ;
+        // 只有遇到非完整方块时才创建终点
+        private Vec3 end;
+        // 本次遍历访问过的方块范围（写入缓存条目）
+        private VoxelBounds bounds;
+
+        void begin(Vec3 origin, Vec3 direction, double length, VoxelBounds bounds) {
+            this.origin = origin;
+            this.bounds = bounds;
+            bounds.clear();
+            this.endX = origin.x + direction.x * length;
+            this.endY = origin.y + direction.y * length;
+            this.endZ = origin.z + direction.z * length;
+            this.end = null;
+            this.hitDistance = length;
+            this.hitBlock = false;
+            this.hitUnloaded = false;
+        }
+
+        @Override
+        public boolean visit(int x, int y, int z, double tEnter) {
+            bounds.include(x, y, z);
+            if (level.isOutsideBuildHeight(y)) {
+                return false;
+            }
+            // 区块未加载：视为遮挡，避免触发区块加载
+            if (!level.hasChunk(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(z))) {
+                hitDistance = tEnter;
+                hitUnloaded = true;
+                return true;
+            }
+
+            pos.set(x, y, z);
+            BlockState state = level.getBlockState(pos);
+            if (state.isAir()) {
+                return false;
+            }
+            VoxelShape shape = state.getCollisionShape(level, pos);
+            if (shape.isEmpty()) {
+                return false;
+            }
+            if (shape == Shapes.block()) {
+                hitDistance = tEnter;
+                hitBlock = true;
+                return true;
+            }
+
+            // 非完整方块（台阶、栅栏等）：精确求交
+            if (end == null) {
+                end = new Vec3(endX, endY, endZ);
+            }
+            BlockHitResult result = shape.clip(origin, end, pos);
+            if (result != null) {
+                hitDistance = result.getLocation().distanceTo(origin);
+                hitBlock = true;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    // ========== 实体空间哈希 ==========
+
+    /**
+     * 确保本 tick 的空间哈希覆盖光束 beam 的查询区域
+     */
+    private void ensureEntityHash(long tick, BeamCache beam) {
+        if (hashedTick == tick && covers(beam)) {
+            return;
+        }
+
+        if (hashedTick != tick) {
+            // 顺便清理已经消失的光束的缓存
+            ObjectIterator<Int2ObjectMap.Entry<BeamCache>> iterator = caches.int2ObjectEntrySet().iterator();
+            while (iterator.hasNext()) {
+                if (tick - iterator.next().getValue().lastUsedTick > STALE_TICKS) {
+                    iterator.remove();
+                }
+            }
+
+            // 新的 tick：本次查询加上上一 tick 查询过的光束（它们本 tick 大概率会再次查询）
+            hashedMinX = beam.queryMinX;
+            hashedMinY = beam.queryMinY;
+            hashedMinZ = beam.queryMinZ;
+            hashedMaxX = beam.queryMaxX;
+            hashedMaxY = beam.queryMaxY;
+            hashedMaxZ = beam.queryMaxZ;
+            for (BeamCache cache : caches.values()) {
+                if (cache.hasQuery && tick - cache.lastQueryTick <= 1) {
+                    include(cache);
+                }
+            }
+        } else {
+            include(beam);
+        }
+        hashedMinX -= PREDICTION_MARGIN;
+        hashedMinY -= PREDICTION_MARGIN;
+        hashedMinZ -= PREDICTION_MARGIN;
+        hashedMaxX += PREDICTION_MARGIN;
+        hashedMaxY += PREDICTION_MARGIN;
+        hashedMaxZ += PREDICTION_MARGIN;
+        hashedTick = tick;
+
+        entityHash.clear();
+        Arrays.fill(hashedEntities, null);
+        AABB area = new AABB(hashedMinX, hashedMinY, hashedMinZ, hashedMaxX, hashedMaxY, hashedMaxZ);
+        for (Entity entity : level.getEntities((Entity) null, area, HASHABLE)) {
+            AABB box = entity.getBoundingBox();
+            int index = entityHash.add(box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ);
+            if (index == hashedEntities.length) {
+                hashedEntities = Arrays.copyOf(hashedEntities, hashedEntities.length * 2);
+            }
+            hashedEntities[index] = entity;
+        }
+    }
+
+    private boolean covers(BeamCache beam) {
+        return beam.queryMinX >= hashedMinX && beam.queryMaxX <= hashedMaxX
+                && beam.queryMinY >= hashedMinY && beam.queryMaxY <= hashedMaxY
+                && beam.queryMinZ >= hashedMinZ && beam.queryMaxZ <= hashedMaxZ;
+    }
+
+    private void include(BeamCache beam) {
+        hashedMinX = Math.min(hashedMinX, beam.queryMinX);
+        hashedMinY = Math.min(hashedMinY, beam.queryMinY);
+        hashedMinZ = Math.min(hashedMinZ, beam.queryMinZ);
+        hashedMaxX = Math.max(hashedMaxX, beam.queryMaxX);
+        hashedMaxY = Math.max(hashedMaxY, beam.queryMaxY);
+        hashedMaxZ = Math.max(hashedMaxZ, beam.queryMaxZ);
+    }
+
+    /**
+     * 单根光束的缓存
+     */
+    private static final class BeamCache {
+        final BeamHit hit = new BeamHit();
+
+        // 方块结果对应的光束参数
+        double originX;
+        double originY;
+        double originZ;
+        double dirX;
+        double dirY;
+        double dirZ;
+        double length;
+        boolean blocksValid;
+
+        // 方块结果的失效区域
+        final VoxelBounds blockBounds = new VoxelBounds();
+
+        // 实体结果对应的 tick 和参数
+        long entityTick = Long.MIN_VALUE;
+        double radius;
+        Entity ignored;
+
+        // 最近一次实体查询的区域（光束线段外扩半径）和 tick
+        boolean hasQuery;
+        long lastQueryTick;
+        double queryMinX;
+        double queryMinY;
+        double queryMinZ;
+        double queryMaxX;
+        double queryMaxY;
+        double queryMaxZ;
+
+        long lastUsedTick;
+
+        boolean matches(Vec3 origin, Vec3 direction, double length) {
+            return originX == origin.x && originY == origin.y && originZ == origin.z
+                    && dirX == direction.x && dirY == direction.y && dirZ == direction.z
+                    && this.length == length;
+        }
+
+        void remember(Vec3 origin, Vec3 direction, double length) {
+            originX = origin.x;
+            originY = origin.y;
+            originZ = origin.z;
+            dirX = direction.x;
+            dirY = direction.y;
+            dirZ = direction.z;
+            this.length = length;
+        }
+
+        void rememberQuery(Vec3 origin, Vec3 direction, double length, double radius) {
+            double endX = origin.x + direction.x * length;
+            double endY = origin.y + direction.y * length;
+            double endZ = origin.z + direction.z * length;
+            queryMinX = Math.min(origin.x, endX) - radius;
+            queryMinY = Math.min(origin.y, endY) - radius;
+            queryMinZ = Math.min(origin.z, endZ) - radius;
+            queryMaxX = Math.max(origin.x, endX) + radius;
+            queryMaxY = Math.max(origin.y, endY) + radius;
+            queryMaxZ = Math.max(origin.z, endZ) + radius;
+            lastQueryTick = lastUsedTick;
+            hasQuery = true;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.codi.prismkit.collision;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.Entity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 光束命中结果
+ * 由 BeamCollisionService 为每根光束维护一个实例并复用，只在下一次对同一光束调用 cast 之前有效
+ */
+public final class BeamHit {
+
+    // 光束实际长度（被方块挡住时小于请求的长度）
+    double length;
+
+    // 挡住光束的方块；未被挡住时为 null
+    BlockPos blockPos;
+
+    final List<Entity> entities = new ArrayList<>();
+    private final List<Entity> entitiesView = Collections.unmodifiableList(entities);
+
+    BeamHit() {
+    }
+
+    /**
+     * 光束实际长度（从起点到第一个方块，未被挡住时等于请求的长度）
+     */
+    public double getLength() {
+        return length;
+    }
+
+    /**
+     * 是否被方块挡住
+     */
+    public boolean isBlocked() {
+        return blockPos != null;
+    }
+
+    /**
+     * 挡住光束的方块位置；未被挡住时返回 null
+     */
+    public BlockPos getBlockPos() {
+        return blockPos;
+    }
+
+    /**
+     * 光束实际长度内接触到的实体（无序，只读）
+     */
+    public List<Entity> getEntities() {
+        return entitiesView;
+    }
+}
@@ -0,0 +1,144 @@
+package com.codi.prismkit.emitter;
+
+import com.codi.prismkit.math.curve.PrismCurveManager;
+import com.mojang.logging.LogUtils;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.packs.resources.Resource;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraftforge.server.ServerLifecycleHooks;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * PrismEmitter 的全局管理器（模组侧适配层）
+ * 负责把与 Minecraft 无关的 PrismEmitterLibrary 接入游戏：确定存储目录、读取数据包中的发射器
+ *
+ * 设计意图：
+ * - 单例模式，与 PrismCurveManager 对应，加载方式和优先级也相同（data 目录低于 config 目录）
+ * - 发射器引用的曲线来自 PrismCurveManager 的曲线库，曲线重载后发射器在下次查询时自动重新解析
+ *
+ * 文件存储位置：
+ * - 数据包：data/prismkit/emitters/*.json
+ * - 用户自定义：<minecraft>/config/prismkit/emitters/
+ */
+public class PrismEmitterManager {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    // 单例实例
+    private static PrismEmitterManager instance;
+
+    // 与 Minecraft 无关的发射器库
+    private final PrismEmitterLibrary library;
+
+    /**
+     * 私有构造函数（单例模式）
+     */
+    private PrismEmitterManager() {
+        this.library = new PrismEmitterLibrary(PrismCurveManager.getInstance().getLibrary());
+    }
+
+    /**
+     * 获取管理器的单例实例
+     */
+    public static PrismEmitterManager getInstance() {
+        if (instance == null) {
+            instance = new PrismEmitterManager();
+        }
+        return instance;
+    }
+
+    /**
+     * 初始化管理器：设置存储目录并加载用户自定义发射器
+     * 应该在 PrismCurveManager.initialize 之后调用一次
+     *
+     * @param configDir Minecraft 的 config 目录
+     */
+    public void initialize(Path configDir) {
+        Path emittersDirectory = configDir.resolve("prismkit").resolve("emitters");
+        try {
+            library.setEmittersDirectory(emittersDirectory);
+            LOGGER.info("PrismEmitter 用户目录: {}", emittersDirectory);
+            loadEmittersFromConfigDirectory();
+        } catch (IOException e) {
+            LOGGER.error("创建 PrismEmitter 目录失败: {}", emittersDirectory, e);
+        }
+    }
+
+    /**
+     * 从 data 目录加载发射器（资源文件），随后重新加载 config 目录，保证用户自定义发射器优先
+     */
+    public void loadEmittersFromDataDirectory() {
+        MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        if (server == null) {
+            return;
+        }
+
+        try {
+            ResourceManager resourceManager = server.getResourceManager();
+            Map<ResourceLocation, Resource> resourcesMap = resourceManager.listResources(
+                    "emitters",
+                    location -> location.getNamespace().equals("prismkit") && location.getPath().endsWith(".json")
+            );
+
+            int loadedCount = 0;
+            for (Map.Entry<ResourceLocation, Resource> entry : resourcesMap.entrySet()) {
+                try (InputStream stream = entry.getValue().open()) {
+                    library.loadEmitter(new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+                    loadedCount++;
+                } catch (Exception e) {
+                    LOGGER.error("解析发射器文件失败: {}", entry.getKey(), e);
+                }
+            }
+
+            if (loadedCount > 0) {
+                LOGGER.info("从 data 目录加载 {} 个发射器", loadedCount);
+            }
+            loadEmittersFromConfigDirectory();
+        } catch (Exception e) {
+            LOGGER.error("扫描 data 目录发射器失败", e);
+        }
+    }
+
+    /**
+     * 从 config 目录加载用户自定义发射器（覆盖 data 目录中的同名发射器）
+     */
+    private void loadEmittersFromConfigDirectory() {
+        int loadedCount = library.loadEmittersFromDirectory();
+        if (loadedCount > 0) {
+            LOGGER.info("从配置目录加载 {} 个用户自定义发射器", loadedCount);
+        }
+    }
+
+    // ========== 委托给 PrismEmitterLibrary 的公共 API ==========
+
+    /**
+     * 获取已解析的发射器类型
+     *
+     * @param emitterName 发射器名称
+     * @return 发射器类型，不存在时返回 null
+     */
+    public PrismEmitterType getType(String emitterName) {
+        return library.getType(emitterName);
+    }
+
+    public boolean hasEmitter(String emitterName) {
+        return library.hasEmitter(emitterName);
+    }
+
+    public int getEmitterCount() {
+        return library.getEmitterCount();
+    }
+
+    /**
+     * 获取底层的发射器库（与 Minecraft 无关的部分）
+     */
+    public PrismEmitterLibrary getLibrary() {
+        return library;
+    }
+}
@@ -1,51 +1,117 @@
 package com.codi.prismkit.entity.vfx;
 
+import com.codi.prismkit.collision.BeamCollisionService;
+import com.codi.prismkit.collision.BeamHit;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.syncher.EntityDataAccessor;
 import net.minecraft.network.syncher.EntityDataSerializers;
 import net.minecraft.network.syncher.SynchedEntityData;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
 
+/**
+ * 激光特效实体
+ *
+ * 设计意图：
+ * - 生命周期由“生成时的游戏时间 + 最大持续时间”决定，只在生成时同步一次
+ * - 客户端根据本地游戏时间和 partialTicks 自行推算年龄，曲线采样在帧之间也是平滑的
+ * - 服务端不再每 tick 同步倒计时：几百个激光同时存在时，实体数据包本身就是可观的带宽和 tick 开销
+ *
+ * 技术细节：
+ * - 客户端的游戏时间每 tick 本地递增，并由服务端定期校正，与服务端的差异通常不超过一两个 tick
+ * - 激光不会移动，也不参与物理和流体，tick 中只做到期检查，不调用 Entity.tick 的通用逻辑
+ * - 剔除包围盒每帧都会被视锥测试读取，因此缓存起来，只在高度或实体包围盒变化时重建
+ * - 伤害为正数时，服务端每 tick 通过 BeamCollisionService 检测光束（被方块挡住的部分不算）接触到的实体
+ */
 public class LaserEntity extends Entity {
-    
-    private static final EntityDataAccessor<Integer> DATA_DURATION = 
-            SynchedEntityData.defineId(LaserEntity.class, EntityDataSerializers.INT);
+
+    private static final EntityDataAccessor<Long> DATA_SPAWN_TIME =
+            SynchedEntityData.defineId(LaserEntity.class, EntityDataSerializers.LONG);
     private static final EntityDataAccessor<Integer> DATA_MAX_DURATION =
             SynchedEntityData.defineId(LaserEntity.class, EntityDataSerializers.INT);
-    
-    private static final EntityDataAccessor<Float> DATA_LASER_HEIGHT = 
+
+    private static final EntityDataAccessor<Float> DATA_LASER_HEIGHT =
             SynchedEntityData.defineId(LaserEntity.class, EntityDataSerializers.FLOAT);
-    
+
+    // 光束方向（竖直向上）和碰撞半径（与渲染的默认半宽一致）
+    private static final Vec3 BEAM_DIRECTION = new Vec3(0.0, 1.0, 0.0);
+    private static final double BEAM_RADIUS = 0.5;
+
+    // 每 tick 对光束内实体造成的伤害（只在服务端使用，不同步）
+    private float damage;
+
+    // 剔除包围盒缓存：以高度和实体包围盒（不可变对象，移动时会被替换）为键
+    private AABB cullingBox;
+    private AABB cullingBoxBase;
+    private float cullingBoxHeight;
+
     public LaserEntity(EntityType<?> entityType, Level level) {
         super(entityType, level);
         this.noPhysics = true;
+        // 生成时记录一次开始时间；客户端的值会被随生成包同步的服务端数据覆盖
+        this.entityData.set(DATA_SPAWN_TIME, level.getGameTime());
     }
 
     @Override
     protected void defineSynchedData() {
-        this.entityData.define(DATA_DURATION, 40);
+        this.entityData.define(DATA_SPAWN_TIME, 0L);
         this.entityData.define(DATA_MAX_DURATION, 40);
         this.entityData.define(DATA_LASER_HEIGHT, 50.0f);
     }
 
-    public void setDuration(int ticks) {
-        this.entityData.set(DATA_DURATION, ticks);
-    }
-
+    /**
+     * 设置最大持续时间并从当前游戏时间重新开始计时
+     *
+     * @param ticks 持续时间（tick）
+     */
     public void setMaxDuration(int ticks) {
         this.entityData.set(DATA_MAX_DURATION, ticks);
-        setDuration(ticks);
+        this.entityData.set(DATA_SPAWN_TIME, this.level().getGameTime());
+    }
+
+    public int getMaxDuration() {
+        return this.entityData.get(DATA_MAX_DURATION);
     }
 
+    /**
+     * 设置剩余持续时间（调整开始时间，最大持续时间不变）
+     *
+     * @param ticks 剩余时间（tick）
+     */
+    public void setDuration(int ticks) {
+        this.entityData.set(DATA_SPAWN_TIME, this.level().getGameTime() - (getMaxDuration() - ticks));
+    }
+
+    /**
+     * 获取剩余持续时间（tick）
+     */
     public int getDuration() {
-        return this.entityData.get(DATA_DURATION);
+        return Math.max(0, getMaxDuration() - (int) getAgeTicks());
     }
 
-    public int getMaxDuration() {
-        return this.entityData.get(DATA_MAX_DURATION);
+    /**
+     * 获取已存在的 tick 数（由游戏时间推算，不需要同步）
+     */
+    public long getAgeTicks() {
+        return this.level().getGameTime() - this.entityData.get(DATA_SPAWN_TIME);
+    }
+
+    /**
+     * 获取归一化的生命进度（0.0 到 1.0），在两个 tick 之间按 partialTicks 插值
+     *
+     * @param partialTicks 渲染帧在当前 tick 内的进度
+     */
+    public float getNormalizedAge(float partialTicks) {
+        int maxDuration = getMaxDuration();
+        if (maxDuration <= 0) {
+            return 1.0f;
+        }
+        float age = (getAgeTicks() + partialTicks) / maxDuration;
+        return Math.max(0.0f, Math.min(1.0f, age));
     }
 
     public void setLaserHeight(double height) {
@@ -56,43 +122,84 @@ public class LaserEntity extends Entity {
         return this.entityData.get(DATA_LASER_HEIGHT);
     }
 
+    /**
+     * 设置每 tick 对光束内实体造成的伤害（0 表示纯视觉，不做碰撞检测）
+     */
+    public void setDamage(float damage) {
+        this.damage = Math.max(0.0f, damage);
+    }
+
+    public float getDamage() {
+        return damage;
+    }
+
     @Override
     public void tick() {
-        super.tick();
-        
-        int duration = this.getDuration();
-        duration--;
-        
-        if (duration <= 0) {
+        // 只由服务端判断到期并移除，客户端随移除包一起删除
+        if (this.level().isClientSide) {
+            return;
+        }
+        if (getAgeTicks() >= getMaxDuration()) {
             this.discard();
-        } else {
-            this.setDuration(duration);
+            return;
+        }
+        if (damage > 0.0f) {
+            hurtEntitiesInBeam();
+        }
+    }
+
+    private void hurtEntitiesInBeam() {
+        BeamHit hit = BeamCollisionService.get((ServerLevel) this.level())
+                .cast(this.getId(), this.position(), BEAM_DIRECTION, this.getLaserHeight(), BEAM_RADIUS, null);
+        for (Entity entity : hit.getEntities()) {
+            entity.hurt(this.damageSources().magic(), damage);
         }
-        
-        this.refreshDimensions();
     }
 
+    @Override
+    public void remove(RemovalReason reason) {
+        super.remove(reason);
+        if (this.level() instanceof ServerLevel serverLevel) {
+            BeamCollisionService.get(serverLevel).release(this.getId());
+        }
+    }
+
+    /**
+     * 剔除包围盒：水平方向即实体包围盒（宽 1.0，与光束默认半宽 0.5 一致），竖直方向覆盖整个光束高度
+     */
     @Override
     public AABB getBoundingBoxForCulling() {
-        AABB normalBox = this.getBoundingBox();
-        double height = this.getLaserHeight();
-        return normalBox.inflate(2.0, 0, 2.0)
-                        .expandTowards(0, height, 0);
+        AABB base = this.getBoundingBox();
+        float height = this.entityData.get(DATA_LASER_HEIGHT);
+        if (cullingBox == null || cullingBoxBase != base || cullingBoxHeight != height) {
+            cullingBox = new AABB(base.minX, base.minY, base.minZ,
+                    base.maxX, Math.max(base.maxY, base.minY + height), base.maxZ);
+            cullingBoxBase = base;
+            cullingBoxHeight = height;
+        }
+        return cullingBox;
     }
 
     @Override
     protected void readAdditionalSaveData(CompoundTag tag) {
-        if (tag.contains("Duration")) {
+        if (tag.contains("MaxDuration")) {
+            this.entityData.set(DATA_MAX_DURATION, tag.getInt("MaxDuration"));
+            this.entityData.set(DATA_SPAWN_TIME, this.level().getGameTime() - tag.getInt("Age"));
+        } else if (tag.contains("Duration")) {
+            // 旧存档只保存了剩余时间
             this.setMaxDuration(tag.getInt("Duration"));
         }
         if (tag.contains("LaserHeight")) {
             this.setLaserHeight(tag.getDouble("LaserHeight"));
         }
+        this.damage = tag.getFloat("Damage");
     }
 
     @Override
     protected void addAdditionalSaveData(CompoundTag tag) {
-        tag.putInt("Duration", this.getDuration());
+        tag.putInt("MaxDuration", this.getMaxDuration());
+        tag.putInt("Age", (int) Math.min(this.getAgeTicks(), this.getMaxDuration()));
         tag.putDouble("LaserHeight", this.getLaserHeight());
+        tag.putFloat("Damage", this.damage);
     }
 }
@@ -0,0 +1,94 @@
+package com.codi.prismkit.gametest;
+
+import com.codi.prismkit.PrismKit;
+import com.codi.prismkit.entity.vfx.LaserEntity;
+import com.codi.prismkit.registry.PKEntityRegister;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LaserEntity 的服务端负载测试
+ * 分别生成 100 / 1000 / 10000 个激光，记录 MSPT 和同步字节数并与阈值比较
+ *
+ * 运行方式：./gradlew runGameTestServer
+ *
+ * 技术细节：
+ * - 每个规模使用独立的 batch，保证同一时间只有一个场景在运行，测到的 tick 耗时互不干扰
+ * - 先空转 WARMUP_TICKS 让区块加载和 JIT 稳定，再连续采样 MEASURE_TICKS 个 tick
+ * - 激光寿命覆盖整个测试，结束后统一清除
+ */
+@GameTestHolder(PrismKit.MOD_ID)
+@PrefixGameTestTemplate(false)
+public class LaserLoadGameTests {
+    private static final String TEMPLATE = "empty";
+
+    private static final int WARMUP_TICKS = 20;
+    private static final int MEASURE_TICKS = 100;
+    private static final int TIMEOUT_TICKS = 400;
+
+    // 测试结构内可用的水平范围（结构尺寸为 5x5x5）
+    private static final int AREA_SIZE = 5;
+
+    @GameTest(template = TEMPLATE, batch = "prismkit_laser_100", timeoutTicks = TIMEOUT_TICKS)
+    public static void laserLoad100(GameTestHelper helper) {
+        runLaserLoad(helper, "laser_100", 100);
+    }
+
+    @GameTest(template = TEMPLATE, batch = "prismkit_laser_1000", timeoutTicks = TIMEOUT_TICKS)
+    public static void laserLoad1000(GameTestHelper helper) {
+        runLaserLoad(helper, "laser_1000", 1000);
+    }
+
+    @GameTest(template = TEMPLATE, batch = "prismkit_laser_10000", timeoutTicks = TIMEOUT_TICKS)
+    public static void laserLoad10000(GameTestHelper helper) {
+        runLaserLoad(helper, "laser_10000", 10000);
+    }
+
+    // ========== 测试流程 ==========
+
+    private static void runLaserLoad(GameTestHelper helper, String scenario, int count) {
+        PrismLoadThresholds thresholds =
+                PrismLoadThresholds.load(helper.getLevel().getServer().getResourceManager(), scenario);
+
+        List<LaserEntity> lasers = spawnLasers(helper, count, WARMUP_TICKS + MEASURE_TICKS + 20);
+        PrismLoadProbe probe = new PrismLoadProbe(helper.getLevel().getServer(), MEASURE_TICKS);
+
+        for (int tick = 0; tick < MEASURE_TICKS; tick++) {
+            helper.runAfterDelay(WARMUP_TICKS + tick, () -> probe.sample(lasers));
+        }
+
+        helper.runAfterDelay(WARMUP_TICKS + MEASURE_TICKS + 1, () -> {
+            PrismKit.LOGGER.info("[GameTest] {}（{} 个激光）: {}", scenario, count, probe);
+            helper.killAllEntities();
+
+            String failure = thresholds.check(probe);
+            if (failure != null) {
+                helper.fail(scenario + ": " + failure);
+            }
+            helper.succeed();
+        });
+    }
+
+    /**
+     * 在测试结构内均匀生成激光
+     *
+     * @param lifetime 激光寿命（tick），需要覆盖整个测量窗口
+     */
+    private static List<LaserEntity> spawnLasers(GameTestHelper helper, int count, int lifetime) {
+        List<LaserEntity> lasers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double x = (i % AREA_SIZE) + 0.5;
+            double z = ((i / AREA_SIZE) % AREA_SIZE) + 0.5;
+            LaserEntity laser = helper.spawn(PKEntityRegister.LASER.get(), new Vec3(x, 1.0, z));
+            laser.setMaxDuration(lifetime);
+            lasers.add(laser);
+        }
+        return lasers;
+    }
+}
@@ -0,0 +1,121 @@
+package com.codi.prismkit.gametest;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.protocol.game.ClientboundSetEntityDataPacket;
+import net.minecraft.network.syncher.SynchedEntityData;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.entity.Entity;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 服务端负载探针
+ * 在 GameTest 中逐 tick 记录 tick 耗时（MSPT）和实体数据同步产生的字节数
+ *
+ * 设计意图：
+ * - 不依赖客户端和 GPU，在无头的 runGameTestServer 上得到可复现的服务端负载数据
+ * - 同一个探针可用于任何 PrismKit 特效实体，只需要传入被测实体集合
+ *
+ * 技术细节：
+ * - tick 耗时读取 MinecraftServer.tickTimes（环形数组，记录每个 tick 的纳秒数）；
+ *   GameTest 回调在本 tick 结束前执行，因此读取的是上一个 tick 的耗时
+ * - 同步字节数：实体 tick 之后、下一个 tick 的 ServerEntity.sendChanges 之前，
+ *   对每个实体调用 packDirty 并按 ClientboundSetEntityDataPacket 的格式编码计数（不含包头）
+ * - packDirty 会消费脏标记；GameTest 服务器上没有玩家，不影响任何实际同步
+ */
+public class PrismLoadProbe {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final MinecraftServer server;
+
+    // 每个采样 tick 的耗时（纳秒）
+    private final long[] tickNanos;
+    private int sampleCount;
+
+    // 累计的实体数据同步字节数
+    private long syncBytes;
+
+    // 编码用的复用缓冲区
+    private final FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer(256));
+
+    /**
+     * @param server 服务端实例
+     * @param maxSamples 最多记录的 tick 数
+     */
+    public PrismLoadProbe(MinecraftServer server, int maxSamples) {
+        this.server = server;
+        this.tickNanos = new long[maxSamples];
+    }
+
+    /**
+     * 记录一个 tick：上一个 tick 的耗时，以及被测实体本 tick 产生的同步数据
+     */
+    public void sample(Collection<? extends Entity> entities) {
+        if (sampleCount == tickNanos.length) {
+            return;
+        }
+        long[] times = server.tickTimes;
+        int previousTick = server.getTickCount() - 1;
+        tickNanos[sampleCount++] = times[Math.floorMod(previousTick, times.length)];
+
+        for (Entity entity : entities) {
+            List<SynchedEntityData.DataValue<?>> dirty = entity.getEntityData().packDirty();
+            if (dirty != null) {
+                buffer.clear();
+                new ClientboundSetEntityDataPacket(entity.getId(), dirty).write(buffer);
+                syncBytes += buffer.writerIndex();
+            }
+        }
+    }
+
+    // ========== 统计结果 ==========
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * 平均 tick 耗时（毫秒）
+     */
+    public double getAverageMspt() {
+        if (sampleCount == 0) {
+            return 0.0;
+        }
+        long total = 0;
+        for (int i = 0; i < sampleCount; i++) {
+            total += tickNanos[i];
+        }
+        return total / (double) sampleCount / NANOS_PER_MILLI;
+    }
+
+    /**
+     * tick 耗时的百分位数（毫秒），使用最近秩法
+     *
+     * @param percentile 百分位，范围 (0, 100]
+     */
+    public double getPercentileMspt(double percentile) {
+        if (sampleCount == 0) {
+            return 0.0;
+        }
+        long[] sorted = Arrays.copyOf(tickNanos, sampleCount);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * sampleCount);
+        return sorted[Math.max(0, Math.min(sampleCount - 1, rank - 1))] / NANOS_PER_MILLI;
+    }
+
+    /**
+     * 平均每 tick 的实体数据同步字节数
+     */
+    public double getSyncBytesPerTick() {
+        return sampleCount == 0 ? 0.0 : syncBytes / (double) sampleCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ticks=%d, avg=%.2fms, p99=%.2fms, sync=%.0fB/tick",
+            sampleCount, getAverageMspt(), getPercentileMspt(99.0), getSyncBytesPerTick());
+    }
+}
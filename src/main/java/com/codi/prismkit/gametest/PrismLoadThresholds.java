@@ -0,0 +1,94 @@
+package com.codi.prismkit.gametest;
+
+import com.codi.prismkit.PrismKit;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.Resource;
+import net.minecraft.server.packs.resources.ResourceManager;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * 负载测试的阈值（data/prismkit/gametest/load_thresholds.json）
+ * 每个测试场景一项：平均 MSPT、p99 MSPT 和每 tick 同步字节数的上限
+ */
+public class PrismLoadThresholds {
+    public static final ResourceLocation LOCATION =
+            new ResourceLocation(PrismKit.MOD_ID, "gametest/load_thresholds.json");
+
+    private final double averageMspt;
+    private final double p99Mspt;
+    private final double syncBytesPerTick;
+
+    public PrismLoadThresholds(double averageMspt, double p99Mspt, double syncBytesPerTick) {
+        this.averageMspt = averageMspt;
+        this.p99Mspt = p99Mspt;
+        this.syncBytesPerTick = syncBytesPerTick;
+    }
+
+    /**
+     * 从数据包中读取指定场景的阈值
+     *
+     * @param scenario 场景名（如 "laser_1000"）
+     * @throws IllegalArgumentException 阈值文件或场景不存在
+     */
+    public static PrismLoadThresholds load(ResourceManager resourceManager, String scenario) {
+        Optional<Resource> resource = resourceManager.getResource(LOCATION);
+        if (resource.isEmpty()) {
+            throw new IllegalArgumentException("未找到负载测试阈值文件: " + LOCATION);
+        }
+
+        try (Reader reader = new InputStreamReader(resource.get().open(), StandardCharsets.UTF_8)) {
+            JsonObject root = JsonParser.parseReader(reader).getAsJsonObject();
+            if (!root.has(scenario)) {
+                throw new IllegalArgumentException("阈值文件中缺少场景: " + scenario);
+            }
+            JsonObject json = root.getAsJsonObject(scenario);
+            return new PrismLoadThresholds(
+                json.get("avg_mspt").getAsDouble(),
+                json.get("p99_mspt").getAsDouble(),
+                json.get("sync_bytes_per_tick").getAsDouble()
+            );
+        } catch (IOException e) {
+            throw new IllegalArgumentException("读取负载测试阈值失败: " + LOCATION, e);
+        }
+    }
+
+    /**
+     * 将探针结果与阈值比较
+     *
+     * @return 超出阈值时返回描述信息，全部满足时返回 null
+     */
+    public String check(PrismLoadProbe probe) {
+        StringBuilder failures = new StringBuilder();
+        if (probe.getAverageMspt() > averageMspt) {
+            failures.append(String.format("平均 MSPT %.2fms 超过阈值 %.2fms；", probe.getAverageMspt(), averageMspt));
+        }
+        double p99 = probe.getPercentileMspt(99.0);
+        if (p99 > p99Mspt) {
+            failures.append(String.format("p99 MSPT %.2fms 超过阈值 %.2fms；", p99, p99Mspt));
+        }
+        if (probe.getSyncBytesPerTick() > syncBytesPerTick) {
+            failures.append(String.format("同步数据 %.0fB/tick 超过阈值 %.0fB/tick；",
+                probe.getSyncBytesPerTick(), syncBytesPerTick));
+        }
+        return failures.length() == 0 ? null : failures.toString();
+    }
+
+    public double getAverageMspt() {
+        return averageMspt;
+    }
+
+    public double getP99Mspt() {
+        return p99Mspt;
+    }
+
+    public double getSyncBytesPerTick() {
+        return syncBytesPerTick;
+    }
+}
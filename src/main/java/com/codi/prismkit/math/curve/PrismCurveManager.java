@@ -1,7 +1,6 @@
 package com.codi.prismkit.math.curve;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonParseException;
 import com.mojang.logging.LogUtils;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.MinecraftServer;
@@ -13,21 +12,20 @@ import org.slf4j.Logger;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.*;
 
 /**
- * PrismCurve 的全局管理器
- * 负责曲线的加载、缓存、保存和查询
+ * PrismCurve 的全局管理器（模组侧适配层）
+ * 负责把与 Minecraft 无关的 PrismCurveLibrary 接入游戏：确定存储目录、读取数据包中的曲线
  * 
  * 设计意图：
  * - 单例模式，确保全局只有一个管理器实例
- * - 内存缓存所有已加载的曲线，避免重复读取文件
- * - 支持热重载（监听文件变化自动更新）
- * - 线程安全的 API 设计
+ * - 曲线的缓存、查询、保存和自动烘焙都由 PrismCurveLibrary（prismkit-core）完成，这里只做委托
+ * - 只有数据包读取依赖 Minecraft 的 ResourceManager，因此留在模组中
+ * - 根据求值频率自动把热点曲线烘焙为查找表（见 PrismCurveTiering），对调用方透明
  * 
  * 文件存储位置：
  * - 开发环境：<workspace>/run/config/prismkit/curves/
@@ -39,20 +37,17 @@ public class PrismCurveManager {
     // 单例实例
     private static PrismCurveManager instance;
     
-    // 曲线缓存：name -> PrismCurve
-    private final Map<String, PrismCurve> curveCache;
+    // 与 Minecraft 无关的曲线库（缓存、查询、保存、自动烘焙）
+    private final PrismCurveLibrary library;
     
-    // JSON 解析器
+    // JSON 解析器（导出内置曲线使用）
     private final Gson gson;
-    
-    // 曲线文件存储目录
-    private Path curvesDirectory;
 
     /**
      * 私有构造函数（单例模式）
      */
     private PrismCurveManager() {
-        this.curveCache = new HashMap<>();
+        this.library = new PrismCurveLibrary();
         this.gson = PrismCurveCodec.createGson();
     }
 
@@ -74,11 +69,11 @@ public class PrismCurveManager {
      */
     public void initialize(Path configDir) {
         // 设置用户自定义曲线存储路径：config/prismkit/curves/
-        this.curvesDirectory = configDir.resolve("prismkit").resolve("curves");
+        Path curvesDirectory = configDir.resolve("prismkit").resolve("curves");
         
         try {
             // 如果目录不存在则创建
-            Files.createDirectories(curvesDirectory);
+            library.setCurvesDirectory(curvesDirectory);
             LOGGER.info("PrismCurve 用户目录: {}", curvesDirectory);
             
             // 先加载内置曲线（从代码创建）
@@ -183,9 +178,9 @@ public class PrismCurveManager {
         try {
             // curvesDirectory = <workspace>/run/config/prismkit/curves/
             // 往上回溯：curves -> prismkit -> config -> run -> <workspace>
-            Path runDir = curvesDirectory.getParent().getParent().getParent();
+            Path runDir = library.getCurvesDirectory().getParent().getParent().getParent();
             
-            LOGGER.info("[Debug] curvesDirectory = {}", curvesDirectory);
+            LOGGER.info("[Debug] curvesDirectory = {}", library.getCurvesDirectory());
             LOGGER.info("[Debug] runDir = {}", runDir);
             LOGGER.info("[Debug] runDir.getFileName() = {}", runDir.getFileName());
             
@@ -217,7 +212,7 @@ public class PrismCurveManager {
             
             // 导出所有内置曲线
             int exportedCount = 0;
-            for (PrismCurve curve : curveCache.values()) {
+            for (PrismCurve curve : library.getCurves()) {
                 Path filePath = dataDir.resolve(curve.getName() + ".json");
                 String json = gson.toJson(curve);
                 Files.writeString(filePath, json, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
@@ -277,9 +272,7 @@ public class PrismCurveManager {
 
                 try (InputStream stream = resource.open()) {
                     String json = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
-                    PrismCurve curve = gson.fromJson(json,PrismCurve.class);
-
-                    curveCache.put(curve.getName(), curve);
+                    library.loadCurve(json);
 
                     loadedCount++;
                 } catch (Exception e) {
@@ -304,45 +297,13 @@ public class PrismCurveManager {
      * 优先级最高，会覆盖 data 目录和内置曲线
      */
     private void loadCurvesFromConfigDirectory() {
-        if (!Files.exists(curvesDirectory)) {
-            LOGGER.info("配置目录不存在，跳过加载用户曲线: {}", curvesDirectory);
-            return;
-        }
-
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(curvesDirectory, "*.json")) {
-            int loadedCount = 0;
-            for (Path file : stream) {
-                try {
-                    loadCurveFromFile(file);
-                    loadedCount++;
-                } catch (Exception e) {
-                    LOGGER.error("加载曲线文件失败: {}", file, e);
-                }
-            }
-            if (loadedCount > 0) {
-                LOGGER.info("从配置目录加载 {} 个用户自定义曲线", loadedCount);
-            }
-            
-        } catch (IOException e) {
-            LOGGER.error("扫描配置目录失败: {}", curvesDirectory, e);
+        int loadedCount = library.loadCurvesFromDirectory();
+        if (loadedCount > 0) {
+            LOGGER.info("从配置目录加载 {} 个用户自定义曲线", loadedCount);
         }
     }
 
-    /**
-     * 从文件加载单个曲线
-     * 
-     * @param filePath 曲线的 JSON 文件路径
-     * @throws IOException 文件读取失败
-     * @throws JsonParseException JSON 解析失败
-     */
-    private void loadCurveFromFile(Path filePath) throws IOException, JsonParseException {
-        String json = Files.readString(filePath);
-        PrismCurve curve = gson.fromJson(json, PrismCurve.class);
-        
-        // 存入缓存
-        curveCache.put(curve.getName(), curve);
-        LOGGER.debug("加载曲线: {} <- {}", curve.getName(), filePath.getFileName());
-    }
+    // ========== 委托给 PrismCurveLibrary 的公共 API ==========
 
     /**
      * 核心 API：根据名称获取曲线的值
@@ -356,15 +317,18 @@ public class PrismCurveManager {
      * float opacity = PrismCurveManager.getInstance().getCurveValue("fade_in", progress);
      */
     public float getCurveValue(String curveName, float x) {
+        return library.getCurveValue(curveName, x);
+    }
 
-        PrismCurve curve = curveCache.get(curveName);
-        
-        if (curve == null) {
-            LOGGER.warn("未找到曲线 '{}', 使用线性回退 (返回输入值)", curveName);
-            return x; // 回退策略：返回原值（相当于 y=x 直线）
-        }
-        
-        return curve.getValue(x);
+    /**
+     * 获取曲线句柄：按名称解析一次，之后每帧求值不再做哈希查找
+     * 曲线重载或被覆盖后，句柄会自动解析到新的曲线
+     * 
+     * @param curveName 曲线名称
+     * @return 新的句柄（曲线暂时不存在也可以创建，求值时按 y=x 回退）
+     */
+    public PrismCurveHandle getHandle(String curveName) {
+        return library.getHandle(curveName);
     }
 
     /**
@@ -374,7 +338,7 @@ public class PrismCurveManager {
      * @return 如果曲线存在返回 true
      */
     public boolean hasCurve(String curveName) {
-        return curveCache.containsKey(curveName);
+        return library.hasCurve(curveName);
     }
 
     /**
@@ -384,7 +348,7 @@ public class PrismCurveManager {
      * @return Optional<PrismCurve>，如果不存在则为空
      */
     public Optional<PrismCurve> getCurve(String curveName) {
-        return Optional.ofNullable(curveCache.get(curveName));
+        return library.getCurve(curveName);
     }
 
     /**
@@ -395,24 +359,10 @@ public class PrismCurveManager {
      * @throws IOException 文件写入失败
      */
     public void saveCurve(PrismCurve curve) throws IOException {
-        if (curvesDirectory == null) {
+        if (library.getCurvesDirectory() == null) {
             throw new IllegalStateException("PrismCurveManager 未初始化，请先调用 initialize()");
         }
-
-        // 生成文件名：<curve_name>.json
-        String fileName = curve.getName() + ".json";
-        Path filePath = curvesDirectory.resolve(fileName);
-        
-        // 序列化为 JSON
-        String json = gson.toJson(curve);
-        
-        // 写入文件
-        Files.writeString(filePath, json, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-        
-        // 更新缓存
-        curveCache.put(curve.getName(), curve);
-        
-        LOGGER.info("保存曲线: {} -> {}", curve.getName(), filePath);
+        library.saveCurve(curve);
     }
 
     /**
@@ -421,19 +371,7 @@ public class PrismCurveManager {
      * @param curveName 要重载的曲线名称
      */
     public void reloadCurve(String curveName) {
-        Path filePath = curvesDirectory.resolve(curveName + ".json");
-        
-        if (!Files.exists(filePath)) {
-            LOGGER.warn("曲线文件不存在，无法重载: {}", filePath);
-            return;
-        }
-
-        try {
-            loadCurveFromFile(filePath);
-            LOGGER.info("重新加载曲线: {}", curveName);
-        } catch (Exception e) {
-            LOGGER.error("重载曲线失败: {}", curveName, e);
-        }
+        library.reloadCurve(curveName);
     }
 
     /**
@@ -441,7 +379,7 @@ public class PrismCurveManager {
      */
     public void reloadAll() {
         LOGGER.info("开始重新加载所有曲线...");
-        curveCache.clear();
+        library.clear();
         //loadBuiltInCurves();
         loadCurvesFromDataDirectory();
         loadCurvesFromConfigDirectory();
@@ -451,14 +389,70 @@ public class PrismCurveManager {
      * 获取已加载曲线的数量
      */
     public int getCurveCount() {
-        return curveCache.size();
+        return library.getCurveCount();
+    }
+
+    /**
+     * 获取缓存版本号
+     * 每次曲线被加载、覆盖或清空后都会变化，调用方可以据此判断派生数据是否过期
+     */
+    public int getRevision() {
+        return library.getRevision();
+    }
+
+    /**
+     * 获取底层的曲线库（与 Minecraft 无关的部分）
+     */
+    public PrismCurveLibrary getLibrary() {
+        return library;
+    }
+
+    // ========== 自动烘焙 ==========
+
+    /**
+     * 执行一次自动烘焙评估（内部按策略的评估间隔节流，可以每 tick 调用）
+     * 热点曲线被提升为查找表，变冷的曲线被降级并释放内存
+     */
+    public void updateTiering() {
+        library.updateTiering();
+    }
+
+    /**
+     * 设置自动烘焙策略（如调整内存预算），下一次评估时生效
+     * 
+     * @param policy 新策略，使用 CurveTieringPolicy.DISABLED 可关闭自动烘焙
+     */
+    public void setTieringPolicy(CurveTieringPolicy policy) {
+        library.setTieringPolicy(policy);
+    }
+
+    /**
+     * 设置派生数据缓存的内存上限（字节），自动烘焙的预算随之调整
+     * 通常由 PrismKitConfig 在配置加载时调用
+     */
+    public void setBakedCacheCapacity(long bytes) {
+        library.setBakedCacheCapacity(bytes);
+    }
+
+    /**
+     * 获取曲线派生数据缓存（烘焙表、细分折线等）
+     */
+    public BakedCurveCache getBakedCache() {
+        return library.getBakedCache();
+    }
+
+    /**
+     * 获取分层执行器（用于查询频率、内存占用等调试信息）
+     */
+    public PrismCurveTiering getTiering() {
+        return library.getTiering();
     }
 
     /**
      * 清空所有缓存（通常在 Mod 卸载时调用）
      */
     public void clear() {
-        curveCache.clear();
+        library.clear();
         LOGGER.info("PrismCurve 缓存已清空");
     }
 
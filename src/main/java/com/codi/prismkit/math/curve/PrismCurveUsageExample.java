@@ -103,6 +103,26 @@ public class PrismCurveUsageExample {
 
      */
 
+    /**
+     * 示例 6：曲线带 - 每个粒子各不相同的大小
+     * 
+     * 场景：一团烟雾粒子整体先变大后变小，但每个粒子的大小略有差异
+     */
+    public static void exampleCurveBand(int particleId, float normalizedAge) {
+        PrismCurve small = PrismCurveManager.getInstance().getCurve("smoke_size_min")
+                .orElseGet(() -> PrismCurve.constant("smoke_size_min", 0.5f));
+        PrismCurve large = PrismCurveManager.getInstance().getCurve("smoke_size_max")
+                .orElseGet(() -> PrismCurve.constant("smoke_size_max", 1.0f));
+        
+        // 曲线带应在初始化时创建一次，这里为了演示放在方法内
+        PrismCurveBand sizeBand = new PrismCurveBand("smoke_size", small, large);
+        
+        // 随机因子由粒子 id 哈希得到：粒子不需要保存 Random 或额外字段
+        float size = sizeBand.getValue(normalizedAge, particleId);
+        
+        // setQuadSize(size);
+    }
+
     /**
      * 最佳实践总结
      * 
@@ -0,0 +1,32 @@
+package com.codi.prismkit.network;
+
+import com.codi.prismkit.PrismKit;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraftforge.network.NetworkDirection;
+import net.minecraftforge.network.NetworkRegistry;
+import net.minecraftforge.network.simple.SimpleChannel;
+
+/**
+ * PrismKit 网络通道
+ * 协议版本变化时修改 PROTOCOL_VERSION，版本不一致的客户端无法连接
+ */
+public class PKNetwork {
+    private static final String PROTOCOL_VERSION = "1";
+
+    public static final SimpleChannel CHANNEL = NetworkRegistry.newSimpleChannel(
+            new ResourceLocation(PrismKit.MOD_ID, "main"),
+            () -> PROTOCOL_VERSION,
+            PROTOCOL_VERSION::equals,
+            PROTOCOL_VERSION::equals
+    );
+
+    private static int nextId = 0;
+
+    public static void register() {
+        CHANNEL.messageBuilder(PlayEffectPacket.class, nextId++, NetworkDirection.PLAY_TO_CLIENT)
+                .encoder(PlayEffectPacket::encode)
+                .decoder(PlayEffectPacket::decode)
+                .consumerMainThread(PlayEffectPacket::handle)
+                .add();
+    }
+}
@@ -0,0 +1,79 @@
+package com.codi.prismkit.network;
+
+import com.codi.prismkit.client.vfx.ClientEffectManager;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.fml.DistExecutor;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.function.Supplier;
+
+/**
+ * “播放特效”数据包（服务端 -> 客户端）
+ * 纯视觉特效的全部网络开销：特效编号、位置、随机种子和开始时间，之后不再同步
+ *
+ * 技术细节：
+ * - 编号和开始时间用变长编码，位置用 double（与实体生成包的精度一致），合计约 40 字节
+ * - 开始时间使用服务端游戏时间，客户端据此推算年龄，晚到的数据包不会让特效从头播放
+ */
+public class PlayEffectPacket {
+    private final int effectId;
+    private final double x;
+    private final double y;
+    private final double z;
+    private final long seed;
+    private final long startTick;
+
+    public PlayEffectPacket(int effectId, double x, double y, double z, long seed, long startTick) {
+        this.effectId = effectId;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.seed = seed;
+        this.startTick = startTick;
+    }
+
+    public void encode(FriendlyByteBuf buf) {
+        buf.writeVarInt(effectId);
+        buf.writeDouble(x);
+        buf.writeDouble(y);
+        buf.writeDouble(z);
+        buf.writeLong(seed);
+        buf.writeVarLong(startTick);
+    }
+
+    public static PlayEffectPacket decode(FriendlyByteBuf buf) {
+        return new PlayEffectPacket(buf.readVarInt(), buf.readDouble(), buf.readDouble(), buf.readDouble(),
+                buf.readLong(), buf.readVarLong());
+    }
+
+    public void handle(Supplier<NetworkEvent.Context> context) {
+        // 只在客户端处理；服务端不会加载 ClientEffectManager
+        DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> ClientEffectManager.getInstance().play(this));
+        context.get().setPacketHandled(true);
+    }
+
+    public int getEffectId() {
+        return effectId;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getZ() {
+        return z;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getStartTick() {
+        return startTick;
+    }
+}
@@ -20,7 +20,8 @@ public class PKEntityRegister {
             )
             .sized(1.0f, 1.0f)
             .clientTrackingRange(64)
-            .updateInterval(1)
+            // 激光不会移动，生命周期由客户端自行推算：与画和物品展示框一样不做周期同步，只在数据变化时发送
+            .updateInterval(Integer.MAX_VALUE)
             .build("laser"));
 
     public static void register(IEventBus eventBus) {
@@ -0,0 +1,45 @@
+package com.codi.prismkit.vfx;
+
+/**
+ * 纯视觉特效类型
+ * 服务端只通过编号告诉客户端播放哪种特效，具体外观由客户端注册的渲染器决定
+ *
+ * 设计意图：
+ * - 类型只保存两端都需要知道的信息（名称、编号、持续时间），不引用任何客户端类，服务端可以安全加载
+ * - 编号按注册顺序分配，数据包中只写一个 varint
+ */
+public final class PrismEffectType {
+
+    private final int id;
+    private final String name;
+    private final int duration;
+
+    PrismEffectType(int id, String name, int duration) {
+        this.id = id;
+        this.name = name;
+        this.duration = duration;
+    }
+
+    /**
+     * 网络编号（注册顺序）
+     */
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 持续时间（tick）
+     */
+    public int getDuration() {
+        return duration;
+    }
+
+    @Override
+    public String toString() {
+        return "PrismEffectType{" + name + "#" + id + ", duration=" + duration + "}";
+    }
+}
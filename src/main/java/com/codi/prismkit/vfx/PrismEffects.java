@@ -0,0 +1,110 @@
+package com.codi.prismkit.vfx;
+
+import com.codi.prismkit.network.PKNetwork;
+import com.codi.prismkit.network.PlayEffectPacket;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraftforge.network.PacketDistributor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 纯视觉特效的注册表和播放入口
+ *
+ * 设计意图：
+ * - 纯视觉特效不需要成为实体：服务端只发送一个“播放特效”数据包，之后不再有任何开销
+ * - 客户端收到数据包后把特效放进 ClientEffectManager 的实例池，在实体系统之外更新和渲染
+ *
+ * 技术细节：
+ * - 编号按注册顺序分配，服务端和客户端运行相同的代码，因此编号一致；
+ *   其他模组应在模组构造或公共设置阶段注册，不要在运行时动态注册
+ * - 数据包只发给正在追踪特效所在区块的玩家，与实体的追踪范围规则一致
+ */
+public final class PrismEffects {
+
+    private static final List<PrismEffectType> BY_ID = new ArrayList<>();
+    private static final Map<String, PrismEffectType> BY_NAME = new HashMap<>();
+
+    // ========== 内置特效 ==========
+
+    /**
+     * 竖直激光（外观与 LaserEntity 相同，但不占用实体）
+     */
+    public static final PrismEffectType LASER = register("laser", 40);
+
+    /**
+     * 沿弧形路径扫动的激光（朝向由随机种子决定）
+     */
+    public static final PrismEffectType LASER_SWEEP = register("laser_sweep", 60);
+
+    /**
+     * 从高处劈下的闪电（形状由随机种子决定，每隔几个 tick 重新抖动）
+     */
+    public static final PrismEffectType LIGHTNING = register("lightning", 12);
+
+    private PrismEffects() {
+    }
+
+    /**
+     * 注册一种特效类型
+     *
+     * @param name 名称（全局唯一）
+     * @param duration 持续时间（tick）
+     * @return 特效类型
+     * @throws IllegalArgumentException 名称重复或持续时间不是正数
+     */
+    public static synchronized PrismEffectType register(String name, int duration) {
+        if (duration <= 0) {
+            throw new IllegalArgumentException("特效持续时间必须为正数：" + name + " = " + duration);
+        }
+        if (BY_NAME.containsKey(name)) {
+            throw new IllegalArgumentException("特效名称重复：" + name);
+        }
+        PrismEffectType type = new PrismEffectType(BY_ID.size(), name, duration);
+        BY_ID.add(type);
+        BY_NAME.put(name, type);
+        return type;
+    }
+
+    /**
+     * 按网络编号查找特效类型
+     *
+     * @return 特效类型；编号未知时返回 null（如客户端与服务端的模组版本不一致）
+     */
+    public static PrismEffectType byId(int id) {
+        return id >= 0 && id < BY_ID.size() ? BY_ID.get(id) : null;
+    }
+
+    /**
+     * 按名称查找特效类型
+     */
+    public static Optional<PrismEffectType> byName(String name) {
+        return Optional.ofNullable(BY_NAME.get(name));
+    }
+
+    /**
+     * 在指定位置播放特效，发送给所有追踪该区块的玩家
+     * 区块未加载时没有玩家在追踪它，直接忽略（不会为了发包而加载区块）
+     *
+     * @param level 服务端世界
+     * @param type 特效类型
+     * @param x 位置 x
+     * @param y 位置 y
+     * @param z 位置 z
+     * @param seed 随机种子（客户端据此生成一致的随机外观）
+     */
+    public static void play(ServerLevel level, PrismEffectType type, double x, double y, double z, long seed) {
+        LevelChunk chunk = level.getChunkSource().getChunkNow(
+                SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(z));
+        if (chunk == null) {
+            return;
+        }
+        PlayEffectPacket packet = new PlayEffectPacket(type.getId(), x, y, z, seed, level.getGameTime());
+        PKNetwork.CHANNEL.send(PacketDistributor.TRACKING_CHUNK.with(() -> chunk), packet);
+    }
+}